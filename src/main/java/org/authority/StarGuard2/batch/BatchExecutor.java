@@ -0,0 +1,157 @@
+package org.authority.StarGuard2.batch;
+
+import org.authority.StarGuard2.dto.BatchItemResultDTO;
+import org.authority.StarGuard2.dto.ExecutionPlanDTO;
+import org.authority.StarGuard2.dto.PlannedStatementDTO;
+import org.authority.StarGuard2.exception.PermissionException;
+import org.authority.StarGuard2.model.UserIdentity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+/**
+ * 批量授权/撤销的执行器
+ * 任务按所属用户分为若干通道：同一通道内的任务在同一线程中按下标顺序依次执行，保证对同一用户的操作顺序与请求一致；
+ * 不同通道在 batchExecutor 线程池中并行执行，并行度即线程池的线程数。单个任务失败不影响其他任务，
+ * 任务返回的执行计划中有语句失败时，任务也视为失败
+ * GRANT/REVOKE 是DDL语句，无法通过事务回滚，因此执行器不做整体回滚，而是报告每个任务的结果
+ *
+ * @author System
+ * @version 1.0
+ */
+@Component
+public class BatchExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(BatchExecutor.class);
+
+    private final ExecutorService executor;
+
+    /**
+     * 构造函数
+     *
+     * @param executor 执行批量任务的线程池
+     */
+    @Autowired
+    public BatchExecutor(@Qualifier("batchExecutor") ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 执行批量任务并等待全部完成
+     *
+     * @param tasks 任务列表
+     * @param laneListener 某个用户的全部任务执行完毕后在工作线程中调用，参数为用户标识和该用户的任务是否全部成功，可以为null
+     * @return 每个任务的结果，顺序与tasks一致
+     * @throws PermissionException 等待过程中线程被中断时抛出，尚未开始的任务不再执行
+     */
+    public List<BatchItemResultDTO> execute(List<BatchTask> tasks, BiConsumer<UserIdentity, Boolean> laneListener) {
+        if (tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // 按用户分组，没有用户标识的任务各自成为一个通道
+        Map<Object, List<Integer>> lanes = new LinkedHashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            UserIdentity identity = tasks.get(i).getIdentity();
+            Object key = identity != null ? identity : Integer.valueOf(-1 - i);
+            lanes.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+
+        BatchItemResultDTO[] results = new BatchItemResultDTO[tasks.size()];
+        List<Future<?>> futures = new ArrayList<>(lanes.size());
+        for (List<Integer> lane : lanes.values()) {
+            futures.add(executor.submit(() -> runLane(tasks, lane, results, laneListener)));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new PermissionException("批量操作被中断", e);
+        } catch (ExecutionException e) {
+            // runLane自行处理了任务异常，这里只可能是执行器本身的错误
+            futures.forEach(future -> future.cancel(true));
+            throw new PermissionException("批量操作执行失败: " + e.getCause().getMessage(), e.getCause());
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 在当前线程中依次执行一个通道的任务
+     */
+    private void runLane(List<BatchTask> tasks, List<Integer> lane, BatchItemResultDTO[] results,
+                         BiConsumer<UserIdentity, Boolean> laneListener) {
+        boolean allSucceeded = true;
+        for (int position : lane) {
+            BatchItemResultDTO result = runTask(tasks.get(position));
+            results[position] = result;
+            allSucceeded &= result.isSuccess();
+        }
+        UserIdentity identity = tasks.get(lane.get(0)).getIdentity();
+        if (laneListener != null && identity != null) {
+            try {
+                laneListener.accept(identity, allSucceeded);
+            } catch (Exception e) {
+                logger.warn("批量操作通道完成回调失败: {}", identity, e);
+            }
+        }
+    }
+
+    /**
+     * 执行单个任务并记录结果和耗时
+     */
+    private BatchItemResultDTO runTask(BatchTask task) {
+        BatchItemResultDTO result = new BatchItemResultDTO();
+        result.setIndex(task.getIndex());
+        if (task.getIdentity() != null) {
+            result.setUsername(task.getIdentity().getUsername());
+            result.setHost(task.getIdentity().getHost());
+        }
+        long start = System.nanoTime();
+        try {
+            ExecutionPlanDTO plan = task.getAction().get();
+            result.setPlan(plan);
+            String error = plan != null ? firstError(plan) : null;
+            result.setSuccess(error == null);
+            result.setError(error);
+        } catch (Exception e) {
+            logger.warn("批量操作第{}项失败: {}", task.getIndex(), e.getMessage());
+            result.setSuccess(false);
+            result.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+        result.setLatencyMs((System.nanoTime() - start) / 1_000_000L);
+        return result;
+    }
+
+    /**
+     * 获取执行计划中第一条失败语句的错误描述
+     *
+     * @param plan 执行计划
+     * @return 错误描述，没有失败的语句时返回null
+     */
+    public static String firstError(ExecutionPlanDTO plan) {
+        if (plan.getStatements() == null) {
+            return null;
+        }
+        for (PlannedStatementDTO statement : plan.getStatements()) {
+            if (!statement.isExecuted()) {
+                return plan.getFailedCount() + "/" + plan.getStatementCount() + "条语句执行失败，语句: "
+                        + statement.getSql() + "，原因: " + statement.getError();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,313 @@
+package org.authority.StarGuard2.batch;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.authority.StarGuard2.dto.BatchItemResultDTO;
+import org.authority.StarGuard2.dto.GrantPermissionRequestDTO;
+import org.authority.StarGuard2.dto.RevokePermissionRequestDTO;
+
+import java.util.List;
+
+/**
+ * 异步批量任务的状态，同时也是任务日志中请求文件和状态文件的内容（各自只包含部分字段）
+ * 任务状态只由执行任务的线程修改（取消标记除外），修改和读取都在任务对象上同步
+ *
+ * @author System
+ * @version 1.0
+ */
+public class BatchJob {
+
+    /**
+     * 批量操作类型
+     */
+    public enum Operation {
+        /** 批量授权 */
+        GRANT,
+        /** 批量撤销 */
+        REVOKE
+    }
+
+    /**
+     * 任务状态
+     */
+    public enum Status {
+        /** 等待执行 */
+        PENDING,
+        /** 正在执行 */
+        RUNNING,
+        /** 全部请求已执行完毕（其中可能有失败的请求） */
+        COMPLETED,
+        /** 已取消，未执行的请求不再执行 */
+        CANCELLED,
+        /** 执行过程中发生意外错误而中止 */
+        FAILED
+    }
+
+    private String id;
+    private Operation operation;
+    private volatile Status status;
+    private long submittedAt;
+    private long startedAt;
+    private long finishedAt;
+    private int checkpoint;
+    private volatile boolean cancelRequested;
+    private int resumeCount;
+    private String error;
+    private List<GrantPermissionRequestDTO> grantRequests;
+    private List<RevokePermissionRequestDTO> revokeRequests;
+    private List<BatchItemResultDTO> results;
+
+    /**
+     * 获取任务ID
+     *
+     * @return 任务ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 设置任务ID
+     *
+     * @param id 任务ID
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * 获取批量操作类型
+     *
+     * @return 操作类型
+     */
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * 设置批量操作类型
+     *
+     * @param operation 操作类型
+     */
+    public void setOperation(Operation operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * 获取任务状态
+     *
+     * @return 任务状态
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * 设置任务状态
+     *
+     * @param status 任务状态
+     */
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * 获取提交时间（毫秒时间戳）
+     *
+     * @return 提交时间
+     */
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * 设置提交时间（毫秒时间戳）
+     *
+     * @param submittedAt 提交时间
+     */
+    public void setSubmittedAt(long submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    /**
+     * 获取开始执行时间（毫秒时间戳），尚未开始时为0
+     *
+     * @return 开始时间
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * 设置开始执行时间（毫秒时间戳），尚未开始时为0
+     *
+     * @param startedAt 开始时间
+     */
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * 获取结束时间（毫秒时间戳），尚未结束时为0
+     *
+     * @return 结束时间
+     */
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * 设置结束时间（毫秒时间戳），尚未结束时为0
+     *
+     * @param finishedAt 结束时间
+     */
+    public void setFinishedAt(long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * 获取检查点，即已执行并写入日志的请求数，恢复时从该位置继续
+     *
+     * @return 检查点
+     */
+    public int getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * 设置检查点，即已执行并写入日志的请求数，恢复时从该位置继续
+     *
+     * @param checkpoint 检查点
+     */
+    public void setCheckpoint(int checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * 获取是否已请求取消
+     *
+     * @return true表示已请求取消
+     */
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    /**
+     * 设置是否已请求取消
+     *
+     * @param cancelRequested true表示已请求取消
+     */
+    public void setCancelRequested(boolean cancelRequested) {
+        this.cancelRequested = cancelRequested;
+    }
+
+    /**
+     * 获取因服务重启而恢复执行的次数
+     *
+     * @return 恢复次数
+     */
+    public int getResumeCount() {
+        return resumeCount;
+    }
+
+    /**
+     * 设置因服务重启而恢复执行的次数
+     *
+     * @param resumeCount 恢复次数
+     */
+    public void setResumeCount(int resumeCount) {
+        this.resumeCount = resumeCount;
+    }
+
+    /**
+     * 获取任务中止的原因
+     *
+     * @return 错误信息，未中止时为null
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * 设置任务中止的原因
+     *
+     * @param error 错误信息，未中止时为null
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * 获取授权请求列表，仅授权任务使用
+     *
+     * @return 授权请求列表
+     */
+    public List<GrantPermissionRequestDTO> getGrantRequests() {
+        return grantRequests;
+    }
+
+    /**
+     * 设置授权请求列表，仅授权任务使用
+     *
+     * @param grantRequests 授权请求列表
+     */
+    public void setGrantRequests(List<GrantPermissionRequestDTO> grantRequests) {
+        this.grantRequests = grantRequests;
+    }
+
+    /**
+     * 获取撤销权限请求列表，仅撤销任务使用
+     *
+     * @return 撤销权限请求列表
+     */
+    public List<RevokePermissionRequestDTO> getRevokeRequests() {
+        return revokeRequests;
+    }
+
+    /**
+     * 设置撤销权限请求列表，仅撤销任务使用
+     *
+     * @param revokeRequests 撤销权限请求列表
+     */
+    public void setRevokeRequests(List<RevokePermissionRequestDTO> revokeRequests) {
+        this.revokeRequests = revokeRequests;
+    }
+
+    /**
+     * 获取已执行请求的结果，顺序与请求一致
+     *
+     * @return 执行结果列表
+     */
+    public List<BatchItemResultDTO> getResults() {
+        return results;
+    }
+
+    /**
+     * 设置已执行请求的结果，顺序与请求一致
+     *
+     * @param results 执行结果列表
+     */
+    public void setResults(List<BatchItemResultDTO> results) {
+        this.results = results;
+    }
+
+    /**
+     * 获取请求总数
+     *
+     * @return 请求总数
+     */
+    @JsonIgnore
+    public int getTotal() {
+        List<?> requests = operation == Operation.GRANT ? grantRequests : revokeRequests;
+        return requests != null ? requests.size() : 0;
+    }
+
+    /**
+     * 检查任务是否已结束
+     *
+     * @return true如果任务已完成、已取消或已失败
+     */
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.CANCELLED || status == Status.FAILED;
+    }
+}
@@ -0,0 +1,559 @@
+package org.authority.StarGuard2.batch;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.authority.StarGuard2.dto.BatchItemResultDTO;
+import org.authority.StarGuard2.dto.BatchJobDTO;
+import org.authority.StarGuard2.exception.PermissionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步批量任务管理器
+ * 提交的任务在 batchJobExecutor 线程池中按分块执行，每块执行完毕后把结果和检查点写入本地任务日志；
+ * 服务重启后从日志恢复未结束的任务，从最后一个检查点继续执行。重启前正在执行的那一块会重新执行，
+ * 其中已经生效的 GRANT/REVOKE 语句会再执行一次
+ * 每个任务的日志由三个文件组成，每个检查点的写入量只与块大小有关，与任务规模无关：
+ * 请求文件（提交时写入一次，之后不再修改）、状态文件（状态和检查点，整体原子替换）、
+ * 结果文件（每块执行完毕后追加一行该块的结果，再更新状态文件中的检查点）
+ * 取消在块之间生效：正在执行的块执行完毕后不再执行剩余请求
+ *
+ * @author System
+ * @version 1.0
+ */
+@Component
+public class BatchJobManager {
+    private static final Logger logger = LoggerFactory.getLogger(BatchJobManager.class);
+
+    private static final String JOB_SUFFIX = ".job.json";
+    private static final String STATE_SUFFIX = ".state.json";
+    private static final String RESULTS_SUFFIX = ".results.ndjson";
+    private static final TypeReference<List<BatchItemResultDTO>> RESULT_LIST = new TypeReference<List<BatchItemResultDTO>>() {
+    };
+
+    /**
+     * 执行任务中的一块请求
+     */
+    public interface ChunkRunner {
+        /**
+         * 执行任务中下标在[from, to)范围内的请求
+         *
+         * @param job 任务
+         * @param from 起始下标（包含）
+         * @param to 结束下标（不包含）
+         * @return 每个请求的结果，顺序与请求一致
+         */
+        List<BatchItemResultDTO> run(BatchJob job, int from, int to);
+    }
+
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper;
+    private final Path journalDir;
+    private final int chunkSize;
+    private final long retentionMillis;
+
+    private final Map<String, BatchJob> jobs = new ConcurrentHashMap<>();
+    // 正在执行的任务本次运行的起点，用于估算剩余时间
+    private final Map<String, RunStats> runs = new ConcurrentHashMap<>();
+
+    private volatile boolean stopping;
+
+    /**
+     * 构造函数
+     *
+     * @param executor 执行批量任务的线程池
+     * @param objectMapper JSON序列化工具
+     * @param journalDir 任务日志目录
+     * @param chunkSize 每块的请求数，即检查点间隔
+     * @param retentionHours 已结束的任务保留的小时数
+     */
+    @Autowired
+    public BatchJobManager(@Qualifier("batchJobExecutor") ExecutorService executor, ObjectMapper objectMapper,
+                           @Value("${starguard.jobs.journal-dir:data/jobs}") String journalDir,
+                           @Value("${starguard.jobs.chunk-size:100}") int chunkSize,
+                           @Value("${starguard.jobs.retention-hours:24}") int retentionHours) {
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+        this.journalDir = Paths.get(journalDir);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.retentionMillis = TimeUnit.HOURS.toMillis(Math.max(1, retentionHours));
+    }
+
+    /**
+     * 提交任务，立即返回
+     *
+     * @param job 任务，只需设置操作类型和请求列表
+     * @param runner 执行请求的回调
+     * @return 任务进度
+     * @throws PermissionException 请求列表为空或任务日志写入失败时抛出
+     */
+    public BatchJobDTO submit(BatchJob job, ChunkRunner runner) {
+        if (job.getTotal() == 0) {
+            throw new PermissionException(400, "批量请求不能为空");
+        }
+        job.setId(UUID.randomUUID().toString());
+        job.setStatus(BatchJob.Status.PENDING);
+        job.setSubmittedAt(System.currentTimeMillis());
+        job.setResults(new ArrayList<>(job.getTotal()));
+        try {
+            writeJobFile(job);
+            writeState(job);
+        } catch (IOException e) {
+            throw new PermissionException("写入任务日志失败: " + e.getMessage(), e);
+        }
+        jobs.put(job.getId(), job);
+        executor.submit(() -> run(job, runner));
+        logger.info("提交批量任务: id={}, operation={}, 请求数={}", job.getId(), job.getOperation(), job.getTotal());
+        return toDTO(job, null);
+    }
+
+    /**
+     * 获取任务进度
+     *
+     * @param id 任务ID
+     * @param itemsFrom 返回从该下标开始的请求结果，为null时不返回结果
+     * @return 任务进度
+     * @throws PermissionException 任务不存在时抛出
+     */
+    public BatchJobDTO getJob(String id, Integer itemsFrom) {
+        return toDTO(requireJob(id), itemsFrom);
+    }
+
+    /**
+     * 获取所有任务的进度（不含请求结果），按提交时间倒序
+     *
+     * @return 任务进度列表
+     */
+    public List<BatchJobDTO> listJobs() {
+        List<BatchJob> sorted = new ArrayList<>(jobs.values());
+        sorted.sort(Comparator.comparingLong(BatchJob::getSubmittedAt).reversed());
+        List<BatchJobDTO> result = new ArrayList<>(sorted.size());
+        for (BatchJob job : sorted) {
+            result.add(toDTO(job, null));
+        }
+        return result;
+    }
+
+    /**
+     * 取消任务：尚未开始的任务立即取消，正在执行的任务在当前块执行完毕后停止，已结束的任务不受影响
+     *
+     * @param id 任务ID
+     * @return 任务进度
+     * @throws PermissionException 任务不存在时抛出
+     */
+    public BatchJobDTO cancel(String id) {
+        BatchJob job = requireJob(id);
+        synchronized (job) {
+            if (!job.isFinished()) {
+                job.setCancelRequested(true);
+                if (job.getStatus() == BatchJob.Status.PENDING) {
+                    job.setStatus(BatchJob.Status.CANCELLED);
+                    job.setFinishedAt(System.currentTimeMillis());
+                }
+                writeStateQuietly(job);
+                logger.info("请求取消批量任务: id={}", id);
+            }
+        }
+        return toDTO(job, null);
+    }
+
+    /**
+     * 从任务日志目录加载任务，未结束的任务从最后一个检查点继续执行
+     * 应在应用启动完成后调用一次
+     *
+     * @param runner 执行请求的回调
+     */
+    public void resume(ChunkRunner runner) {
+        if (!Files.isDirectory(journalDir)) {
+            return;
+        }
+        int resumed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(journalDir, "*" + JOB_SUFFIX)) {
+            for (Path file : files) {
+                BatchJob job;
+                try {
+                    job = readJournal(file);
+                } catch (IOException e) {
+                    logger.warn("读取任务日志失败，已跳过: {}", file, e);
+                    continue;
+                }
+                if (job.getId() == null || jobs.containsKey(job.getId())) {
+                    continue;
+                }
+                jobs.put(job.getId(), job);
+                if (!job.isFinished()) {
+                    job.setStatus(BatchJob.Status.PENDING);
+                    job.setResumeCount(job.getResumeCount() + 1);
+                    executor.submit(() -> run(job, runner));
+                    resumed++;
+                    logger.info("恢复批量任务: id={}, 检查点={}/{}", job.getId(), job.getCheckpoint(), job.getTotal());
+                }
+            }
+        } catch (IOException e) {
+            logger.error("读取任务日志目录失败: {}", journalDir, e);
+        }
+        logger.info("已加载{}个批量任务，其中{}个恢复执行", jobs.size(), resumed);
+    }
+
+    /**
+     * 定时清理超过保留时间的已结束任务及其日志文件
+     */
+    @Scheduled(initialDelay = 3600000L, fixedDelay = 3600000L)
+    public void purgeFinishedJobs() {
+        long threshold = System.currentTimeMillis() - retentionMillis;
+        for (BatchJob job : jobs.values()) {
+            if (job.isFinished() && job.getFinishedAt() < threshold) {
+                jobs.remove(job.getId());
+                try {
+                    Files.deleteIfExists(jobFile(job.getId()));
+                    Files.deleteIfExists(stateFile(job.getId()));
+                    Files.deleteIfExists(resultsFile(job.getId()));
+                } catch (IOException e) {
+                    logger.warn("删除任务日志失败: id={}", job.getId(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 应用关闭时停止调度新的块，正在执行的任务保持未结束状态，重启后从检查点恢复
+     */
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+
+    /**
+     * 在任务线程中逐块执行任务
+     */
+    private void run(BatchJob job, ChunkRunner runner) {
+        synchronized (job) {
+            if (job.isFinished()) {
+                return;
+            }
+            if (job.isCancelRequested()) {
+                finish(job, BatchJob.Status.CANCELLED, null);
+                return;
+            }
+            job.setStatus(BatchJob.Status.RUNNING);
+            if (job.getStartedAt() == 0) {
+                job.setStartedAt(System.currentTimeMillis());
+            }
+            writeStateQuietly(job);
+            runs.put(job.getId(), new RunStats(System.currentTimeMillis(), job.getCheckpoint()));
+        }
+        int total = job.getTotal();
+        try {
+            while (!stopping) {
+                int from;
+                synchronized (job) {
+                    from = job.getCheckpoint();
+                    if (from >= total) {
+                        finish(job, BatchJob.Status.COMPLETED, null);
+                        break;
+                    }
+                    if (job.isCancelRequested()) {
+                        finish(job, BatchJob.Status.CANCELLED, null);
+                        break;
+                    }
+                }
+                int to = Math.min(total, from + chunkSize);
+                List<BatchItemResultDTO> results = runner.run(job, from, to);
+                synchronized (job) {
+                    job.getResults().addAll(results);
+                    // 先追加结果再更新检查点，检查点不会超过日志中已有的结果
+                    appendResultsQuietly(job, from, results);
+                    job.setCheckpoint(to);
+                    writeStateQuietly(job);
+                }
+                logger.info("批量任务进度: id={}, {}/{}", job.getId(), to, total);
+            }
+        } catch (Exception e) {
+            if (stopping) {
+                logger.info("应用关闭，批量任务将在重启后恢复: id={}", job.getId());
+            } else {
+                logger.error("批量任务执行失败: id={}", job.getId(), e);
+                synchronized (job) {
+                    finish(job, BatchJob.Status.FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+                }
+            }
+        } finally {
+            runs.remove(job.getId());
+        }
+    }
+
+    /**
+     * 结束任务并写入日志，调用方需持有任务对象的锁
+     */
+    private void finish(BatchJob job, BatchJob.Status status, String error) {
+        job.setStatus(status);
+        job.setError(error);
+        job.setFinishedAt(System.currentTimeMillis());
+        writeStateQuietly(job);
+        logger.info("批量任务结束: id={}, status={}, 已执行{}/{}", job.getId(), status, job.getCheckpoint(), job.getTotal());
+    }
+
+    private BatchJob requireJob(String id) {
+        BatchJob job = id != null ? jobs.get(id) : null;
+        if (job == null) {
+            throw new PermissionException(404, "任务不存在: " + id);
+        }
+        return job;
+    }
+
+    /**
+     * 生成任务进度DTO
+     *
+     * @param job 任务
+     * @param itemsFrom 返回从该下标开始的请求结果，为null时不返回结果
+     * @return 任务进度
+     */
+    private BatchJobDTO toDTO(BatchJob job, Integer itemsFrom) {
+        synchronized (job) {
+            BatchJobDTO dto = new BatchJobDTO();
+            dto.setId(job.getId());
+            dto.setOperation(job.getOperation().name());
+            dto.setStatus(job.getStatus().name());
+            dto.setTotal(job.getTotal());
+            dto.setCompleted(job.getCheckpoint());
+            int succeeded = 0;
+            for (BatchItemResultDTO item : job.getResults()) {
+                if (item.isSuccess()) {
+                    succeeded++;
+                }
+            }
+            dto.setSucceeded(succeeded);
+            dto.setFailed(job.getResults().size() - succeeded);
+            dto.setSubmittedAt(job.getSubmittedAt());
+            dto.setStartedAt(job.getStartedAt());
+            dto.setFinishedAt(job.getFinishedAt());
+            dto.setEtaMs(estimateRemainingMs(job));
+            dto.setCancelRequested(job.isCancelRequested());
+            dto.setResumeCount(job.getResumeCount());
+            dto.setError(job.getError());
+            if (itemsFrom != null) {
+                int from = Math.max(0, Math.min(itemsFrom, job.getResults().size()));
+                dto.setItemsFrom(from);
+                dto.setItems(new ArrayList<>(job.getResults().subList(from, job.getResults().size())));
+            }
+            return dto;
+        }
+    }
+
+    /**
+     * 按本次运行已执行请求的平均耗时估算剩余时间
+     */
+    private Long estimateRemainingMs(BatchJob job) {
+        RunStats run = runs.get(job.getId());
+        if (run == null || job.isFinished()) {
+            return null;
+        }
+        int done = job.getCheckpoint() - run.startCheckpoint;
+        if (done <= 0) {
+            return null;
+        }
+        long elapsed = System.currentTimeMillis() - run.startedAt;
+        return elapsed * (job.getTotal() - job.getCheckpoint()) / done;
+    }
+
+    /**
+     * 写入状态文件，失败时只记录日志，调用方需持有任务对象的锁
+     */
+    private void writeStateQuietly(BatchJob job) {
+        try {
+            writeState(job);
+        } catch (IOException e) {
+            logger.error("写入任务日志失败，服务重启后该任务可能无法从最新的检查点恢复: id={}", job.getId(), e);
+        }
+    }
+
+    /**
+     * 追加一块的执行结果，失败时只记录日志，调用方需持有任务对象的锁
+     * 结果未写入时恢复会退回到日志中已有结果的位置，该块会重新执行
+     */
+    private void appendResultsQuietly(BatchJob job, int from, List<BatchItemResultDTO> results) {
+        try {
+            ObjectNode line = objectMapper.createObjectNode();
+            line.put("from", from);
+            line.set("items", objectMapper.valueToTree(results));
+            byte[] bytes = (objectMapper.writeValueAsString(line) + "\n").getBytes(StandardCharsets.UTF_8);
+            Files.createDirectories(journalDir);
+            Files.write(resultsFile(job.getId()), bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND,
+                    StandardOpenOption.DSYNC);
+        } catch (IOException e) {
+            logger.error("写入任务结果失败，服务重启后该块会重新执行: id={}, from={}", job.getId(), from, e);
+        }
+    }
+
+    /**
+     * 写入请求文件，只在提交时调用一次
+     */
+    private void writeJobFile(BatchJob job) throws IOException {
+        BatchJob requests = new BatchJob();
+        requests.setId(job.getId());
+        requests.setOperation(job.getOperation());
+        requests.setSubmittedAt(job.getSubmittedAt());
+        requests.setGrantRequests(job.getGrantRequests());
+        requests.setRevokeRequests(job.getRevokeRequests());
+        replaceAtomically(jobFile(job.getId()), requests);
+    }
+
+    /**
+     * 写入状态文件，只包含状态、时间和检查点，不含请求和结果
+     */
+    private void writeState(BatchJob job) throws IOException {
+        BatchJob state = new BatchJob();
+        state.setId(job.getId());
+        state.setOperation(job.getOperation());
+        state.setSubmittedAt(job.getSubmittedAt());
+        copyState(job, state);
+        replaceAtomically(stateFile(job.getId()), state);
+    }
+
+    /**
+     * 先写入临时文件再原子替换，避免重启时读到写了一半的文件
+     */
+    private void replaceAtomically(Path target, Object value) throws IOException {
+        Files.createDirectories(journalDir);
+        Path temp = Files.createTempFile(journalDir, target.getFileName().toString(), ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), value);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 从请求文件、状态文件和结果文件还原任务
+     * 只接受从0开始连续且不超过检查点的结果块；检查点之后的结果（重启前正在执行的块）被丢弃，
+     * 结果少于检查点时检查点退回到结果的数量。丢弃过结果时重写结果文件，使之后追加的结果保持连续
+     */
+    private BatchJob readJournal(Path file) throws IOException {
+        BatchJob job = objectMapper.readValue(file.toFile(), BatchJob.class);
+        if (job.getId() == null) {
+            return job;
+        }
+        Path stateFile = stateFile(job.getId());
+        if (Files.exists(stateFile)) {
+            copyState(objectMapper.readValue(stateFile.toFile(), BatchJob.class), job);
+        } else {
+            job.setStatus(BatchJob.Status.PENDING);
+        }
+
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        List<String> accepted = new ArrayList<>();
+        boolean discarded = false;
+        Path resultsFile = resultsFile(job.getId());
+        if (Files.exists(resultsFile)) {
+            try (BufferedReader reader = Files.newBufferedReader(resultsFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    List<BatchItemResultDTO> items = parseResultLine(line, results.size(), job.getCheckpoint());
+                    if (items == null) {
+                        discarded = true;
+                        break;
+                    }
+                    results.addAll(items);
+                    accepted.add(line);
+                }
+            }
+        }
+        job.setResults(results);
+        if (results.size() < job.getCheckpoint()) {
+            logger.warn("任务日志中的结果少于检查点，从第{}个请求恢复: id={}, 检查点={}",
+                    results.size(), job.getId(), job.getCheckpoint());
+            job.setCheckpoint(results.size());
+        }
+        if (discarded && !job.isFinished()) {
+            Path temp = Files.createTempFile(journalDir, resultsFile.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, accepted, StandardCharsets.UTF_8);
+                Files.move(temp, resultsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return job;
+    }
+
+    /**
+     * 解析结果文件中的一行
+     *
+     * @return 该块的结果，行不完整、不连续或超过检查点时返回null
+     */
+    private List<BatchItemResultDTO> parseResultLine(String line, int expectedFrom, int checkpoint) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (node == null || node.path("from").asInt(-1) != expectedFrom) {
+                return null;
+            }
+            List<BatchItemResultDTO> items = objectMapper.convertValue(node.get("items"), RESULT_LIST);
+            return items != null && expectedFrom + items.size() <= checkpoint ? items : null;
+        } catch (IOException | IllegalArgumentException e) {
+            // 重启前写了一半的行
+            return null;
+        }
+    }
+
+    private static void copyState(BatchJob from, BatchJob to) {
+        to.setStatus(from.getStatus());
+        to.setStartedAt(from.getStartedAt());
+        to.setFinishedAt(from.getFinishedAt());
+        to.setCheckpoint(from.getCheckpoint());
+        to.setCancelRequested(from.isCancelRequested());
+        to.setResumeCount(from.getResumeCount());
+        to.setError(from.getError());
+    }
+
+    private Path jobFile(String id) {
+        return journalDir.resolve(id + JOB_SUFFIX);
+    }
+
+    private Path stateFile(String id) {
+        return journalDir.resolve(id + STATE_SUFFIX);
+    }
+
+    private Path resultsFile(String id) {
+        return journalDir.resolve(id + RESULTS_SUFFIX);
+    }
+
+    /**
+     * 任务本次运行的起点
+     */
+    private static final class RunStats {
+        private final long startedAt;
+        private final int startCheckpoint;
+
+        private RunStats(long startedAt, int startCheckpoint) {
+            this.startedAt = startedAt;
+            this.startCheckpoint = startCheckpoint;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.authority.StarGuard2.batch;
+
+import org.authority.StarGuard2.dto.ExecutionPlanDTO;
+import org.authority.StarGuard2.model.UserIdentity;
+
+import java.util.function.Supplier;
+
+/**
+ * 批量操作中的单个任务
+ * 该类不可变
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class BatchTask {
+    private final int index;
+    private final UserIdentity identity;
+    private final Supplier<ExecutionPlanDTO> action;
+
+    /**
+     * 构造函数
+     *
+     * @param index 任务在批量请求中的下标
+     * @param identity 任务所属的用户，同一用户的任务按下标顺序依次执行；为null时任务不与其他任务排序
+     * @param action 任务内容，返回实际执行的语句，失败时抛出异常
+     */
+    public BatchTask(int index, UserIdentity identity, Supplier<ExecutionPlanDTO> action) {
+        this.index = index;
+        this.identity = identity;
+        this.action = action;
+    }
+
+    /**
+     * 获取任务在批量请求中的下标
+     *
+     * @return 下标
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * 获取任务所属的用户
+     *
+     * @return 用户标识，可能为null
+     */
+    public UserIdentity getIdentity() {
+        return identity;
+    }
+
+    /**
+     * 获取任务内容
+     *
+     * @return 任务内容
+     */
+    public Supplier<ExecutionPlanDTO> getAction() {
+        return action;
+    }
+}
@@ -0,0 +1,389 @@
+package org.authority.StarGuard2.batch;
+
+import org.authority.StarGuard2.cache.CatalogCache;
+import org.authority.StarGuard2.cache.UserIdentityRegistry;
+import org.authority.StarGuard2.dto.GrantPermissionRequestDTO;
+import org.authority.StarGuard2.dto.RevokePermissionRequestDTO;
+import org.authority.StarGuard2.dto.ValidationErrorDTO;
+import org.authority.StarGuard2.exception.BatchValidationException;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.UserIdentity;
+import org.authority.StarGuard2.repository.PermissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 批量授权/撤销请求的校验器
+ * 先逐项检查字段，再汇总所有请求引用的用户、角色、数据库、视图和物化视图，每个不同的对象只检查一次：
+ * 用户和数据库对象在内存中的注册表和元数据缓存中判断，角色执行一次 SHOW ROLES，
+ * 最后逐项检查对象是否存在，一次返回所有错误，保证校验失败时不会执行任何语句
+ * 某类元数据不可用时跳过该类检查，由执行语句时FE返回的错误代替
+ *
+ * @author System
+ * @version 1.0
+ */
+@Component
+public class BatchValidator {
+    private static final Logger logger = LoggerFactory.getLogger(BatchValidator.class);
+
+    private final PermissionRepository permissionRepository;
+    private final UserIdentityRegistry userIdentityRegistry;
+    private final CatalogCache catalogCache;
+
+    /**
+     * 构造函数
+     *
+     * @param permissionRepository 权限管理Repository
+     * @param userIdentityRegistry 用户标识注册表
+     * @param catalogCache 元数据缓存
+     */
+    @Autowired
+    public BatchValidator(PermissionRepository permissionRepository, UserIdentityRegistry userIdentityRegistry,
+                          CatalogCache catalogCache) {
+        this.permissionRepository = permissionRepository;
+        this.userIdentityRegistry = userIdentityRegistry;
+        this.catalogCache = catalogCache;
+    }
+
+    /**
+     * 校验授权请求，有错误时抛出异常
+     *
+     * @param requests 授权请求DTO列表
+     * @throws BatchValidationException 有请求未通过校验时抛出，包含所有错误
+     */
+    public void validateGrants(List<GrantPermissionRequestDTO> requests) {
+        throwIfInvalid(checkGrants(requests, 0));
+    }
+
+    /**
+     * 校验撤销权限请求，有错误时抛出异常
+     *
+     * @param requests 撤销权限请求DTO列表
+     * @throws BatchValidationException 有请求未通过校验时抛出，包含所有错误
+     */
+    public void validateRevokes(List<RevokePermissionRequestDTO> requests) {
+        throwIfInvalid(checkRevokes(requests, 0));
+    }
+
+    /**
+     * 校验授权请求并返回所有错误
+     *
+     * @param requests 授权请求DTO列表
+     * @param offset 第一个请求在整个批量请求中的下标
+     * @return 校验错误列表，全部通过时为空列表
+     */
+    public List<ValidationErrorDTO> checkGrants(List<GrantPermissionRequestDTO> requests, int offset) {
+        List<Item> items = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            GrantPermissionRequestDTO request = requests.get(i);
+            items.add(request == null ? new Item(offset + i, "授权请求不能为空")
+                    : new Item(offset + i, request.getUsername(), request.getHost(), request.getPermissionTypes(),
+                    request.getScopeType(), request.getViewScope(), request.getDatabaseName(), request.getViewName(),
+                    request.isAllDatabases()));
+        }
+        return check(items);
+    }
+
+    /**
+     * 校验撤销权限请求并返回所有错误
+     *
+     * @param requests 撤销权限请求DTO列表
+     * @param offset 第一个请求在整个批量请求中的下标
+     * @return 校验错误列表，全部通过时为空列表
+     */
+    public List<ValidationErrorDTO> checkRevokes(List<RevokePermissionRequestDTO> requests, int offset) {
+        List<Item> items = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            RevokePermissionRequestDTO request = requests.get(i);
+            items.add(request == null ? new Item(offset + i, "撤销权限请求不能为空")
+                    : new Item(offset + i, request.getUsername(), request.getHost(), request.getPermissionTypes(),
+                    request.getScopeType(), request.getViewScope(), request.getDatabaseName(), request.getViewName(),
+                    request.isAllDatabases()));
+        }
+        return check(items);
+    }
+
+    private static void throwIfInvalid(List<ValidationErrorDTO> errors) {
+        if (!errors.isEmpty()) {
+            throw new BatchValidationException(errors);
+        }
+    }
+
+    /**
+     * 依次执行字段检查、元数据批量查询和对象存在性检查
+     */
+    private List<ValidationErrorDTO> check(List<Item> items) {
+        long start = System.currentTimeMillis();
+        List<ValidationErrorDTO> errors = new ArrayList<>();
+        List<Item> valid = new ArrayList<>(items.size());
+        for (Item item : items) {
+            int errorCount = errors.size();
+            checkFields(item, errors);
+            if (errors.size() == errorCount) {
+                valid.add(item);
+            }
+        }
+        if (!valid.isEmpty()) {
+            ValidationContext context = resolve(valid);
+            for (Item item : valid) {
+                checkReferences(item, context, errors);
+            }
+        }
+        Collections.sort(errors, (a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        logger.info("校验{}个请求完成，{}个错误，耗时{}ms", items.size(), errors.size(),
+                System.currentTimeMillis() - start);
+        return errors;
+    }
+
+    /**
+     * 检查请求字段，不访问元数据
+     */
+    private static void checkFields(Item item, List<ValidationErrorDTO> errors) {
+        if (item.nullMessage != null) {
+            errors.add(error(item, null, item.nullMessage));
+            return;
+        }
+        if (item.identity == null) {
+            errors.add(error(item, "username", "用户名和主机地址不能为空"));
+        }
+        if (item.permissionTypes == null || item.permissionTypes.isEmpty()) {
+            errors.add(error(item, "permissionTypes", "权限类型不能为空"));
+        } else {
+            for (String permissionType : item.permissionTypes) {
+                PermissionType type = permissionType != null
+                        ? PermissionType.lookup(permissionType.trim().toUpperCase(Locale.ROOT)) : null;
+                if (type == null) {
+                    errors.add(error(item, "permissionTypes", "无效的权限类型: " + permissionType));
+                } else if (type == PermissionType.ROLE_GRANT) {
+                    item.roleGrant = true;
+                } else {
+                    item.objectGrant = true;
+                }
+            }
+        }
+        if (item.roleGrant && isBlank(item.databaseName)) {
+            errors.add(error(item, "databaseName", "角色名不能为空"));
+        }
+        if (!item.objectGrant) {
+            return;
+        }
+        if (item.allDatabases && isBlank(item.databaseName)) {
+            errors.add(error(item, "databaseName", "当指定所有数据库时，数据库名称不能为空"));
+        }
+        if ("VIEW".equals(item.scopeType) || "MATERIALIZED_VIEW".equals(item.scopeType)) {
+            String label = "VIEW".equals(item.scopeType) ? "视图" : "物化视图";
+            if (isBlank(item.viewScope)) {
+                errors.add(error(item, "viewScope", label + "作用域不能为空"));
+            } else if ("SINGLE_VIEW".equals(item.viewScope)) {
+                if (isBlank(item.viewName)) {
+                    errors.add(error(item, "viewName", label + "名称不能为空"));
+                }
+                if (isBlank(item.databaseName)) {
+                    errors.add(error(item, "databaseName", label + "所在数据库名称不能为空"));
+                }
+            } else if ("ALL_VIEWS_IN_DATABASE".equals(item.viewScope)) {
+                if (isBlank(item.databaseName)) {
+                    errors.add(error(item, "databaseName", "数据库名称不能为空"));
+                }
+            } else if (!"ALL_VIEWS_IN_ALL_DATABASES".equals(item.viewScope)) {
+                errors.add(error(item, "viewScope", "无效的视图作用域: " + item.viewScope));
+            }
+        } else if (!"SYSTEM".equals(item.scopeType) && !item.allDatabases && isBlank(item.databaseName)) {
+            errors.add(error(item, "databaseName", "数据库名称不能为空"));
+        }
+    }
+
+    /**
+     * 汇总所有请求引用的对象，每类元数据只查询一次
+     */
+    private ValidationContext resolve(List<Item> items) {
+        Set<UserIdentity> users = new LinkedHashSet<>();
+        Set<String> databases = new HashSet<>();
+        Set<List<String>> views = new HashSet<>();
+        Set<List<String>> materializedViews = new HashSet<>();
+        boolean needRoles = false;
+        for (Item item : items) {
+            users.add(item.identity);
+            needRoles |= item.roleGrant;
+            String database = item.referencedDatabase();
+            if (database != null) {
+                databases.add(database);
+                String view = item.referencedView();
+                if (view != null) {
+                    ("VIEW".equals(item.scopeType) ? views : materializedViews).add(Arrays.asList(database, view));
+                }
+            }
+        }
+
+        ValidationContext context = new ValidationContext();
+        // 注册表在内存中判断，未命中时最多重新同步一次 SHOW USERS，每个不同的用户只检查一次
+        for (UserIdentity identity : users) {
+            if (!userIdentityRegistry.exists(identity.getUsername(), identity.getHost())) {
+                context.missingUsers.add(identity);
+            }
+        }
+        if (needRoles) {
+            try {
+                context.roles = new HashSet<>(permissionRepository.getAllRoleNames());
+            } catch (RuntimeException e) {
+                logger.warn("查询角色列表失败，跳过角色存在性检查", e);
+            }
+        }
+        if (!databases.isEmpty()) {
+            // 元数据缓存在内存中判断，未命中时最多增量刷新一次
+            try {
+                for (String database : databases) {
+                    if (!catalogCache.databaseExists(database)) {
+                        context.missingDatabases.add(database);
+                    }
+                }
+                for (List<String> view : views) {
+                    if (!catalogCache.viewExists(view.get(0), view.get(1))) {
+                        context.missingViews.add(view);
+                    }
+                }
+                for (List<String> view : materializedViews) {
+                    if (!catalogCache.materializedViewExists(view.get(0), view.get(1))) {
+                        context.missingViews.add(view);
+                    }
+                }
+                context.catalogChecked = true;
+            } catch (RuntimeException e) {
+                logger.warn("加载元数据缓存失败，跳过数据库和视图存在性检查", e);
+            }
+        }
+        return context;
+    }
+
+    /**
+     * 用批量查询的结果检查请求引用的对象是否存在
+     */
+    private static void checkReferences(Item item, ValidationContext context, List<ValidationErrorDTO> errors) {
+        if (context.missingUsers.contains(item.identity)) {
+            errors.add(error(item, "username", "用户不存在: " + item.identity.getUsername() + "@" + item.identity.getHost()));
+        }
+        if (item.roleGrant && context.roles != null && !context.roles.contains(item.databaseName)) {
+            errors.add(error(item, "databaseName", "角色不存在: " + item.databaseName));
+        }
+        String database = item.referencedDatabase();
+        if (database == null || !context.catalogChecked) {
+            return;
+        }
+        if (context.missingDatabases.contains(database)) {
+            errors.add(error(item, "databaseName", "数据库不存在: " + database));
+            return;
+        }
+        String view = item.referencedView();
+        if (view != null && context.missingViews.contains(Arrays.asList(database, view))) {
+            boolean isView = "VIEW".equals(item.scopeType);
+            errors.add(error(item, "viewName", (isView ? "视图不存在: " : "物化视图不存在: ") + database + "." + view));
+        }
+    }
+
+    private static ValidationErrorDTO error(Item item, String field, String message) {
+        ValidationErrorDTO error = new ValidationErrorDTO();
+        error.setIndex(item.index);
+        error.setUsername(item.username);
+        error.setHost(item.host);
+        error.setField(field);
+        error.setMessage(message);
+        return error;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * 授权请求与撤销权限请求中参与校验的公共字段
+     */
+    private static final class Item {
+        private final int index;
+        private final String nullMessage;
+        private final String username;
+        private final String host;
+        private final UserIdentity identity;
+        private final List<String> permissionTypes;
+        private final String scopeType;
+        private final String viewScope;
+        private final String databaseName;
+        private final String viewName;
+        private final boolean allDatabases;
+        // 字段检查时根据权限类型设置：是否包含角色授权、是否包含对象上的权限
+        private boolean roleGrant;
+        private boolean objectGrant;
+
+        private Item(int index, String nullMessage) {
+            this(index, nullMessage, null, null, null, null, null, null, null, false);
+        }
+
+        private Item(int index, String username, String host, List<String> permissionTypes, String scopeType,
+                     String viewScope, String databaseName, String viewName, boolean allDatabases) {
+            this(index, null, username, host, permissionTypes, scopeType, viewScope, databaseName, viewName,
+                    allDatabases);
+        }
+
+        private Item(int index, String nullMessage, String username, String host, List<String> permissionTypes,
+                     String scopeType, String viewScope, String databaseName, String viewName, boolean allDatabases) {
+            this.index = index;
+            this.nullMessage = nullMessage;
+            this.username = username;
+            this.host = host;
+            this.identity = isBlank(username) || isBlank(host) ? null : new UserIdentity(username, host);
+            this.permissionTypes = permissionTypes;
+            this.scopeType = scopeType;
+            this.viewScope = viewScope;
+            this.databaseName = databaseName;
+            this.viewName = viewName;
+            this.allDatabases = allDatabases;
+        }
+
+        /**
+         * 对象权限的授权对象所在的数据库，与 GrantStatementPlanner.objectClause 的规则一致
+         *
+         * @return 数据库名，授权对象不属于单个数据库时返回null
+         */
+        private String referencedDatabase() {
+            if (!objectGrant || "SYSTEM".equals(scopeType)) {
+                return null;
+            }
+            if ("VIEW".equals(scopeType) || "MATERIALIZED_VIEW".equals(scopeType)) {
+                return "ALL_VIEWS_IN_ALL_DATABASES".equals(viewScope) ? null : databaseName;
+            }
+            return allDatabases ? null : databaseName;
+        }
+
+        /**
+         * 授权对象为单个视图或物化视图时的名称
+         *
+         * @return 视图名，其他情况返回null
+         */
+        private String referencedView() {
+            return objectGrant && ("VIEW".equals(scopeType) || "MATERIALIZED_VIEW".equals(scopeType))
+                    && "SINGLE_VIEW".equals(viewScope) ? viewName : null;
+        }
+    }
+
+    /**
+     * 一次校验中查询得到的对象存在性，角色查询失败时roles为null，元数据缓存不可用时catalogChecked为false
+     */
+    private static final class ValidationContext {
+        private final Set<UserIdentity> missingUsers = new HashSet<>();
+        private final Set<String> missingDatabases = new HashSet<>();
+        // 不存在的视图和物化视图，元素为（数据库名，视图名）
+        private final Set<List<String>> missingViews = new HashSet<>();
+        private Set<String> roles;
+        private boolean catalogChecked;
+    }
+}
@@ -0,0 +1,231 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.model.GrantObject;
+import org.authority.StarGuard2.model.GrantObjectType;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.UserIdentity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 对象访问倒排索引，基于快照构建，从授权对象映射到拥有该对象权限的用户
+ * 查询某个对象时，依次查找覆盖它的各级授权对象（所有数据库中的所有某类对象、数据库内所有某类对象、对象本身），
+ * 每一级都是一次哈希查找，查询代价只与命中的授权条数有关
+ * 角色授权不在索引中展开，通过角色获得的权限不会出现在结果里
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class AccessIndex {
+
+    /**
+     * 授权与查询对象的关系
+     */
+    public enum Coverage {
+        // 授权对象就是查询对象
+        DIRECT,
+        // 授权对象是查询对象的上级（如数据库内所有表的授权覆盖其中的表）
+        INHERITED,
+        // 授权对象是查询对象的下级（如数据库中某张表的授权），只覆盖查询对象的一部分
+        CHILD
+    }
+
+    /**
+     * 单条授权记录
+     */
+    public static final class Grant {
+        private final UserIdentity user;
+        private final PermissionType permissionType;
+        private final boolean withGrantOption;
+        private final GrantObject object;
+        private final String description;
+
+        private Grant(UserIdentity user, PermissionType permissionType, boolean withGrantOption,
+                      GrantObject object, String description) {
+            this.user = user;
+            this.permissionType = permissionType;
+            this.withGrantOption = withGrantOption;
+            this.object = object;
+            this.description = description;
+        }
+
+        /**
+         * 获取被授权的用户
+         *
+         * @return 用户标识
+         */
+        public UserIdentity getUser() {
+            return user;
+        }
+
+        /**
+         * 获取权限类型
+         *
+         * @return 权限类型
+         */
+        public PermissionType getPermissionType() {
+            return permissionType;
+        }
+
+        /**
+         * 检查授权是否带有GRANT OPTION
+         *
+         * @return true如果带有GRANT OPTION
+         */
+        public boolean isWithGrantOption() {
+            return withGrantOption;
+        }
+
+        /**
+         * 获取授权对象
+         *
+         * @return 授权对象
+         */
+        public GrantObject getObject() {
+            return object;
+        }
+
+        /**
+         * 获取授权对象的原始描述
+         *
+         * @return 对象描述
+         */
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * 查询命中的授权及其与查询对象的关系
+     */
+    public static final class Match {
+        private final Grant grant;
+        private final Coverage coverage;
+
+        private Match(Grant grant, Coverage coverage) {
+            this.grant = grant;
+            this.coverage = coverage;
+        }
+
+        /**
+         * 获取命中的授权
+         *
+         * @return 授权记录
+         */
+        public Grant getGrant() {
+            return grant;
+        }
+
+        /**
+         * 获取授权与查询对象的关系
+         *
+         * @return 覆盖关系
+         */
+        public Coverage getCoverage() {
+            return coverage;
+        }
+    }
+
+    // 授权对象到授权记录的映射
+    private final Map<GrantObject, List<Grant>> byObject = new HashMap<>();
+    // 数据库到其下级对象（表、视图、物化视图、函数）授权记录的映射，用于查询下级授权
+    private final Map<String, List<Grant>> childrenByDatabase = new HashMap<>();
+    private int grantCount;
+
+    /**
+     * 构造函数
+     *
+     * @param users 快照中的所有用户
+     * @param objects 授权对象描述字典
+     */
+    AccessIndex(List<CompactUser> users, StringDictionary objects) {
+        for (CompactUser user : users) {
+            for (int i = 0; i < user.getObjectCount(); i++) {
+                int objectId = user.getObjectId(i);
+                if (objectId == CompactUser.NO_OBJECT) {
+                    continue;
+                }
+                GrantObject object = objects.getGrantObject(objectId);
+                if (object.getType() == GrantObjectType.OTHER || object.getType() == GrantObjectType.ROLE) {
+                    continue;
+                }
+                String description = objects.get(objectId);
+                long grantOptions = user.getGrantOptionMask(i);
+                for (long mask = user.getPrivilegeMask(i); mask != 0; mask &= mask - 1) {
+                    int ordinal = Long.numberOfTrailingZeros(mask);
+                    PermissionType type = CompactUser.typeAt(ordinal);
+                    if (type == PermissionType.ROLE_GRANT) {
+                        continue;
+                    }
+                    Grant grant = new Grant(user.getIdentity(), type, (grantOptions & (1L << ordinal)) != 0,
+                            object, description);
+                    byObject.computeIfAbsent(object, k -> new ArrayList<>()).add(grant);
+                    if (object.getType().isDatabaseChild() && object.getDatabase() != null) {
+                        childrenByDatabase.computeIfAbsent(object.getDatabase(), k -> new ArrayList<>()).add(grant);
+                    }
+                    grantCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * 查询可以访问目标对象的授权
+     *
+     * @param target 目标对象
+     * @param permissionType 权限类型，null表示所有权限；ALL PRIVILEGES授权视为包含任意权限
+     * @param includeChildren 是否同时返回目标对象下级对象上的授权
+     * @return 命中的授权，按用户排序
+     */
+    public List<Match> query(GrantObject target, PermissionType permissionType, boolean includeChildren) {
+        List<Match> result = new ArrayList<>();
+        for (GrantObject ancestor : target.getCoveringObjects()) {
+            List<Grant> grants = byObject.get(ancestor);
+            if (grants == null) {
+                continue;
+            }
+            Coverage coverage = ancestor.equals(target) ? Coverage.DIRECT : Coverage.INHERITED;
+            for (Grant grant : grants) {
+                if (matchesType(grant, permissionType)) {
+                    result.add(new Match(grant, coverage));
+                }
+            }
+        }
+        if (includeChildren && target.getDatabase() != null
+                && (target.getType() == GrantObjectType.DATABASE || target.getName() == null)) {
+            List<Grant> children = childrenByDatabase.getOrDefault(target.getDatabase(), Collections.emptyList());
+            for (Grant grant : children) {
+                GrantObject object = grant.getObject();
+                // 数据库级授权不覆盖其中的对象，但查询数据库时仍把数据库内各对象上的授权列为下级
+                boolean child = target.getType() == GrantObjectType.DATABASE || target.covers(object);
+                if (!object.equals(target) && child && matchesType(grant, permissionType)) {
+                    result.add(new Match(grant, Coverage.CHILD));
+                }
+            }
+        }
+        result.sort((a, b) -> a.getGrant().getUser().compareTo(b.getGrant().getUser()));
+        return result;
+    }
+
+    /**
+     * 获取索引中的授权记录数量
+     *
+     * @return 授权记录数量
+     */
+    public int size() {
+        return grantCount;
+    }
+
+    /**
+     * 检查授权的权限类型是否满足查询条件
+     */
+    private static boolean matchesType(Grant grant, PermissionType permissionType) {
+        return permissionType == null
+                || grant.getPermissionType() == permissionType
+                || grant.getPermissionType() == PermissionType.ALL_PRIVILEGES;
+    }
+}
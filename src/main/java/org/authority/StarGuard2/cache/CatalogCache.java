@@ -0,0 +1,292 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.repository.PermissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 元数据缓存，保存所有数据库及其中的表、视图和物化视图名，供请求校验和对象列表使用
+ * 完整刷新以每类对象一条不带条件的 information_schema 查询加载全部对象；
+ * 增量刷新先执行 SHOW DATABASES 和一条按数据库聚合的签名查询（表数量和最近的创建时间），
+ * 只重新加载新增或签名变化的数据库，未变化的数据库沿用上一版本
+ * 签名无法识别对象改名，因此每隔若干次增量刷新执行一次完整刷新
+ * 检查对象是否存在时未命中会触发一次增量刷新（有最小间隔），以便识别刚创建的对象
+ *
+ * @author System
+ * @version 1.0
+ */
+@Component
+public class CatalogCache {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCache.class);
+
+    private final PermissionRepository permissionRepository;
+    private final Object refreshLock = new Object();
+    private final AtomicLong versionCounter = new AtomicLong();
+
+    private volatile CatalogSnapshot snapshot;
+    private volatile long lastRefreshAt;
+    private volatile long lastFullRefreshAt;
+    private volatile long lastRefreshElapsedMs;
+    private volatile int lastReloadedDatabases;
+    // 上次完整刷新之后的定时增量刷新次数，只在持有refreshLock时读写
+    private int incrementalSinceFull;
+
+    // 每隔多少次定时增量刷新执行一次完整刷新，0表示只做增量刷新
+    @Value("${starguard.catalog.full-refresh-every:10}")
+    private int fullRefreshEvery;
+
+    // 未命中时两次刷新之间的最小间隔（毫秒）
+    @Value("${starguard.catalog.min-reload-interval-ms:2000}")
+    private long minReloadIntervalMillis;
+
+    /**
+     * 构造函数
+     *
+     * @param permissionRepository 权限管理Repository
+     */
+    @Autowired
+    public CatalogCache(PermissionRepository permissionRepository) {
+        this.permissionRepository = permissionRepository;
+    }
+
+    /**
+     * 获取当前的元数据快照，尚未加载时同步执行完整加载
+     *
+     * @return 元数据快照
+     */
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (refreshLock) {
+            return snapshot != null ? snapshot : load(true);
+        }
+    }
+
+    /**
+     * 获取已加载的元数据快照，不触发加载
+     *
+     * @return 元数据快照，尚未加载时返回null
+     */
+    public CatalogSnapshot peek() {
+        return snapshot;
+    }
+
+    /**
+     * 检查数据库是否存在，未命中时增量刷新后再检查
+     *
+     * @param database 数据库名
+     * @return true如果存在
+     */
+    public boolean databaseExists(String database) {
+        return findDatabase(database) != null;
+    }
+
+    /**
+     * 检查视图是否存在，未命中时增量刷新后再检查
+     *
+     * @param database 数据库名
+     * @param view 视图名
+     * @return true如果存在
+     */
+    public boolean viewExists(String database, String view) {
+        CatalogDatabase found = getSnapshot().getDatabase(database);
+        if (found != null && found.containsView(view)) {
+            return true;
+        }
+        found = reloadOnMiss().getDatabase(database);
+        return found != null && found.containsView(view);
+    }
+
+    /**
+     * 检查物化视图是否存在，未命中时增量刷新后再检查
+     *
+     * @param database 数据库名
+     * @param materializedView 物化视图名
+     * @return true如果存在
+     */
+    public boolean materializedViewExists(String database, String materializedView) {
+        CatalogDatabase found = getSnapshot().getDatabase(database);
+        if (found != null && found.containsMaterializedView(materializedView)) {
+            return true;
+        }
+        found = reloadOnMiss().getDatabase(database);
+        return found != null && found.containsMaterializedView(materializedView);
+    }
+
+    /**
+     * 查找数据库，未命中时增量刷新后再查找
+     *
+     * @param database 数据库名
+     * @return 数据库，不存在时返回null
+     */
+    public CatalogDatabase findDatabase(String database) {
+        CatalogDatabase found = getSnapshot().getDatabase(database);
+        return found != null ? found : reloadOnMiss().getDatabase(database);
+    }
+
+    /**
+     * 后台定时增量刷新，每隔 full-refresh-every 次执行一次完整刷新
+     */
+    @Scheduled(initialDelayString = "${starguard.catalog.refresh-interval-ms:60000}",
+            fixedDelayString = "${starguard.catalog.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        try {
+            synchronized (refreshLock) {
+                boolean full = snapshot == null || (fullRefreshEvery > 0 && ++incrementalSinceFull >= fullRefreshEvery);
+                load(full);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("后台刷新元数据缓存失败", e);
+        }
+    }
+
+    /**
+     * 同步执行一次完整刷新
+     *
+     * @return 刷新后的快照
+     */
+    public CatalogSnapshot refresh() {
+        synchronized (refreshLock) {
+            return load(true);
+        }
+    }
+
+    /**
+     * 同步执行一次增量刷新，尚未加载时执行完整加载
+     *
+     * @return 刷新后的快照
+     */
+    public CatalogSnapshot refreshIncrementally() {
+        synchronized (refreshLock) {
+            return load(snapshot == null);
+        }
+    }
+
+    /**
+     * 获取最近一次刷新完成的时间
+     *
+     * @return 毫秒时间戳，尚未刷新时为0
+     */
+    public long getLastRefreshAt() {
+        return lastRefreshAt;
+    }
+
+    /**
+     * 获取最近一次完整刷新完成的时间
+     *
+     * @return 毫秒时间戳，尚未刷新时为0
+     */
+    public long getLastFullRefreshAt() {
+        return lastFullRefreshAt;
+    }
+
+    /**
+     * 获取最近一次刷新的耗时
+     *
+     * @return 毫秒数
+     */
+    public long getLastRefreshElapsedMs() {
+        return lastRefreshElapsedMs;
+    }
+
+    /**
+     * 获取最近一次刷新重新加载的数据库数量
+     *
+     * @return 数据库数量
+     */
+    public int getLastReloadedDatabases() {
+        return lastReloadedDatabases;
+    }
+
+    /**
+     * 未命中时执行增量刷新，距上次刷新不足最小间隔时直接返回当前快照
+     * 多个线程同时未命中时只有一个线程执行刷新，其余线程等待后使用其结果
+     */
+    private CatalogSnapshot reloadOnMiss() {
+        long lastRefresh = lastRefreshAt;
+        synchronized (refreshLock) {
+            if (snapshot == null || (lastRefreshAt == lastRefresh
+                    && System.currentTimeMillis() - lastRefreshAt >= minReloadIntervalMillis)) {
+                return load(snapshot == null);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * 加载元数据并发布新的快照，调用方需持有refreshLock
+     *
+     * @param full 是否重新加载所有数据库
+     * @return 刷新后的快照，没有变化时返回当前快照
+     */
+    private CatalogSnapshot load(boolean full) {
+        long start = System.currentTimeMillis();
+        CatalogSnapshot base = full ? null : snapshot;
+        // 先读签名再读对象名：两次查询之间创建的对象会使下次的签名不同，从而被重新加载
+        List<String> names = permissionRepository.getDatabaseNames();
+        Map<String, String> signatures = permissionRepository.getTableSignatures();
+
+        Set<String> changed = new HashSet<>();
+        for (String name : names) {
+            CatalogDatabase existing = base != null ? base.getDatabase(name) : null;
+            if (existing == null || !Objects.equals(existing.getSignature(), signatures.get(name))) {
+                changed.add(name);
+            }
+        }
+        boolean removed = base != null && !new HashSet<>(names).containsAll(base.getDatabaseNames());
+        if (base != null && changed.isEmpty() && !removed) {
+            recordRefresh(start, 0, false);
+            logger.debug("元数据增量刷新完成，没有数据库发生变化: 检查{}个数据库，耗时{}ms",
+                    names.size(), System.currentTimeMillis() - start);
+            return base;
+        }
+
+        // 完整刷新时不带条件查询，避免数千个数据库名拼成的IN列表
+        Collection<String> filter = base == null ? null : changed;
+        Map<String, Set<String>> tables = permissionRepository.getTableNames(filter);
+        Map<String, Set<String>> views = permissionRepository.getViewNames(filter);
+        Map<String, Set<String>> materializedViews = permissionRepository.getMaterializedViewNames(filter);
+
+        TreeMap<String, CatalogDatabase> databases = new TreeMap<>();
+        for (String name : names) {
+            databases.put(name, changed.contains(name)
+                    ? CatalogDatabase.of(name, signatures.get(name), tables.get(name), views.get(name),
+                    materializedViews.get(name))
+                    : base.getDatabase(name));
+        }
+        CatalogSnapshot next = new CatalogSnapshot(versionCounter.incrementAndGet(), System.currentTimeMillis(),
+                databases);
+        snapshot = next;
+        recordRefresh(start, changed.size(), base == null);
+        logger.info("元数据{}刷新完成: version={}, 共{}个数据库，重新加载{}个，表{}个，视图{}个，物化视图{}个，耗时{}ms",
+                base == null ? "完整" : "增量", next.getVersion(), names.size(), changed.size(), next.getTableCount(),
+                next.getViewCount(), next.getMaterializedViewCount(), lastRefreshElapsedMs);
+        return next;
+    }
+
+    private void recordRefresh(long start, int reloaded, boolean full) {
+        long now = System.currentTimeMillis();
+        lastRefreshAt = now;
+        lastRefreshElapsedMs = now - start;
+        lastReloadedDatabases = reloaded;
+        if (full) {
+            lastFullRefreshAt = now;
+            incrementalSinceFull = 0;
+        }
+    }
+}
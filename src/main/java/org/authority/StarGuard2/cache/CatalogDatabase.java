@@ -0,0 +1,168 @@
+package org.authority.StarGuard2.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 元数据缓存中单个数据库的对象名
+ * 表、视图、物化视图分别以排序后的数组保存，存在性检查为二分查找；表不包含视图和物化视图
+ * 该类不可变
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class CatalogDatabase {
+    private static final String[] NO_NAMES = new String[0];
+
+    private final String name;
+    private final String signature;
+    private final String[] tables;
+    private final String[] views;
+    private final String[] materializedViews;
+
+    private CatalogDatabase(String name, String signature, String[] tables, String[] views,
+                            String[] materializedViews) {
+        this.name = name;
+        this.signature = signature;
+        this.tables = tables;
+        this.views = views;
+        this.materializedViews = materializedViews;
+    }
+
+    /**
+     * 根据查询到的对象名创建数据库
+     *
+     * @param name 数据库名
+     * @param signature 表签名，见 PermissionRepository.getTableSignatures
+     * @param tables information_schema.tables 中的对象名，可能包含视图和物化视图，可以为null
+     * @param views 视图名，可以为null
+     * @param materializedViews 物化视图名，可以为null
+     * @return 数据库
+     */
+    static CatalogDatabase of(String name, String signature, Collection<String> tables, Collection<String> views,
+                              Collection<String> materializedViews) {
+        Set<String> plainTables = tables == null ? new HashSet<>() : new HashSet<>(tables);
+        if (views != null) {
+            plainTables.removeAll(views);
+        }
+        if (materializedViews != null) {
+            plainTables.removeAll(materializedViews);
+        }
+        return new CatalogDatabase(name, signature, sorted(plainTables), sorted(views), sorted(materializedViews));
+    }
+
+    private static String[] sorted(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return NO_NAMES;
+        }
+        String[] array = names.toArray(new String[0]);
+        Arrays.sort(array);
+        return array;
+    }
+
+    /**
+     * 获取数据库名
+     *
+     * @return 数据库名
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取加载时的表签名，签名变化时重新加载该数据库
+     *
+     * @return 表签名，数据库中没有表时为null
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * 获取表名（不含视图和物化视图）
+     *
+     * @return 排序后的只读列表
+     */
+    public List<String> getTables() {
+        return Collections.unmodifiableList(Arrays.asList(tables));
+    }
+
+    /**
+     * 获取视图名
+     *
+     * @return 排序后的只读列表
+     */
+    public List<String> getViews() {
+        return Collections.unmodifiableList(Arrays.asList(views));
+    }
+
+    /**
+     * 获取物化视图名
+     *
+     * @return 排序后的只读列表
+     */
+    public List<String> getMaterializedViews() {
+        return Collections.unmodifiableList(Arrays.asList(materializedViews));
+    }
+
+    /**
+     * 检查表是否存在
+     *
+     * @param table 表名
+     * @return true如果存在
+     */
+    public boolean containsTable(String table) {
+        return table != null && Arrays.binarySearch(tables, table) >= 0;
+    }
+
+    /**
+     * 检查视图是否存在
+     *
+     * @param view 视图名
+     * @return true如果存在
+     */
+    public boolean containsView(String view) {
+        return view != null && Arrays.binarySearch(views, view) >= 0;
+    }
+
+    /**
+     * 检查物化视图是否存在
+     *
+     * @param materializedView 物化视图名
+     * @return true如果存在
+     */
+    public boolean containsMaterializedView(String materializedView) {
+        return materializedView != null && Arrays.binarySearch(materializedViews, materializedView) >= 0;
+    }
+
+    /**
+     * 获取表的数量
+     *
+     * @return 表的数量
+     */
+    public int getTableCount() {
+        return tables.length;
+    }
+
+    /**
+     * 获取视图的数量
+     *
+     * @return 视图的数量
+     */
+    public int getViewCount() {
+        return views.length;
+    }
+
+    /**
+     * 获取物化视图的数量
+     *
+     * @return 物化视图的数量
+     */
+    public int getMaterializedViewCount() {
+        return materializedViews.length;
+    }
+}
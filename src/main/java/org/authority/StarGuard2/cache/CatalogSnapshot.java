@@ -0,0 +1,122 @@
+package org.authority.StarGuard2.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 元数据快照，保存某一时刻所有数据库及其中的表、视图和物化视图名
+ * 快照创建后不再修改，刷新时生成新的版本，未变化的数据库在新旧版本之间共享
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class CatalogSnapshot {
+    private final long version;
+    private final long loadedAt;
+    private final Map<String, CatalogDatabase> databases;
+    private final List<String> databaseNames;
+    private final int tableCount;
+    private final int viewCount;
+    private final int materializedViewCount;
+
+    /**
+     * 构造函数
+     *
+     * @param version 快照版本号
+     * @param loadedAt 快照生成时间（毫秒时间戳）
+     * @param databases 按数据库名排序的数据库映射
+     */
+    CatalogSnapshot(long version, long loadedAt, TreeMap<String, CatalogDatabase> databases) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.databases = Collections.unmodifiableMap(databases);
+        this.databaseNames = Collections.unmodifiableList(new ArrayList<>(databases.keySet()));
+        int tables = 0;
+        int views = 0;
+        int materializedViews = 0;
+        for (CatalogDatabase database : databases.values()) {
+            tables += database.getTableCount();
+            views += database.getViewCount();
+            materializedViews += database.getMaterializedViewCount();
+        }
+        this.tableCount = tables;
+        this.viewCount = views;
+        this.materializedViewCount = materializedViews;
+    }
+
+    /**
+     * 获取快照版本号
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取快照生成时间
+     *
+     * @return 毫秒时间戳
+     */
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * 获取所有数据库名
+     *
+     * @return 排序后的只读列表
+     */
+    public List<String> getDatabaseNames() {
+        return databaseNames;
+    }
+
+    /**
+     * 获取数据库
+     *
+     * @param name 数据库名
+     * @return 数据库，不存在时返回null
+     */
+    public CatalogDatabase getDatabase(String name) {
+        return name == null ? null : databases.get(name);
+    }
+
+    /**
+     * 获取所有数据库
+     *
+     * @return 按数据库名排序的只读映射
+     */
+    public Map<String, CatalogDatabase> getDatabases() {
+        return databases;
+    }
+
+    /**
+     * 获取表的总数（不含视图和物化视图）
+     *
+     * @return 表的总数
+     */
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    /**
+     * 获取视图的总数
+     *
+     * @return 视图的总数
+     */
+    public int getViewCount() {
+        return viewCount;
+    }
+
+    /**
+     * 获取物化视图的总数
+     *
+     * @return 物化视图的总数
+     */
+    public int getMaterializedViewCount() {
+        return materializedViewCount;
+    }
+}
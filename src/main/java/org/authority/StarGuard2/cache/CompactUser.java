@@ -0,0 +1,281 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.model.Permission;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.User;
+import org.authority.StarGuard2.model.UserIdentity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 快照中单个用户的紧凑表示
+ * 授权对象描述和主机地址以字典编号保存；同一授权对象上的所有权限合并为一个位掩码，
+ * 第i位对应 PermissionType 的第i个枚举值，带GRANT OPTION的权限另有一个同样布局的掩码；
+ * 无法识别的权限没有对应的位，以（授权对象编号、权限名称编号、是否带GRANT OPTION）三元组单独保存
+ * Permission对象只在需要时由 {@link #toUser} 生成
+ *
+ * @author System
+ * @version 1.0
+ */
+final class CompactUser {
+    private static final PermissionType[] TYPES = PermissionType.values();
+
+    // 没有授权对象描述的权限使用的编号
+    static final int NO_OBJECT = -1;
+
+    private static final int[] NO_UNKNOWN_GRANTS = new int[0];
+
+    private final UserIdentity identity;
+    private final int hostId;
+    // 下标一一对应：授权对象编号、该对象上的权限掩码、其中带GRANT OPTION的权限掩码
+    private final int[] objectIds;
+    private final long[] privilegeMasks;
+    private final long[] grantOptionMasks;
+    // 无法识别的权限，每三个元素为一组：授权对象编号、权限名称编号、是否带GRANT OPTION（1或0）
+    private final int[] unknownGrants;
+    private final boolean hasGrantOption;
+    private final String loadError;
+
+    private CompactUser(UserIdentity identity, int hostId, int[] objectIds, long[] privilegeMasks,
+                        long[] grantOptionMasks, int[] unknownGrants, boolean hasGrantOption, String loadError) {
+        this.identity = identity;
+        this.hostId = hostId;
+        this.objectIds = objectIds;
+        this.privilegeMasks = privilegeMasks;
+        this.grantOptionMasks = grantOptionMasks;
+        this.unknownGrants = unknownGrants;
+        this.hasGrantOption = hasGrantOption;
+        this.loadError = loadError;
+    }
+
+    /**
+     * 将用户编码为紧凑表示，授权对象按首次出现的顺序排列
+     *
+     * @param user 用户对象
+     * @param objects 授权对象描述字典
+     * @param hosts 主机地址字典
+     * @param privileges 无法识别的权限名称字典
+     * @return 紧凑表示
+     */
+    static CompactUser encode(User user, StringDictionary objects, StringDictionary hosts,
+                              StringDictionary privileges) {
+        int hostId = hosts.intern(user.getHost());
+        UserIdentity identity = new UserIdentity(user.getUsername(), hosts.get(hostId));
+        List<Permission> permissions = user.getPermissions();
+        int capacity = permissions == null ? 0 : permissions.size();
+        int[] objectIds = new int[capacity];
+        long[] privilegeMasks = new long[capacity];
+        long[] grantOptionMasks = new long[capacity];
+        int count = 0;
+        int[] unknownGrants = NO_UNKNOWN_GRANTS;
+        int unknownLength = 0;
+        if (permissions != null) {
+            Map<Integer, Integer> slots = new HashMap<>();
+            for (Permission permission : permissions) {
+                String description = permission.getDatabaseName();
+                int objectId = description == null ? NO_OBJECT : objects.intern(description);
+                if (permission.getPermissionType() == null) {
+                    if (permission.getPrivilegeName() == null) {
+                        continue;
+                    }
+                    if (unknownLength == unknownGrants.length) {
+                        unknownGrants = Arrays.copyOf(unknownGrants, Math.max(6, unknownLength * 2));
+                    }
+                    unknownGrants[unknownLength++] = objectId;
+                    unknownGrants[unknownLength++] = privileges.intern(permission.getPrivilegeName());
+                    unknownGrants[unknownLength++] = permission.isWithGrantOption() ? 1 : 0;
+                    continue;
+                }
+                Integer slot = slots.get(objectId);
+                if (slot == null) {
+                    slot = count++;
+                    slots.put(objectId, slot);
+                    objectIds[slot] = objectId;
+                }
+                long bit = 1L << permission.getPermissionType().ordinal();
+                privilegeMasks[slot] |= bit;
+                if (permission.isWithGrantOption()) {
+                    grantOptionMasks[slot] |= bit;
+                }
+            }
+        }
+        return new CompactUser(identity, hostId,
+                Arrays.copyOf(objectIds, count), Arrays.copyOf(privilegeMasks, count),
+                Arrays.copyOf(grantOptionMasks, count), unknownLength == 0 ? NO_UNKNOWN_GRANTS : Arrays.copyOf(unknownGrants, unknownLength),
+                user.isHasGrantOption(), user.getLoadError());
+    }
+
+    /**
+     * 生成完整的用户对象，每次调用都返回新的对象
+     *
+     * @param objects 授权对象描述字典
+     * @param privileges 无法识别的权限名称字典
+     * @return 用户对象
+     */
+    User toUser(StringDictionary objects, StringDictionary privileges) {
+        User user = new User(identity.getUsername(), identity.getHost());
+        List<Permission> permissions = new ArrayList<>(getGrantCount());
+        for (int i = 0; i < objectIds.length; i++) {
+            String description = objectIds[i] == NO_OBJECT ? null : objects.get(objectIds[i]);
+            for (long mask = privilegeMasks[i]; mask != 0; mask &= mask - 1) {
+                int ordinal = Long.numberOfTrailingZeros(mask);
+                Permission permission = new Permission(TYPES[ordinal], description);
+                permission.setWithGrantOption((grantOptionMasks[i] & (1L << ordinal)) != 0);
+                permissions.add(permission);
+            }
+        }
+        for (int i = 0; i < unknownGrants.length; i += 3) {
+            String description = unknownGrants[i] == NO_OBJECT ? null : objects.get(unknownGrants[i]);
+            Permission permission = Permission.unknown(privileges.get(unknownGrants[i + 1]), description);
+            permission.setWithGrantOption(unknownGrants[i + 2] != 0);
+            permissions.add(permission);
+        }
+        user.setPermissions(permissions);
+        user.setHasGrantOption(hasGrantOption);
+        user.setLoadError(loadError);
+        return user;
+    }
+
+    /**
+     * 计算用户内容的64位哈希，只依赖权限内容本身而与字典编号无关，完整刷新前后内容相同的用户哈希相同
+     *
+     * @param objects 授权对象描述字典
+     * @param privileges 无法识别的权限名称字典
+     * @return 哈希值
+     */
+    long contentHash(StringDictionary objects, StringDictionary privileges) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < objectIds.length; i++) {
+            hash = mix(hash, objectIds[i] == NO_OBJECT ? null : objects.get(objectIds[i]));
+            hash = mix(hash, privilegeMasks[i]);
+            hash = mix(hash, grantOptionMasks[i]);
+        }
+        for (int i = 0; i < unknownGrants.length; i += 3) {
+            hash = mix(hash, unknownGrants[i] == NO_OBJECT ? null : objects.get(unknownGrants[i]));
+            hash = mix(hash, privileges.get(unknownGrants[i + 1]));
+            hash = mix(hash, unknownGrants[i + 2]);
+        }
+        hash = mix(hash, hasGrantOption ? 1 : 0);
+        return mix(hash, loadError);
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < 64; shift += 16) {
+            hash = (hash ^ ((value >>> shift) & 0xffff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            return mix(hash, -1L);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        // 以长度结尾，避免相邻字符串拼接后得到相同的哈希
+        return mix(hash, value.length());
+    }
+
+    /**
+     * 获取用户标识
+     *
+     * @return 用户标识
+     */
+    UserIdentity getIdentity() {
+        return identity;
+    }
+
+    /**
+     * 获取主机地址在字典中的编号
+     *
+     * @return 主机地址编号
+     */
+    int getHostId() {
+        return hostId;
+    }
+
+    /**
+     * 获取授权对象数量
+     *
+     * @return 授权对象数量
+     */
+    int getObjectCount() {
+        return objectIds.length;
+    }
+
+    /**
+     * 获取第i个授权对象的字典编号
+     *
+     * @param i 下标
+     * @return 授权对象编号，没有授权对象描述时为 {@link #NO_OBJECT}
+     */
+    int getObjectId(int i) {
+        return objectIds[i];
+    }
+
+    /**
+     * 获取第i个授权对象上的权限掩码
+     *
+     * @param i 下标
+     * @return 权限掩码
+     */
+    long getPrivilegeMask(int i) {
+        return privilegeMasks[i];
+    }
+
+    /**
+     * 获取第i个授权对象上带GRANT OPTION的权限掩码
+     *
+     * @param i 下标
+     * @return 权限掩码
+     */
+    long getGrantOptionMask(int i) {
+        return grantOptionMasks[i];
+    }
+
+    /**
+     * 获取授权条数，即所有掩码中置位的总数加上无法识别的权限数量
+     *
+     * @return 授权条数
+     */
+    int getGrantCount() {
+        int count = unknownGrants.length / 3;
+        for (long mask : privilegeMasks) {
+            count += Long.bitCount(mask);
+        }
+        return count;
+    }
+
+    /**
+     * 检查用户是否拥有带GRANT OPTION的权限
+     *
+     * @return true如果拥有
+     */
+    boolean isHasGrantOption() {
+        return hasGrantOption;
+    }
+
+    /**
+     * 获取加载失败时的错误信息
+     *
+     * @return 错误信息，加载成功时为null
+     */
+    String getLoadError() {
+        return loadError;
+    }
+
+    /**
+     * 获取权限类型枚举值
+     *
+     * @param ordinal 掩码中的位序号
+     * @return 权限类型
+     */
+    static PermissionType typeAt(int ordinal) {
+        return TYPES[ordinal];
+    }
+}
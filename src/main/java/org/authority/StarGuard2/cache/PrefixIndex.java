@@ -0,0 +1,185 @@
+package org.authority.StarGuard2.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+/**
+ * 名称前缀索引，把名称的小写形式排序后保存在数组中，前缀匹配的名称是数组中的一个连续区间，由两次二分查找确定
+ * 每个名称可以带有一个限定名（如对象所在的数据库、用户的主机地址）；
+ * 按限定名建立的索引以“限定名 + \0 + 名称”为键（均为小写），限定名内的前缀查找同样是一个连续区间
+ * 匹配结果按名称长度、再按字典序排名，与前缀完全相同的名称最短，总是排在第一位
+ * 排名键（长度、下标）保存在一棵最小值线段树中，取区间内前k个只需 O(k log n)，与匹配的名称数量无关，
+ * 单个字符的前缀匹配数万个名称时也不需要扫描整个区间
+ * 该类不可变
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class PrefixIndex {
+    private static final char SEPARATOR = '\0';
+
+    private final boolean qualifiedKeys;
+    // 下标一一对应，按keys排序
+    private final String[] keys;
+    private final String[] names;
+    private final String[] qualifiers;
+    // 最小值线段树，叶子为 (名称长度 << 32) | 下标，空位为Long.MAX_VALUE
+    private final long[] rankTree;
+    private final int leafOffset;
+
+    private PrefixIndex(boolean qualifiedKeys, String[] keys, String[] names, String[] qualifiers) {
+        this.qualifiedKeys = qualifiedKeys;
+        this.keys = keys;
+        this.names = names;
+        this.qualifiers = qualifiers;
+        int offset = 1;
+        while (offset < keys.length) {
+            offset <<= 1;
+        }
+        this.leafOffset = offset;
+        this.rankTree = new long[offset * 2];
+        Arrays.fill(rankTree, Long.MAX_VALUE);
+        for (int i = 0; i < names.length; i++) {
+            rankTree[offset + i] = ((long) names[i].length() << 32) | i;
+        }
+        for (int node = offset - 1; node > 0; node--) {
+            rankTree[node] = Math.min(rankTree[node * 2], rankTree[node * 2 + 1]);
+        }
+    }
+
+    /**
+     * 创建索引
+     *
+     * @param names 名称列表
+     * @param qualifiers 与名称一一对应的限定名列表，可以为null或包含null
+     * @param qualifiedKeys 是否以限定名加名称为键，为true时只能在给定的限定名内查找
+     * @return 索引
+     */
+    public static PrefixIndex build(List<String> names, List<String> qualifiers, boolean qualifiedKeys) {
+        int size = names.size();
+        String[] unsortedKeys = new String[size];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            String qualifier = qualifiers != null ? qualifiers.get(i) : null;
+            unsortedKeys[i] = key(qualifiedKeys ? qualifier : null, names.get(i));
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing(i -> unsortedKeys[i]));
+        String[] keys = new String[size];
+        String[] sortedNames = new String[size];
+        String[] sortedQualifiers = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = unsortedKeys[order[i]];
+            sortedNames[i] = names.get(order[i]);
+            sortedQualifiers[i] = qualifiers != null ? qualifiers.get(order[i]) : null;
+        }
+        return new PrefixIndex(qualifiedKeys, keys, sortedNames, sortedQualifiers);
+    }
+
+    private static String key(String qualifier, String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return qualifier == null ? lower : qualifier.toLowerCase(Locale.ROOT) + SEPARATOR + lower;
+    }
+
+    /**
+     * 按前缀查找，返回排名最高的k个匹配项的下标
+     *
+     * @param qualifier 限定名，只对以限定名为键的索引有效且必须给出，不区分大小写
+     * @param prefix 名称前缀，不区分大小写，为null时视为空
+     * @param limit 最多返回的数量
+     * @return 按排名排列的下标，用 {@link #getName} 和 {@link #getQualifier} 读取
+     */
+    public List<Integer> search(String qualifier, String prefix, int limit) {
+        if (limit <= 0 || (qualifiedKeys && qualifier == null)) {
+            return Collections.emptyList();
+        }
+        String searchKey = key(qualifiedKeys ? qualifier : null, prefix == null ? "" : prefix);
+        int from = lowerBound(searchKey);
+        int to = lowerBound(searchKey + Character.MAX_VALUE);
+        List<Integer> result = new ArrayList<>(Math.min(limit, to - from));
+        if (from >= to) {
+            return result;
+        }
+        // 每个候选为 {区间最小排名键, 区间起点, 区间终点}；取出最小值后把区间在该位置拆成两段
+        PriorityQueue<long[]> candidates = new PriorityQueue<>(Comparator.comparingLong(c -> c[0]));
+        candidates.add(new long[] {minRank(from, to), from, to});
+        while (result.size() < limit && !candidates.isEmpty()) {
+            long[] candidate = candidates.poll();
+            int index = (int) candidate[0];
+            int low = (int) candidate[1];
+            int high = (int) candidate[2];
+            result.add(index);
+            if (low < index) {
+                candidates.add(new long[] {minRank(low, index), low, index});
+            }
+            if (index + 1 < high) {
+                candidates.add(new long[] {minRank(index + 1, high), index + 1, high});
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 查询区间 [from, to) 内的最小排名键
+     */
+    private long minRank(int from, int to) {
+        long min = Long.MAX_VALUE;
+        for (int low = from + leafOffset, high = to + leafOffset; low < high; low >>= 1, high >>= 1) {
+            if ((low & 1) == 1) {
+                min = Math.min(min, rankTree[low++]);
+            }
+            if ((high & 1) == 1) {
+                min = Math.min(min, rankTree[--high]);
+            }
+        }
+        return min;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 获取下标对应的名称
+     *
+     * @param index search返回的下标
+     * @return 名称
+     */
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * 获取下标对应的限定名
+     *
+     * @param index search返回的下标
+     * @return 限定名，没有时为null
+     */
+    public String getQualifier(int index) {
+        return qualifiers[index];
+    }
+
+    /**
+     * 获取索引中的名称数量
+     *
+     * @return 名称数量
+     */
+    public int size() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,48 @@
+package org.authority.StarGuard2.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 权限检查索引缓存，快照或角色图变化后重建索引
+ * 索引中的用户掩码按需计算，重建本身只创建一个空索引，代价很低
+ *
+ * @author System
+ * @version 1.0
+ */
+@Component
+public class PrivilegeCheckCache {
+    private final PrivilegeSnapshotCache snapshotCache;
+    private final RoleGraphCache roleGraphCache;
+
+    private volatile PrivilegeCheckIndex index;
+
+    /**
+     * 构造函数
+     *
+     * @param snapshotCache 权限快照缓存
+     * @param roleGraphCache 角色图缓存
+     */
+    @Autowired
+    public PrivilegeCheckCache(PrivilegeSnapshotCache snapshotCache, RoleGraphCache roleGraphCache) {
+        this.snapshotCache = snapshotCache;
+        this.roleGraphCache = roleGraphCache;
+    }
+
+    /**
+     * 获取与当前快照和角色图一致的权限检查索引
+     *
+     * @return 权限检查索引
+     */
+    public PrivilegeCheckIndex getIndex() {
+        PrivilegeSnapshot snapshot = snapshotCache.getSnapshot();
+        long roleGraphVersion = roleGraphCache.getVersion();
+        PrivilegeCheckIndex current = index;
+        if (current == null || current.getSnapshotVersion() != snapshot.getVersion()
+                || current.getRoleGraphVersion() != roleGraphVersion) {
+            current = new PrivilegeCheckIndex(snapshot, roleGraphCache, roleGraphVersion);
+            index = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,146 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.model.EffectivePermission;
+import org.authority.StarGuard2.model.GrantObject;
+import org.authority.StarGuard2.model.GrantObjectType;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.User;
+import org.authority.StarGuard2.model.UserIdentity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 权限检查索引，为每个用户维护“授权对象 -> 权限位掩码”的映射，位掩码的第i位对应 PermissionType 的第i个枚举值
+ * 用户的掩码包含直接授权和通过角色继承的权限，在首次检查该用户时计算
+ * 检查时依次取覆盖目标对象的各级授权对象的掩码（最多3次哈希查找），与所需权限位做按位与
+ * 索引绑定某个快照版本和角色图版本，任一版本变化后由 {@link PrivilegeCheckCache} 重建
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class PrivilegeCheckIndex {
+    private static final long ALL_PRIVILEGES_BIT = bit(PermissionType.ALL_PRIVILEGES);
+
+    private final PrivilegeSnapshot snapshot;
+    private final RoleGraphCache roleGraphCache;
+    private final long roleGraphVersion;
+    private final Map<UserIdentity, Map<GrantObject, Long>> masks = new ConcurrentHashMap<>();
+
+    /**
+     * 检查结果
+     */
+    public static final class Result {
+        private final boolean allowed;
+        private final GrantObject matchedOn;
+
+        private Result(boolean allowed, GrantObject matchedOn) {
+            this.allowed = allowed;
+            this.matchedOn = matchedOn;
+        }
+
+        /**
+         * 检查是否允许
+         *
+         * @return true表示用户拥有该权限
+         */
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        /**
+         * 获取提供该权限的授权对象
+         *
+         * @return 授权对象，不允许时为null
+         */
+        public GrantObject getMatchedOn() {
+            return matchedOn;
+        }
+    }
+
+    private static final Result DENIED = new Result(false, null);
+
+    /**
+     * 构造函数
+     *
+     * @param snapshot 权限快照
+     * @param roleGraphCache 角色图缓存
+     * @param roleGraphVersion 构建时的角色图版本号
+     */
+    PrivilegeCheckIndex(PrivilegeSnapshot snapshot, RoleGraphCache roleGraphCache, long roleGraphVersion) {
+        this.snapshot = snapshot;
+        this.roleGraphCache = roleGraphCache;
+        this.roleGraphVersion = roleGraphVersion;
+    }
+
+    /**
+     * 检查用户是否拥有目标对象上的某项权限，ALL PRIVILEGES视为包含任意权限
+     *
+     * @param identity 用户标识
+     * @param permissionType 权限类型
+     * @param target 目标对象
+     * @return 检查结果，用户不在快照中时返回null
+     */
+    public Result check(UserIdentity identity, PermissionType permissionType, GrantObject target) {
+        Map<GrantObject, Long> userMasks = masksOf(identity);
+        if (userMasks == null) {
+            return null;
+        }
+        long required = bit(permissionType) | ALL_PRIVILEGES_BIT;
+        for (GrantObject object : target.getCoveringObjects()) {
+            Long mask = userMasks.get(object);
+            if (mask != null && (mask & required) != 0) {
+                return new Result(true, object);
+            }
+        }
+        return DENIED;
+    }
+
+    /**
+     * 获取构建索引时的快照版本号
+     *
+     * @return 快照版本号
+     */
+    public long getSnapshotVersion() {
+        return snapshot.getVersion();
+    }
+
+    /**
+     * 获取构建索引时的角色图版本号
+     *
+     * @return 角色图版本号
+     */
+    public long getRoleGraphVersion() {
+        return roleGraphVersion;
+    }
+
+    /**
+     * 获取用户的权限掩码，首次访问时计算
+     */
+    private Map<GrantObject, Long> masksOf(UserIdentity identity) {
+        Map<GrantObject, Long> userMasks = masks.get(identity);
+        if (userMasks != null) {
+            return userMasks;
+        }
+        User user = snapshot.getUser(identity);
+        if (user == null) {
+            return null;
+        }
+        userMasks = new HashMap<>();
+        for (EffectivePermission effective : roleGraphCache.resolve(user)) {
+            PermissionType type = effective.getPermission().getPermissionType();
+            GrantObject object = effective.getPermission().getGrantObject();
+            if (type == null || object.getType() == GrantObjectType.OTHER || object.getType() == GrantObjectType.ROLE) {
+                continue;
+            }
+            userMasks.merge(object, bit(type), (a, b) -> a | b);
+        }
+        masks.put(identity, userMasks);
+        return userMasks;
+    }
+
+    private static long bit(PermissionType type) {
+        return 1L << type.ordinal();
+    }
+}
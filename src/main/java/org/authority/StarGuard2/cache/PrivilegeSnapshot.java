@@ -0,0 +1,346 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.model.User;
+import org.authority.StarGuard2.model.UserIdentity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 权限快照，保存某一时刻所有用户及其解析后的权限
+ * 快照创建后不再修改，更新时总是生成新的快照版本
+ * 用户以紧凑形式保存（见 {@link CompactUser}）：授权对象描述和主机地址编码为字典编号，
+ * 每个授权对象上的权限合并为位掩码；User/Permission对象只在读取单个用户或分页时生成
+ * 完整刷新时创建新的字典，单个用户更新和增量刷新时新旧快照共享字典，新字符串追加到字典末尾
+ * 每个版本记录相对于上一版本的用户变化列表，完整刷新生成的版本只标记为完整重新加载
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class PrivilegeSnapshot {
+    private final long version;
+    private final long loadedAt;
+    private final StringDictionary objects;
+    private final StringDictionary hosts;
+    private final StringDictionary privileges;
+    private final Map<UserIdentity, CompactUser> users;
+    private final List<CompactUser> userList;
+    private final List<UserIdentity> identities;
+    private final List<UserChange> changes;
+    private final boolean fullReload;
+
+    // 有序索引在首次分页时构建，快照不可变，因此每个版本最多构建一次
+    private volatile UserOrderIndex<UserIdentity> orderIndex;
+    // 搜索索引在首次搜索时构建
+    private volatile UserSearchIndex searchIndex;
+    // 对象访问索引在首次查询时构建
+    private volatile AccessIndex accessIndex;
+
+    /**
+     * 构造函数
+     *
+     * @param version 快照版本号
+     * @param loadedAt 快照加载时间（毫秒时间戳）
+     * @param objects 授权对象描述字典
+     * @param hosts 主机地址字典
+     * @param privileges 无法识别的权限名称字典
+     * @param users 按 SHOW USERS 顺序排列的用户映射
+     * @param changes 相对于上一版本的用户变化
+     * @param fullReload 是否由完整刷新生成
+     */
+    private PrivilegeSnapshot(long version, long loadedAt, StringDictionary objects, StringDictionary hosts,
+                              StringDictionary privileges, LinkedHashMap<UserIdentity, CompactUser> users,
+                              List<UserChange> changes, boolean fullReload) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.objects = objects;
+        this.hosts = hosts;
+        this.privileges = privileges;
+        this.users = Collections.unmodifiableMap(users);
+        this.userList = Collections.unmodifiableList(new ArrayList<>(users.values()));
+        this.identities = Collections.unmodifiableList(new ArrayList<>(users.keySet()));
+        this.changes = Collections.unmodifiableList(changes);
+        this.fullReload = fullReload;
+    }
+
+    /**
+     * 根据用户列表创建快照，使用新的字典
+     *
+     * @param version 快照版本号
+     * @param loadedAt 快照加载时间（毫秒时间戳）
+     * @param users 用户列表
+     * @return 快照
+     */
+    static PrivilegeSnapshot of(long version, long loadedAt, List<User> users) {
+        StringDictionary objects = new StringDictionary(true);
+        StringDictionary hosts = new StringDictionary(false);
+        StringDictionary privileges = new StringDictionary(false);
+        LinkedHashMap<UserIdentity, CompactUser> map = new LinkedHashMap<>(users.size() * 4 / 3 + 1);
+        for (User user : users) {
+            CompactUser compact = CompactUser.encode(user, objects, hosts, privileges);
+            map.put(compact.getIdentity(), compact);
+        }
+        return new PrivilegeSnapshot(version, loadedAt, objects, hosts, privileges, map,
+                Collections.<UserChange>emptyList(), true);
+    }
+
+    /**
+     * 生成替换（或新增）单个用户后的新快照，加载时间保持不变
+     *
+     * @param newVersion 新快照版本号
+     * @param user 新的用户数据
+     * @return 新快照
+     */
+    PrivilegeSnapshot withUser(long newVersion, User user) {
+        CompactUser compact = CompactUser.encode(user, objects, hosts, privileges);
+        LinkedHashMap<UserIdentity, CompactUser> map = new LinkedHashMap<>(users);
+        UserChange.Type type = map.put(compact.getIdentity(), compact) == null ? UserChange.Type.ADDED : UserChange.Type.UPDATED;
+        return new PrivilegeSnapshot(newVersion, loadedAt, objects, hosts, privileges, map,
+                Collections.singletonList(new UserChange(type, compact.getIdentity())), false);
+    }
+
+    /**
+     * 生成移除单个用户后的新快照，加载时间保持不变
+     *
+     * @param newVersion 新快照版本号
+     * @param identity 用户标识
+     * @return 新快照
+     */
+    PrivilegeSnapshot withoutUser(long newVersion, UserIdentity identity) {
+        LinkedHashMap<UserIdentity, CompactUser> map = new LinkedHashMap<>(users);
+        map.remove(identity);
+        return new PrivilegeSnapshot(newVersion, loadedAt, objects, hosts, privileges, map,
+                Collections.singletonList(new UserChange(UserChange.Type.REMOVED, identity)), false);
+    }
+
+    /**
+     * 生成批量应用变化后的新快照，加载时间保持不变
+     * 未出现在updated中的用户直接沿用当前快照中的紧凑表示，不重新编码
+     *
+     * @param newVersion 新快照版本号
+     * @param order 新快照中的用户标识及其顺序
+     * @param updated 新增或发生变化的用户
+     * @param changes 用户变化列表
+     * @return 新快照
+     */
+    PrivilegeSnapshot withChanges(long newVersion, List<UserIdentity> order, Map<UserIdentity, User> updated,
+                                  List<UserChange> changes) {
+        LinkedHashMap<UserIdentity, CompactUser> map = new LinkedHashMap<>(order.size() * 4 / 3 + 1);
+        for (UserIdentity identity : order) {
+            User user = updated.get(identity);
+            CompactUser compact = user != null
+                    ? CompactUser.encode(user, objects, hosts, privileges) : users.get(identity);
+            if (compact != null) {
+                map.put(identity, compact);
+            }
+        }
+        return new PrivilegeSnapshot(newVersion, loadedAt, objects, hosts, privileges, map,
+                new ArrayList<>(changes), false);
+    }
+
+    /**
+     * 获取快照版本号，每次快照内容变化都会递增
+     *
+     * @return 快照版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 获取相对于上一版本的用户变化
+     *
+     * @return 只读变化列表，完整刷新生成的版本为空列表
+     */
+    public List<UserChange> getChanges() {
+        return changes;
+    }
+
+    /**
+     * 检查快照是否由完整刷新生成，此时所有用户都可能发生了变化
+     *
+     * @return true如果由完整刷新生成
+     */
+    public boolean isFullReload() {
+        return fullReload;
+    }
+
+    /**
+     * 获取快照加载时间
+     *
+     * @return 毫秒时间戳
+     */
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * 获取快照距今的时长
+     *
+     * @return 毫秒数
+     */
+    public long getAgeMillis() {
+        return System.currentTimeMillis() - loadedAt;
+    }
+
+    /**
+     * 获取快照中的所有用户，顺序与 SHOW USERS 一致
+     * 每次调用都会为所有用户生成新的User对象，只需逐个处理时应使用 {@link #forEachUser}
+     *
+     * @return 用户列表
+     */
+    public List<User> getUsers() {
+        List<User> result = new ArrayList<>(userList.size());
+        forEachUser(result::add);
+        return result;
+    }
+
+    /**
+     * 按 SHOW USERS 的顺序逐个生成并处理用户，不会同时持有所有用户的User对象
+     *
+     * @param consumer 用户处理函数
+     */
+    public void forEachUser(Consumer<User> consumer) {
+        for (CompactUser user : userList) {
+            consumer.accept(user.toUser(objects, privileges));
+        }
+    }
+
+    /**
+     * 获取快照中所有用户的标识，顺序与 SHOW USERS 一致
+     *
+     * @return 只读用户标识列表
+     */
+    public List<UserIdentity> getIdentities() {
+        return identities;
+    }
+
+    /**
+     * 获取快照中的特定用户，每次调用都返回新生成的User对象
+     *
+     * @param identity 用户标识
+     * @return 用户对象，不存在时返回null
+     */
+    public User getUser(UserIdentity identity) {
+        CompactUser user = users.get(identity);
+        return user != null ? user.toUser(objects, privileges) : null;
+    }
+
+    /**
+     * 计算快照中特定用户内容的哈希，不生成User对象，可用作该用户数据的强ETag
+     *
+     * @param identity 用户标识
+     * @return 哈希值，用户不存在时返回null
+     */
+    public Long getUserContentHash(UserIdentity identity) {
+        CompactUser user = users.get(identity);
+        return user != null ? user.contentHash(objects, privileges) : null;
+    }
+
+    /**
+     * 检查快照中是否存在特定用户
+     *
+     * @param identity 用户标识
+     * @return true如果存在
+     */
+    public boolean contains(UserIdentity identity) {
+        return users.containsKey(identity);
+    }
+
+    /**
+     * 检查快照中的特定用户是否加载成功
+     *
+     * @param identity 用户标识
+     * @return true如果用户存在且没有加载错误
+     */
+    public boolean isLoaded(UserIdentity identity) {
+        CompactUser user = users.get(identity);
+        return user != null && user.getLoadError() == null;
+    }
+
+    /**
+     * 获取快照的用户有序索引，首次调用时构建
+     *
+     * @return 用户有序索引
+     */
+    public UserOrderIndex<UserIdentity> getOrderIndex() {
+        UserOrderIndex<UserIdentity> index = orderIndex;
+        if (index == null) {
+            index = new UserOrderIndex<>(identities, identity -> identity);
+            orderIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * 获取快照的用户搜索索引，首次调用时构建
+     *
+     * @return 用户搜索索引
+     */
+    public UserSearchIndex getSearchIndex() {
+        UserSearchIndex index = searchIndex;
+        if (index == null) {
+            index = new UserSearchIndex(userList, objects);
+            searchIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * 获取快照的对象访问倒排索引，首次调用时构建
+     *
+     * @return 对象访问索引
+     */
+    public AccessIndex getAccessIndex() {
+        AccessIndex index = accessIndex;
+        if (index == null) {
+            index = new AccessIndex(userList, objects);
+            accessIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * 获取快照中的用户数量
+     *
+     * @return 用户数量
+     */
+    public int size() {
+        return users.size();
+    }
+
+    /**
+     * 获取快照中的授权条数（每个用户在每个授权对象上的每种权限计一条）
+     *
+     * @return 授权条数
+     */
+    public long getGrantCount() {
+        long count = 0;
+        for (CompactUser user : userList) {
+            count += user.getGrantCount();
+        }
+        return count;
+    }
+
+    /**
+     * 获取授权对象描述字典中的字符串数量
+     *
+     * @return 字符串数量
+     */
+    public int getObjectDictionarySize() {
+        return objects.size();
+    }
+
+    /**
+     * 获取主机地址字典中的字符串数量
+     *
+     * @return 字符串数量
+     */
+    public int getHostDictionarySize() {
+        return hosts.size();
+    }
+}
@@ -0,0 +1,567 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.event.SnapshotPublishedEvent;
+import org.authority.StarGuard2.model.User;
+import org.authority.StarGuard2.model.UserGrants;
+import org.authority.StarGuard2.model.UserIdentity;
+import org.authority.StarGuard2.repository.PermissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 权限快照缓存，位于Service层与Repository层之间
+ * 读操作直接返回内存中的快照；快照超过TTL后在后台刷新，刷新期间继续返回旧快照；
+ * 授权/撤销成功后只重新加载受影响的用户（写穿透），失败时使该用户失效，下次读取时重新加载
+ * 启用增量刷新时，后台定时执行 SHOW USERS 和逐用户 SHOW GRANTS，以原始授权语句的指纹判断用户是否变化，
+ * 只重新解析和编码变化的用户，并把新增、变化、删除的用户作为变化列表随新快照版本一起发布
+ *
+ * @author System
+ * @version 1.0
+ */
+@Component
+public class PrivilegeSnapshotCache {
+    private static final Logger logger = LoggerFactory.getLogger(PrivilegeSnapshotCache.class);
+
+    private final PermissionRepository permissionRepository;
+    private final UserIdentityRegistry userIdentityRegistry;
+    private final ExecutorService snapshotRefreshExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong versionCounter = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final Object writeLock = new Object();
+    private final Object refreshLock = new Object();
+
+    // 已失效、等待重新加载的用户
+    private final Set<UserIdentity> invalidatedUsers = new LinkedHashSet<>();
+
+    // 完整刷新或增量刷新期间被单独更新或失效的用户，刷新进行中时非null，受writeLock保护
+    private Set<UserIdentity> touchedDuringRefresh;
+
+    // 每个用户原始授权语句的指纹，与快照中该用户的数据对应，由完整刷新和增量刷新记录；
+    // 用户被单独更新或失效后移除对应指纹，下次增量刷新时重新解析
+    private final Map<UserIdentity, Long> grantFingerprints = new ConcurrentHashMap<>();
+
+    private volatile PrivilegeSnapshot snapshot;
+
+    // 最近一次增量刷新完成的时间，快照数据的时效取加载时间与该时间中较新的一个
+    private volatile long lastIncrementalRefreshAt;
+    private volatile int lastIncrementalCheckedUsers;
+    private volatile int lastIncrementalReparsedUsers;
+
+    // 快照有效期（秒），增量刷新成功也会重置有效期，因此应明显长于增量刷新间隔
+    @Value("${starguard.snapshot.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    // 是否启用后台增量刷新
+    @Value("${starguard.snapshot.incremental.enabled:true}")
+    private boolean incrementalEnabled;
+
+    /**
+     * 构造函数
+     *
+     * @param permissionRepository 权限管理Repository
+     * @param userIdentityRegistry 用户标识注册表
+     * @param snapshotRefreshExecutor 后台刷新快照的线程池
+     * @param eventPublisher 快照版本发布事件的发布器
+     */
+    @Autowired
+    public PrivilegeSnapshotCache(PermissionRepository permissionRepository,
+                                  UserIdentityRegistry userIdentityRegistry,
+                                  @Qualifier("snapshotRefreshExecutor") ExecutorService snapshotRefreshExecutor,
+                                  ApplicationEventPublisher eventPublisher) {
+        this.permissionRepository = permissionRepository;
+        this.userIdentityRegistry = userIdentityRegistry;
+        this.snapshotRefreshExecutor = snapshotRefreshExecutor;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 获取当前快照
+     * 首次访问时同步加载；快照过期时触发后台刷新并返回旧快照
+     *
+     * @return 当前快照
+     */
+    public PrivilegeSnapshot getSnapshot() {
+        PrivilegeSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (refreshLock) {
+                // 并发的首次访问只加载一次
+                return snapshot != null ? snapshot : refresh();
+            }
+        }
+        reloadInvalidatedUsers();
+        long verifiedAt = Math.max(current.getLoadedAt(), lastIncrementalRefreshAt);
+        if (System.currentTimeMillis() - verifiedAt > ttlSeconds * 1000L) {
+            triggerAsyncRefresh();
+        }
+        return snapshot;
+    }
+
+    /**
+     * 获取特定用户，快照中不存在时从数据库加载并写入快照
+     *
+     * @param username 用户名
+     * @param host 主机地址
+     * @return 用户对象
+     */
+    public User getUser(String username, String host) {
+        UserIdentity identity = new UserIdentity(username, host);
+        User user = getSnapshot().getUser(identity);
+        if (user != null) {
+            return user;
+        }
+        return refreshUser(username, host);
+    }
+
+    /**
+     * 同步重新加载完整快照
+     *
+     * @return 新快照
+     */
+    public PrivilegeSnapshot refresh() {
+        synchronized (refreshLock) {
+            synchronized (writeLock) {
+                touchedDuringRefresh = new HashSet<>();
+            }
+            logger.info("开始加载权限快照");
+            long start = System.currentTimeMillis();
+            List<User> users;
+            Map<UserIdentity, Long> fingerprints = new HashMap<>();
+            try {
+                users = incrementalEnabled ? loadAllUserGrants(fingerprints) : permissionRepository.getAllUsers();
+            } catch (RuntimeException e) {
+                synchronized (writeLock) {
+                    touchedDuringRefresh = null;
+                }
+                throw e;
+            }
+            synchronized (writeLock) {
+                PrivilegeSnapshot previous = snapshot;
+                List<User> merged = new ArrayList<>(users.size());
+                List<UserIdentity> identities = new ArrayList<>(users.size());
+                for (User user : users) {
+                    UserIdentity identity = UserIdentity.of(user);
+                    identities.add(identity);
+                    // 加载期间被写穿透更新过的用户以快照中的数据为准，避免被较旧的查询结果覆盖；
+                    // 单个用户加载失败时，若旧快照中有该用户的有效数据则沿用旧数据
+                    boolean keepPrevious = previous != null
+                            && (touchedDuringRefresh.contains(identity) && previous.contains(identity)
+                            || user.getLoadError() != null && previous.isLoaded(identity));
+                    merged.add(keepPrevious ? previous.getUser(identity) : user);
+                    if (keepPrevious) {
+                        fingerprints.remove(identity);
+                    }
+                }
+                PrivilegeSnapshot loaded = PrivilegeSnapshot.of(versionCounter.incrementAndGet(), System.currentTimeMillis(), merged);
+                publish(loaded);
+                userIdentityRegistry.replaceAll(identities);
+                invalidatedUsers.retainAll(touchedDuringRefresh);
+                touchedDuringRefresh = null;
+                // 指纹改为与新快照中的数据对应，沿用旧数据的用户没有指纹，下次增量刷新时重新解析
+                grantFingerprints.clear();
+                grantFingerprints.putAll(fingerprints);
+                logger.info("权限快照加载完成: version={}, users={}, 耗时{}ms",
+                        loaded.getVersion(), loaded.size(), System.currentTimeMillis() - start);
+                return loaded;
+            }
+        }
+    }
+
+    /**
+     * 加载所有用户的权限，同时记录每个用户的指纹，使之后的增量刷新只更新变化的用户
+     * 集群支持权限系统视图时以几条集合查询加载，指纹按GRANTEE汇总系统视图记录计算；
+     * 否则逐用户查询 SHOW GRANTS，指纹基于原始授权语句
+     *
+     * @param fingerprints 用于接收查询成功的用户的指纹
+     * @return 用户列表，顺序与 SHOW USERS 一致
+     */
+    private List<User> loadAllUserGrants(Map<UserIdentity, Long> fingerprints) {
+        List<UserIdentity> identities = permissionRepository.getAllUserIdentities();
+        List<User> users = new ArrayList<>(identities.size());
+        boolean bulk = permissionRepository.forEachUserInBulk(identities, (user, fingerprint) -> {
+            fingerprints.put(UserIdentity.of(user), fingerprint);
+            users.add(user);
+        });
+        if (bulk) {
+            return users;
+        }
+        permissionRepository.forEachUserGrants(identities, grants -> {
+            if (grants.getLoadError() == null) {
+                fingerprints.put(grants.getIdentity(), grants.fingerprint());
+            }
+            users.add(permissionRepository.parseUserGrants(grants));
+        });
+        return users;
+    }
+
+    /**
+     * 后台定时执行增量刷新，未启用或快照尚未加载时跳过
+     */
+    @Scheduled(initialDelayString = "${starguard.snapshot.incremental.interval-ms:300000}",
+            fixedDelayString = "${starguard.snapshot.incremental.interval-ms:300000}")
+    public void scheduledIncrementalRefresh() {
+        if (!incrementalEnabled || snapshot == null) {
+            return;
+        }
+        try {
+            refreshIncrementally();
+        } catch (RuntimeException e) {
+            logger.warn("后台增量刷新权限快照失败", e);
+        }
+    }
+
+    /**
+     * 同步执行一次增量刷新
+     * 执行 SHOW USERS，再通过权限系统视图批量读取（不支持时逐用户 SHOW GRANTS），只更新指纹发生变化的用户；
+     * 有用户新增、变化或删除时发布新的快照版本，否则保留当前版本
+     * 快照尚未加载时执行完整加载
+     *
+     * @return 刷新后的快照
+     */
+    public PrivilegeSnapshot refreshIncrementally() {
+        synchronized (refreshLock) {
+            PrivilegeSnapshot base = snapshot;
+            if (base == null) {
+                return refresh();
+            }
+            synchronized (writeLock) {
+                touchedDuringRefresh = new HashSet<>();
+            }
+            long start = System.currentTimeMillis();
+            List<UserIdentity> identities;
+            Map<UserIdentity, User> reparsed = new HashMap<>();
+            int[] checked = new int[1];
+            try {
+                identities = permissionRepository.getAllUserIdentities();
+                boolean bulk = permissionRepository.forEachUserInBulk(identities, (user, fingerprint) -> {
+                    checked[0]++;
+                    UserIdentity identity = UserIdentity.of(user);
+                    if (!fingerprint.equals(grantFingerprints.put(identity, fingerprint)) || !base.isLoaded(identity)) {
+                        reparsed.put(identity, user);
+                    }
+                });
+                if (!bulk) {
+                    permissionRepository.forEachUserGrants(identities, grants -> {
+                        checked[0]++;
+                        UserIdentity identity = grants.getIdentity();
+                        if (grants.getLoadError() != null) {
+                            // 查询失败：已有的用户沿用旧数据，新用户以带有loadError的形式加入
+                            grantFingerprints.remove(identity);
+                            if (!base.contains(identity)) {
+                                reparsed.put(identity, permissionRepository.parseUserGrants(grants));
+                            }
+                            return;
+                        }
+                        Long fingerprint = grants.fingerprint();
+                        if (!fingerprint.equals(grantFingerprints.put(identity, fingerprint)) || !base.isLoaded(identity)) {
+                            reparsed.put(identity, permissionRepository.parseUserGrants(grants));
+                        }
+                    });
+                }
+            } catch (RuntimeException e) {
+                synchronized (writeLock) {
+                    touchedDuringRefresh = null;
+                }
+                throw e;
+            }
+            synchronized (writeLock) {
+                PrivilegeSnapshot current = snapshot;
+                List<UserIdentity> order = new ArrayList<>(identities);
+                Map<UserIdentity, User> updated = new HashMap<>();
+                List<UserChange> changes = new ArrayList<>();
+                for (UserIdentity identity : identities) {
+                    User user = reparsed.get(identity);
+                    if (user == null) {
+                        continue;
+                    }
+                    if (touchedDuringRefresh.contains(identity)) {
+                        // 刷新期间被写穿透更新过的用户以快照中的数据为准，指纹作废以便下次重新比较
+                        grantFingerprints.remove(identity);
+                        continue;
+                    }
+                    updated.put(identity, user);
+                    changes.add(new UserChange(current.contains(identity)
+                            ? UserChange.Type.UPDATED : UserChange.Type.ADDED, identity));
+                }
+                Set<UserIdentity> listed = new HashSet<>(identities);
+                for (UserIdentity identity : current.getIdentities()) {
+                    if (listed.contains(identity)) {
+                        continue;
+                    }
+                    if (touchedDuringRefresh.contains(identity)) {
+                        // 刷新期间单独加入的用户，SHOW USERS 的结果可能比它更旧
+                        order.add(identity);
+                    } else {
+                        grantFingerprints.remove(identity);
+                        changes.add(new UserChange(UserChange.Type.REMOVED, identity));
+                    }
+                }
+                touchedDuringRefresh = null;
+                lastIncrementalRefreshAt = System.currentTimeMillis();
+                lastIncrementalCheckedUsers = checked[0];
+                lastIncrementalReparsedUsers = reparsed.size();
+                if (changes.isEmpty()) {
+                    logger.debug("增量刷新完成，没有用户发生变化: 检查{}个用户，耗时{}ms",
+                            checked[0], System.currentTimeMillis() - start);
+                    return current;
+                }
+                PrivilegeSnapshot next = current.withChanges(versionCounter.incrementAndGet(), order, updated, changes);
+                publish(next);
+                invalidatedUsers.removeAll(updated.keySet());
+                userIdentityRegistry.replaceAll(next.getIdentities());
+                logger.info("增量刷新完成: version={}, 检查{}个用户，重新解析{}个，变化{}个，耗时{}ms",
+                        next.getVersion(), checked[0], reparsed.size(), changes.size(),
+                        System.currentTimeMillis() - start);
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 获取最近一次增量刷新完成的时间
+     *
+     * @return 毫秒时间戳，尚未执行过增量刷新时为0
+     */
+    public long getLastIncrementalRefreshAt() {
+        return lastIncrementalRefreshAt;
+    }
+
+    /**
+     * 获取最近一次增量刷新检查的用户数量
+     *
+     * @return 用户数量
+     */
+    public int getLastIncrementalCheckedUsers() {
+        return lastIncrementalCheckedUsers;
+    }
+
+    /**
+     * 获取最近一次增量刷新重新解析的用户数量
+     *
+     * @return 用户数量
+     */
+    public int getLastIncrementalReparsedUsers() {
+        return lastIncrementalReparsedUsers;
+    }
+
+    /**
+     * 重新加载单个用户并写入快照，用于授权/撤销成功后的写穿透更新
+     * 加载失败时使该用户失效
+     *
+     * @param username 用户名
+     * @param host 主机地址
+     * @return 重新加载后的用户对象
+     */
+    public User refreshUser(String username, String host) {
+        UserIdentity identity = new UserIdentity(username, host);
+        try {
+            User user = permissionRepository.getUserPermissions(username, host);
+            userIdentityRegistry.add(identity);
+            synchronized (writeLock) {
+                if (snapshot == null) {
+                    return user;
+                }
+                publish(snapshot.withUser(versionCounter.incrementAndGet(), user));
+                invalidatedUsers.remove(identity);
+                markTouched(identity);
+            }
+            logger.debug("快照中的用户已更新: {}", identity);
+            return user;
+        } catch (RuntimeException e) {
+            invalidateUser(username, host);
+            throw e;
+        }
+    }
+
+    /**
+     * 把已重新加载的多个用户一次写入快照，只发布一个快照版本，用于批量授权/撤销后的写穿透更新
+     *
+     * @param users 已重新加载的用户
+     */
+    public void putUsers(Collection<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        for (User user : users) {
+            userIdentityRegistry.add(UserIdentity.of(user));
+        }
+        synchronized (writeLock) {
+            PrivilegeSnapshot current = snapshot;
+            if (current == null) {
+                return;
+            }
+            List<UserIdentity> order = new ArrayList<>(current.getIdentities());
+            Map<UserIdentity, User> updated = new HashMap<>();
+            List<UserChange> changes = new ArrayList<>(users.size());
+            for (User user : users) {
+                UserIdentity identity = UserIdentity.of(user);
+                boolean existing = current.contains(identity);
+                if (!existing) {
+                    order.add(identity);
+                }
+                updated.put(identity, user);
+                changes.add(new UserChange(existing ? UserChange.Type.UPDATED : UserChange.Type.ADDED, identity));
+            }
+            publish(current.withChanges(versionCounter.incrementAndGet(), order, updated, changes));
+            for (UserIdentity identity : updated.keySet()) {
+                invalidatedUsers.remove(identity);
+                markTouched(identity);
+            }
+        }
+        logger.debug("快照中的{}个用户已更新", users.size());
+    }
+
+    /**
+     * 使单个用户失效，下次读取快照时重新加载该用户
+     *
+     * @param username 用户名
+     * @param host 主机地址
+     */
+    public void invalidateUser(String username, String host) {
+        UserIdentity identity = new UserIdentity(username, host);
+        synchronized (writeLock) {
+            if (snapshot == null) {
+                return;
+            }
+            invalidatedUsers.add(identity);
+            markTouched(identity);
+        }
+        logger.info("快照中的用户已失效: {}", identity);
+    }
+
+    /**
+     * 获取当前快照，不触发加载
+     *
+     * @return 当前快照，尚未加载时返回null
+     */
+    public PrivilegeSnapshot peek() {
+        return snapshot;
+    }
+
+    /**
+     * 在后台加载或刷新快照，不阻塞调用方；已有刷新任务在执行时直接返回
+     */
+    public void refreshAsync() {
+        triggerAsyncRefresh();
+    }
+
+    /**
+     * 检查后台刷新是否正在进行
+     *
+     * @return true表示正在刷新
+     */
+    public boolean isRefreshing() {
+        return refreshing.get();
+    }
+
+    /**
+     * 替换当前快照并发布快照版本事件，调用方需持有writeLock，以保证事件按版本号顺序发布
+     *
+     * @param next 新快照
+     */
+    private void publish(PrivilegeSnapshot next) {
+        PrivilegeSnapshot previous = snapshot;
+        snapshot = next;
+        eventPublisher.publishEvent(new SnapshotPublishedEvent(this, previous, next));
+    }
+
+    /**
+     * 记录刷新期间被单独更新的用户并作废其指纹，调用方需持有writeLock
+     *
+     * @param identity 用户标识
+     */
+    private void markTouched(UserIdentity identity) {
+        grantFingerprints.remove(identity);
+        if (touchedDuringRefresh != null) {
+            touchedDuringRefresh.add(identity);
+        }
+    }
+
+    /**
+     * 重新加载所有已失效的用户
+     * 加载失败的用户只有在 SHOW USERS 确认已被删除时才从快照中移除；
+     * 其他失败（如查询超时、连接池耗尽）保留失效状态，下次读取快照时重试
+     */
+    private void reloadInvalidatedUsers() {
+        List<UserIdentity> pending;
+        synchronized (writeLock) {
+            if (invalidatedUsers.isEmpty()) {
+                return;
+            }
+            pending = new ArrayList<>(invalidatedUsers);
+        }
+        List<UserIdentity> failed = new ArrayList<>();
+        for (UserIdentity identity : pending) {
+            try {
+                refreshUser(identity.getUsername(), identity.getHost());
+            } catch (RuntimeException e) {
+                logger.warn("重新加载失效用户失败: {}", identity, e);
+                failed.add(identity);
+            }
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+        Set<UserIdentity> existing;
+        try {
+            List<UserIdentity> identities = permissionRepository.getAllUserIdentities();
+            userIdentityRegistry.replaceAll(identities);
+            existing = new HashSet<>(identities);
+        } catch (RuntimeException e) {
+            logger.warn("查询用户列表失败，{}个失效用户保留失效状态，下次读取时重试", failed.size(), e);
+            return;
+        }
+        for (UserIdentity identity : failed) {
+            if (existing.contains(identity)) {
+                logger.info("用户仍然存在，保留失效状态，下次读取时重试: {}", identity);
+                continue;
+            }
+            logger.info("用户已被删除，从快照中移除: {}", identity);
+            synchronized (writeLock) {
+                invalidatedUsers.remove(identity);
+                grantFingerprints.remove(identity);
+                if (snapshot != null && snapshot.contains(identity)) {
+                    publish(snapshot.withoutUser(versionCounter.incrementAndGet(), identity));
+                }
+            }
+        }
+    }
+
+    /**
+     * 触发后台刷新，同一时刻只允许一个刷新任务
+     */
+    private void triggerAsyncRefresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        snapshotRefreshExecutor.execute(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                logger.error("后台刷新权限快照失败", e);
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+}
@@ -0,0 +1,357 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.model.EffectivePermission;
+import org.authority.StarGuard2.model.Permission;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.User;
+import org.authority.StarGuard2.repository.PermissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 角色图缓存，保存每个角色自身的权限和角色之间的继承关系，并缓存每个角色的传递闭包（角色及其所有父角色的权限）
+ * 闭包在首次使用时计算；某个角色的定义变化时，只失效该角色以及直接或间接继承它的角色的闭包
+ *
+ * @author System
+ * @version 1.0
+ */
+@Component
+public class RoleGraphCache {
+    private static final Logger logger = LoggerFactory.getLogger(RoleGraphCache.class);
+
+    private final PermissionRepository permissionRepository;
+    private final Object lock = new Object();
+    private final Object loadLock = new Object();
+
+    // 以下映射只在持有lock时读写
+    // 角色自身的权限（不含角色授权）
+    private final Map<String, List<Permission>> ownPermissions = new HashMap<>();
+    // 角色到授予它的父角色
+    private final Map<String, List<String>> parents = new HashMap<>();
+    // 角色到继承它的子角色（parents的反向索引）
+    private final Map<String, Set<String>> dependents = new HashMap<>();
+    // 角色定义的签名，用于重新加载时判断角色是否变化
+    private final Map<String, Set<String>> signatures = new HashMap<>();
+
+    // 已计算的角色闭包
+    private final Map<String, List<EffectivePermission>> closures = new ConcurrentHashMap<>();
+
+    // 角色图版本号，任何角色闭包失效时递增，依赖角色闭包的缓存据此判断是否需要重建
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile boolean loaded;
+    private volatile long loadedAt;
+
+    /**
+     * 构造函数
+     *
+     * @param permissionRepository 权限管理Repository
+     */
+    @Autowired
+    public RoleGraphCache(PermissionRepository permissionRepository) {
+        this.permissionRepository = permissionRepository;
+    }
+
+    /**
+     * 计算用户的有效权限：直接授予的权限加上所有被授予角色的闭包
+     * 同一权限可经多条路径获得时，保留路径最短的一条
+     *
+     * @param user 已加载权限的用户
+     * @return 有效权限列表
+     */
+    public List<EffectivePermission> resolve(User user) {
+        Map<String, EffectivePermission> result = new LinkedHashMap<>();
+        if (user.getPermissions() == null) {
+            return new ArrayList<>();
+        }
+        for (Permission permission : user.getPermissions()) {
+            if (permission.getPermissionType() != PermissionType.ROLE_GRANT) {
+                merge(result, new EffectivePermission(permission, Collections.<String>emptyList()));
+            }
+        }
+        for (Permission permission : user.getPermissions()) {
+            for (String role : permission.getGrantedRoles()) {
+                for (EffectivePermission inherited : getClosure(role)) {
+                    merge(result, inherited);
+                }
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    /**
+     * 获取角色的传递闭包，路径以该角色开头
+     *
+     * @param role 角色名
+     * @return 角色闭包，角色不存在时返回空列表
+     */
+    public List<EffectivePermission> getClosure(String role) {
+        ensureLoaded();
+        List<EffectivePermission> closure = closures.get(role);
+        if (closure != null) {
+            return closure;
+        }
+        synchronized (lock) {
+            return computeClosure(role, new HashSet<>(), new boolean[1]);
+        }
+    }
+
+    /**
+     * 获取所有已知的角色名
+     *
+     * @return 排序后的角色名集合
+     */
+    public Set<String> getRoleNames() {
+        ensureLoaded();
+        synchronized (lock) {
+            return new TreeSet<>(ownPermissions.keySet());
+        }
+    }
+
+    /**
+     * 重新加载单个角色的定义，只失效该角色及继承它的角色的闭包
+     *
+     * @param role 角色名
+     * @return 被失效的角色数量
+     */
+    public int refreshRole(String role) {
+        ensureLoaded();
+        List<Permission> permissions = permissionRepository.getRolePermissions(role);
+        synchronized (lock) {
+            int invalidated = applyRole(role, permissions) ? invalidate(role) : 0;
+            logger.info("角色重新加载完成: role={}, 失效闭包{}个", role, invalidated);
+            return invalidated;
+        }
+    }
+
+    /**
+     * 后台定时重新加载角色图，尚未使用过角色图时跳过
+     */
+    @Scheduled(initialDelayString = "${starguard.roles.refresh-interval-ms:300000}",
+            fixedDelayString = "${starguard.roles.refresh-interval-ms:300000}")
+    public void scheduledReload() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            logger.warn("后台重新加载角色图失败", e);
+        }
+    }
+
+    /**
+     * 重新加载所有角色，只失效定义发生变化的角色及继承它们的角色的闭包
+     */
+    public void reload() {
+        Map<String, List<Permission>> all = permissionRepository.getAllRolePermissions();
+        synchronized (lock) {
+            Set<String> changed = new HashSet<>();
+            for (Map.Entry<String, List<Permission>> entry : all.entrySet()) {
+                if (applyRole(entry.getKey(), entry.getValue())) {
+                    changed.add(entry.getKey());
+                }
+            }
+            for (String removed : new ArrayList<>(ownPermissions.keySet())) {
+                if (!all.containsKey(removed)) {
+                    changed.add(removed);
+                }
+            }
+            int invalidated = 0;
+            for (String role : changed) {
+                invalidated += invalidate(role);
+            }
+            for (String role : changed) {
+                if (!all.containsKey(role)) {
+                    removeRole(role);
+                }
+            }
+            loadedAt = System.currentTimeMillis();
+            logger.info("角色图加载完成: 共{}个角色，变化{}个，失效闭包{}个", all.size(), changed.size(), invalidated);
+        }
+        loaded = true;
+    }
+
+    /**
+     * 获取角色图版本号
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * 获取角色图最近一次完整加载的时间
+     *
+     * @return 毫秒时间戳，尚未加载时为0
+     */
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * 首次使用时同步加载角色图
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (!loaded) {
+                reload();
+            }
+        }
+    }
+
+    /**
+     * 更新角色定义，调用方需持有lock
+     *
+     * @param role 角色名
+     * @param permissions 角色的权限（含角色授权）
+     * @return true如果角色定义发生了变化
+     */
+    private boolean applyRole(String role, List<Permission> permissions) {
+        Set<String> signature = new HashSet<>();
+        List<Permission> own = new ArrayList<>();
+        List<String> roleParents = new ArrayList<>();
+        for (Permission permission : permissions) {
+            if (permission.getPermissionType() == PermissionType.ROLE_GRANT) {
+                for (String parent : permission.getGrantedRoles()) {
+                    if (!roleParents.contains(parent)) {
+                        roleParents.add(parent);
+                        signature.add("ROLE|" + parent);
+                    }
+                }
+            } else {
+                own.add(permission);
+                signature.add(permission.getPrivilegeName() + "|" + permission.getDatabaseName()
+                        + "|" + permission.isWithGrantOption());
+            }
+        }
+        if (signature.equals(signatures.get(role))) {
+            return false;
+        }
+        for (String oldParent : parents.getOrDefault(role, Collections.<String>emptyList())) {
+            Set<String> children = dependents.get(oldParent);
+            if (children != null) {
+                children.remove(role);
+            }
+        }
+        for (String parent : roleParents) {
+            dependents.computeIfAbsent(parent, k -> new HashSet<>()).add(role);
+        }
+        ownPermissions.put(role, own);
+        parents.put(role, roleParents);
+        signatures.put(role, signature);
+        return true;
+    }
+
+    /**
+     * 移除已删除的角色，调用方需持有lock
+     *
+     * @param role 角色名
+     */
+    private void removeRole(String role) {
+        for (String parent : parents.getOrDefault(role, Collections.<String>emptyList())) {
+            Set<String> children = dependents.get(parent);
+            if (children != null) {
+                children.remove(role);
+            }
+        }
+        ownPermissions.remove(role);
+        parents.remove(role);
+        signatures.remove(role);
+    }
+
+    /**
+     * 失效角色及所有直接或间接继承它的角色的闭包，调用方需持有lock
+     *
+     * @param role 角色名
+     * @return 被失效的角色数量
+     */
+    private int invalidate(String role) {
+        Set<String> visited = new HashSet<>();
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(role);
+        while (!queue.isEmpty()) {
+            String current = queue.poll();
+            if (!visited.add(current)) {
+                continue;
+            }
+            closures.remove(current);
+            version.incrementAndGet();
+            queue.addAll(dependents.getOrDefault(current, Collections.<String>emptySet()));
+        }
+        return visited.size();
+    }
+
+    /**
+     * 计算角色闭包并缓存，调用方需持有lock
+     *
+     * @param role 角色名
+     * @param visiting 当前递归路径上的角色，用于防止角色继承成环
+     * @param cycle 用于记录本次计算是否遇到了环
+     * @return 角色闭包
+     */
+    private List<EffectivePermission> computeClosure(String role, Set<String> visiting, boolean[] cycle) {
+        List<EffectivePermission> cached = closures.get(role);
+        if (cached != null) {
+            return cached;
+        }
+        if (!visiting.add(role)) {
+            logger.warn("角色继承关系存在环: {}", role);
+            cycle[0] = true;
+            return Collections.emptyList();
+        }
+        Map<String, EffectivePermission> result = new LinkedHashMap<>();
+        List<String> self = Collections.singletonList(role);
+        for (Permission permission : ownPermissions.getOrDefault(role, Collections.<Permission>emptyList())) {
+            merge(result, new EffectivePermission(permission, self));
+        }
+        for (String parent : parents.getOrDefault(role, Collections.<String>emptyList())) {
+            for (EffectivePermission inherited : computeClosure(parent, visiting, cycle)) {
+                List<String> path = new ArrayList<>(inherited.getRolePath().size() + 1);
+                path.add(role);
+                path.addAll(inherited.getRolePath());
+                merge(result, new EffectivePermission(inherited.getPermission(), path));
+            }
+        }
+        visiting.remove(role);
+        List<EffectivePermission> closure = Collections.unmodifiableList(new ArrayList<>(result.values()));
+        // 遇到环后，环上的中间角色缺少回边所指角色的权限，不能缓存；最外层的角色遍历了所有可达角色，结果完整
+        if (!cycle[0] || visiting.isEmpty()) {
+            closures.put(role, closure);
+        }
+        return closure;
+    }
+
+    /**
+     * 合并一项有效权限，同一权限保留路径最短的来源
+     */
+    private static void merge(Map<String, EffectivePermission> result, EffectivePermission candidate) {
+        Permission permission = candidate.getPermission();
+        String key = permission.getPrivilegeName() + "|" + permission.getDatabaseName();
+        EffectivePermission existing = result.get(key);
+        if (existing == null || candidate.getRolePath().size() < existing.getRolePath().size()) {
+            result.put(key, candidate);
+        }
+    }
+}
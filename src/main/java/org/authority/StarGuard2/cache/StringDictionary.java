@@ -0,0 +1,93 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.model.GrantObject;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 只追加的字符串字典，把重复出现的授权对象描述、主机地址等字符串编码为连续的int编号
+ * 编号一旦分配就不再改变，因此多个快照版本可以共享同一个字典：新版本只追加新字符串，旧版本中的编号仍然有效
+ * 写入（intern）需在同一把锁下串行进行，读取无需加锁
+ *
+ * @author System
+ * @version 1.0
+ */
+final class StringDictionary {
+
+    // 为对象描述字典时，同时保存每个编号解析后的授权对象，避免重复解析
+    private final boolean parseGrantObjects;
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private volatile String[] values = new String[64];
+    private volatile GrantObject[] grantObjects;
+    private volatile int size;
+
+    /**
+     * 构造函数
+     *
+     * @param parseGrantObjects 是否为每个字符串保存解析后的授权对象
+     */
+    StringDictionary(boolean parseGrantObjects) {
+        this.parseGrantObjects = parseGrantObjects;
+        this.grantObjects = parseGrantObjects ? new GrantObject[64] : null;
+    }
+
+    /**
+     * 获取字符串的编号，字符串不存在时追加到字典
+     *
+     * @param value 字符串，不能为null
+     * @return 编号
+     */
+    synchronized int intern(String value) {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        int next = size;
+        if (next == values.length) {
+            values = Arrays.copyOf(values, next * 2);
+            if (parseGrantObjects) {
+                grantObjects = Arrays.copyOf(grantObjects, next * 2);
+            }
+        }
+        values[next] = value;
+        if (parseGrantObjects) {
+            grantObjects[next] = GrantObject.parse(value);
+        }
+        ids.put(value, next);
+        // size最后写入，读取方先读size再读数组，可以看到已写入的元素
+        size = next + 1;
+        return next;
+    }
+
+    /**
+     * 获取编号对应的字符串
+     *
+     * @param id 编号
+     * @return 字符串
+     */
+    String get(int id) {
+        return values[id];
+    }
+
+    /**
+     * 获取编号对应的授权对象
+     *
+     * @param id 编号
+     * @return 解析后的授权对象
+     */
+    GrantObject getGrantObject(int id) {
+        return grantObjects[id];
+    }
+
+    /**
+     * 获取字典中的字符串数量
+     *
+     * @return 字符串数量
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,225 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.model.UserIdentity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 输入提示索引缓存，为数据库、表、视图、物化视图和用户名维护前缀索引（见 {@link PrefixIndex}）
+ * 索引只从内存中的元数据缓存和用户标识注册表构建，查询时不访问数据库；
+ * 后台定时检查两者是否已更新（元数据快照版本、用户标识集合），有变化时重建对应的索引
+ * 表、视图和物化视图各有两个索引：按名称（可跨数据库查找）和按数据库加名称（在指定数据库内查找）
+ *
+ * @author System
+ * @version 1.0
+ */
+@Component
+public class TypeaheadCache {
+    private static final Logger logger = LoggerFactory.getLogger(TypeaheadCache.class);
+
+    /**
+     * 提示的对象类型
+     */
+    public enum Kind {
+        /** 数据库 */
+        DATABASE,
+        /** 表（不含视图和物化视图） */
+        TABLE,
+        /** 视图 */
+        VIEW,
+        /** 物化视图 */
+        MATERIALIZED_VIEW,
+        /** 用户，限定名为主机地址 */
+        USER;
+
+        /**
+         * 根据字符串获取对象类型，不区分大小写
+         *
+         * @param value 类型字符串
+         * @return 对象类型
+         * @throws IllegalArgumentException 当字符串为空或不匹配任何类型时抛出
+         */
+        public static Kind fromString(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                throw new IllegalArgumentException("对象类型不能为空");
+            }
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final CatalogCache catalogCache;
+    private final UserIdentityRegistry userIdentityRegistry;
+    private final Object buildLock = new Object();
+
+    private volatile CatalogIndexes catalogIndexes;
+    private volatile UserIndex userIndex;
+
+    /**
+     * 构造函数
+     *
+     * @param catalogCache 元数据缓存
+     * @param userIdentityRegistry 用户标识注册表
+     */
+    @Autowired
+    public TypeaheadCache(CatalogCache catalogCache, UserIdentityRegistry userIdentityRegistry) {
+        this.catalogCache = catalogCache;
+        this.userIdentityRegistry = userIdentityRegistry;
+    }
+
+    /**
+     * 获取对象类型的前缀索引，尚未构建时同步构建（元数据缓存或注册表尚未加载时先加载）
+     *
+     * @param kind 对象类型
+     * @param byDatabase 是否获取按数据库加名称建立的索引，只对表、视图和物化视图有效
+     * @return 前缀索引
+     */
+    public PrefixIndex getIndex(Kind kind, boolean byDatabase) {
+        if (kind == Kind.USER) {
+            UserIndex current = userIndex;
+            if (current == null) {
+                synchronized (buildLock) {
+                    current = userIndex != null ? userIndex : rebuildUsers(userIdentityRegistry.getIdentities());
+                }
+            }
+            return current.index;
+        }
+        CatalogIndexes current = catalogIndexes;
+        if (current == null) {
+            synchronized (buildLock) {
+                current = catalogIndexes != null ? catalogIndexes : rebuildCatalog(catalogCache.getSnapshot());
+            }
+        }
+        if (kind == Kind.DATABASE) {
+            return current.databases;
+        }
+        return (byDatabase ? current.byDatabase : current.byName).get(kind);
+    }
+
+    /**
+     * 后台定时检查元数据缓存和用户标识注册表，有变化时重建索引
+     * 元数据缓存已由其后台刷新加载后即构建索引，使第一次查询也不需要等待构建
+     */
+    @Scheduled(initialDelayString = "${starguard.typeahead.rebuild-interval-ms:5000}",
+            fixedDelayString = "${starguard.typeahead.rebuild-interval-ms:5000}")
+    public void rebuildIfChanged() {
+        try {
+            synchronized (buildLock) {
+                CatalogIndexes catalog = catalogIndexes;
+                CatalogSnapshot snapshot = catalogCache.peek();
+                if (snapshot != null && (catalog == null || snapshot.getVersion() != catalog.version)) {
+                    rebuildCatalog(snapshot);
+                }
+                UserIndex users = userIndex;
+                Set<UserIdentity> identities = userIdentityRegistry.getIdentities();
+                if (users == null || identities != users.source) {
+                    rebuildUsers(identities);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("重建输入提示索引失败", e);
+        }
+    }
+
+    /**
+     * 获取当前索引对应的元数据快照版本
+     *
+     * @return 版本号，尚未构建时为0
+     */
+    public long getCatalogVersion() {
+        CatalogIndexes current = catalogIndexes;
+        return current != null ? current.version : 0;
+    }
+
+    /**
+     * 由元数据快照重建数据库、表、视图和物化视图的索引，调用方需持有buildLock
+     */
+    private CatalogIndexes rebuildCatalog(CatalogSnapshot snapshot) {
+        long start = System.currentTimeMillis();
+        Map<Kind, List<String>> names = new EnumMap<>(Kind.class);
+        Map<Kind, List<String>> databases = new EnumMap<>(Kind.class);
+        for (Kind kind : new Kind[] {Kind.TABLE, Kind.VIEW, Kind.MATERIALIZED_VIEW}) {
+            names.put(kind, new ArrayList<>());
+            databases.put(kind, new ArrayList<>());
+        }
+        for (CatalogDatabase database : snapshot.getDatabases().values()) {
+            addAll(names, databases, Kind.TABLE, database.getName(), database.getTables());
+            addAll(names, databases, Kind.VIEW, database.getName(), database.getViews());
+            addAll(names, databases, Kind.MATERIALIZED_VIEW, database.getName(), database.getMaterializedViews());
+        }
+        CatalogIndexes indexes = new CatalogIndexes(snapshot.getVersion(),
+                PrefixIndex.build(snapshot.getDatabaseNames(), null, false));
+        for (Map.Entry<Kind, List<String>> entry : names.entrySet()) {
+            List<String> qualifiers = databases.get(entry.getKey());
+            indexes.byName.put(entry.getKey(), PrefixIndex.build(entry.getValue(), qualifiers, false));
+            indexes.byDatabase.put(entry.getKey(), PrefixIndex.build(entry.getValue(), qualifiers, true));
+        }
+        catalogIndexes = indexes;
+        logger.info("输入提示索引已重建: 元数据版本{}，数据库{}个，表{}个，视图{}个，物化视图{}个，耗时{}ms",
+                snapshot.getVersion(), indexes.databases.size(), names.get(Kind.TABLE).size(),
+                names.get(Kind.VIEW).size(), names.get(Kind.MATERIALIZED_VIEW).size(),
+                System.currentTimeMillis() - start);
+        return indexes;
+    }
+
+    private static void addAll(Map<Kind, List<String>> names, Map<Kind, List<String>> databases, Kind kind,
+                               String database, List<String> objects) {
+        for (String object : objects) {
+            names.get(kind).add(object);
+            databases.get(kind).add(database);
+        }
+    }
+
+    /**
+     * 由用户标识集合重建用户名索引，调用方需持有buildLock
+     */
+    private UserIndex rebuildUsers(Set<UserIdentity> identities) {
+        List<String> usernames = new ArrayList<>(identities.size());
+        List<String> hosts = new ArrayList<>(identities.size());
+        for (UserIdentity identity : identities) {
+            usernames.add(identity.getUsername());
+            hosts.add(identity.getHost());
+        }
+        UserIndex index = new UserIndex(identities, PrefixIndex.build(usernames, hosts, false));
+        userIndex = index;
+        logger.debug("用户名输入提示索引已重建，共{}个用户", identities.size());
+        return index;
+    }
+
+    /**
+     * 由同一元数据快照版本构建的索引
+     */
+    private static final class CatalogIndexes {
+        private final long version;
+        private final PrefixIndex databases;
+        private final Map<Kind, PrefixIndex> byName = new EnumMap<>(Kind.class);
+        private final Map<Kind, PrefixIndex> byDatabase = new EnumMap<>(Kind.class);
+
+        private CatalogIndexes(long version, PrefixIndex databases) {
+            this.version = version;
+            this.databases = databases;
+        }
+    }
+
+    /**
+     * 用户名索引及构建它的用户标识集合
+     */
+    private static final class UserIndex {
+        private final Set<UserIdentity> source;
+        private final PrefixIndex index;
+
+        private UserIndex(Set<UserIdentity> source, PrefixIndex index) {
+            this.source = source;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.model.UserIdentity;
+
+/**
+ * 快照版本之间单个用户的变化
+ * 该类不可变
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class UserChange {
+
+    /**
+     * 变化类型
+     */
+    public enum Type {
+        /** 新增的用户 */
+        ADDED,
+        /** 权限发生变化的用户 */
+        UPDATED,
+        /** 已删除的用户 */
+        REMOVED
+    }
+
+    private final Type type;
+    private final UserIdentity identity;
+
+    /**
+     * 构造函数
+     *
+     * @param type 变化类型
+     * @param identity 用户标识
+     */
+    public UserChange(Type type, UserIdentity identity) {
+        this.type = type;
+        this.identity = identity;
+    }
+
+    /**
+     * 获取变化类型
+     *
+     * @return 变化类型
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 获取用户标识
+     *
+     * @return 用户标识
+     */
+    public UserIdentity getIdentity() {
+        return identity;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + identity;
+    }
+}
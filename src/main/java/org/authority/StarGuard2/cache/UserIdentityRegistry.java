@@ -0,0 +1,157 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.model.UserIdentity;
+import org.authority.StarGuard2.repository.PermissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 用户标识注册表，以 (用户名, 主机地址) 为键在内存中保存所有用户，提供O(1)的存在性检查
+ * 注册表在后台定时与 SHOW USERS 同步；查询未命中时会立即重新同步一次（有最小间隔限制），
+ * 以便及时发现新创建的用户，同时避免不存在的用户反复触发查询
+ *
+ * @author System
+ * @version 1.0
+ */
+@Component
+public class UserIdentityRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(UserIdentityRegistry.class);
+
+    private final PermissionRepository permissionRepository;
+    private final Object syncLock = new Object();
+
+    private volatile Set<UserIdentity> identities;
+    private volatile long lastSyncAt;
+
+    // 未命中时两次重新同步之间的最小间隔（毫秒）
+    @Value("${starguard.users.registry.min-resync-interval-ms:2000}")
+    private long minResyncIntervalMillis;
+
+    /**
+     * 构造函数
+     *
+     * @param permissionRepository 权限管理Repository
+     */
+    @Autowired
+    public UserIdentityRegistry(PermissionRepository permissionRepository) {
+        this.permissionRepository = permissionRepository;
+    }
+
+    /**
+     * 检查用户是否存在
+     *
+     * @param username 用户名
+     * @param host 主机地址
+     * @return true表示用户存在
+     */
+    public boolean exists(String username, String host) {
+        if (username == null || host == null) {
+            return false;
+        }
+        UserIdentity identity = new UserIdentity(username, host);
+        Set<UserIdentity> current = identities;
+        if (current != null && current.contains(identity)) {
+            return true;
+        }
+        // 未命中，可能是新创建的用户，重新同步后再检查
+        long lastSync = lastSyncAt;
+        synchronized (syncLock) {
+            if (identities == null || (lastSyncAt == lastSync
+                    && System.currentTimeMillis() - lastSyncAt >= minResyncIntervalMillis)) {
+                sync();
+            }
+        }
+        return identities.contains(identity);
+    }
+
+    /**
+     * 获取当前所有用户标识，尚未同步时先同步
+     * 每次同步都会替换为新的集合，调用方可以据此判断用户列表是否可能发生了变化
+     *
+     * @return 只读的用户标识集合
+     */
+    public Set<UserIdentity> getIdentities() {
+        Set<UserIdentity> current = identities;
+        if (current != null) {
+            return current;
+        }
+        synchronized (syncLock) {
+            if (identities == null) {
+                sync();
+            }
+            return identities;
+        }
+    }
+
+    /**
+     * 后台定时与 SHOW USERS 同步
+     */
+    @Scheduled(initialDelayString = "${starguard.users.registry.refresh-interval-ms:60000}",
+            fixedDelayString = "${starguard.users.registry.refresh-interval-ms:60000}")
+    public void scheduledSync() {
+        try {
+            synchronized (syncLock) {
+                sync();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("后台同步用户标识注册表失败", e);
+        }
+    }
+
+    /**
+     * 使用已获取的用户标识替换注册表内容，避免重复执行 SHOW USERS
+     *
+     * @param loaded 完整的用户标识集合
+     */
+    public void replaceAll(Collection<UserIdentity> loaded) {
+        synchronized (syncLock) {
+            identities = Collections.unmodifiableSet(new HashSet<>(loaded));
+            lastSyncAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 向注册表中添加单个用户标识
+     *
+     * @param identity 用户标识
+     */
+    public void add(UserIdentity identity) {
+        synchronized (syncLock) {
+            if (identities == null || identities.contains(identity)) {
+                return;
+            }
+            Set<UserIdentity> copy = new HashSet<>(identities);
+            copy.add(identity);
+            identities = Collections.unmodifiableSet(copy);
+        }
+    }
+
+    /**
+     * 获取注册表中的用户数量
+     *
+     * @return 用户数量，尚未同步时为0
+     */
+    public int size() {
+        Set<UserIdentity> current = identities;
+        return current != null ? current.size() : 0;
+    }
+
+    /**
+     * 执行 SHOW USERS 并替换注册表内容，调用方需持有syncLock
+     */
+    private void sync() {
+        Set<UserIdentity> loaded = new HashSet<>(permissionRepository.getAllUserIdentities());
+        identities = Collections.unmodifiableSet(loaded);
+        lastSyncAt = System.currentTimeMillis();
+        logger.debug("用户标识注册表已同步，共{}个用户", loaded.size());
+    }
+}
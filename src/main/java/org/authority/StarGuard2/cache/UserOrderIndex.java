@@ -0,0 +1,178 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.model.UserIdentity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * 用户有序索引，为用户数据维护按用户名和按主机地址排序的数组
+ * 分页时通过二分查找定位游标位置，每页的计算代价为 O(log n + pageSize)
+ *
+ * @param <T> 用户数据的泛型类型（如完整用户对象或用户摘要）
+ * @author System
+ * @version 1.0
+ */
+public final class UserOrderIndex<T> {
+
+    /**
+     * 排序字段
+     */
+    public enum SortKey {
+        // 按用户名、主机地址排序
+        USERNAME,
+        // 按主机地址、用户名排序
+        HOST;
+
+        /**
+         * 根据字符串获取排序字段，不区分大小写，为空时默认按用户名排序
+         *
+         * @param value 排序字段字符串
+         * @return 排序字段
+         * @throws IllegalArgumentException 当字符串不匹配任何排序字段时抛出
+         */
+        public static SortKey fromString(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return USERNAME;
+            }
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final Comparator<UserIdentity> BY_USERNAME = Comparator.naturalOrder();
+    private static final Comparator<UserIdentity> BY_HOST =
+            Comparator.comparing(UserIdentity::getHost).thenComparing(UserIdentity::getUsername);
+
+    // 按用户名排序的用户标识及其对应的用户数据（下标一一对应）
+    private final UserIdentity[] usernameKeys;
+    private final Object[] usernameUsers;
+    // 按主机地址排序的用户标识及其对应的用户数据（下标一一对应）
+    private final UserIdentity[] hostKeys;
+    private final Object[] hostUsers;
+
+    /**
+     * 构造函数
+     *
+     * @param users 所有用户数据
+     * @param identityOf 从用户数据中提取用户标识的函数
+     */
+    public UserOrderIndex(List<T> users, Function<T, UserIdentity> identityOf) {
+        Entry[] entries = new Entry[users.size()];
+        for (int i = 0; i < entries.length; i++) {
+            T user = users.get(i);
+            entries[i] = new Entry(identityOf.apply(user), user);
+        }
+        Arrays.sort(entries, (a, b) -> BY_USERNAME.compare(a.key, b.key));
+        this.usernameKeys = new UserIdentity[entries.length];
+        this.usernameUsers = new Object[entries.length];
+        fill(entries, usernameKeys, usernameUsers);
+        Arrays.sort(entries, (a, b) -> BY_HOST.compare(a.key, b.key));
+        this.hostKeys = new UserIdentity[entries.length];
+        this.hostUsers = new Object[entries.length];
+        fill(entries, hostKeys, hostUsers);
+    }
+
+    /**
+     * 获取一页用户
+     *
+     * @param sortKey 排序字段
+     * @param descending 是否降序
+     * @param after 上一页最后一个用户的标识，null表示第一页
+     * @param limit 每页数量
+     * @return 该页的用户，最多 limit + 1 个，多出的一个用于判断是否还有下一页
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> page(SortKey sortKey, boolean descending, UserIdentity after, int limit) {
+        boolean byHost = sortKey == SortKey.HOST;
+        UserIdentity[] keys = byHost ? hostKeys : usernameKeys;
+        Object[] users = byHost ? hostUsers : usernameUsers;
+        Comparator<UserIdentity> comparator = byHost ? BY_HOST : BY_USERNAME;
+        if (keys.length == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<T> result = new ArrayList<>(Math.min(limit + 1, keys.length));
+        if (!descending) {
+            int start = after == null ? 0 : upperBound(keys, comparator, after);
+            for (int i = start; i < keys.length && result.size() <= limit; i++) {
+                result.add((T) users[i]);
+            }
+        } else {
+            int start = after == null ? keys.length - 1 : lowerBound(keys, comparator, after) - 1;
+            for (int i = start; i >= 0 && result.size() <= limit; i--) {
+                result.add((T) users[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取索引中的用户数量
+     *
+     * @return 用户数量
+     */
+    public int size() {
+        return usernameKeys.length;
+    }
+
+    /**
+     * 将排序后的条目拆分为标识数组和数据数组
+     */
+    private static void fill(Entry[] entries, UserIdentity[] keys, Object[] users) {
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = entries[i].key;
+            users[i] = entries[i].user;
+        }
+    }
+
+    /**
+     * 查找第一个大于key的位置
+     */
+    private static int upperBound(UserIdentity[] sorted, Comparator<UserIdentity> comparator, UserIdentity key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(sorted[mid], key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 查找第一个大于等于key的位置
+     */
+    private static int lowerBound(UserIdentity[] sorted, Comparator<UserIdentity> comparator, UserIdentity key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(sorted[mid], key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 排序用的临时条目
+     */
+    private static final class Entry {
+        private final UserIdentity key;
+        private final Object user;
+
+        private Entry(UserIdentity key, Object user) {
+            this.key = key;
+            this.user = user;
+        }
+    }
+}
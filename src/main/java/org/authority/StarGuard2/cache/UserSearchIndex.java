@@ -0,0 +1,247 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.model.GrantObject;
+import org.authority.StarGuard2.model.GrantObjectType;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.UserIdentity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 用户搜索索引，基于快照构建，支持按用户名/主机地址前缀匹配以及按权限类型、数据库、GRANT OPTION过滤
+ * 每个用户在索引中有一个固定位置（按用户名、主机地址排序），各过滤条件以位图表示，查询时对位图求交集
+ * 前缀匹配在排序后的小写键数组上二分查找，代价为 O(log n + 匹配数)
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class UserSearchIndex {
+
+    /**
+     * 数据库过滤条件中表示“所有数据库”级别授权的键
+     */
+    public static final String ALL_DATABASES_KEY = "*";
+
+    // 按用户名、主机地址排序的用户，数组下标即用户在索引中的位置
+    private final UserIdentity[] identities;
+
+    // 小写用户名/主机地址排序后的键，以及键对应的用户位置（下标一一对应）
+    private final String[] usernameKeys;
+    private final int[] usernamePositions;
+    private final String[] hostKeys;
+    private final int[] hostPositions;
+
+    private final Map<PermissionType, BitSet> byPermissionType = new EnumMap<>(PermissionType.class);
+    private final Map<String, BitSet> byDatabase = new HashMap<>();
+    private final BitSet withGrantOption;
+
+    /**
+     * 构造函数
+     *
+     * @param source 快照中的所有用户
+     * @param objects 授权对象描述字典
+     */
+    UserSearchIndex(List<CompactUser> source, StringDictionary objects) {
+        int size = source.size();
+        CompactUser[] sorted = source.toArray(new CompactUser[0]);
+        Arrays.sort(sorted, (a, b) -> a.getIdentity().compareTo(b.getIdentity()));
+        this.identities = new UserIdentity[size];
+        this.withGrantOption = new BitSet(size);
+
+        String[] usernames = new String[size];
+        String[] hosts = new String[size];
+        // 同一授权对象编号只解析一次数据库名
+        Map<Integer, String> databases = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            CompactUser user = sorted[i];
+            identities[i] = user.getIdentity();
+            usernames[i] = identities[i].getUsername().toLowerCase(Locale.ROOT);
+            hosts[i] = identities[i].getHost().toLowerCase(Locale.ROOT);
+            if (user.isHasGrantOption()) {
+                withGrantOption.set(i);
+            }
+            for (int j = 0; j < user.getObjectCount(); j++) {
+                for (long mask = user.getPrivilegeMask(j); mask != 0; mask &= mask - 1) {
+                    PermissionType type = CompactUser.typeAt(Long.numberOfTrailingZeros(mask));
+                    byPermissionType.computeIfAbsent(type, k -> new BitSet(size)).set(i);
+                }
+                int objectId = user.getObjectId(j);
+                if (objectId == CompactUser.NO_OBJECT) {
+                    continue;
+                }
+                String database = databases.computeIfAbsent(objectId, id -> databaseOf(objects.getGrantObject(id)));
+                if (database != null) {
+                    byDatabase.computeIfAbsent(database, k -> new BitSet(size)).set(i);
+                }
+            }
+        }
+
+        this.usernamePositions = sortedPositions(usernames);
+        this.usernameKeys = keysAt(usernames, usernamePositions);
+        this.hostPositions = sortedPositions(hosts);
+        this.hostKeys = keysAt(hosts, hostPositions);
+    }
+
+    /**
+     * 计算满足所有过滤条件的用户集合，条件为null或空表示不过滤
+     *
+     * @param usernamePrefix 用户名前缀（不区分大小写）
+     * @param hostPrefix 主机地址前缀（不区分大小写）
+     * @param permissionType 权限类型
+     * @param database 数据库名（不区分大小写），{@link #ALL_DATABASES_KEY} 表示所有数据库级别的授权
+     * @param grantOption 是否拥有带GRANT OPTION的权限
+     * @return 匹配用户位置的位图
+     */
+    public BitSet match(String usernamePrefix, String hostPrefix, PermissionType permissionType,
+                        String database, Boolean grantOption) {
+        BitSet result = new BitSet(identities.length);
+        result.set(0, identities.length);
+        if (!isBlank(usernamePrefix)) {
+            result.and(prefixMatches(usernameKeys, usernamePositions, usernamePrefix));
+        }
+        if (!isBlank(hostPrefix)) {
+            result.and(prefixMatches(hostKeys, hostPositions, hostPrefix));
+        }
+        if (permissionType != null) {
+            result.and(byPermissionType.getOrDefault(permissionType, new BitSet()));
+        }
+        if (!isBlank(database)) {
+            result.and(byDatabase.getOrDefault(normalizeDatabase(database), new BitSet()));
+        }
+        if (grantOption != null) {
+            if (grantOption) {
+                result.and(withGrantOption);
+            } else {
+                result.andNot(withGrantOption);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按用户名、主机地址的顺序获取一页匹配的用户
+     *
+     * @param matches {@link #match} 返回的位图
+     * @param after 上一页最后一个用户的标识，null表示第一页
+     * @param limit 每页数量
+     * @return 该页的用户标识，最多 limit + 1 个，多出的一个用于判断是否还有下一页
+     */
+    public List<UserIdentity> page(BitSet matches, UserIdentity after, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        int start = after == null ? 0 : upperBound(identities, after);
+        List<UserIdentity> result = new ArrayList<>(Math.min(limit + 1, identities.length));
+        for (int i = matches.nextSetBit(start); i >= 0 && result.size() <= limit; i = matches.nextSetBit(i + 1)) {
+            result.add(identities[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 获取索引中的用户数量
+     *
+     * @return 用户数量
+     */
+    public int size() {
+        return identities.length;
+    }
+
+    /**
+     * 提取授权对象所在的数据库，用于数据库过滤
+     *
+     * @param object 授权对象
+     * @return 小写数据库名；所有数据库级别的授权返回 {@link #ALL_DATABASES_KEY}；系统、角色、Catalog权限返回null
+     */
+    static String databaseOf(GrantObject object) {
+        if (object.getType() != GrantObjectType.DATABASE && !object.getType().isDatabaseChild()) {
+            return null;
+        }
+        return object.getDatabase() == null ? ALL_DATABASES_KEY : normalizeDatabase(object.getDatabase());
+    }
+
+    /**
+     * 规范化数据库名：去除反引号和空白并转换为小写
+     */
+    private static String normalizeDatabase(String database) {
+        return database.replace("`", "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 在排序键数组中查找所有以prefix开头的键，返回对应用户位置的位图
+     */
+    private BitSet prefixMatches(String[] keys, int[] positions, String prefix) {
+        String normalized = prefix.trim().toLowerCase(Locale.ROOT);
+        BitSet result = new BitSet(identities.length);
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(normalized) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < keys.length && keys[i].startsWith(normalized); i++) {
+            result.set(positions[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 查找第一个大于key的用户位置
+     */
+    private static int upperBound(UserIdentity[] sorted, UserIdentity key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].compareTo(key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 返回按键排序后的位置数组
+     */
+    private static int[] sortedPositions(String[] keys) {
+        Integer[] boxed = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, (a, b) -> keys[a].compareTo(keys[b]));
+        int[] positions = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            positions[i] = boxed[i];
+        }
+        return positions;
+    }
+
+    /**
+     * 按位置数组重新排列键
+     */
+    private static String[] keysAt(String[] keys, int[] positions) {
+        String[] result = new String[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            result[i] = keys[positions[i]];
+        }
+        return result;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
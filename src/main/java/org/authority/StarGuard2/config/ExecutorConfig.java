@@ -0,0 +1,96 @@
+package org.authority.StarGuard2.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 线程池配置类，用于集中定义后台查询所使用的线程池
+ *
+ * @author System
+ * @version 1.0
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * 并行执行 SHOW GRANTS 查询的线程池
+     * 线程数量固定为配置的并行度，队列有界，队列满时由提交线程自行执行，避免无限堆积
+     *
+     * @param parallelism 并行度（最大同时查询数）
+     * @param queueCapacity 等待队列容量
+     * @return 线程池
+     */
+    @Bean(name = "grantQueryExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService grantQueryExecutor(
+            @Value("${starguard.grants.fanout.parallelism:8}") int parallelism,
+            @Value("${starguard.grants.fanout.queue-capacity:10000}") int queueCapacity) {
+        int threads = Math.max(1, parallelism);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, queueCapacity)),
+                new CustomizableThreadFactory("grant-query-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 后台刷新权限快照的线程池，单线程即可，刷新任务之间互斥
+     *
+     * @return 线程池
+     */
+    @Bean(name = "snapshotRefreshExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService snapshotRefreshExecutor() {
+        return Executors.newSingleThreadExecutor(new CustomizableThreadFactory("snapshot-refresh-"));
+    }
+
+    /**
+     * 计算和推送权限变更事件的线程池，单线程以保证事件按快照版本顺序发送
+     *
+     * @return 线程池
+     */
+    @Bean(name = "privilegeEventExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService privilegeEventExecutor() {
+        return Executors.newSingleThreadExecutor(new CustomizableThreadFactory("privilege-event-"));
+    }
+
+    /**
+     * 执行批量授权/撤销的线程池，线程数即不同用户之间的并行度
+     * 每个任务是一个用户的全部请求，数量不超过单次批量请求的大小，因此使用无界队列
+     *
+     * @param parallelism 并行度（同时执行语句的最大用户数）
+     * @return 线程池
+     */
+    @Bean(name = "batchExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService batchExecutor(@Value("${starguard.batch.parallelism:4}") int parallelism) {
+        int threads = Math.max(1, parallelism);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("batch-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 执行异步批量任务的线程池，线程数即同时执行的任务数，其余任务排队等待
+     * 每个任务内部仍通过 batchExecutor 在用户之间并行
+     *
+     * @param concurrency 同时执行的任务数
+     * @return 线程池
+     */
+    @Bean(name = "batchJobExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService batchJobExecutor(@Value("${starguard.jobs.concurrency:1}") int concurrency) {
+        return Executors.newFixedThreadPool(Math.max(1, concurrency), new CustomizableThreadFactory("batch-job-"));
+    }
+}
@@ -0,0 +1,15 @@
+package org.authority.StarGuard2.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置类，启用缓存的后台定时刷新
+ *
+ * @author System
+ * @version 1.0
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,18 +2,46 @@ package org.authority.StarGuard2.controller;
 
 import org.authority.StarGuard2.service.PermissionService;
 import org.authority.StarGuard2.dto.GrantPermissionRequestDTO;
+import org.authority.StarGuard2.dto.BatchJobDTO;
+import org.authority.StarGuard2.dto.BatchReportDTO;
+import org.authority.StarGuard2.dto.CatalogDatabaseDTO;
+import org.authority.StarGuard2.dto.CatalogInfoDTO;
+import org.authority.StarGuard2.dto.EffectivePrivilegesDTO;
+import org.authority.StarGuard2.dto.ExecutionPlanDTO;
+import org.authority.StarGuard2.dto.ObjectAccessDTO;
+import org.authority.StarGuard2.dto.PageDTO;
+import org.authority.StarGuard2.dto.ParseCacheStatsDTO;
+import org.authority.StarGuard2.dto.PermissionCheckRequestDTO;
+import org.authority.StarGuard2.dto.PermissionCheckResultDTO;
+import org.authority.StarGuard2.dto.ReconcileResultDTO;
 import org.authority.StarGuard2.dto.RevokePermissionRequestDTO;
 import org.authority.StarGuard2.dto.UserPermissionDTO;
+import org.authority.StarGuard2.dto.UserSummaryDTO;
 import org.authority.StarGuard2.dto.ResponseDTO;
+import org.authority.StarGuard2.dto.SnapshotInfoDTO;
+import org.authority.StarGuard2.dto.TypeaheadResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotEmpty;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * 权限管理Controller，处理与权限管理相关的HTTP请求
@@ -28,70 +56,293 @@ public class PermissionController {
     private static final Logger logger = LoggerFactory.getLogger(PermissionController.class);
 
     private final PermissionService permissionService;
+    private final ObjectMapper objectMapper;
 
     /**
      * 构造函数
      * 
      * @param permissionService 权限管理Service
+     * @param objectMapper JSON序列化工具
      */
     @Autowired
-    public PermissionController(PermissionService permissionService) {
+    public PermissionController(PermissionService permissionService, ObjectMapper objectMapper) {
         this.permissionService = permissionService;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * 获取所有用户及其权限列表
+     * 支持条件请求：ETag由快照版本号生成，If-None-Match 与当前版本一致时返回304，不生成响应体
      * 
-     * @return 包含所有用户权限信息的响应
+     * @param webRequest 当前请求
+     * @return 包含所有用户权限信息的响应，未修改时返回null
      */
     @GetMapping("/users")
-    public ResponseDTO<List<UserPermissionDTO>> getAllUsersWithPermissions() {
+    public ResponseDTO<List<UserPermissionDTO>> getAllUsersWithPermissions(WebRequest webRequest) {
         logger.info("接收获取所有用户及其权限列表的请求");
+        if (webRequest.checkNotModified(permissionService.getUsersETag())) {
+            return null;
+        }
         List<UserPermissionDTO> userPermissionDTOs = permissionService.getAllUsersWithPermissions();
         return ResponseDTO.success(userPermissionDTOs);
     }
 
+    /**
+     * 以NDJSON格式流式导出所有用户及其权限，每行一个用户
+     * 每个用户的权限读取并解析完成后立即写出，不在内存中保留完整列表
+     * 
+     * @param gzip 是否使用gzip压缩响应
+     * @return 流式响应
+     */
+    @GetMapping(value = "/users/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsersWithPermissions(
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        logger.info("接收流式导出用户权限的请求: gzip={}", gzip);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, 8192) : outputStream;
+            try {
+                permissionService.exportUsersWithPermissions(dto -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(dto));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (gzip) {
+                ((GZIPOutputStream) out).finish();
+            }
+            out.flush();
+        };
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"starguard-users.ndjson\"");
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
+    }
+
+    /**
+     * 按游标分页获取用户及其权限
+     * 
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页数量
+     * @param sort 排序字段（username/host）
+     * @param order 排序方向（asc/desc）
+     * @return 包含当前页用户权限信息的响应
+     */
+    @GetMapping("/users/page")
+    public ResponseDTO<PageDTO<UserPermissionDTO>> getUsersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") @Min(value = 1, message = "每页数量不能小于1")
+            @Max(value = 500, message = "每页数量不能大于500") int size,
+            @RequestParam(defaultValue = "username") String sort,
+            @RequestParam(defaultValue = "asc") String order) {
+        logger.info("接收分页获取用户权限列表的请求: cursor={}, size={}, sort={}, order={}", cursor, size, sort, order);
+        return ResponseDTO.success(permissionService.getUsersPage(cursor, size, sort, order));
+    }
+
+    /**
+     * 按游标分页获取用户摘要，只包含用户标识、权限数量、GRANT OPTION标记和角色名
+     * 完整的权限列表在展开用户时通过 /users/{username}/{host} 获取
+     * 
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页数量
+     * @param sort 排序字段（username/host）
+     * @param order 排序方向（asc/desc）
+     * @return 包含当前页用户摘要的响应
+     */
+    @GetMapping("/users/summary")
+    public ResponseDTO<PageDTO<UserSummaryDTO>> getUserSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") @Min(value = 1, message = "每页数量不能小于1")
+            @Max(value = 500, message = "每页数量不能大于500") int size,
+            @RequestParam(defaultValue = "username") String sort,
+            @RequestParam(defaultValue = "asc") String order) {
+        logger.info("接收分页获取用户摘要的请求: cursor={}, size={}, sort={}, order={}", cursor, size, sort, order);
+        return ResponseDTO.success(permissionService.getUserSummariesPage(cursor, size, sort, order));
+    }
+
+    /**
+     * 搜索用户，支持用户名/主机地址前缀匹配以及按权限类型、数据库、GRANT OPTION过滤
+     * 
+     * @param username 用户名前缀
+     * @param host 主机地址前缀
+     * @param permissionType 权限类型
+     * @param database 数据库名，* 表示所有数据库级别的授权
+     * @param grantOption 是否拥有带GRANT OPTION的权限
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页数量
+     * @return 包含当前页匹配用户摘要的响应
+     */
+    @GetMapping("/users/search")
+    public ResponseDTO<PageDTO<UserSummaryDTO>> searchUsers(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String host,
+            @RequestParam(required = false) String permissionType,
+            @RequestParam(required = false) String database,
+            @RequestParam(required = false) Boolean grantOption,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") @Min(value = 1, message = "每页数量不能小于1")
+            @Max(value = 500, message = "每页数量不能大于500") int size) {
+        return ResponseDTO.success(permissionService.searchUsers(username, host, permissionType, database,
+                grantOption, cursor, size));
+    }
+
+    /**
+     * 查询可以访问某个对象的用户，例如 objectType=DATABASE&amp;database=db1&amp;permissionType=SELECT
+     * 
+     * @param objectType 对象类型（SYSTEM/CATALOG/DATABASE/TABLE/VIEW/MATERIALIZED_VIEW/FUNCTION）
+     * @param database 对象所属数据库，为空表示所有数据库
+     * @param name 对象名称，为空表示该类型的所有对象
+     * @param permissionType 权限类型，为空表示所有权限
+     * @param includeChildren 是否同时返回下级对象上的授权
+     * @return 包含命中授权的响应
+     */
+    @GetMapping("/access")
+    public ResponseDTO<ObjectAccessDTO> getObjectAccess(
+            @RequestParam(defaultValue = "DATABASE") String objectType,
+            @RequestParam(required = false) String database,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String permissionType,
+            @RequestParam(defaultValue = "false") boolean includeChildren) {
+        logger.info("接收对象访问查询请求: objectType={}, database={}, name={}, permissionType={}",
+                objectType, database, name, permissionType);
+        return ResponseDTO.success(permissionService.getObjectAccess(objectType, database, name, permissionType,
+                includeChildren));
+    }
+
     /**
      * 获取特定用户的权限信息
+     * 支持条件请求：ETag由该用户权限内容的哈希生成，If-None-Match 匹配时返回304，不生成响应体
      * 
      * @param username 用户名
      * @param host 主机地址
-     * @return 包含用户权限信息的响应
+     * @param webRequest 当前请求
+     * @return 包含用户权限信息的响应，未修改时返回null
      */
     @GetMapping("/users/{username}/{host}")
     public ResponseDTO<UserPermissionDTO> getUserPermissions(
             @PathVariable @NotEmpty(message = "用户名不能为空") String username,
-            @PathVariable @NotEmpty(message = "主机地址不能为空") String host) {
-        System.out.println("host ............"+host);
+            @PathVariable @NotEmpty(message = "主机地址不能为空") String host,
+            WebRequest webRequest) {
+        logger.debug("请求的主机地址: {}", host);
         logger.info("接收获取特定用户权限信息的请求: username={}, host={}", username, host);
+        String eTag = permissionService.getUserETag(username, host);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         UserPermissionDTO userPermissionDTO = permissionService.getUserPermissions(username,host);
         return ResponseDTO.success(userPermissionDTO);
     }
 
+    /**
+     * 检查用户是否拥有某个对象上的某项权限
+     * 
+     * @param username 用户名
+     * @param host 主机地址
+     * @param permissionType 权限类型
+     * @param objectType 对象类型，默认为DATABASE
+     * @param database 对象所属数据库
+     * @param name 对象名称
+     * @return 包含检查结果的响应
+     */
+    @GetMapping("/check")
+    public ResponseDTO<PermissionCheckResultDTO> checkPermission(
+            @RequestParam @NotEmpty(message = "用户名不能为空") String username,
+            @RequestParam @NotEmpty(message = "主机地址不能为空") String host,
+            @RequestParam @NotEmpty(message = "权限类型不能为空") String permissionType,
+            @RequestParam(defaultValue = "DATABASE") String objectType,
+            @RequestParam(required = false) String database,
+            @RequestParam(required = false) String name) {
+        PermissionCheckRequestDTO request = new PermissionCheckRequestDTO();
+        request.setUsername(username);
+        request.setHost(host);
+        request.setPermissionType(permissionType);
+        request.setObjectType(objectType);
+        request.setDatabase(database);
+        request.setName(name);
+        return ResponseDTO.success(permissionService.checkPermission(request));
+    }
+
+    /**
+     * 批量检查权限
+     * 
+     * @param requests 检查请求列表
+     * @return 包含检查结果列表的响应，顺序与请求一致
+     */
+    @PostMapping("/check/batch")
+    public ResponseDTO<List<PermissionCheckResultDTO>> batchCheckPermissions(
+            @Valid @RequestBody List<PermissionCheckRequestDTO> requests) {
+        logger.info("接收批量权限检查请求，共{}项", requests.size());
+        return ResponseDTO.success(permissionService.batchCheckPermissions(requests));
+    }
+
+    /**
+     * 获取用户的有效权限，包括通过角色（含角色继承）获得的权限及其来源路径
+     * 
+     * @param username 用户名
+     * @param host 主机地址
+     * @return 包含有效权限的响应
+     */
+    @GetMapping("/users/{username}/{host}/effective")
+    public ResponseDTO<EffectivePrivilegesDTO> getEffectivePrivileges(
+            @PathVariable @NotEmpty(message = "用户名不能为空") String username,
+            @PathVariable @NotEmpty(message = "主机地址不能为空") String host) {
+        logger.info("接收获取用户有效权限的请求: username={}, host={}", username, host);
+        return ResponseDTO.success(permissionService.getEffectivePrivileges(username, host));
+    }
+
+    /**
+     * 获取所有角色名
+     * 
+     * @return 包含角色名列表的响应
+     */
+    @GetMapping("/roles")
+    public ResponseDTO<List<String>> getRoleNames() {
+        logger.info("接收获取角色列表的请求");
+        return ResponseDTO.success(permissionService.getRoleNames());
+    }
+
+    /**
+     * 重新加载单个角色的定义，角色权限在StarRocks中变化后调用
+     * 
+     * @param roleName 角色名
+     * @return 被失效的角色闭包数量
+     */
+    @PostMapping("/roles/{roleName}/refresh")
+    public ResponseDTO<Integer> refreshRole(@PathVariable @NotEmpty(message = "角色名不能为空") String roleName) {
+        logger.info("接收重新加载角色的请求: role={}", roleName);
+        return ResponseDTO.success(permissionService.refreshRole(roleName));
+    }
+
     /**
      * 授予权限给用户
      * 
      * @param request 授权请求DTO
-     * @return 操作结果响应
+     * @return 实际执行的语句响应
      */
     @PostMapping("/grant")
-    public ResponseDTO<Boolean> grantPermission(@Valid @RequestBody GrantPermissionRequestDTO request) {
+    public ResponseDTO<ExecutionPlanDTO> grantPermission(@Valid @RequestBody GrantPermissionRequestDTO request) {
         logger.info("接收授予权限请求: {}", request);
-        boolean success = permissionService.grantPermission(request);
-        return ResponseDTO.success(success);
+        return ResponseDTO.success(permissionService.grantPermission(request));
     }
 
     /**
      * 撤销用户的权限
      * 
      * @param request 撤销权限请求DTO
-     * @return 操作结果响应
+     * @return 实际执行的语句响应
      */
     @PostMapping("/revoke")
-    public ResponseDTO<Boolean> revokePermission(@Valid @RequestBody RevokePermissionRequestDTO request) {
+    public ResponseDTO<ExecutionPlanDTO> revokePermission(@Valid @RequestBody RevokePermissionRequestDTO request) {
         logger.info("接收撤销权限请求: {}", request);
-        boolean success = permissionService.revokePermission(request);
-        return ResponseDTO.success(success);
+        return ResponseDTO.success(permissionService.revokePermission(request));
     }
 
     /**
@@ -114,25 +365,220 @@ public class PermissionController {
      * 批量授予权限给用户
      * 
      * @param requests 授权请求DTO列表
-     * @return 操作结果响应
+     * @return 批量操作报告响应
      */
     @PostMapping("/batch/grant")
-    public ResponseDTO<Boolean> batchGrantPermissions(@Valid @RequestBody List<GrantPermissionRequestDTO> requests) {
+    public ResponseDTO<BatchReportDTO> batchGrantPermissions(@Valid @RequestBody List<GrantPermissionRequestDTO> requests) {
         logger.info("接收批量授予权限请求，共{}个请求", requests.size());
-        boolean success = permissionService.batchGrantPermissions(requests);
-        return ResponseDTO.success(success);
+        return ResponseDTO.success(permissionService.batchGrantPermissions(requests));
     }
 
     /**
      * 批量撤销用户的权限
      * 
      * @param requests 撤销权限请求DTO列表
-     * @return 操作结果响应
+     * @return 批量操作报告响应
      */
     @PostMapping("/batch/revoke")
-    public ResponseDTO<Boolean> batchRevokePermissions(@Valid @RequestBody List<RevokePermissionRequestDTO> requests) {
+    public ResponseDTO<BatchReportDTO> batchRevokePermissions(@Valid @RequestBody List<RevokePermissionRequestDTO> requests) {
         logger.info("接收批量撤销权限请求，共{}个请求", requests.size());
-        boolean success = permissionService.batchRevokePermissions(requests);
-        return ResponseDTO.success(success);
+        return ResponseDTO.success(permissionService.batchRevokePermissions(requests));
+    }
+
+    /**
+     * 提交异步批量授权任务
+     * 
+     * @param requests 授权请求DTO列表
+     * @return 任务进度响应
+     */
+    @PostMapping("/jobs/batch/grant")
+    public ResponseDTO<BatchJobDTO> submitBatchGrantJob(@Valid @RequestBody List<GrantPermissionRequestDTO> requests) {
+        logger.info("接收异步批量授予权限请求，共{}个请求", requests.size());
+        return ResponseDTO.success(permissionService.submitBatchGrantJob(requests));
+    }
+
+    /**
+     * 提交异步批量撤销权限任务
+     * 
+     * @param requests 撤销权限请求DTO列表
+     * @return 任务进度响应
+     */
+    @PostMapping("/jobs/batch/revoke")
+    public ResponseDTO<BatchJobDTO> submitBatchRevokeJob(@Valid @RequestBody List<RevokePermissionRequestDTO> requests) {
+        logger.info("接收异步批量撤销权限请求，共{}个请求", requests.size());
+        return ResponseDTO.success(permissionService.submitBatchRevokeJob(requests));
+    }
+
+    /**
+     * 获取所有异步批量任务的进度
+     * 
+     * @return 任务进度列表响应
+     */
+    @GetMapping("/jobs")
+    public ResponseDTO<List<BatchJobDTO>> listBatchJobs() {
+        logger.info("接收获取异步批量任务列表请求");
+        return ResponseDTO.success(permissionService.listBatchJobs());
+    }
+
+    /**
+     * 获取异步批量任务的进度
+     * 
+     * @param jobId 任务ID
+     * @param itemsFrom 返回从该下标开始的请求结果，用于增量轮询；不传时不返回结果
+     * @return 任务进度响应
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseDTO<BatchJobDTO> getBatchJob(@PathVariable String jobId,
+                                                @RequestParam(required = false) Integer itemsFrom) {
+        logger.info("接收获取异步批量任务进度请求: jobId={}, itemsFrom={}", jobId, itemsFrom);
+        return ResponseDTO.success(permissionService.getBatchJob(jobId, itemsFrom));
+    }
+
+    /**
+     * 取消异步批量任务
+     * 
+     * @param jobId 任务ID
+     * @return 任务进度响应
+     */
+    @PostMapping("/jobs/{jobId}/cancel")
+    public ResponseDTO<BatchJobDTO> cancelBatchJob(@PathVariable String jobId) {
+        logger.info("接收取消异步批量任务请求: jobId={}", jobId);
+        return ResponseDTO.success(permissionService.cancelBatchJob(jobId));
+    }
+
+    /**
+     * 按策略文件同步权限
+     * 
+     * @param policy 策略文件内容（JSON或YAML）
+     * @param dryRun true时只返回计划，不执行
+     * @return 同步结果响应
+     */
+    @PostMapping("/reconcile")
+    public ResponseDTO<ReconcileResultDTO> reconcile(@RequestBody String policy,
+                                                     @RequestParam(defaultValue = "true") boolean dryRun) {
+        logger.info("接收权限策略同步请求: dryRun={}", dryRun);
+        return ResponseDTO.success(permissionService.reconcile(policy, dryRun));
+    }
+
+    /**
+     * 获取当前权限快照的版本和时效信息
+     * 
+     * @return 快照信息响应
+     */
+    @GetMapping("/snapshot")
+    public ResponseDTO<SnapshotInfoDTO> getSnapshotInfo() {
+        logger.info("接收获取权限快照信息请求");
+        return ResponseDTO.success(permissionService.getSnapshotInfo());
+    }
+
+    /**
+     * 立即重新加载权限快照
+     * 
+     * @return 重新加载后的快照信息响应
+     */
+    @PostMapping("/snapshot/refresh")
+    public ResponseDTO<SnapshotInfoDTO> refreshSnapshot() {
+        logger.info("接收刷新权限快照请求");
+        return ResponseDTO.success(permissionService.refreshSnapshot());
+    }
+
+    /**
+     * 立即增量刷新权限快照，只重新解析授权语句发生变化的用户
+     * 
+     * @return 刷新后的快照信息响应，包含本次的用户变化列表
+     */
+    @PostMapping("/snapshot/refresh/incremental")
+    public ResponseDTO<SnapshotInfoDTO> refreshSnapshotIncrementally() {
+        logger.info("接收增量刷新权限快照请求");
+        return ResponseDTO.success(permissionService.refreshSnapshotIncrementally());
+    }
+
+    /**
+     * 获取元数据缓存信息
+     * 
+     * @return 元数据缓存信息响应
+     */
+    @GetMapping("/catalog")
+    public ResponseDTO<CatalogInfoDTO> getCatalogInfo() {
+        logger.info("接收获取元数据缓存信息请求");
+        return ResponseDTO.success(permissionService.getCatalogInfo());
+    }
+
+    /**
+     * 立即完整刷新元数据缓存
+     * 
+     * @return 刷新后的元数据缓存信息响应
+     */
+    @PostMapping("/catalog/refresh")
+    public ResponseDTO<CatalogInfoDTO> refreshCatalog() {
+        logger.info("接收刷新元数据缓存请求");
+        return ResponseDTO.success(permissionService.refreshCatalog());
+    }
+
+    /**
+     * 列出所有数据库
+     * 
+     * @return 排序后的数据库名列表响应
+     */
+    @GetMapping("/catalog/databases")
+    public ResponseDTO<List<String>> getCatalogDatabases() {
+        logger.info("接收列出数据库请求");
+        return ResponseDTO.success(permissionService.getCatalogDatabaseNames());
+    }
+
+    /**
+     * 列出数据库中的表、视图和物化视图
+     * 
+     * @param database 数据库名
+     * @return 数据库对象列表响应
+     */
+    @GetMapping("/catalog/databases/{database}")
+    public ResponseDTO<CatalogDatabaseDTO> getCatalogDatabase(@PathVariable String database) {
+        logger.info("接收列出数据库对象请求: database={}", database);
+        return ResponseDTO.success(permissionService.getCatalogDatabase(database));
+    }
+
+    /**
+     * 输入提示：按前缀返回数据库、表、视图、物化视图或用户名的候选项
+     * 
+     * @param type 对象类型（DATABASE/TABLE/VIEW/MATERIALIZED_VIEW/USER）
+     * @param prefix 名称前缀
+     * @param database 限定的数据库，只对表、视图和物化视图有效
+     * @param limit 最多返回的候选项数
+     * @return 输入提示结果响应
+     */
+    @GetMapping("/typeahead")
+    public ResponseDTO<TypeaheadResultDTO> typeahead(
+            @RequestParam String type,
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(required = false) String database,
+            @RequestParam(defaultValue = "10") int limit) {
+        logger.debug("接收输入提示请求: type={}, prefix={}, database={}, limit={}", type, prefix, database, limit);
+        return ResponseDTO.success(permissionService.typeahead(type, prefix, database, limit));
+    }
+
+    /**
+     * 订阅权限变更事件（Server-Sent Events）
+     * 推送新增/删除的用户、权限的增减以及快照版本号，客户端据此增量更新而无需重新加载用户列表
+     * 
+     * @param lastEventId 断线重连时浏览器自动携带的最后一个事件ID
+     * @return SSE连接
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribePrivilegeEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        logger.info("接收订阅权限变更事件请求: lastEventId={}", lastEventId);
+        return permissionService.subscribePrivilegeEvents(lastEventId);
+    }
+
+    /**
+     * 获取GRANT语句解析结果缓存的命中率等统计信息
+     * 
+     * @return 缓存统计响应
+     */
+    @GetMapping("/diagnostics/parse-cache")
+    public ResponseDTO<ParseCacheStatsDTO> getParseCacheStats() {
+        logger.info("接收获取解析缓存统计请求");
+        return ResponseDTO.success(permissionService.getParseCacheStats());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,143 @@
+package org.authority.StarGuard2.dto;
+
+/**
+ * 批量操作中单个请求的执行结果DTO类
+ *
+ * @author System
+ * @version 1.0
+ */
+public class BatchItemResultDTO {
+    private int index;
+    private String username;
+    private String host;
+    private boolean success;
+    private String error;
+    private long latencyMs;
+    private ExecutionPlanDTO plan;
+
+    /**
+     * 获取请求在批量请求中的下标
+     *
+     * @return 下标
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * 设置请求在批量请求中的下标
+     *
+     * @param index 下标
+     */
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * 获取用户名
+     *
+     * @return 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 设置用户名
+     *
+     * @param username 用户名
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * 获取主机地址
+     *
+     * @return 主机地址
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 设置主机地址
+     *
+     * @param host 主机地址
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * 获取是否执行成功
+     *
+     * @return true表示成功
+     */
+    public boolean isSuccess() {
+        return success;
+    }
+
+    /**
+     * 设置是否执行成功
+     *
+     * @param success true表示成功
+     */
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    /**
+     * 获取失败原因
+     *
+     * @return 失败原因，成功时为null
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * 设置失败原因
+     *
+     * @param error 失败原因，成功时为null
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * 获取执行耗时（毫秒），包括验证、规划和执行语句
+     *
+     * @return 耗时
+     */
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    /**
+     * 设置执行耗时（毫秒），包括验证、规划和执行语句
+     *
+     * @param latencyMs 耗时
+     */
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    /**
+     * 获取实际执行的语句
+     *
+     * @return 执行计划，失败时为null
+     */
+    public ExecutionPlanDTO getPlan() {
+        return plan;
+    }
+
+    /**
+     * 设置实际执行的语句
+     *
+     * @param plan 执行计划，失败时为null
+     */
+    public void setPlan(ExecutionPlanDTO plan) {
+        this.plan = plan;
+    }
+}
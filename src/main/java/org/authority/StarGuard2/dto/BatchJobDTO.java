@@ -0,0 +1,316 @@
+package org.authority.StarGuard2.dto;
+
+import java.util.List;
+
+/**
+ * 异步批量任务的进度DTO类
+ *
+ * @author System
+ * @version 1.0
+ */
+public class BatchJobDTO {
+    private String id;
+    private String operation;
+    private String status;
+    private int total;
+    private int completed;
+    private int succeeded;
+    private int failed;
+    private long submittedAt;
+    private long startedAt;
+    private long finishedAt;
+    private Long etaMs;
+    private boolean cancelRequested;
+    private int resumeCount;
+    private String error;
+    private int itemsFrom;
+    private List<BatchItemResultDTO> items;
+
+    /**
+     * 获取任务ID
+     *
+     * @return 任务ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 设置任务ID
+     *
+     * @param id 任务ID
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * 获取批量操作类型（GRANT/REVOKE）
+     *
+     * @return 操作类型
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * 设置批量操作类型（GRANT/REVOKE）
+     *
+     * @param operation 操作类型
+     */
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * 获取任务状态（PENDING/RUNNING/COMPLETED/CANCELLED/FAILED）
+     *
+     * @return 任务状态
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * 设置任务状态（PENDING/RUNNING/COMPLETED/CANCELLED/FAILED）
+     *
+     * @param status 任务状态
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * 获取请求总数
+     *
+     * @return 请求总数
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * 设置请求总数
+     *
+     * @param total 请求总数
+     */
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    /**
+     * 获取已执行的请求数
+     *
+     * @return 已执行数
+     */
+    public int getCompleted() {
+        return completed;
+    }
+
+    /**
+     * 设置已执行的请求数
+     *
+     * @param completed 已执行数
+     */
+    public void setCompleted(int completed) {
+        this.completed = completed;
+    }
+
+    /**
+     * 获取执行成功的请求数
+     *
+     * @return 成功数
+     */
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * 设置执行成功的请求数
+     *
+     * @param succeeded 成功数
+     */
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    /**
+     * 获取执行失败的请求数
+     *
+     * @return 失败数
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * 设置执行失败的请求数
+     *
+     * @param failed 失败数
+     */
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * 获取提交时间（毫秒时间戳）
+     *
+     * @return 提交时间
+     */
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * 设置提交时间（毫秒时间戳）
+     *
+     * @param submittedAt 提交时间
+     */
+    public void setSubmittedAt(long submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    /**
+     * 获取开始执行时间（毫秒时间戳），尚未开始时为0
+     *
+     * @return 开始时间
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * 设置开始执行时间（毫秒时间戳），尚未开始时为0
+     *
+     * @param startedAt 开始时间
+     */
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * 获取结束时间（毫秒时间戳），尚未结束时为0
+     *
+     * @return 结束时间
+     */
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * 设置结束时间（毫秒时间戳），尚未结束时为0
+     *
+     * @param finishedAt 结束时间
+     */
+    public void setFinishedAt(long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * 获取预计剩余时间（毫秒），按本次运行已执行请求的平均耗时估算，无法估算或已结束时为null
+     *
+     * @return 预计剩余时间
+     */
+    public Long getEtaMs() {
+        return etaMs;
+    }
+
+    /**
+     * 设置预计剩余时间（毫秒），按本次运行已执行请求的平均耗时估算，无法估算或已结束时为null
+     *
+     * @param etaMs 预计剩余时间
+     */
+    public void setEtaMs(Long etaMs) {
+        this.etaMs = etaMs;
+    }
+
+    /**
+     * 获取是否已请求取消
+     *
+     * @return true表示已请求取消
+     */
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    /**
+     * 设置是否已请求取消
+     *
+     * @param cancelRequested true表示已请求取消
+     */
+    public void setCancelRequested(boolean cancelRequested) {
+        this.cancelRequested = cancelRequested;
+    }
+
+    /**
+     * 获取因服务重启而恢复执行的次数
+     *
+     * @return 恢复次数
+     */
+    public int getResumeCount() {
+        return resumeCount;
+    }
+
+    /**
+     * 设置因服务重启而恢复执行的次数
+     *
+     * @param resumeCount 恢复次数
+     */
+    public void setResumeCount(int resumeCount) {
+        this.resumeCount = resumeCount;
+    }
+
+    /**
+     * 获取任务中止的原因
+     *
+     * @return 错误信息，未中止时为null
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * 设置任务中止的原因
+     *
+     * @param error 错误信息，未中止时为null
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * 获取items中第一个结果对应的请求下标
+     *
+     * @return 起始下标
+     */
+    public int getItemsFrom() {
+        return itemsFrom;
+    }
+
+    /**
+     * 设置items中第一个结果对应的请求下标
+     *
+     * @param itemsFrom 起始下标
+     */
+    public void setItemsFrom(int itemsFrom) {
+        this.itemsFrom = itemsFrom;
+    }
+
+    /**
+     * 获取从itemsFrom开始的已执行请求的结果，任务列表中不返回
+     *
+     * @return 执行结果列表
+     */
+    public List<BatchItemResultDTO> getItems() {
+        return items;
+    }
+
+    /**
+     * 设置从itemsFrom开始的已执行请求的结果，任务列表中不返回
+     *
+     * @param items 执行结果列表
+     */
+    public void setItems(List<BatchItemResultDTO> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,126 @@
+package org.authority.StarGuard2.dto;
+
+import java.util.List;
+
+/**
+ * 批量操作报告DTO类，包含每个请求的执行结果
+ *
+ * @author System
+ * @version 1.0
+ */
+public class BatchReportDTO {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private int userCount;
+    private long elapsedMs;
+    private List<BatchItemResultDTO> items;
+
+    /**
+     * 获取请求总数
+     *
+     * @return 请求总数
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * 设置请求总数
+     *
+     * @param total 请求总数
+     */
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    /**
+     * 获取成功的请求数
+     *
+     * @return 成功数
+     */
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * 设置成功的请求数
+     *
+     * @param succeeded 成功数
+     */
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    /**
+     * 获取失败的请求数
+     *
+     * @return 失败数
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * 设置失败的请求数
+     *
+     * @param failed 失败数
+     */
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * 获取涉及的用户数，即并行执行的通道数
+     *
+     * @return 用户数
+     */
+    public int getUserCount() {
+        return userCount;
+    }
+
+    /**
+     * 设置涉及的用户数，即并行执行的通道数
+     *
+     * @param userCount 用户数
+     */
+    public void setUserCount(int userCount) {
+        this.userCount = userCount;
+    }
+
+    /**
+     * 获取整个批量操作的耗时（毫秒）
+     *
+     * @return 耗时
+     */
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    /**
+     * 设置整个批量操作的耗时（毫秒）
+     *
+     * @param elapsedMs 耗时
+     */
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    /**
+     * 获取每个请求的执行结果，顺序与请求一致
+     *
+     * @return 执行结果列表
+     */
+    public List<BatchItemResultDTO> getItems() {
+        return items;
+    }
+
+    /**
+     * 设置每个请求的执行结果，顺序与请求一致
+     *
+     * @param items 执行结果列表
+     */
+    public void setItems(List<BatchItemResultDTO> items) {
+        this.items = items;
+    }
+}
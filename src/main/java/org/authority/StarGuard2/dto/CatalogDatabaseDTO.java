@@ -0,0 +1,88 @@
+package org.authority.StarGuard2.dto;
+
+import java.util.List;
+
+/**
+ * 数据库对象列表DTO类
+ *
+ * @author System
+ * @version 1.0
+ */
+public class CatalogDatabaseDTO {
+    private String name;
+    private List<String> tables;
+    private List<String> views;
+    private List<String> materializedViews;
+
+    /**
+     * 获取数据库名
+     *
+     * @return 数据库名
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 设置数据库名
+     *
+     * @param name 数据库名
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 获取表名列表（不含视图和物化视图）
+     *
+     * @return 表名列表
+     */
+    public List<String> getTables() {
+        return tables;
+    }
+
+    /**
+     * 设置表名列表（不含视图和物化视图）
+     *
+     * @param tables 表名列表
+     */
+    public void setTables(List<String> tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * 获取视图名列表
+     *
+     * @return 视图名列表
+     */
+    public List<String> getViews() {
+        return views;
+    }
+
+    /**
+     * 设置视图名列表
+     *
+     * @param views 视图名列表
+     */
+    public void setViews(List<String> views) {
+        this.views = views;
+    }
+
+    /**
+     * 获取物化视图名列表
+     *
+     * @return 物化视图名列表
+     */
+    public List<String> getMaterializedViews() {
+        return materializedViews;
+    }
+
+    /**
+     * 设置物化视图名列表
+     *
+     * @param materializedViews 物化视图名列表
+     */
+    public void setMaterializedViews(List<String> materializedViews) {
+        this.materializedViews = materializedViews;
+    }
+}
@@ -0,0 +1,200 @@
+package org.authority.StarGuard2.dto;
+
+/**
+ * 元数据缓存信息DTO类
+ *
+ * @author System
+ * @version 1.0
+ */
+public class CatalogInfoDTO {
+    private long version;
+    private long loadedAt;
+    private int databaseCount;
+    private int tableCount;
+    private int viewCount;
+    private int materializedViewCount;
+    private long lastRefreshAt;
+    private long lastFullRefreshAt;
+    private long lastRefreshElapsedMs;
+    private int lastReloadedDatabases;
+
+    /**
+     * 获取快照版本号
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 设置快照版本号
+     *
+     * @param version 版本号
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * 获取快照生成时间（毫秒时间戳）
+     *
+     * @return 快照生成时间
+     */
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * 设置快照生成时间（毫秒时间戳）
+     *
+     * @param loadedAt 快照生成时间
+     */
+    public void setLoadedAt(long loadedAt) {
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * 获取数据库数量
+     *
+     * @return 数据库数量
+     */
+    public int getDatabaseCount() {
+        return databaseCount;
+    }
+
+    /**
+     * 设置数据库数量
+     *
+     * @param databaseCount 数据库数量
+     */
+    public void setDatabaseCount(int databaseCount) {
+        this.databaseCount = databaseCount;
+    }
+
+    /**
+     * 获取表的数量（不含视图和物化视图）
+     *
+     * @return 表的数量
+     */
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    /**
+     * 设置表的数量（不含视图和物化视图）
+     *
+     * @param tableCount 表的数量
+     */
+    public void setTableCount(int tableCount) {
+        this.tableCount = tableCount;
+    }
+
+    /**
+     * 获取视图数量
+     *
+     * @return 视图数量
+     */
+    public int getViewCount() {
+        return viewCount;
+    }
+
+    /**
+     * 设置视图数量
+     *
+     * @param viewCount 视图数量
+     */
+    public void setViewCount(int viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    /**
+     * 获取物化视图数量
+     *
+     * @return 物化视图数量
+     */
+    public int getMaterializedViewCount() {
+        return materializedViewCount;
+    }
+
+    /**
+     * 设置物化视图数量
+     *
+     * @param materializedViewCount 物化视图数量
+     */
+    public void setMaterializedViewCount(int materializedViewCount) {
+        this.materializedViewCount = materializedViewCount;
+    }
+
+    /**
+     * 获取最近一次刷新完成的时间（毫秒时间戳）
+     *
+     * @return 最近一次刷新完成的时间
+     */
+    public long getLastRefreshAt() {
+        return lastRefreshAt;
+    }
+
+    /**
+     * 设置最近一次刷新完成的时间（毫秒时间戳）
+     *
+     * @param lastRefreshAt 最近一次刷新完成的时间
+     */
+    public void setLastRefreshAt(long lastRefreshAt) {
+        this.lastRefreshAt = lastRefreshAt;
+    }
+
+    /**
+     * 获取最近一次完整刷新完成的时间（毫秒时间戳）
+     *
+     * @return 最近一次完整刷新完成的时间
+     */
+    public long getLastFullRefreshAt() {
+        return lastFullRefreshAt;
+    }
+
+    /**
+     * 设置最近一次完整刷新完成的时间（毫秒时间戳）
+     *
+     * @param lastFullRefreshAt 最近一次完整刷新完成的时间
+     */
+    public void setLastFullRefreshAt(long lastFullRefreshAt) {
+        this.lastFullRefreshAt = lastFullRefreshAt;
+    }
+
+    /**
+     * 获取最近一次刷新的耗时（毫秒）
+     *
+     * @return 最近一次刷新的耗时
+     */
+    public long getLastRefreshElapsedMs() {
+        return lastRefreshElapsedMs;
+    }
+
+    /**
+     * 设置最近一次刷新的耗时（毫秒）
+     *
+     * @param lastRefreshElapsedMs 最近一次刷新的耗时
+     */
+    public void setLastRefreshElapsedMs(long lastRefreshElapsedMs) {
+        this.lastRefreshElapsedMs = lastRefreshElapsedMs;
+    }
+
+    /**
+     * 获取最近一次刷新重新加载的数据库数量
+     *
+     * @return 数据库数量
+     */
+    public int getLastReloadedDatabases() {
+        return lastReloadedDatabases;
+    }
+
+    /**
+     * 设置最近一次刷新重新加载的数据库数量
+     *
+     * @param lastReloadedDatabases 数据库数量
+     */
+    public void setLastReloadedDatabases(int lastReloadedDatabases) {
+        this.lastReloadedDatabases = lastReloadedDatabases;
+    }
+}
@@ -0,0 +1,189 @@
+package org.authority.StarGuard2.dto;
+
+import java.util.List;
+
+/**
+ * 有效权限DTO类，用于展示用户直接拥有以及通过角色继承获得的全部权限
+ *
+ * @author System
+ * @version 1.0
+ */
+public class EffectivePrivilegesDTO {
+    private String username;
+    private String host;
+    private List<String> grantedRoles;
+    private List<EffectivePrivilegeDTO> privileges;
+
+    /**
+     * 获取用户名
+     *
+     * @return 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 设置用户名
+     *
+     * @param username 用户名
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * 获取主机地址
+     *
+     * @return 主机地址
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 设置主机地址
+     *
+     * @param host 主机地址
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * 获取直接授予用户的角色
+     *
+     * @return 直接授予用户的角色
+     */
+    public List<String> getGrantedRoles() {
+        return grantedRoles;
+    }
+
+    /**
+     * 设置直接授予用户的角色
+     *
+     * @param grantedRoles 直接授予用户的角色
+     */
+    public void setGrantedRoles(List<String> grantedRoles) {
+        this.grantedRoles = grantedRoles;
+    }
+
+    /**
+     * 获取有效权限列表
+     *
+     * @return 有效权限列表
+     */
+    public List<EffectivePrivilegeDTO> getPrivileges() {
+        return privileges;
+    }
+
+    /**
+     * 设置有效权限列表
+     *
+     * @param privileges 有效权限列表
+     */
+    public void setPrivileges(List<EffectivePrivilegeDTO> privileges) {
+        this.privileges = privileges;
+    }
+
+    /**
+     * 有效权限DTO内部类，表示一项有效权限及其来源
+     */
+    public static class EffectivePrivilegeDTO {
+        private String permissionType;
+        private String databaseName;
+        private boolean withGrantOption;
+        private boolean direct;
+        private List<String> rolePath;
+
+        /**
+         * 获取权限类型
+         *
+         * @return 权限类型
+         */
+        public String getPermissionType() {
+            return permissionType;
+        }
+
+        /**
+         * 设置权限类型
+         *
+         * @param permissionType 权限类型
+         */
+        public void setPermissionType(String permissionType) {
+            this.permissionType = permissionType;
+        }
+
+        /**
+         * 获取授权对象的描述
+         *
+         * @return 授权对象的描述
+         */
+        public String getDatabaseName() {
+            return databaseName;
+        }
+
+        /**
+         * 设置授权对象的描述
+         *
+         * @param databaseName 授权对象的描述
+         */
+        public void setDatabaseName(String databaseName) {
+            this.databaseName = databaseName;
+        }
+
+        /**
+         * 获取是否带有GRANT OPTION
+         *
+         * @return 是否带有GRANT OPTION
+         */
+        public boolean isWithGrantOption() {
+            return withGrantOption;
+        }
+
+        /**
+         * 设置是否带有GRANT OPTION
+         *
+         * @param withGrantOption 是否带有GRANT OPTION
+         */
+        public void setWithGrantOption(boolean withGrantOption) {
+            this.withGrantOption = withGrantOption;
+        }
+
+        /**
+         * 获取是否是直接授予用户的权限
+         *
+         * @return 是否是直接授予用户的权限
+         */
+        public boolean isDirect() {
+            return direct;
+        }
+
+        /**
+         * 设置是否是直接授予用户的权限
+         *
+         * @param direct 是否是直接授予用户的权限
+         */
+        public void setDirect(boolean direct) {
+            this.direct = direct;
+        }
+
+        /**
+         * 获取角色继承路径（从授予用户的角色到持有该权限的角色）
+         *
+         * @return 角色继承路径（从授予用户的角色到持有该权限的角色）
+         */
+        public List<String> getRolePath() {
+            return rolePath;
+        }
+
+        /**
+         * 设置角色继承路径（从授予用户的角色到持有该权限的角色）
+         *
+         * @param rolePath 角色继承路径（从授予用户的角色到持有该权限的角色）
+         */
+        public void setRolePath(List<String> rolePath) {
+            this.rolePath = rolePath;
+        }
+    }
+}
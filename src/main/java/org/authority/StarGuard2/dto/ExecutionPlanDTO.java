@@ -0,0 +1,145 @@
+package org.authority.StarGuard2.dto;
+
+import java.util.List;
+
+/**
+ * 授权/撤销执行计划DTO类，报告请求的权限被合并成了哪些语句
+ *
+ * @author System
+ * @version 1.0
+ */
+public class ExecutionPlanDTO {
+    private int requestedCount;
+    private int statementCount;
+    private List<PlannedStatementDTO> statements;
+    private int executedCount;
+    private int failedCount;
+    private int skippedCount;
+    private List<SkippedPrivilegeDTO> skipped;
+
+    /**
+     * 获取请求的权限项总数
+     *
+     * @return 权限项总数
+     */
+    public int getRequestedCount() {
+        return requestedCount;
+    }
+
+    /**
+     * 设置请求的权限项总数
+     *
+     * @param requestedCount 权限项总数
+     */
+    public void setRequestedCount(int requestedCount) {
+        this.requestedCount = requestedCount;
+    }
+
+    /**
+     * 获取生成的语句数量
+     *
+     * @return 语句数量
+     */
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * 设置生成的语句数量
+     *
+     * @param statementCount 语句数量
+     */
+    public void setStatementCount(int statementCount) {
+        this.statementCount = statementCount;
+    }
+
+    /**
+     * 获取按执行顺序排列的语句
+     *
+     * @return 语句列表
+     */
+    public List<PlannedStatementDTO> getStatements() {
+        return statements;
+    }
+
+    /**
+     * 设置按执行顺序排列的语句
+     *
+     * @param statements 语句列表
+     */
+    public void setStatements(List<PlannedStatementDTO> statements) {
+        this.statements = statements;
+    }
+
+    /**
+     * 获取执行成功的语句数量
+     *
+     * @return 成功数量
+     */
+    public int getExecutedCount() {
+        return executedCount;
+    }
+
+    /**
+     * 设置执行成功的语句数量
+     *
+     * @param executedCount 成功数量
+     */
+    public void setExecutedCount(int executedCount) {
+        this.executedCount = executedCount;
+    }
+
+    /**
+     * 获取执行失败的语句数量
+     *
+     * @return 失败数量
+     */
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * 设置执行失败的语句数量
+     *
+     * @param failedCount 失败数量
+     */
+    public void setFailedCount(int failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    /**
+     * 获取因不会改变用户权限而跳过的权限项数量
+     *
+     * @return 跳过数量
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * 设置因不会改变用户权限而跳过的权限项数量
+     *
+     * @param skippedCount 跳过数量
+     */
+    public void setSkippedCount(int skippedCount) {
+        this.skippedCount = skippedCount;
+    }
+
+    /**
+     * 获取因不会改变用户权限而跳过的权限项
+     *
+     * @return 跳过项列表
+     */
+    public List<SkippedPrivilegeDTO> getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * 设置因不会改变用户权限而跳过的权限项
+     *
+     * @param skipped 跳过项列表
+     */
+    public void setSkipped(List<SkippedPrivilegeDTO> skipped) {
+        this.skipped = skipped;
+    }
+}
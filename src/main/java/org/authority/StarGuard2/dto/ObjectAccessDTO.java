@@ -0,0 +1,246 @@
+package org.authority.StarGuard2.dto;
+
+import java.util.List;
+
+/**
+ * 对象访问DTO类，用于展示“谁可以访问某个对象”的查询结果
+ *
+ * @author System
+ * @version 1.0
+ */
+public class ObjectAccessDTO {
+    private String objectType;
+    private String database;
+    private String name;
+    private String permissionType;
+    private long snapshotVersion;
+    private List<AccessGrantDTO> grants;
+
+    /**
+     * 获取查询对象的类型
+     *
+     * @return 查询对象的类型
+     */
+    public String getObjectType() {
+        return objectType;
+    }
+
+    /**
+     * 设置查询对象的类型
+     *
+     * @param objectType 查询对象的类型
+     */
+    public void setObjectType(String objectType) {
+        this.objectType = objectType;
+    }
+
+    /**
+     * 获取查询对象所属的数据库
+     *
+     * @return 查询对象所属的数据库
+     */
+    public String getDatabase() {
+        return database;
+    }
+
+    /**
+     * 设置查询对象所属的数据库
+     *
+     * @param database 查询对象所属的数据库
+     */
+    public void setDatabase(String database) {
+        this.database = database;
+    }
+
+    /**
+     * 获取查询对象的名称
+     *
+     * @return 查询对象的名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 设置查询对象的名称
+     *
+     * @param name 查询对象的名称
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 获取查询的权限类型
+     *
+     * @return 查询的权限类型
+     */
+    public String getPermissionType() {
+        return permissionType;
+    }
+
+    /**
+     * 设置查询的权限类型
+     *
+     * @param permissionType 查询的权限类型
+     */
+    public void setPermissionType(String permissionType) {
+        this.permissionType = permissionType;
+    }
+
+    /**
+     * 获取查询使用的快照版本号
+     *
+     * @return 查询使用的快照版本号
+     */
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    /**
+     * 设置查询使用的快照版本号
+     *
+     * @param snapshotVersion 查询使用的快照版本号
+     */
+    public void setSnapshotVersion(long snapshotVersion) {
+        this.snapshotVersion = snapshotVersion;
+    }
+
+    /**
+     * 获取命中的授权列表
+     *
+     * @return 命中的授权列表
+     */
+    public List<AccessGrantDTO> getGrants() {
+        return grants;
+    }
+
+    /**
+     * 设置命中的授权列表
+     *
+     * @param grants 命中的授权列表
+     */
+    public void setGrants(List<AccessGrantDTO> grants) {
+        this.grants = grants;
+    }
+
+    /**
+     * 授权DTO内部类，表示一条可以访问查询对象的授权
+     */
+    public static class AccessGrantDTO {
+        private String username;
+        private String host;
+        private String permissionType;
+        private boolean withGrantOption;
+        private String grantedOn;
+        private String coverage;
+
+        /**
+         * 获取用户名
+         *
+         * @return 用户名
+         */
+        public String getUsername() {
+            return username;
+        }
+
+        /**
+         * 设置用户名
+         *
+         * @param username 用户名
+         */
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        /**
+         * 获取主机地址
+         *
+         * @return 主机地址
+         */
+        public String getHost() {
+            return host;
+        }
+
+        /**
+         * 设置主机地址
+         *
+         * @param host 主机地址
+         */
+        public void setHost(String host) {
+            this.host = host;
+        }
+
+        /**
+         * 获取权限类型
+         *
+         * @return 权限类型
+         */
+        public String getPermissionType() {
+            return permissionType;
+        }
+
+        /**
+         * 设置权限类型
+         *
+         * @param permissionType 权限类型
+         */
+        public void setPermissionType(String permissionType) {
+            this.permissionType = permissionType;
+        }
+
+        /**
+         * 获取是否带有GRANT OPTION
+         *
+         * @return 是否带有GRANT OPTION
+         */
+        public boolean isWithGrantOption() {
+            return withGrantOption;
+        }
+
+        /**
+         * 设置是否带有GRANT OPTION
+         *
+         * @param withGrantOption 是否带有GRANT OPTION
+         */
+        public void setWithGrantOption(boolean withGrantOption) {
+            this.withGrantOption = withGrantOption;
+        }
+
+        /**
+         * 获取授权对象的描述
+         *
+         * @return 授权对象的描述
+         */
+        public String getGrantedOn() {
+            return grantedOn;
+        }
+
+        /**
+         * 设置授权对象的描述
+         *
+         * @param grantedOn 授权对象的描述
+         */
+        public void setGrantedOn(String grantedOn) {
+            this.grantedOn = grantedOn;
+        }
+
+        /**
+         * 获取授权与查询对象的关系（DIRECT/INHERITED/CHILD）
+         *
+         * @return 授权与查询对象的关系（DIRECT/INHERITED/CHILD）
+         */
+        public String getCoverage() {
+            return coverage;
+        }
+
+        /**
+         * 设置授权与查询对象的关系（DIRECT/INHERITED/CHILD）
+         *
+         * @param coverage 授权与查询对象的关系（DIRECT/INHERITED/CHILD）
+         */
+        public void setCoverage(String coverage) {
+            this.coverage = coverage;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.authority.StarGuard2.dto;
+
+import java.util.List;
+
+/**
+ * 分页结果DTO类，使用游标（keyset）方式分页
+ *
+ * @param <T> 分页数据的泛型类型
+ * @author System
+ * @version 1.0
+ */
+public class PageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private int total;
+    private long snapshotVersion;
+
+    /**
+     * 获取当前页的数据
+     *
+     * @return 当前页的数据列表
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * 设置当前页的数据
+     *
+     * @param items 当前页的数据列表
+     */
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    /**
+     * 获取下一页的游标
+     *
+     * @return 下一页的游标，没有下一页时为null
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * 设置下一页的游标
+     *
+     * @param nextCursor 下一页的游标
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * 检查是否还有下一页
+     *
+     * @return true如果还有下一页
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    /**
+     * 设置是否还有下一页
+     *
+     * @param hasMore 是否还有下一页
+     */
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * 获取数据总数
+     *
+     * @return 数据总数
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * 设置数据总数
+     *
+     * @param total 数据总数
+     */
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    /**
+     * 获取生成该页时使用的快照版本号
+     *
+     * @return 快照版本号
+     */
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    /**
+     * 设置生成该页时使用的快照版本号
+     *
+     * @param snapshotVersion 快照版本号
+     */
+    public void setSnapshotVersion(long snapshotVersion) {
+        this.snapshotVersion = snapshotVersion;
+    }
+}
@@ -0,0 +1,143 @@
+package org.authority.StarGuard2.dto;
+
+/**
+ * GRANT语句解析结果缓存统计DTO类
+ *
+ * @author System
+ * @version 1.0
+ */
+public class ParseCacheStatsDTO {
+    private int maxEntries;
+    private int size;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long bypasses;
+    private double hitRate;
+
+    /**
+     * 获取最多缓存的语句数量
+     *
+     * @return 条目数
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * 设置最多缓存的语句数量
+     *
+     * @param maxEntries 条目数
+     */
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 获取当前缓存的语句数量
+     *
+     * @return 条目数
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * 设置当前缓存的语句数量
+     *
+     * @param size 条目数
+     */
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * 获取缓存命中次数
+     *
+     * @return 次数
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * 设置缓存命中次数
+     *
+     * @param hits 次数
+     */
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    /**
+     * 获取缓存未命中次数
+     *
+     * @return 次数
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * 设置缓存未命中次数
+     *
+     * @param misses 次数
+     */
+    public void setMisses(long misses) {
+        this.misses = misses;
+    }
+
+    /**
+     * 获取因容量限制被淘汰的条目数
+     *
+     * @return 次数
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * 设置因容量限制被淘汰的条目数
+     *
+     * @param evictions 次数
+     */
+    public void setEvictions(long evictions) {
+        this.evictions = evictions;
+    }
+
+    /**
+     * 获取未经过缓存直接解析的次数（非GRANT语句或格式不正确）
+     *
+     * @return 次数
+     */
+    public long getBypasses() {
+        return bypasses;
+    }
+
+    /**
+     * 设置未经过缓存直接解析的次数（非GRANT语句或格式不正确）
+     *
+     * @param bypasses 次数
+     */
+    public void setBypasses(long bypasses) {
+        this.bypasses = bypasses;
+    }
+
+    /**
+     * 获取缓存命中率
+     *
+     * @return 命中次数占查找次数的比例
+     */
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    /**
+     * 设置缓存命中率
+     *
+     * @param hitRate 命中次数占查找次数的比例
+     */
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+}
@@ -0,0 +1,144 @@
+package org.authority.StarGuard2.dto;
+
+import javax.validation.constraints.NotEmpty;
+
+/**
+ * 权限检查请求DTO类，用于询问“用户是否拥有某个对象上的某项权限”
+ *
+ * @author System
+ * @version 1.0
+ */
+public class PermissionCheckRequestDTO {
+    @NotEmpty(message = "用户名不能为空")
+    private String username;
+
+    @NotEmpty(message = "主机地址不能为空")
+    private String host;
+
+    @NotEmpty(message = "权限类型不能为空")
+    private String permissionType;
+
+    private String objectType;
+    private String database;
+    private String name;
+
+    /**
+     * 获取用户名
+     *
+     * @return 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 设置用户名
+     *
+     * @param username 用户名
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * 获取主机地址
+     *
+     * @return 主机地址
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 设置主机地址
+     *
+     * @param host 主机地址
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * 获取权限类型
+     *
+     * @return 权限类型
+     */
+    public String getPermissionType() {
+        return permissionType;
+    }
+
+    /**
+     * 设置权限类型
+     *
+     * @param permissionType 权限类型
+     */
+    public void setPermissionType(String permissionType) {
+        this.permissionType = permissionType;
+    }
+
+    /**
+     * 获取对象类型（SYSTEM/CATALOG/DATABASE/TABLE/VIEW/MATERIALIZED_VIEW/FUNCTION），为空时默认为DATABASE
+     *
+     * @return 对象类型（SYSTEM/CATALOG/DATABASE/TABLE/VIEW/MATERIALIZED_VIEW/FUNCTION），为空时默认为DATABASE
+     */
+    public String getObjectType() {
+        return objectType;
+    }
+
+    /**
+     * 设置对象类型（SYSTEM/CATALOG/DATABASE/TABLE/VIEW/MATERIALIZED_VIEW/FUNCTION），为空时默认为DATABASE
+     *
+     * @param objectType 对象类型（SYSTEM/CATALOG/DATABASE/TABLE/VIEW/MATERIALIZED_VIEW/FUNCTION），为空时默认为DATABASE
+     */
+    public void setObjectType(String objectType) {
+        this.objectType = objectType;
+    }
+
+    /**
+     * 获取对象所属数据库
+     *
+     * @return 对象所属数据库
+     */
+    public String getDatabase() {
+        return database;
+    }
+
+    /**
+     * 设置对象所属数据库
+     *
+     * @param database 对象所属数据库
+     */
+    public void setDatabase(String database) {
+        this.database = database;
+    }
+
+    /**
+     * 获取对象名称
+     *
+     * @return 对象名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 设置对象名称
+     *
+     * @param name 对象名称
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return "PermissionCheckRequestDTO{" +
+                "username='" + username + '\'' +
+                ", host='" + host + '\'' +
+                ", permissionType='" + permissionType + '\'' +
+                ", objectType='" + objectType + '\'' +
+                ", database='" + database + '\'' +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
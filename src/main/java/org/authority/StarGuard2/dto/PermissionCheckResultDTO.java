@@ -0,0 +1,181 @@
+package org.authority.StarGuard2.dto;
+
+/**
+ * 权限检查结果DTO类
+ *
+ * @author System
+ * @version 1.0
+ */
+public class PermissionCheckResultDTO {
+    private String username;
+    private String host;
+    private String permissionType;
+    private String objectType;
+    private String database;
+    private String name;
+    private boolean allowed;
+    private String matchedOn;
+    private String message;
+
+    /**
+     * 获取用户名
+     *
+     * @return 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 设置用户名
+     *
+     * @param username 用户名
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * 获取主机地址
+     *
+     * @return 主机地址
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 设置主机地址
+     *
+     * @param host 主机地址
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * 获取权限类型
+     *
+     * @return 权限类型
+     */
+    public String getPermissionType() {
+        return permissionType;
+    }
+
+    /**
+     * 设置权限类型
+     *
+     * @param permissionType 权限类型
+     */
+    public void setPermissionType(String permissionType) {
+        this.permissionType = permissionType;
+    }
+
+    /**
+     * 获取对象类型
+     *
+     * @return 对象类型
+     */
+    public String getObjectType() {
+        return objectType;
+    }
+
+    /**
+     * 设置对象类型
+     *
+     * @param objectType 对象类型
+     */
+    public void setObjectType(String objectType) {
+        this.objectType = objectType;
+    }
+
+    /**
+     * 获取对象所属数据库
+     *
+     * @return 对象所属数据库
+     */
+    public String getDatabase() {
+        return database;
+    }
+
+    /**
+     * 设置对象所属数据库
+     *
+     * @param database 对象所属数据库
+     */
+    public void setDatabase(String database) {
+        this.database = database;
+    }
+
+    /**
+     * 获取对象名称
+     *
+     * @return 对象名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 设置对象名称
+     *
+     * @param name 对象名称
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 获取是否拥有该权限
+     *
+     * @return 是否拥有该权限
+     */
+    public boolean isAllowed() {
+        return allowed;
+    }
+
+    /**
+     * 设置是否拥有该权限
+     *
+     * @param allowed 是否拥有该权限
+     */
+    public void setAllowed(boolean allowed) {
+        this.allowed = allowed;
+    }
+
+    /**
+     * 获取提供该权限的授权对象
+     *
+     * @return 提供该权限的授权对象
+     */
+    public String getMatchedOn() {
+        return matchedOn;
+    }
+
+    /**
+     * 设置提供该权限的授权对象
+     *
+     * @param matchedOn 提供该权限的授权对象
+     */
+    public void setMatchedOn(String matchedOn) {
+        this.matchedOn = matchedOn;
+    }
+
+    /**
+     * 获取无法检查时的原因
+     *
+     * @return 无法检查时的原因
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * 设置无法检查时的原因
+     *
+     * @param message 无法检查时的原因
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
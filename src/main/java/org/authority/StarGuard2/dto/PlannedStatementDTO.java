@@ -0,0 +1,221 @@
+package org.authority.StarGuard2.dto;
+
+import java.util.List;
+
+/**
+ * 执行计划中单条语句的DTO类，一条语句可能由多个请求的权限合并而成
+ *
+ * @author System
+ * @version 1.0
+ */
+public class PlannedStatementDTO {
+    private String action;
+    private String username;
+    private String host;
+    private String object;
+    private List<String> privileges;
+    private List<String> roles;
+    private boolean withGrantOption;
+    private int requestedCount;
+    private String sql;
+    private boolean executed;
+    private String error;
+
+    /**
+     * 获取语句类型（GRANT/REVOKE）
+     *
+     * @return 语句类型
+     */
+    public String getAction() {
+        return action;
+    }
+
+    /**
+     * 设置语句类型（GRANT/REVOKE）
+     *
+     * @param action 语句类型
+     */
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    /**
+     * 获取被授权用户名
+     *
+     * @return 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 设置被授权用户名
+     *
+     * @param username 用户名
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * 获取被授权主机地址
+     *
+     * @return 主机地址
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 设置被授权主机地址
+     *
+     * @param host 主机地址
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * 获取ON 之后的对象子句，角色语句为null
+     *
+     * @return 对象子句
+     */
+    public String getObject() {
+        return object;
+    }
+
+    /**
+     * 设置ON 之后的对象子句，角色语句为null
+     *
+     * @param object 对象子句
+     */
+    public void setObject(String object) {
+        this.object = object;
+    }
+
+    /**
+     * 获取语句中的权限名称
+     *
+     * @return 权限名称列表
+     */
+    public List<String> getPrivileges() {
+        return privileges;
+    }
+
+    /**
+     * 设置语句中的权限名称
+     *
+     * @param privileges 权限名称列表
+     */
+    public void setPrivileges(List<String> privileges) {
+        this.privileges = privileges;
+    }
+
+    /**
+     * 获取语句中的角色名称
+     *
+     * @return 角色名称列表
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * 设置语句中的角色名称
+     *
+     * @param roles 角色名称列表
+     */
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
+
+    /**
+     * 检查语句是否带有GRANT OPTION
+     *
+     * @return true如果带有GRANT OPTION
+     */
+    public boolean isWithGrantOption() {
+        return withGrantOption;
+    }
+
+    /**
+     * 设置语句是否带有GRANT OPTION
+     *
+     * @param withGrantOption 是否带有GRANT OPTION
+     */
+    public void setWithGrantOption(boolean withGrantOption) {
+        this.withGrantOption = withGrantOption;
+    }
+
+    /**
+     * 获取合并进该语句的请求项数量
+     *
+     * @return 请求项数量
+     */
+    public int getRequestedCount() {
+        return requestedCount;
+    }
+
+    /**
+     * 设置合并进该语句的请求项数量
+     *
+     * @param requestedCount 请求项数量
+     */
+    public void setRequestedCount(int requestedCount) {
+        this.requestedCount = requestedCount;
+    }
+
+    /**
+     * 获取执行的SQL语句
+     *
+     * @return SQL语句
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * 设置执行的SQL语句
+     *
+     * @param sql SQL语句
+     */
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * 获取语句是否执行成功
+     *
+     * @return true表示执行成功
+     */
+    public boolean isExecuted() {
+        return executed;
+    }
+
+    /**
+     * 设置语句是否执行成功
+     *
+     * @param executed true表示执行成功
+     */
+    public void setExecuted(boolean executed) {
+        this.executed = executed;
+    }
+
+    /**
+     * 获取语句执行失败的原因
+     *
+     * @return 失败原因，成功时为null
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * 设置语句执行失败的原因
+     *
+     * @param error 失败原因，成功时为null
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,221 @@
+package org.authority.StarGuard2.dto;
+
+import java.util.List;
+
+/**
+ * 权限变更事件DTO类，通过SSE推送给订阅者，订阅者据此增量更新本地数据而无需重新加载完整列表
+ *
+ * @author System
+ * @version 1.0
+ */
+public class PrivilegeEventDTO {
+    private String type;
+    private long version;
+    private Boolean fullReload;
+    private String username;
+    private String host;
+    private String permissionType;
+    private String databaseName;
+    private Boolean withGrantOption;
+    private Integer permissionCount;
+    private Boolean hasGrantOption;
+    private List<String> roles;
+
+    /**
+     * 获取事件类型（snapshot/reload/user-added/user-removed/user-updated/permission-added/permission-removed）
+     *
+     * @return 事件类型
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * 设置事件类型（snapshot/reload/user-added/user-removed/user-updated/permission-added/permission-removed）
+     *
+     * @param type 事件类型
+     */
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * 获取产生该事件的快照版本号
+     *
+     * @return 快照版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 设置产生该事件的快照版本号
+     *
+     * @param version 快照版本号
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * 获取快照是否由完整刷新生成，仅snapshot事件有值
+     *
+     * @return 快照是否由完整刷新生成
+     */
+    public Boolean getFullReload() {
+        return fullReload;
+    }
+
+    /**
+     * 设置快照是否由完整刷新生成，仅snapshot事件有值
+     *
+     * @param fullReload 快照是否由完整刷新生成
+     */
+    public void setFullReload(Boolean fullReload) {
+        this.fullReload = fullReload;
+    }
+
+    /**
+     * 获取用户名
+     *
+     * @return 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 设置用户名
+     *
+     * @param username 用户名
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * 获取主机地址
+     *
+     * @return 主机地址
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 设置主机地址
+     *
+     * @param host 主机地址
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * 获取权限名称，仅权限事件有值
+     *
+     * @return 权限名称
+     */
+    public String getPermissionType() {
+        return permissionType;
+    }
+
+    /**
+     * 设置权限名称，仅权限事件有值
+     *
+     * @param permissionType 权限名称
+     */
+    public void setPermissionType(String permissionType) {
+        this.permissionType = permissionType;
+    }
+
+    /**
+     * 获取授权对象描述，仅权限事件有值
+     *
+     * @return 授权对象描述
+     */
+    public String getDatabaseName() {
+        return databaseName;
+    }
+
+    /**
+     * 设置授权对象描述，仅权限事件有值
+     *
+     * @param databaseName 授权对象描述
+     */
+    public void setDatabaseName(String databaseName) {
+        this.databaseName = databaseName;
+    }
+
+    /**
+     * 获取权限是否带有GRANT OPTION，仅权限事件有值
+     *
+     * @return 权限是否带有GRANT OPTION
+     */
+    public Boolean getWithGrantOption() {
+        return withGrantOption;
+    }
+
+    /**
+     * 设置权限是否带有GRANT OPTION，仅权限事件有值
+     *
+     * @param withGrantOption 权限是否带有GRANT OPTION
+     */
+    public void setWithGrantOption(Boolean withGrantOption) {
+        this.withGrantOption = withGrantOption;
+    }
+
+    /**
+     * 获取用户当前的权限数量，仅用户事件有值
+     *
+     * @return 用户当前的权限数量
+     */
+    public Integer getPermissionCount() {
+        return permissionCount;
+    }
+
+    /**
+     * 设置用户当前的权限数量，仅用户事件有值
+     *
+     * @param permissionCount 用户当前的权限数量
+     */
+    public void setPermissionCount(Integer permissionCount) {
+        this.permissionCount = permissionCount;
+    }
+
+    /**
+     * 获取用户当前是否拥有带GRANT OPTION的权限，仅用户事件有值
+     *
+     * @return 用户当前是否拥有带GRANT OPTION的权限
+     */
+    public Boolean getHasGrantOption() {
+        return hasGrantOption;
+    }
+
+    /**
+     * 设置用户当前是否拥有带GRANT OPTION的权限，仅用户事件有值
+     *
+     * @param hasGrantOption 用户当前是否拥有带GRANT OPTION的权限
+     */
+    public void setHasGrantOption(Boolean hasGrantOption) {
+        this.hasGrantOption = hasGrantOption;
+    }
+
+    /**
+     * 获取用户当前被授予的角色，仅用户事件有值
+     *
+     * @return 用户当前被授予的角色
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * 设置用户当前被授予的角色，仅用户事件有值
+     *
+     * @param roles 用户当前被授予的角色
+     */
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
+}
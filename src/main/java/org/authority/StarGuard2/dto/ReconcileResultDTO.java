@@ -0,0 +1,221 @@
+package org.authority.StarGuard2.dto;
+
+import java.util.List;
+
+/**
+ * 权限策略同步结果DTO类
+ *
+ * @author System
+ * @version 1.0
+ */
+public class ReconcileResultDTO {
+    private boolean dryRun;
+    private int desiredUserCount;
+    private int changedUserCount;
+    private int grantCount;
+    private int revokeCount;
+    private int statementCount;
+    private int unmanagedCount;
+    private long diffMs;
+    private long snapshotVersion;
+    private List<ExecutionPlanDTO> plans;
+    private BatchReportDTO report;
+
+    /**
+     * 获取是否只生成计划而不执行
+     *
+     * @return true表示只生成计划
+     */
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    /**
+     * 设置是否只生成计划而不执行
+     *
+     * @param dryRun true表示只生成计划
+     */
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    /**
+     * 获取策略文件中的用户数
+     *
+     * @return 用户数
+     */
+    public int getDesiredUserCount() {
+        return desiredUserCount;
+    }
+
+    /**
+     * 设置策略文件中的用户数
+     *
+     * @param desiredUserCount 用户数
+     */
+    public void setDesiredUserCount(int desiredUserCount) {
+        this.desiredUserCount = desiredUserCount;
+    }
+
+    /**
+     * 获取需要变更的用户数
+     *
+     * @return 用户数
+     */
+    public int getChangedUserCount() {
+        return changedUserCount;
+    }
+
+    /**
+     * 设置需要变更的用户数
+     *
+     * @param changedUserCount 用户数
+     */
+    public void setChangedUserCount(int changedUserCount) {
+        this.changedUserCount = changedUserCount;
+    }
+
+    /**
+     * 获取需要授予的权限项和角色数
+     *
+     * @return 授予项数
+     */
+    public int getGrantCount() {
+        return grantCount;
+    }
+
+    /**
+     * 设置需要授予的权限项和角色数
+     *
+     * @param grantCount 授予项数
+     */
+    public void setGrantCount(int grantCount) {
+        this.grantCount = grantCount;
+    }
+
+    /**
+     * 获取需要撤销的权限项和角色数
+     *
+     * @return 撤销项数
+     */
+    public int getRevokeCount() {
+        return revokeCount;
+    }
+
+    /**
+     * 设置需要撤销的权限项和角色数
+     *
+     * @param revokeCount 撤销项数
+     */
+    public void setRevokeCount(int revokeCount) {
+        this.revokeCount = revokeCount;
+    }
+
+    /**
+     * 获取合并后的语句数
+     *
+     * @return 语句数
+     */
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * 设置合并后的语句数
+     *
+     * @param statementCount 语句数
+     */
+    public void setStatementCount(int statementCount) {
+        this.statementCount = statementCount;
+    }
+
+    /**
+     * 获取当前无法识别、因此不做处理的权限数
+     *
+     * @return 权限数
+     */
+    public int getUnmanagedCount() {
+        return unmanagedCount;
+    }
+
+    /**
+     * 设置当前无法识别、因此不做处理的权限数
+     *
+     * @param unmanagedCount 权限数
+     */
+    public void setUnmanagedCount(int unmanagedCount) {
+        this.unmanagedCount = unmanagedCount;
+    }
+
+    /**
+     * 获取与快照比较的耗时（毫秒）
+     *
+     * @return 耗时
+     */
+    public long getDiffMs() {
+        return diffMs;
+    }
+
+    /**
+     * 设置与快照比较的耗时（毫秒）
+     *
+     * @param diffMs 耗时
+     */
+    public void setDiffMs(long diffMs) {
+        this.diffMs = diffMs;
+    }
+
+    /**
+     * 获取比较时使用的快照版本号
+     *
+     * @return 快照版本号
+     */
+    public long getSnapshotVersion() {
+        return snapshotVersion;
+    }
+
+    /**
+     * 设置比较时使用的快照版本号
+     *
+     * @param snapshotVersion 快照版本号
+     */
+    public void setSnapshotVersion(long snapshotVersion) {
+        this.snapshotVersion = snapshotVersion;
+    }
+
+    /**
+     * 获取每个需要变更的用户的计划，仅在只生成计划时返回
+     *
+     * @return 计划列表
+     */
+    public List<ExecutionPlanDTO> getPlans() {
+        return plans;
+    }
+
+    /**
+     * 设置每个需要变更的用户的计划，仅在只生成计划时返回
+     *
+     * @param plans 计划列表
+     */
+    public void setPlans(List<ExecutionPlanDTO> plans) {
+        this.plans = plans;
+    }
+
+    /**
+     * 获取每个用户的执行结果，仅在执行时返回
+     *
+     * @return 批量操作报告
+     */
+    public BatchReportDTO getReport() {
+        return report;
+    }
+
+    /**
+     * 设置每个用户的执行结果，仅在执行时返回
+     *
+     * @param report 批量操作报告
+     */
+    public void setReport(BatchReportDTO report) {
+        this.report = report;
+    }
+}
@@ -0,0 +1,124 @@
+package org.authority.StarGuard2.dto;
+
+/**
+ * 因不会改变用户权限而跳过的授权/撤销项DTO类
+ *
+ * @author System
+ * @version 1.0
+ */
+public class SkippedPrivilegeDTO {
+    private String action;
+    private String username;
+    private String host;
+    private String permissionType;
+    private String object;
+    private String reason;
+
+    /**
+     * 获取语句类型（GRANT/REVOKE）
+     *
+     * @return 语句类型
+     */
+    public String getAction() {
+        return action;
+    }
+
+    /**
+     * 设置语句类型（GRANT/REVOKE）
+     *
+     * @param action 语句类型
+     */
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    /**
+     * 获取用户名
+     *
+     * @return 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 设置用户名
+     *
+     * @param username 用户名
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * 获取主机地址
+     *
+     * @return 主机地址
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 设置主机地址
+     *
+     * @param host 主机地址
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * 获取权限类型
+     *
+     * @return 权限类型
+     */
+    public String getPermissionType() {
+        return permissionType;
+    }
+
+    /**
+     * 设置权限类型
+     *
+     * @param permissionType 权限类型
+     */
+    public void setPermissionType(String permissionType) {
+        this.permissionType = permissionType;
+    }
+
+    /**
+     * 获取对象子句，角色授权时为角色名
+     *
+     * @return 对象
+     */
+    public String getObject() {
+        return object;
+    }
+
+    /**
+     * 设置对象子句，角色授权时为角色名
+     *
+     * @param object 对象
+     */
+    public void setObject(String object) {
+        this.object = object;
+    }
+
+    /**
+     * 获取跳过的原因
+     *
+     * @return 原因
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * 设置跳过的原因
+     *
+     * @param reason 原因
+     */
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
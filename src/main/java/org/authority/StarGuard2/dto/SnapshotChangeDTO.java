@@ -0,0 +1,67 @@
+package org.authority.StarGuard2.dto;
+
+/**
+ * 快照用户变化DTO类，表示两个快照版本之间单个用户的变化
+ *
+ * @author System
+ * @version 1.0
+ */
+public class SnapshotChangeDTO {
+    private String type;
+    private String username;
+    private String host;
+
+    /**
+     * 获取变化类型（ADDED/UPDATED/REMOVED）
+     *
+     * @return 变化类型
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * 设置变化类型（ADDED/UPDATED/REMOVED）
+     *
+     * @param type 变化类型
+     */
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * 获取用户名
+     *
+     * @return 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 设置用户名
+     *
+     * @param username 用户名
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * 获取主机地址
+     *
+     * @return 主机地址
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 设置主机地址
+     *
+     * @param host 主机地址
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+}
@@ -0,0 +1,259 @@
+package org.authority.StarGuard2.dto;
+
+import java.util.List;
+
+/**
+ * 权限快照信息DTO类，用于向前端展示当前内存快照的版本和时效
+ *
+ * @author System
+ * @version 1.0
+ */
+public class SnapshotInfoDTO {
+    private long version;
+    private long loadedAt;
+    private long ageMillis;
+    private int userCount;
+    private boolean refreshing;
+    private long grantCount;
+    private int objectDictionarySize;
+    private int hostDictionarySize;
+    private boolean fullReload;
+    private List<SnapshotChangeDTO> changes;
+    private long lastIncrementalRefreshAt;
+    private int lastIncrementalCheckedUsers;
+    private int lastIncrementalReparsedUsers;
+
+    /**
+     * 获取快照版本号
+     *
+     * @return 快照版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 设置快照版本号
+     *
+     * @param version 快照版本号
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * 获取快照加载时间
+     *
+     * @return 毫秒时间戳
+     */
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * 设置快照加载时间
+     *
+     * @param loadedAt 毫秒时间戳
+     */
+    public void setLoadedAt(long loadedAt) {
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * 获取快照距今的时长
+     *
+     * @return 毫秒数
+     */
+    public long getAgeMillis() {
+        return ageMillis;
+    }
+
+    /**
+     * 设置快照距今的时长
+     *
+     * @param ageMillis 毫秒数
+     */
+    public void setAgeMillis(long ageMillis) {
+        this.ageMillis = ageMillis;
+    }
+
+    /**
+     * 获取快照中的用户数量
+     *
+     * @return 用户数量
+     */
+    public int getUserCount() {
+        return userCount;
+    }
+
+    /**
+     * 设置快照中的用户数量
+     *
+     * @param userCount 用户数量
+     */
+    public void setUserCount(int userCount) {
+        this.userCount = userCount;
+    }
+
+    /**
+     * 检查后台刷新是否正在进行
+     *
+     * @return true表示正在刷新
+     */
+    public boolean isRefreshing() {
+        return refreshing;
+    }
+
+    /**
+     * 设置后台刷新是否正在进行
+     *
+     * @param refreshing 是否正在刷新
+     */
+    public void setRefreshing(boolean refreshing) {
+        this.refreshing = refreshing;
+    }
+
+    /**
+     * 获取快照中的授权条数
+     *
+     * @return 授权条数
+     */
+    public long getGrantCount() {
+        return grantCount;
+    }
+
+    /**
+     * 设置快照中的授权条数
+     *
+     * @param grantCount 授权条数
+     */
+    public void setGrantCount(long grantCount) {
+        this.grantCount = grantCount;
+    }
+
+    /**
+     * 获取授权对象描述字典中的字符串数量
+     *
+     * @return 字符串数量
+     */
+    public int getObjectDictionarySize() {
+        return objectDictionarySize;
+    }
+
+    /**
+     * 设置授权对象描述字典中的字符串数量
+     *
+     * @param objectDictionarySize 字符串数量
+     */
+    public void setObjectDictionarySize(int objectDictionarySize) {
+        this.objectDictionarySize = objectDictionarySize;
+    }
+
+    /**
+     * 获取主机地址字典中的字符串数量
+     *
+     * @return 字符串数量
+     */
+    public int getHostDictionarySize() {
+        return hostDictionarySize;
+    }
+
+    /**
+     * 设置主机地址字典中的字符串数量
+     *
+     * @param hostDictionarySize 字符串数量
+     */
+    public void setHostDictionarySize(int hostDictionarySize) {
+        this.hostDictionarySize = hostDictionarySize;
+    }
+
+    /**
+     * 检查当前版本是否由完整刷新生成
+     *
+     * @return true如果由完整刷新生成
+     */
+    public boolean isFullReload() {
+        return fullReload;
+    }
+
+    /**
+     * 设置当前版本是否由完整刷新生成
+     *
+     * @param fullReload 是否由完整刷新生成
+     */
+    public void setFullReload(boolean fullReload) {
+        this.fullReload = fullReload;
+    }
+
+    /**
+     * 获取当前版本相对于上一版本的用户变化
+     *
+     * @return 用户变化列表
+     */
+    public List<SnapshotChangeDTO> getChanges() {
+        return changes;
+    }
+
+    /**
+     * 设置当前版本相对于上一版本的用户变化
+     *
+     * @param changes 用户变化列表
+     */
+    public void setChanges(List<SnapshotChangeDTO> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * 获取最近一次增量刷新完成的时间
+     *
+     * @return 毫秒时间戳，尚未执行过增量刷新时为0
+     */
+    public long getLastIncrementalRefreshAt() {
+        return lastIncrementalRefreshAt;
+    }
+
+    /**
+     * 设置最近一次增量刷新完成的时间
+     *
+     * @param lastIncrementalRefreshAt 毫秒时间戳
+     */
+    public void setLastIncrementalRefreshAt(long lastIncrementalRefreshAt) {
+        this.lastIncrementalRefreshAt = lastIncrementalRefreshAt;
+    }
+
+    /**
+     * 获取最近一次增量刷新检查的用户数量
+     *
+     * @return 用户数量
+     */
+    public int getLastIncrementalCheckedUsers() {
+        return lastIncrementalCheckedUsers;
+    }
+
+    /**
+     * 设置最近一次增量刷新检查的用户数量
+     *
+     * @param lastIncrementalCheckedUsers 用户数量
+     */
+    public void setLastIncrementalCheckedUsers(int lastIncrementalCheckedUsers) {
+        this.lastIncrementalCheckedUsers = lastIncrementalCheckedUsers;
+    }
+
+    /**
+     * 获取最近一次增量刷新重新解析的用户数量
+     *
+     * @return 用户数量
+     */
+    public int getLastIncrementalReparsedUsers() {
+        return lastIncrementalReparsedUsers;
+    }
+
+    /**
+     * 设置最近一次增量刷新重新解析的用户数量
+     *
+     * @param lastIncrementalReparsedUsers 用户数量
+     */
+    public void setLastIncrementalReparsedUsers(int lastIncrementalReparsedUsers) {
+        this.lastIncrementalReparsedUsers = lastIncrementalReparsedUsers;
+    }
+}
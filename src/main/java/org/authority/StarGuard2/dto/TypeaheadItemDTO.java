@@ -0,0 +1,67 @@
+package org.authority.StarGuard2.dto;
+
+/**
+ * 输入提示候选项DTO类
+ *
+ * @author System
+ * @version 1.0
+ */
+public class TypeaheadItemDTO {
+    private String name;
+    private String database;
+    private String host;
+
+    /**
+     * 获取名称（对象名、数据库名或用户名）
+     *
+     * @return 名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 设置名称（对象名、数据库名或用户名）
+     *
+     * @param name 名称
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 获取对象所在的数据库
+     *
+     * @return 数据库名，类型为数据库或用户时为null
+     */
+    public String getDatabase() {
+        return database;
+    }
+
+    /**
+     * 设置对象所在的数据库
+     *
+     * @param database 数据库名，类型为数据库或用户时为null
+     */
+    public void setDatabase(String database) {
+        this.database = database;
+    }
+
+    /**
+     * 获取用户的主机地址
+     *
+     * @return 主机地址，类型不是用户时为null
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 设置用户的主机地址
+     *
+     * @param host 主机地址，类型不是用户时为null
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+}
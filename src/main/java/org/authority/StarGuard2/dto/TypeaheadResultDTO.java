@@ -0,0 +1,107 @@
+package org.authority.StarGuard2.dto;
+
+import java.util.List;
+
+/**
+ * 输入提示结果DTO类
+ *
+ * @author System
+ * @version 1.0
+ */
+public class TypeaheadResultDTO {
+    private String type;
+    private String prefix;
+    private String database;
+    private List<TypeaheadItemDTO> items;
+    private long elapsedMicros;
+
+    /**
+     * 获取对象类型（DATABASE/TABLE/VIEW/MATERIALIZED_VIEW/USER）
+     *
+     * @return 对象类型
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * 设置对象类型（DATABASE/TABLE/VIEW/MATERIALIZED_VIEW/USER）
+     *
+     * @param type 对象类型
+     */
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * 获取查询的前缀
+     *
+     * @return 查询的前缀
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * 设置查询的前缀
+     *
+     * @param prefix 查询的前缀
+     */
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * 获取限定的数据库
+     *
+     * @return 数据库名，未限定时为null
+     */
+    public String getDatabase() {
+        return database;
+    }
+
+    /**
+     * 设置限定的数据库
+     *
+     * @param database 数据库名，未限定时为null
+     */
+    public void setDatabase(String database) {
+        this.database = database;
+    }
+
+    /**
+     * 获取按排名排列的候选项
+     *
+     * @return 候选项列表
+     */
+    public List<TypeaheadItemDTO> getItems() {
+        return items;
+    }
+
+    /**
+     * 设置按排名排列的候选项
+     *
+     * @param items 候选项列表
+     */
+    public void setItems(List<TypeaheadItemDTO> items) {
+        this.items = items;
+    }
+
+    /**
+     * 获取查询耗时（微秒）
+     *
+     * @return 查询耗时
+     */
+    public long getElapsedMicros() {
+        return elapsedMicros;
+    }
+
+    /**
+     * 设置查询耗时（微秒）
+     *
+     * @param elapsedMicros 查询耗时
+     */
+    public void setElapsedMicros(long elapsedMicros) {
+        this.elapsedMicros = elapsedMicros;
+    }
+}
@@ -14,6 +14,7 @@ public class UserPermissionDTO {
     private String host;
     private List<PermissionDTO> permissions;
     private boolean hasGrantOption;
+    private String loadError;
 
     /**
      * 获取用户名
@@ -87,6 +88,24 @@ public class UserPermissionDTO {
         this.hasGrantOption = hasGrantOption;
     }
 
+    /**
+     * 获取加载该用户权限时的错误信息
+     * 
+     * @return 错误信息，加载成功时为null
+     */
+    public String getLoadError() {
+        return loadError;
+    }
+
+    /**
+     * 设置加载该用户权限时的错误信息
+     * 
+     * @param loadError 错误信息
+     */
+    public void setLoadError(String loadError) {
+        this.loadError = loadError;
+    }
+
     /**
      * 权限DTO内部类，用于表示单个权限信息
      */
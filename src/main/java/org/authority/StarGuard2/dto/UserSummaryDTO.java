@@ -0,0 +1,126 @@
+package org.authority.StarGuard2.dto;
+
+import java.util.List;
+
+/**
+ * 用户摘要DTO类，用于用户列表的首屏展示，完整权限在展开时通过用户详情接口获取
+ *
+ * @author System
+ * @version 1.0
+ */
+public class UserSummaryDTO {
+    private String username;
+    private String host;
+    private Integer permissionCount;
+    private boolean hasGrantOption;
+    private List<String> roles;
+    private String loadError;
+
+    /**
+     * 获取用户名
+     *
+     * @return 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 设置用户名
+     *
+     * @param username 用户名
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * 获取主机地址
+     *
+     * @return 主机地址
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 设置主机地址
+     *
+     * @param host 主机地址
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * 获取权限数量
+     *
+     * @return 权限数量，null表示暂未统计
+     */
+    public Integer getPermissionCount() {
+        return permissionCount;
+    }
+
+    /**
+     * 设置权限数量
+     *
+     * @param permissionCount 权限数量
+     */
+    public void setPermissionCount(Integer permissionCount) {
+        this.permissionCount = permissionCount;
+    }
+
+    /**
+     * 检查用户是否拥有带GRANT OPTION的权限
+     *
+     * @return true如果用户拥有带GRANT OPTION的权限
+     */
+    public boolean isHasGrantOption() {
+        return hasGrantOption;
+    }
+
+    /**
+     * 设置用户是否拥有带GRANT OPTION的权限
+     *
+     * @param hasGrantOption 是否拥有带GRANT OPTION的权限
+     */
+    public void setHasGrantOption(boolean hasGrantOption) {
+        this.hasGrantOption = hasGrantOption;
+    }
+
+    /**
+     * 获取授予用户的角色
+     *
+     * @return 角色名列表，null表示暂未统计
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * 设置授予用户的角色
+     *
+     * @param roles 角色名列表
+     */
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
+
+    /**
+     * 获取加载该用户权限时的错误信息
+     *
+     * @return 错误信息，加载成功时为null
+     */
+    public String getLoadError() {
+        return loadError;
+    }
+
+    /**
+     * 设置加载该用户权限时的错误信息
+     *
+     * @param loadError 错误信息
+     */
+    public void setLoadError(String loadError) {
+        this.loadError = loadError;
+    }
+}
@@ -0,0 +1,106 @@
+package org.authority.StarGuard2.dto;
+
+/**
+ * 批量请求校验错误DTO类
+ * 描述批量请求中某一项未通过校验的原因
+ *
+ * @author System
+ * @version 1.0
+ */
+public class ValidationErrorDTO {
+    private int index;
+    private String username;
+    private String host;
+    private String field;
+    private String message;
+
+    /**
+     * 获取请求在批量请求中的下标
+     *
+     * @return 下标
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * 设置请求在批量请求中的下标
+     *
+     * @param index 下标
+     */
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * 获取用户名
+     *
+     * @return 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 设置用户名
+     *
+     * @param username 用户名
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * 获取主机地址
+     *
+     * @return 主机地址
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 设置主机地址
+     *
+     * @param host 主机地址
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * 获取未通过校验的字段名
+     *
+     * @return 字段名，与具体字段无关时为null
+     */
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * 设置未通过校验的字段名
+     *
+     * @param field 字段名，与具体字段无关时为null
+     */
+    public void setField(String field) {
+        this.field = field;
+    }
+
+    /**
+     * 获取错误信息
+     *
+     * @return 错误信息
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * 设置错误信息
+     *
+     * @param message 错误信息
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,278 @@
+package org.authority.StarGuard2.event;
+
+import org.authority.StarGuard2.cache.PrivilegeSnapshot;
+import org.authority.StarGuard2.cache.UserChange;
+import org.authority.StarGuard2.dto.PrivilegeEventDTO;
+import org.authority.StarGuard2.exception.PermissionException;
+import org.authority.StarGuard2.model.Permission;
+import org.authority.StarGuard2.model.User;
+import org.authority.StarGuard2.model.UserIdentity;
+import org.authority.StarGuard2.model.UserSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 权限变更事件广播器，通过SSE向订阅者推送细粒度的变更事件
+ * 每个快照版本根据其变化列表生成事件：新增/删除的用户、变化用户的权限增减（与上一版本逐条比较得出），
+ * 最后是一条带有版本号的snapshot事件；完整刷新生成的版本只推送一条reload事件，由订阅者自行重新加载
+ * 所有事件在单线程中按版本顺序计算和发送，SSE事件ID为快照版本号；
+ * 订阅者断线重连时携带的 Last-Event-ID 与当前版本不一致时推送reload事件，因为错过的事件无法重放
+ *
+ * @author System
+ * @version 1.0
+ */
+@Component
+public class PrivilegeEventBroadcaster {
+    private static final Logger logger = LoggerFactory.getLogger(PrivilegeEventBroadcaster.class);
+
+    private final ExecutorService privilegeEventExecutor;
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    // 最近一次广播的快照版本，只在事件线程中写入
+    private volatile long latestVersion;
+
+    // 单个SSE连接的超时时间（毫秒），超时后客户端自动重连
+    @Value("${starguard.events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMillis;
+
+    // 最大同时订阅数
+    @Value("${starguard.events.max-subscribers:100}")
+    private int maxSubscribers;
+
+    /**
+     * 构造函数
+     *
+     * @param privilegeEventExecutor 计算和发送事件的单线程线程池
+     */
+    @Autowired
+    public PrivilegeEventBroadcaster(@Qualifier("privilegeEventExecutor") ExecutorService privilegeEventExecutor) {
+        this.privilegeEventExecutor = privilegeEventExecutor;
+    }
+
+    /**
+     * 订阅权限变更事件，建立连接后立即推送一条当前版本的snapshot事件
+     *
+     * @param lastEventId 断线重连时客户端收到的最后一个事件ID，首次连接时为null
+     * @return SSE连接
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        if (emitters.size() >= maxSubscribers) {
+            throw new PermissionException(503, "权限变更事件订阅者数量已达上限: " + maxSubscribers);
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> {
+            emitters.remove(emitter);
+            emitter.complete();
+        });
+        emitter.onError(e -> emitters.remove(emitter));
+        emitters.add(emitter);
+        privilegeEventExecutor.execute(() -> {
+            long version = latestVersion;
+            boolean missed = lastEventId != null && lastEventId != version;
+            send(emitter, Collections.singletonList(missed ? event("reload", version) : snapshotEvent(version, false)));
+        });
+        logger.info("新增权限变更事件订阅，当前共{}个订阅者", emitters.size());
+        return emitter;
+    }
+
+    /**
+     * 获取当前订阅者数量
+     *
+     * @return 订阅者数量
+     */
+    public int getSubscriberCount() {
+        return emitters.size();
+    }
+
+    /**
+     * 接收快照版本发布事件，在事件线程中计算并广播变更事件
+     * 该方法在快照写锁内被调用，只负责提交任务
+     *
+     * @param event 快照版本发布事件
+     */
+    @EventListener
+    public void onSnapshotPublished(SnapshotPublishedEvent event) {
+        try {
+            privilegeEventExecutor.execute(() -> broadcast(event.getPrevious(), event.getCurrent()));
+        } catch (RejectedExecutionException e) {
+            logger.warn("提交权限变更事件失败: version={}", event.getCurrent().getVersion(), e);
+        }
+    }
+
+    /**
+     * 定时发送心跳注释，防止代理关闭空闲连接，同时清理已断开的连接
+     */
+    @Scheduled(initialDelayString = "${starguard.events.heartbeat-interval-ms:30000}",
+            fixedDelayString = "${starguard.events.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        privilegeEventExecutor.execute(() -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    emitters.remove(emitter);
+                }
+            }
+        });
+    }
+
+    /**
+     * 计算一个快照版本的变更事件并发送给所有订阅者
+     *
+     * @param previous 上一版本快照，首次加载时为null
+     * @param current 新快照
+     */
+    private void broadcast(PrivilegeSnapshot previous, PrivilegeSnapshot current) {
+        long version = current.getVersion();
+        latestVersion = version;
+        if (emitters.isEmpty()) {
+            return;
+        }
+        List<PrivilegeEventDTO> events = new ArrayList<>();
+        if (previous == null || current.isFullReload()) {
+            events.add(event("reload", version));
+        } else {
+            for (UserChange change : current.getChanges()) {
+                UserIdentity identity = change.getIdentity();
+                switch (change.getType()) {
+                    case ADDED:
+                        addUserEvents(events, "user-added", version, null, current.getUser(identity));
+                        break;
+                    case UPDATED:
+                        addUserEvents(events, "user-updated", version, previous.getUser(identity), current.getUser(identity));
+                        break;
+                    case REMOVED:
+                        events.add(userEvent("user-removed", version, identity));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        events.add(snapshotEvent(version, current.isFullReload()));
+        for (SseEmitter emitter : emitters) {
+            send(emitter, events);
+        }
+        logger.debug("广播权限变更事件: version={}, 事件{}条，订阅者{}个", version, events.size(), emitters.size());
+    }
+
+    /**
+     * 生成单个用户的事件：先是与旧数据相比增加和减少的权限，最后是带有用户当前摘要的用户事件
+     *
+     * @param events 事件列表
+     * @param type 用户事件类型
+     * @param version 快照版本号
+     * @param before 旧的用户数据，新增用户时为null
+     * @param after 新的用户数据
+     */
+    private void addUserEvents(List<PrivilegeEventDTO> events, String type, long version, User before, User after) {
+        if (after == null) {
+            return;
+        }
+        UserIdentity identity = UserIdentity.of(after);
+        Map<String, Permission> removed = indexPermissions(before);
+        Map<String, Permission> added = indexPermissions(after);
+        for (String key : new ArrayList<>(added.keySet())) {
+            if (removed.remove(key) != null) {
+                added.remove(key);
+            }
+        }
+        for (Permission permission : removed.values()) {
+            events.add(permissionEvent("permission-removed", version, identity, permission));
+        }
+        for (Permission permission : added.values()) {
+            events.add(permissionEvent("permission-added", version, identity, permission));
+        }
+        PrivilegeEventDTO userEvent = userEvent(type, version, identity);
+        UserSummary summary = UserSummary.of(after);
+        userEvent.setPermissionCount(summary.getPermissionCount());
+        userEvent.setHasGrantOption(summary.isHasGrantOption());
+        userEvent.setRoles(summary.getRoles());
+        events.add(userEvent);
+    }
+
+    /**
+     * 以（权限名称、授权对象、是否带GRANT OPTION）为键索引用户的权限
+     */
+    private Map<String, Permission> indexPermissions(User user) {
+        Map<String, Permission> index = new LinkedHashMap<>();
+        if (user == null || user.getPermissions() == null) {
+            return index;
+        }
+        for (Permission permission : user.getPermissions()) {
+            index.put(permission.getPrivilegeName() + '\u0000' + permission.getDatabaseName()
+                    + '\u0000' + permission.isWithGrantOption(), permission);
+        }
+        return index;
+    }
+
+    private PrivilegeEventDTO event(String type, long version) {
+        PrivilegeEventDTO event = new PrivilegeEventDTO();
+        event.setType(type);
+        event.setVersion(version);
+        return event;
+    }
+
+    private PrivilegeEventDTO snapshotEvent(long version, boolean fullReload) {
+        PrivilegeEventDTO event = event("snapshot", version);
+        event.setFullReload(fullReload);
+        return event;
+    }
+
+    private PrivilegeEventDTO userEvent(String type, long version, UserIdentity identity) {
+        PrivilegeEventDTO event = event(type, version);
+        event.setUsername(identity.getUsername());
+        event.setHost(identity.getHost());
+        return event;
+    }
+
+    private PrivilegeEventDTO permissionEvent(String type, long version, UserIdentity identity, Permission permission) {
+        PrivilegeEventDTO event = userEvent(type, version, identity);
+        event.setPermissionType(permission.getPrivilegeName());
+        event.setDatabaseName(permission.getDatabaseName());
+        event.setWithGrantOption(permission.isWithGrantOption());
+        return event;
+    }
+
+    /**
+     * 向单个订阅者发送事件，发送失败时移除该订阅者
+     *
+     * @param emitter SSE连接
+     * @param events 事件列表
+     */
+    private void send(SseEmitter emitter, List<PrivilegeEventDTO> events) {
+        try {
+            for (PrivilegeEventDTO event : events) {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getVersion()))
+                        .name(event.getType())
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("权限变更事件订阅者已断开: {}", e.getMessage());
+            emitters.remove(emitter);
+        }
+    }
+}
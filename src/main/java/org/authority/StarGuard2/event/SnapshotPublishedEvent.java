@@ -0,0 +1,50 @@
+package org.authority.StarGuard2.event;
+
+import org.authority.StarGuard2.cache.PrivilegeSnapshot;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 新的权限快照版本发布事件
+ * 在持有快照写锁时同步发布，监听者收到事件的顺序与版本号顺序一致，监听者不应在回调中执行耗时操作
+ *
+ * @author System
+ * @version 1.0
+ */
+public class SnapshotPublishedEvent extends ApplicationEvent {
+    private static final long serialVersionUID = 1L;
+
+    // 快照不可序列化，事件只在进程内发布
+    private final transient PrivilegeSnapshot previous;
+    private final transient PrivilegeSnapshot current;
+
+    /**
+     * 构造函数
+     *
+     * @param source 事件源
+     * @param previous 上一版本快照，首次加载时为null
+     * @param current 新发布的快照
+     */
+    public SnapshotPublishedEvent(Object source, PrivilegeSnapshot previous, PrivilegeSnapshot current) {
+        super(source);
+        this.previous = previous;
+        this.current = current;
+    }
+
+    /**
+     * 获取上一版本快照
+     *
+     * @return 上一版本快照，首次加载时为null
+     */
+    public PrivilegeSnapshot getPrevious() {
+        return previous;
+    }
+
+    /**
+     * 获取新发布的快照
+     *
+     * @return 新快照
+     */
+    public PrivilegeSnapshot getCurrent() {
+        return current;
+    }
+}
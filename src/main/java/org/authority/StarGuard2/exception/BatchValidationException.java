@@ -0,0 +1,57 @@
+package org.authority.StarGuard2.exception;
+
+import org.authority.StarGuard2.dto.ValidationErrorDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量请求校验失败异常，携带所有未通过校验的请求项
+ * 
+ * @author System
+ * @version 1.0
+ */
+public class BatchValidationException extends PermissionException {
+    private static final long serialVersionUID = 1L;
+
+    // 异常消息中最多列出的错误数，完整列表见 getErrors()
+    private static final int MAX_MESSAGE_ERRORS = 20;
+
+    // 错误DTO不可序列化，序列化后只保留异常消息
+    private final transient List<ValidationErrorDTO> errors;
+
+    /**
+     * 构造函数
+     * 
+     * @param errors 校验错误列表，不能为空
+     */
+    public BatchValidationException(List<ValidationErrorDTO> errors) {
+        super(400, buildMessage(errors));
+        this.errors = new ArrayList<>(errors);
+    }
+
+    /**
+     * 获取校验错误列表
+     * 
+     * @return 校验错误列表
+     */
+    public List<ValidationErrorDTO> getErrors() {
+        return errors;
+    }
+
+    private static String buildMessage(List<ValidationErrorDTO> errors) {
+        if (errors.size() == 1) {
+            return errors.get(0).getMessage();
+        }
+        StringBuilder message = new StringBuilder("请求校验失败，共").append(errors.size()).append("个错误: ");
+        int count = Math.min(errors.size(), MAX_MESSAGE_ERRORS);
+        for (int i = 0; i < count; i++) {
+            ValidationErrorDTO error = errors.get(i);
+            message.append(i > 0 ? "; " : "").append('[').append(error.getIndex()).append("] ").append(error.getMessage());
+        }
+        if (errors.size() > count) {
+            message.append("; ...");
+        }
+        return message.toString();
+    }
+}
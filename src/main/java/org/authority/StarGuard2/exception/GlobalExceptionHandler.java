@@ -1,6 +1,7 @@
 package org.authority.StarGuard2.exception;
 
 import org.authority.StarGuard2.dto.ResponseDTO;
+import org.authority.StarGuard2.dto.ValidationErrorDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -42,6 +44,22 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.valueOf(ex.getCode()));
     }
 
+    /**
+     * 处理批量请求校验异常，响应数据为所有校验错误
+     * 
+     * @param ex 批量请求校验异常
+     * @param request HTTP请求
+     * @return 统一的异常响应
+     */
+    @ExceptionHandler(BatchValidationException.class)
+    @ResponseBody
+    public ResponseEntity<ResponseDTO<?>> handleBatchValidationException(BatchValidationException ex, HttpServletRequest request) {
+        logger.warn("请求校验失败: {}", ex.getMessage());
+        ResponseDTO<List<ValidationErrorDTO>> response = ResponseDTO.fail(ex.getCode(), ex.getMessage());
+        response.setData(ex.getErrors());
+        return new ResponseEntity<>(response, HttpStatus.valueOf(ex.getCode()));
+    }
+
     /**
      * 处理数据访问相关的异常
      * 
@@ -0,0 +1,55 @@
+package org.authority.StarGuard2.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 有效权限实体类，表示用户最终拥有的一项权限及其来源
+ * rolePath为空表示直接授予用户的权限；否则依次列出从授予用户的角色到实际持有该权限的角色的继承路径
+ * 该类不可变
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class EffectivePermission {
+    private final Permission permission;
+    private final List<String> rolePath;
+
+    /**
+     * 构造函数
+     *
+     * @param permission 权限
+     * @param rolePath 角色继承路径，空列表表示直接授权
+     */
+    public EffectivePermission(Permission permission, List<String> rolePath) {
+        this.permission = permission;
+        this.rolePath = Collections.unmodifiableList(rolePath);
+    }
+
+    /**
+     * 获取权限
+     *
+     * @return 权限
+     */
+    public Permission getPermission() {
+        return permission;
+    }
+
+    /**
+     * 获取角色继承路径
+     *
+     * @return 只读的角色名列表，空列表表示直接授权
+     */
+    public List<String> getRolePath() {
+        return rolePath;
+    }
+
+    /**
+     * 检查是否是直接授予用户的权限
+     *
+     * @return true如果是直接授权
+     */
+    public boolean isDirect() {
+        return rolePath.isEmpty();
+    }
+}
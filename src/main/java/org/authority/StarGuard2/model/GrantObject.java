@@ -0,0 +1,255 @@
+package org.authority.StarGuard2.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * 授权对象，表示一条权限所作用的对象（类型、所属数据库、对象名）
+ * database为null表示所有数据库，name为null表示数据库内该类型的所有对象
+ * 该类不可变，可作为Map的键使用
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class GrantObject {
+    private static final String ALL_DATABASES = "ALL DATABASES";
+    private static final String IN_ALL_DATABASES = " IN ALL DATABASES";
+    private static final String IN_DATABASE = " IN DATABASE ";
+
+    private final GrantObjectType type;
+    private final String database;
+    private final String name;
+
+    /**
+     * 构造函数
+     *
+     * @param type 对象类型
+     * @param database 所属数据库，null表示所有数据库
+     * @param name 对象名称，null表示所有对象
+     */
+    public GrantObject(GrantObjectType type, String database, String name) {
+        this.type = Objects.requireNonNull(type, "type");
+        this.database = database;
+        this.name = name;
+    }
+
+    /**
+     * 解析权限的对象描述（即 {@link Permission#getDatabaseName()} 的取值）
+     * 支持的格式：ALL DATABASES、SYSTEM、ROLE: r、CATALOG c、db、TABLE db.t、VIEW db.v、MATERIALIZED VIEW db.mv、
+     * FUNCTION db.f、ALL TABLES IN DATABASE db、ALL VIEWS IN ALL DATABASES 等
+     *
+     * @param description 对象描述
+     * @return 授权对象，无法识别时类型为 {@link GrantObjectType#OTHER}
+     */
+    public static GrantObject parse(String description) {
+        if (description == null || description.trim().isEmpty()) {
+            return new GrantObject(GrantObjectType.OTHER, null, null);
+        }
+        String text = description.trim();
+        String upper = text.toUpperCase(Locale.ROOT);
+        if (upper.equals(ALL_DATABASES)) {
+            return new GrantObject(GrantObjectType.DATABASE, null, null);
+        }
+        if (upper.equals("SYSTEM")) {
+            return new GrantObject(GrantObjectType.SYSTEM, null, null);
+        }
+        if (upper.startsWith("ROLE:")) {
+            return new GrantObject(GrantObjectType.ROLE, null, text.substring(5).trim());
+        }
+        if (upper.startsWith("ALL ")) {
+            GrantObjectType type = pluralType(upper.substring(4));
+            if (type != null) {
+                if (upper.endsWith(IN_ALL_DATABASES)) {
+                    return new GrantObject(type, null, null);
+                }
+                int inDatabase = upper.lastIndexOf(IN_DATABASE);
+                if (inDatabase > 0) {
+                    return new GrantObject(type, unquote(text.substring(inDatabase + IN_DATABASE.length())), null);
+                }
+            }
+            return new GrantObject(GrantObjectType.OTHER, null, text);
+        }
+        if (upper.startsWith("CATALOG ")) {
+            return new GrantObject(GrantObjectType.CATALOG, null, unquote(text.substring(8)));
+        }
+        if (upper.startsWith("DATABASE ")) {
+            return new GrantObject(GrantObjectType.DATABASE, unquote(text.substring(9)), null);
+        }
+        for (GrantObjectType type : new GrantObjectType[] {GrantObjectType.MATERIALIZED_VIEW, GrantObjectType.TABLE,
+                GrantObjectType.VIEW, GrantObjectType.FUNCTION}) {
+            String prefix = type.getKeyword() + " ";
+            if (upper.startsWith(prefix)) {
+                String qualified = text.substring(prefix.length()).trim();
+                int dot = qualified.indexOf('.');
+                if (dot <= 0) {
+                    // 不带数据库的对象名无法确定所属数据库，不能当作所有数据库中的同名对象
+                    return new GrantObject(GrantObjectType.OTHER, null, text);
+                }
+                return new GrantObject(type, unquote(qualified.substring(0, dot)), unquote(qualified.substring(dot + 1)));
+            }
+        }
+        if (text.indexOf(' ') < 0) {
+            return new GrantObject(GrantObjectType.DATABASE, unquote(text), null);
+        }
+        return new GrantObject(GrantObjectType.OTHER, null, text);
+    }
+
+    /**
+     * 根据复数形式的对象类型（如 TABLES IN ...）获取对象类型
+     */
+    private static GrantObjectType pluralType(String upper) {
+        if (upper.startsWith("MATERIALIZED VIEWS ")) {
+            return GrantObjectType.MATERIALIZED_VIEW;
+        }
+        if (upper.startsWith("TABLES ")) {
+            return GrantObjectType.TABLE;
+        }
+        if (upper.startsWith("VIEWS ")) {
+            return GrantObjectType.VIEW;
+        }
+        if (upper.startsWith("FUNCTIONS ")) {
+            return GrantObjectType.FUNCTION;
+        }
+        return null;
+    }
+
+    /**
+     * 去除标识符两侧的反引号和空白
+     */
+    private static String unquote(String identifier) {
+        return identifier.replace("`", "").trim();
+    }
+
+    /**
+     * 检查该授权对象是否覆盖目标对象，覆盖关系只存在于同一类型之间：
+     * ALL DATABASES 覆盖任意数据库；ALL TABLES IN ALL DATABASES 覆盖任意 ALL TABLES IN DATABASE db 及其中的表，
+     * ALL TABLES IN DATABASE db 覆盖 db 中的表，视图、物化视图、函数同理
+     * 数据库级授权（如 DATABASE db 上的 DROP）作用于数据库本身，不覆盖其中的表、视图等对象
+     *
+     * @param target 目标对象
+     * @return true如果覆盖
+     */
+    public boolean covers(GrantObject target) {
+        if (type != target.type) {
+            return false;
+        }
+        if (type == GrantObjectType.DATABASE) {
+            return database == null || database.equals(target.database);
+        }
+        if (type.isDatabaseChild()) {
+            if (database == null) {
+                return true;
+            }
+            if (!database.equals(target.database)) {
+                return false;
+            }
+            return name == null || name.equals(target.name);
+        }
+        return Objects.equals(name, target.name);
+    }
+
+    /**
+     * 列出所有可能覆盖该对象的同类型授权对象（包括对象本身），从最宽到最窄
+     * 例如 TABLE db.t 依次为：所有数据库中的所有表、db中的所有表、db.t；DATABASE db 依次为：所有数据库、数据库db
+     *
+     * @return 授权对象列表
+     */
+    public List<GrantObject> getCoveringObjects() {
+        List<GrantObject> result = new ArrayList<>(3);
+        if (type == GrantObjectType.DATABASE || type.isDatabaseChild()) {
+            result.add(new GrantObject(type, null, null));
+            if (database != null) {
+                result.add(new GrantObject(type, database, null));
+                if (name != null) {
+                    result.add(this);
+                }
+            }
+        } else {
+            result.add(this);
+        }
+        return result;
+    }
+
+    /**
+     * 生成便于阅读的对象描述，如 ALL DATABASES、DATABASE db、ALL TABLES IN DATABASE db、TABLE db.t
+     *
+     * @return 对象描述
+     */
+    public String describe() {
+        switch (type) {
+            case SYSTEM:
+                return "SYSTEM";
+            case ROLE:
+                return "ROLE: " + name;
+            case OTHER:
+                return name;
+            case CATALOG:
+                return "CATALOG " + name;
+            case DATABASE:
+                return database == null ? ALL_DATABASES : "DATABASE " + database;
+            default:
+                if (database == null) {
+                    return "ALL " + type.getKeyword() + "S" + IN_ALL_DATABASES;
+                }
+                if (name == null) {
+                    return "ALL " + type.getKeyword() + "S" + IN_DATABASE + database;
+                }
+                return type.getKeyword() + " " + database + "." + name;
+        }
+    }
+
+    /**
+     * 获取对象类型
+     *
+     * @return 对象类型
+     */
+    public GrantObjectType getType() {
+        return type;
+    }
+
+    /**
+     * 获取所属数据库
+     *
+     * @return 数据库名，null表示所有数据库
+     */
+    public String getDatabase() {
+        return database;
+    }
+
+    /**
+     * 获取对象名称
+     *
+     * @return 对象名称，null表示所有对象
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GrantObject)) {
+            return false;
+        }
+        GrantObject that = (GrantObject) o;
+        return type == that.type && Objects.equals(database, that.database) && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, database, name);
+    }
+
+    @Override
+    public String toString() {
+        return "GrantObject{" +
+                "type=" + type +
+                ", database='" + database + '\'' +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package org.authority.StarGuard2.model;
+
+import java.util.Locale;
+
+/**
+ * 授权对象类型枚举
+ * 定义GRANT语句 ON 子句中可以出现的对象类型
+ */
+public enum GrantObjectType {
+    SYSTEM("SYSTEM"),
+    CATALOG("CATALOG"),
+    DATABASE("DATABASE"),
+    TABLE("TABLE"),
+    VIEW("VIEW"),
+    MATERIALIZED_VIEW("MATERIALIZED VIEW"),
+    FUNCTION("FUNCTION"),
+    // 角色授权（GRANT 'role' TO user）
+    ROLE("ROLE"),
+    // 无法识别的对象
+    OTHER("OTHER");
+
+    private final String keyword;
+
+    /**
+     * 构造函数
+     *
+     * @param keyword 对象类型在GRANT语句中的关键字
+     */
+    GrantObjectType(String keyword) {
+        this.keyword = keyword;
+    }
+
+    /**
+     * 获取对象类型在GRANT语句中的关键字
+     *
+     * @return 关键字
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * 检查该类型的对象是否属于某个数据库（表、视图、物化视图、函数）
+     *
+     * @return true如果对象属于某个数据库
+     */
+    public boolean isDatabaseChild() {
+        return this == TABLE || this == VIEW || this == MATERIALIZED_VIEW || this == FUNCTION;
+    }
+
+    /**
+     * 根据字符串获取对象类型，不区分大小写，允许使用空格或下划线分隔
+     *
+     * @param value 对象类型字符串
+     * @return 对象类型
+     * @throws IllegalArgumentException 当字符串不匹配任何对象类型时抛出
+     */
+    public static GrantObjectType fromString(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Object type cannot be null or empty");
+        }
+        String normalized = value.trim().toUpperCase(Locale.ROOT).replace(' ', '_');
+        return valueOf(normalized);
+    }
+}
@@ -1,5 +1,7 @@
 package org.authority.StarGuard2.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -10,9 +12,13 @@ import java.util.List;
  */
 public class Permission {
     private PermissionType permissionType;
+    // 无法识别的权限的原始名称，仅在permissionType为null时有值
+    private String privilegeName;
     private String databaseName;
     private boolean allDatabases;
     private boolean withGrantOption;
+    // 由databaseName解析出的结构化授权对象，首次使用时解析
+    private GrantObject grantObject;
 
     /**
      * 构造函数
@@ -26,10 +32,23 @@ public class Permission {
         this.allDatabases = "ALL DATABASES".equalsIgnoreCase(databaseName);
     }
 
+    /**
+     * 创建无法识别的权限，保留其原始名称，不映射为任何已知权限类型
+     * 
+     * @param privilegeName 权限的原始名称（大写、单词之间单个空格分隔）
+     * @param databaseName 数据库名称
+     * @return 权限对象，权限类型为null
+     */
+    public static Permission unknown(String privilegeName, String databaseName) {
+        Permission permission = new Permission(null, databaseName);
+        permission.privilegeName = privilegeName;
+        return permission;
+    }
+
     /**
      * 获取权限类型
      * 
-     * @return 权限类型
+     * @return 权限类型，无法识别的权限返回null
      */
     public PermissionType getPermissionType() {
         return permissionType;
@@ -44,6 +63,15 @@ public class Permission {
         this.permissionType = permissionType;
     }
 
+    /**
+     * 获取权限名称，已知权限为权限类型的字符串表示，无法识别的权限为原始名称
+     * 
+     * @return 权限名称
+     */
+    public String getPrivilegeName() {
+        return permissionType != null ? permissionType.getValue() : privilegeName;
+    }
+
     /**
      * 获取数据库名称
      * 
@@ -61,6 +89,41 @@ public class Permission {
     public void setDatabaseName(String databaseName) {
         this.databaseName = databaseName;
         this.allDatabases = "ALL DATABASES".equalsIgnoreCase(databaseName);
+        this.grantObject = null;
+    }
+
+    /**
+     * 获取角色授权中授予的角色名，描述格式为 ROLE: role1, role2
+     * 
+     * @return 角色名列表，非角色授权时返回空列表
+     */
+    public List<String> getGrantedRoles() {
+        if (permissionType != PermissionType.ROLE_GRANT || databaseName == null) {
+            return Collections.emptyList();
+        }
+        String names = databaseName.startsWith("ROLE:") ? databaseName.substring(5) : databaseName;
+        List<String> roles = new ArrayList<>();
+        for (String name : names.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty() && !roles.contains(trimmed)) {
+                roles.add(trimmed);
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * 获取结构化的授权对象（类型、所属数据库、对象名）
+     * 
+     * @return 授权对象
+     */
+    public GrantObject getGrantObject() {
+        GrantObject result = grantObject;
+        if (result == null) {
+            result = GrantObject.parse(databaseName);
+            grantObject = result;
+        }
+        return result;
     }
 
     /**
@@ -106,7 +169,7 @@ public class Permission {
      */
     public String buildGrantStatement() {
         StringBuilder builder = new StringBuilder();
-        builder.append(permissionType.toGrantString());
+        builder.append(getPrivilegeName());
         builder.append(" ON ");
         if (allDatabases) {
             builder.append("ALL DATABASES");
@@ -126,7 +189,7 @@ public class Permission {
      */
     public String buildRevokeStatement() {
         StringBuilder builder = new StringBuilder();
-        builder.append(permissionType.toGrantString());
+        builder.append(getPrivilegeName());
         builder.append(" ON ");
         if (allDatabases) {
             builder.append("ALL DATABASES");
@@ -139,7 +202,7 @@ public class Permission {
     @Override
     public String toString() {
         return "Permission{" +
-                "permissionType=" + permissionType +
+                "permissionType=" + getPrivilegeName() +
                 ", databaseName='" + databaseName + '\'' +
                 ", allDatabases=" + allDatabases +
                 ", withGrantOption=" + withGrantOption +
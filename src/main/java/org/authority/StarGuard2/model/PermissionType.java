@@ -1,5 +1,9 @@
 package org.authority.StarGuard2.model;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * 数据库权限类型枚举
  * 定义StarRocks数据库支持的所有权限类型
@@ -35,6 +39,15 @@ public enum PermissionType {
     // 角色授权类型
     ROLE_GRANT("ROLE_GRANT");
 
+    // 规范化的权限字符串（大写、单个空格分隔）到权限类型的映射
+    private static final Map<String, PermissionType> BY_VALUE = new HashMap<>();
+
+    static {
+        for (PermissionType type : values()) {
+            BY_VALUE.put(type.value, type);
+        }
+    }
+
     private final String value;
 
     /**
@@ -160,15 +173,20 @@ public enum PermissionType {
             throw new IllegalArgumentException("Permission value cannot be null or empty");
         }
         
-        String normalizedValue = value.trim().toUpperCase();
-        
-        for (PermissionType type : values()) {
-            if (type.getValue().equalsIgnoreCase(normalizedValue)) {
-                return type;
-            }
+        PermissionType type = lookup(value.trim().toUpperCase(Locale.ROOT));
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown permission type: " + value);
         }
-        
-        throw new IllegalArgumentException("Unknown permission type: " + value);
+        return type;
+    }
+
+    /**
+     * 根据规范化的权限字符串获取权限类型，不做大小写转换，适合调用方已规范化字符串的场景
+     * @param normalizedValue 大写、单词之间单个空格分隔的权限字符串
+     * @return 权限类型，不存在时返回null
+     */
+    public static PermissionType lookup(String normalizedValue) {
+        return BY_VALUE.get(normalizedValue);
     }
 
     /**
@@ -177,12 +195,7 @@ public enum PermissionType {
      * @return 是否有效
      */
     public static boolean isValidPermission(String value) {
-        try {
-            fromString(value);
-            return true;
-        } catch (IllegalArgumentException e) {
-            return false;
-        }
+        return value != null && lookup(value.trim().toUpperCase(Locale.ROOT)) != null;
     }
 
     /**
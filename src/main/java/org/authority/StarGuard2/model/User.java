@@ -13,6 +13,7 @@ public class User {
     private String host;
     private List<Permission> permissions;
     private boolean hasGrantOption;
+    private String loadError;
 
     /**
      * 构造函数
@@ -96,6 +97,24 @@ public class User {
         this.hasGrantOption = hasGrantOption;
     }
 
+    /**
+     * 获取加载该用户权限时的错误信息
+     * 
+     * @return 错误信息，加载成功时为null
+     */
+    public String getLoadError() {
+        return loadError;
+    }
+
+    /**
+     * 设置加载该用户权限时的错误信息
+     * 
+     * @param loadError 错误信息
+     */
+    public void setLoadError(String loadError) {
+        this.loadError = loadError;
+    }
+
     /**
      * 获取完整的用户标识（用户名@主机地址）
      * 
@@ -112,6 +131,7 @@ public class User {
                 ", host='" + host + '\'' +
                 ", hasGrantOption=" + hasGrantOption +
                 ", permissions=" + permissions +
+                ", loadError='" + loadError + '\'' +
                 '}';
     }
 }
\ No newline at end of file
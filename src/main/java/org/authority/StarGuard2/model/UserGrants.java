@@ -0,0 +1,78 @@
+package org.authority.StarGuard2.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 单个用户 SHOW GRANTS 返回的原始授权语句，尚未解析
+ * 该类不可变
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class UserGrants {
+    private final UserIdentity identity;
+    private final List<String> statements;
+    private final String loadError;
+
+    /**
+     * 构造函数
+     *
+     * @param identity 用户标识
+     * @param statements 授权语句，按 SHOW GRANTS 的返回顺序
+     * @param loadError 查询失败时的错误信息，查询成功时为null
+     */
+    public UserGrants(UserIdentity identity, List<String> statements, String loadError) {
+        this.identity = identity;
+        this.statements = statements != null ? Collections.unmodifiableList(statements) : Collections.<String>emptyList();
+        this.loadError = loadError;
+    }
+
+    /**
+     * 获取用户标识
+     *
+     * @return 用户标识
+     */
+    public UserIdentity getIdentity() {
+        return identity;
+    }
+
+    /**
+     * 获取授权语句
+     *
+     * @return 只读授权语句列表，查询失败时为空列表
+     */
+    public List<String> getStatements() {
+        return statements;
+    }
+
+    /**
+     * 获取查询失败时的错误信息
+     *
+     * @return 错误信息，查询成功时为null
+     */
+    public String getLoadError() {
+        return loadError;
+    }
+
+    /**
+     * 计算授权语句的指纹（64位FNV-1a哈希），语句内容和顺序都不变时指纹不变
+     * 语句之间以换行分隔，避免不同的拆分方式得到相同的指纹
+     *
+     * @return 指纹
+     */
+    public long fingerprint() {
+        long hash = 0xcbf29ce484222325L;
+        for (String statement : statements) {
+            if (statement != null) {
+                for (int i = 0; i < statement.length(); i++) {
+                    char c = statement.charAt(i);
+                    hash = (hash ^ (c & 0xff)) * 0x100000001b3L;
+                    hash = (hash ^ (c >>> 8)) * 0x100000001b3L;
+                }
+            }
+            hash = (hash ^ '\n') * 0x100000001b3L;
+        }
+        return hash;
+    }
+}
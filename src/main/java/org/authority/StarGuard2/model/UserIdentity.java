@@ -0,0 +1,116 @@
+package org.authority.StarGuard2.model;
+
+import java.util.Objects;
+
+/**
+ * 用户标识类，由用户名和主机地址唯一确定一个StarRocks用户
+ * 该类不可变，可作为Map的键使用
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class UserIdentity implements Comparable<UserIdentity> {
+    private final String username;
+    private final String host;
+
+    /**
+     * 构造函数
+     *
+     * @param username 用户名
+     * @param host 主机地址
+     */
+    public UserIdentity(String username, String host) {
+        this.username = Objects.requireNonNull(username, "username");
+        this.host = Objects.requireNonNull(host, "host");
+    }
+
+    /**
+     * 根据用户对象创建用户标识
+     *
+     * @param user 用户对象
+     * @return 用户标识
+     */
+    public static UserIdentity of(User user) {
+        return new UserIdentity(user.getUsername(), user.getHost());
+    }
+
+    /**
+     * 解析用户标识字符串，格式为 'username'@'host'
+     *
+     * @param userIdentity 用户标识字符串
+     * @return 用户标识
+     */
+    public static UserIdentity parse(String userIdentity) {
+        String text = userIdentity.trim();
+        // 优先按 '@' 分割，用户名本身可能包含@字符
+        int separator = text.lastIndexOf("'@'");
+        if (separator > 0) {
+            return new UserIdentity(text.substring(0, separator).replace("'", ""),
+                    text.substring(separator + 3).replace("'", ""));
+        }
+        // 移除引号并分割用户名和主机
+        text = text.replace("'", "");
+        int atIndex = text.indexOf('@');
+        if (atIndex < 0) {
+            return new UserIdentity(text, "%");
+        }
+        return new UserIdentity(text.substring(0, atIndex), text.substring(atIndex + 1));
+    }
+
+    /**
+     * 获取用户名
+     *
+     * @return 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 获取主机地址
+     *
+     * @return 主机地址
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 按用户名、主机地址的顺序比较
+     *
+     * @param other 另一个用户标识
+     * @return 比较结果
+     */
+    @Override
+    public int compareTo(UserIdentity other) {
+        int result = username.compareTo(other.username);
+        return result != 0 ? result : host.compareTo(other.host);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UserIdentity)) {
+            return false;
+        }
+        UserIdentity that = (UserIdentity) o;
+        return username.equals(that.username) && host.equals(that.host);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * username.hashCode() + host.hashCode();
+    }
+
+    /**
+     * 获取完整的用户标识（'用户名'@'主机地址'）
+     *
+     * @return 完整的用户标识
+     */
+    @Override
+    public String toString() {
+        return "'" + username + "'@'" + host + "'";
+    }
+}
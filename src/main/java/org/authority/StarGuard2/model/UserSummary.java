@@ -0,0 +1,186 @@
+package org.authority.StarGuard2.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户摘要实体类，只包含用户列表展示所需的信息，不包含完整的权限列表
+ *
+ * @author System
+ * @version 1.0
+ */
+public class UserSummary {
+    private String username;
+    private String host;
+    private Integer permissionCount;
+    private boolean hasGrantOption;
+    private List<String> roles;
+    private String loadError;
+
+    /**
+     * 构造函数
+     *
+     * @param username 用户名
+     * @param host 主机地址
+     */
+    public UserSummary(String username, String host) {
+        this.username = username;
+        this.host = host;
+    }
+
+    /**
+     * 根据已加载权限的用户对象生成摘要
+     *
+     * @param user 用户对象
+     * @return 用户摘要
+     */
+    public static UserSummary of(User user) {
+        UserSummary summary = new UserSummary(user.getUsername(), user.getHost());
+        summary.setLoadError(user.getLoadError());
+        List<Permission> permissions = user.getPermissions();
+        if (permissions == null) {
+            return summary;
+        }
+        List<String> roles = new ArrayList<>();
+        for (Permission permission : permissions) {
+            for (String role : permission.getGrantedRoles()) {
+                if (!roles.contains(role)) {
+                    roles.add(role);
+                }
+            }
+        }
+        summary.setPermissionCount(permissions.size());
+        summary.setHasGrantOption(user.isHasGrantOption());
+        summary.setRoles(roles);
+        return summary;
+    }
+
+    /**
+     * 获取用户标识
+     *
+     * @return 用户标识
+     */
+    public UserIdentity getIdentity() {
+        return new UserIdentity(username, host);
+    }
+
+    /**
+     * 获取用户名
+     *
+     * @return 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 设置用户名
+     *
+     * @param username 用户名
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * 获取主机地址
+     *
+     * @return 主机地址
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 设置主机地址
+     *
+     * @param host 主机地址
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * 获取权限数量
+     *
+     * @return 权限数量，null表示当前数据源无法提供
+     */
+    public Integer getPermissionCount() {
+        return permissionCount;
+    }
+
+    /**
+     * 设置权限数量
+     *
+     * @param permissionCount 权限数量
+     */
+    public void setPermissionCount(Integer permissionCount) {
+        this.permissionCount = permissionCount;
+    }
+
+    /**
+     * 检查用户是否拥有带GRANT OPTION的权限
+     *
+     * @return true如果用户拥有带GRANT OPTION的权限
+     */
+    public boolean isHasGrantOption() {
+        return hasGrantOption;
+    }
+
+    /**
+     * 设置用户是否拥有带GRANT OPTION的权限
+     *
+     * @param hasGrantOption 是否拥有带GRANT OPTION的权限
+     */
+    public void setHasGrantOption(boolean hasGrantOption) {
+        this.hasGrantOption = hasGrantOption;
+    }
+
+    /**
+     * 获取授予用户的角色
+     *
+     * @return 角色名列表，null表示当前数据源无法提供
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * 设置授予用户的角色
+     *
+     * @param roles 角色名列表
+     */
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
+
+    /**
+     * 获取加载该用户权限时的错误信息
+     *
+     * @return 错误信息，加载成功时为null
+     */
+    public String getLoadError() {
+        return loadError;
+    }
+
+    /**
+     * 设置加载该用户权限时的错误信息
+     *
+     * @param loadError 错误信息
+     */
+    public void setLoadError(String loadError) {
+        this.loadError = loadError;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSummary{" +
+                "username='" + username + '\'' +
+                ", host='" + host + '\'' +
+                ", permissionCount=" + permissionCount +
+                ", hasGrantOption=" + hasGrantOption +
+                ", roles=" + roles +
+                ", loadError='" + loadError + '\'' +
+                '}';
+    }
+}
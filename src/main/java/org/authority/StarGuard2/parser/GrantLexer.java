@@ -0,0 +1,218 @@
+package org.authority.StarGuard2.parser;
+
+/**
+ * GRANT语句的词法分析器，按需从左到右扫描一次语句文本
+ * 关键字比较直接在原文上进行（不区分大小写），只有引号内的内容需要反转义时才生成新字符串
+ *
+ * @author System
+ * @version 1.0
+ */
+final class GrantLexer {
+    // 词法单元类型
+    static final int EOF = 0;
+    // 未加引号的单词（关键字或标识符）
+    static final int WORD = 1;
+    // 反引号标识符，`` 表示一个反引号
+    static final int QUOTED_IDENTIFIER = 2;
+    // 单引号或双引号字符串，'' 或反斜杠转义
+    static final int STRING = 3;
+    static final int COMMA = 4;
+    static final int DOT = 5;
+    static final int LEFT_PAREN = 6;
+    static final int RIGHT_PAREN = 7;
+    // 其他单个符号，如 @ 和 *
+    static final int SYMBOL = 8;
+
+    private final String text;
+    private int position;
+
+    private int type;
+    private int start;
+    private int end;
+    // 引号内的内容是否含有转义，不含转义时直接截取原文
+    private boolean escaped;
+
+    /**
+     * 构造函数
+     *
+     * @param text 语句文本
+     */
+    GrantLexer(String text) {
+        this.text = text;
+    }
+
+    /**
+     * 读取下一个词法单元
+     *
+     * @return 词法单元类型
+     */
+    int next() {
+        int length = text.length();
+        while (position < length && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+        start = position;
+        escaped = false;
+        if (position >= length) {
+            end = position;
+            return type = EOF;
+        }
+        char c = text.charAt(position);
+        switch (c) {
+            case ',':
+                return single(COMMA);
+            case '.':
+                return single(DOT);
+            case '(':
+                return single(LEFT_PAREN);
+            case ')':
+                return single(RIGHT_PAREN);
+            case '`':
+                return quoted('`', QUOTED_IDENTIFIER);
+            case '\'':
+            case '"':
+                return quoted(c, STRING);
+            default:
+                if (!isWordChar(c)) {
+                    return single(SYMBOL);
+                }
+                while (position < length && isWordChar(text.charAt(position))) {
+                    position++;
+                }
+                end = position;
+                return type = WORD;
+        }
+    }
+
+    /**
+     * 获取当前词法单元的类型
+     *
+     * @return 词法单元类型
+     */
+    int type() {
+        return type;
+    }
+
+    /**
+     * 获取当前词法单元在原文中的起始位置（含引号）
+     *
+     * @return 起始位置
+     */
+    int start() {
+        return start;
+    }
+
+    /**
+     * 获取当前词法单元在原文中的结束位置（含引号）
+     *
+     * @return 结束位置
+     */
+    int end() {
+        return end;
+    }
+
+    /**
+     * 检查当前词法单元是否为指定关键字，不区分大小写
+     *
+     * @param keyword 大写关键字
+     * @return true如果匹配
+     */
+    boolean isKeyword(String keyword) {
+        return type == WORD && end - start == keyword.length()
+                && text.regionMatches(true, start, keyword, 0, keyword.length());
+    }
+
+    /**
+     * 检查当前词法单元是否为标识符（单词或反引号标识符）
+     *
+     * @return true如果是标识符
+     */
+    boolean isIdentifier() {
+        return type == WORD || type == QUOTED_IDENTIFIER;
+    }
+
+    /**
+     * 获取当前词法单元的值：单词为原文，引号内容为去除引号并反转义后的文本
+     *
+     * @return 词法单元的值
+     */
+    String value() {
+        if (type != QUOTED_IDENTIFIER && type != STRING) {
+            return text.substring(start, end);
+        }
+        if (!escaped) {
+            return text.substring(start + 1, end - 1);
+        }
+        char quote = text.charAt(start);
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start + 1; i < end - 1; i++) {
+            char c = text.charAt(i);
+            if (c == quote || (c == '\\' && quote != '`')) {
+                i++;
+                c = text.charAt(i);
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 将当前单词以大写形式追加到builder，不生成中间字符串
+     *
+     * @param builder 目标builder
+     */
+    void appendUpperCase(StringBuilder builder) {
+        for (int i = start; i < end; i++) {
+            builder.append(Character.toUpperCase(text.charAt(i)));
+        }
+    }
+
+    /**
+     * 截取原文的一段
+     *
+     * @param from 起始位置
+     * @param to 结束位置
+     * @return 原文片段
+     */
+    String slice(int from, int to) {
+        return text.substring(from, to);
+    }
+
+    private int single(int tokenType) {
+        position++;
+        end = position;
+        return type = tokenType;
+    }
+
+    /**
+     * 读取引号内容，引号字符连写两次表示一个引号；字符串中还支持反斜杠转义
+     */
+    private int quoted(char quote, int tokenType) {
+        int length = text.length();
+        position++;
+        while (position < length) {
+            char c = text.charAt(position);
+            if (c == '\\' && quote != '`' && position + 1 < length) {
+                escaped = true;
+                position += 2;
+                continue;
+            }
+            if (c == quote) {
+                if (position + 1 < length && text.charAt(position + 1) == quote) {
+                    escaped = true;
+                    position += 2;
+                    continue;
+                }
+                position++;
+                end = position;
+                return type = tokenType;
+            }
+            position++;
+        }
+        throw new IllegalArgumentException("引号未闭合，位置 " + start);
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
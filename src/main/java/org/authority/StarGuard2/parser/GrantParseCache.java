@@ -0,0 +1,252 @@
+package org.authority.StarGuard2.parser;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * GRANT语句解析结果缓存
+ * 从同一模板创建的账号，SHOW GRANTS 返回的语句除被授权人外完全相同，因此以去除被授权人后的语句文本为键，
+ * 在所有用户之间共享不可变的 {@link ParsedGrant}，完整刷新时绝大多数语句只需一次字符扫描即可命中缓存
+ * 缓存按键的哈希分为多个段，每段是一个按访问顺序淘汰的LRU，段内加锁，段之间互不阻塞
+ *
+ * @author System
+ * @version 1.0
+ */
+@Component
+public class GrantParseCache {
+    private static final int SEGMENT_COUNT = 16;
+
+    private final GrantStatementParser parser;
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // 无法提取缓存键（非GRANT语句或格式不正确）而直接解析的次数
+    private final LongAdder bypasses = new LongAdder();
+
+    private final int maxEntries;
+
+    /**
+     * 构造函数
+     *
+     * @param parser GRANT语句解析器
+     * @param maxEntries 最多缓存的语句数量，0表示不缓存
+     */
+    @Autowired
+    public GrantParseCache(GrantStatementParser parser,
+                           @Value("${starguard.grants.parse-cache.max-entries:10000}") int maxEntries) {
+        this.parser = parser;
+        this.maxEntries = Math.max(0, maxEntries);
+        int segmentCapacity = (this.maxEntries + SEGMENT_COUNT - 1) / SEGMENT_COUNT;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * 解析一条GRANT语句，相同模板的语句返回同一个解析结果
+     *
+     * @param statement 语句文本
+     * @return 解析结果，语句不是GRANT语句时返回null
+     * @throws IllegalArgumentException 语句是GRANT语句但格式不正确时抛出
+     */
+    public ParsedGrant parse(String statement) {
+        String key = maxEntries > 0 ? cacheKey(statement) : null;
+        if (key == null) {
+            bypasses.increment();
+            return parser.parse(statement);
+        }
+        Segment segment = segments[(key.hashCode() & 0x7fffffff) % SEGMENT_COUNT];
+        ParsedGrant cached = segment.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        ParsedGrant parsed = parser.parse(statement);
+        if (parsed != null && segment.put(key, parsed)) {
+            evictions.increment();
+        }
+        return parsed;
+    }
+
+    /**
+     * 获取缓存命中次数
+     *
+     * @return 命中次数
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * 获取缓存未命中次数
+     *
+     * @return 未命中次数
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 获取因容量限制被淘汰的条目数
+     *
+     * @return 淘汰次数
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * 获取未经过缓存直接解析的次数
+     *
+     * @return 直接解析次数
+     */
+    public long getBypasses() {
+        return bypasses.sum();
+    }
+
+    /**
+     * 获取缓存命中率
+     *
+     * @return 命中次数占查找次数的比例，尚未查找时为0
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * 获取当前缓存的条目数
+     *
+     * @return 条目数
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * 获取最多缓存的条目数
+     *
+     * @return 最大条目数
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * 清空缓存，统计数据保持不变
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * 计算缓存键：去除 TO 与 WITH 之间的被授权人部分，保留其余原文
+     * 只做一次不分配中间对象的字符扫描，跳过引号内的内容；找不到顶层的 TO 时返回null
+     *
+     * @param statement 语句文本
+     * @return 缓存键
+     */
+    static String cacheKey(String statement) {
+        if (statement == null) {
+            return null;
+        }
+        int length = statement.length();
+        int to = -1;
+        int with = -1;
+        char quote = 0;
+        for (int i = 0; i < length; i++) {
+            char c = statement.charAt(i);
+            if (quote != 0) {
+                if (c == '\\' && quote != '`') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (isKeywordAt(statement, i, "TO")) {
+                to = i;
+                with = -1;
+            } else if (to >= 0 && isKeywordAt(statement, i, "WITH")) {
+                with = i;
+            }
+        }
+        if (to < 0) {
+            return null;
+        }
+        String prefix = statement.substring(0, to).trim();
+        return with < 0 ? prefix : prefix + " TO * " + statement.substring(with).trim();
+    }
+
+    /**
+     * 检查位置i处是否为独立的关键字（前后都不是单词字符），不区分大小写
+     */
+    private static boolean isKeywordAt(String text, int i, String keyword) {
+        int end = i + keyword.length();
+        if (end > text.length() || !text.regionMatches(true, i, keyword, 0, keyword.length())) {
+            return false;
+        }
+        return (i == 0 || !isWordChar(text.charAt(i - 1))) && (end == text.length() || !isWordChar(text.charAt(end)));
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * 缓存段，按访问顺序淘汰最久未使用的条目
+     */
+    private static final class Segment {
+        private final int capacity;
+        private final LinkedHashMap<String, ParsedGrant> entries;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        private synchronized ParsedGrant get(String key) {
+            return entries.get(key);
+        }
+
+        /**
+         * 写入条目
+         *
+         * @return true如果因此淘汰了一个条目
+         */
+        private synchronized boolean put(String key, ParsedGrant value) {
+            entries.put(key, value);
+            if (entries.size() <= capacity) {
+                return false;
+            }
+            Map.Entry<String, ParsedGrant> eldest = entries.entrySet().iterator().next();
+            entries.remove(eldest.getKey());
+            return true;
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package org.authority.StarGuard2.parser;
+
+import org.authority.StarGuard2.model.PermissionType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * StarRocks SHOW GRANTS 输出的GRANT语句解析器
+ * 对语句做一次从左到右的词法扫描并按语法逐段解析，支持：
+ * 多个权限（含多个单词的权限名）、角色授权、ALL DATABASES、ALL xxx IN DATABASE / IN ALL DATABASES、
+ * SYSTEM、CATALOG、DATABASE、TABLE、VIEW、MATERIALIZED VIEW、FUNCTION（含参数签名）、GLOBAL FUNCTION，
+ * 以及带转义的反引号标识符和字符串；其他对象类型按原样保留
+ * 权限名通过 {@link PermissionType#lookup} 做哈希查找，无法识别的权限保留原始名称
+ * 该类无状态，可并发使用
+ *
+ * @author System
+ * @version 1.0
+ */
+@Component
+public class GrantStatementParser {
+
+    /**
+     * 解析一条GRANT语句
+     *
+     * @param statement 语句文本
+     * @return 解析结果，语句不是GRANT语句时返回null
+     * @throws IllegalArgumentException 语句是GRANT语句但格式不正确时抛出
+     */
+    public ParsedGrant parse(String statement) {
+        if (statement == null) {
+            return null;
+        }
+        GrantLexer lexer = new GrantLexer(statement);
+        lexer.next();
+        if (!lexer.isKeyword("GRANT")) {
+            return null;
+        }
+        lexer.next();
+
+        // 权限或角色列表：单词组成的项保存大写规范化名称及其原文位置，引号项保存反转义后的值（位置为-1）
+        List<String> items = new ArrayList<>(4);
+        int[] spans = new int[8];
+        StringBuilder key = new StringBuilder(32);
+        while (true) {
+            int type = lexer.type();
+            if (type == GrantLexer.STRING || type == GrantLexer.QUOTED_IDENTIFIER) {
+                spans = addItem(items, spans, lexer.value(), -1, -1);
+                lexer.next();
+            } else if (type == GrantLexer.WORD && !lexer.isKeyword("ON") && !lexer.isKeyword("TO")) {
+                key.setLength(0);
+                int start = lexer.start();
+                int end;
+                do {
+                    if (key.length() > 0) {
+                        key.append(' ');
+                    }
+                    lexer.appendUpperCase(key);
+                    end = lexer.end();
+                    lexer.next();
+                } while (lexer.type() == GrantLexer.WORD && !lexer.isKeyword("ON") && !lexer.isKeyword("TO"));
+                spans = addItem(items, spans, key.toString(), start, end);
+            } else {
+                throw error("缺少权限或角色", lexer);
+            }
+            if (lexer.type() != GrantLexer.COMMA) {
+                break;
+            }
+            lexer.next();
+        }
+
+        if (lexer.isKeyword("TO")) {
+            // 角色授权：GRANT 'r1', 'r2' TO USER 'u'@'h'
+            List<String> roles = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                roles.add(spans[2 * i] >= 0 ? lexer.slice(spans[2 * i], spans[2 * i + 1]) : items.get(i));
+            }
+            boolean withGrantOption = parseGrantee(lexer);
+            return new ParsedGrant(Collections.<String>emptyList(), Collections.<PermissionType>emptyList(), roles,
+                    "ROLE: " + String.join(", ", roles), withGrantOption);
+        }
+        if (!lexer.isKeyword("ON")) {
+            throw error("缺少 ON 部分", lexer);
+        }
+        lexer.next();
+        String object = parseObject(lexer);
+        if (!lexer.isKeyword("TO")) {
+            throw error("缺少 TO 部分", lexer);
+        }
+        boolean withGrantOption = parseGrantee(lexer);
+
+        PermissionType[] types = new PermissionType[items.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = PermissionType.lookup(items.get(i));
+        }
+        return new ParsedGrant(items, Arrays.asList(types), Collections.<String>emptyList(), object, withGrantOption);
+    }
+
+    /**
+     * 解析 ON 之后的对象部分，返回对象描述，结束时词法分析器停在 TO 上
+     */
+    private String parseObject(GrantLexer lexer) {
+        if (lexer.isKeyword("ALL")) {
+            lexer.next();
+            if (lexer.isKeyword("DATABASES")) {
+                lexer.next();
+                return "ALL DATABASES";
+            }
+            StringBuilder plural = new StringBuilder(24);
+            while (lexer.type() == GrantLexer.WORD && !lexer.isKeyword("IN") && !lexer.isKeyword("TO")) {
+                if (plural.length() > 0) {
+                    plural.append(' ');
+                }
+                lexer.appendUpperCase(plural);
+                lexer.next();
+            }
+            if (plural.length() == 0) {
+                throw error("ALL 之后缺少对象类型", lexer);
+            }
+            if (!lexer.isKeyword("IN")) {
+                // 如 ALL RESOURCE GROUPS、ALL CATALOGS
+                return "ALL " + plural;
+            }
+            lexer.next();
+            if (lexer.isKeyword("ALL")) {
+                lexer.next();
+                expectKeyword(lexer, "DATABASES");
+                lexer.next();
+                return "ALL " + plural + " IN ALL DATABASES";
+            }
+            expectKeyword(lexer, "DATABASE");
+            lexer.next();
+            String database = parseQualifiedName(lexer);
+            return "ALL " + plural + " IN DATABASE " + database;
+        }
+        if (lexer.isKeyword("SYSTEM")) {
+            lexer.next();
+            return "SYSTEM";
+        }
+        if (lexer.isKeyword("DATABASE")) {
+            lexer.next();
+            return parseQualifiedName(lexer);
+        }
+        if (lexer.isKeyword("CATALOG")) {
+            lexer.next();
+            return "CATALOG " + parseQualifiedName(lexer);
+        }
+        if (lexer.isKeyword("TABLE") || lexer.isKeyword("VIEW")) {
+            String keyword = lexer.isKeyword("TABLE") ? "TABLE " : "VIEW ";
+            lexer.next();
+            return keyword + parseQualifiedName(lexer);
+        }
+        if (lexer.isKeyword("MATERIALIZED")) {
+            lexer.next();
+            expectKeyword(lexer, "VIEW");
+            lexer.next();
+            return "MATERIALIZED VIEW " + parseQualifiedName(lexer);
+        }
+        if (lexer.isKeyword("FUNCTION")) {
+            lexer.next();
+            return "FUNCTION " + parseQualifiedName(lexer) + parseArguments(lexer);
+        }
+        if (lexer.isKeyword("GLOBAL")) {
+            lexer.next();
+            expectKeyword(lexer, "FUNCTION");
+            lexer.next();
+            return "GLOBAL FUNCTION " + parseQualifiedName(lexer) + parseArguments(lexer);
+        }
+        return parseOther(lexer);
+    }
+
+    /**
+     * 解析以点分隔的标识符（如 db.tbl、catalog.db.tbl、db.*），反引号标识符会去除引号并反转义
+     */
+    private String parseQualifiedName(GrantLexer lexer) {
+        if (!lexer.isIdentifier()) {
+            throw error("缺少对象名", lexer);
+        }
+        String first = lexer.value();
+        lexer.next();
+        if (lexer.type() != GrantLexer.DOT) {
+            return first;
+        }
+        StringBuilder builder = new StringBuilder(first.length() + 16).append(first);
+        while (lexer.type() == GrantLexer.DOT) {
+            lexer.next();
+            if (lexer.isIdentifier() || lexer.type() == GrantLexer.SYMBOL) {
+                builder.append('.').append(lexer.value());
+                lexer.next();
+            } else {
+                throw error("点号之后缺少对象名", lexer);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 解析函数的参数签名，按原文返回（含括号），没有参数签名时返回空字符串
+     */
+    private String parseArguments(GrantLexer lexer) {
+        if (lexer.type() != GrantLexer.LEFT_PAREN) {
+            return "";
+        }
+        int start = lexer.start();
+        int depth = 0;
+        do {
+            if (lexer.type() == GrantLexer.LEFT_PAREN) {
+                depth++;
+            } else if (lexer.type() == GrantLexer.RIGHT_PAREN) {
+                depth--;
+            } else if (lexer.type() == GrantLexer.EOF) {
+                throw error("函数参数的括号未闭合", lexer);
+            }
+            int end = lexer.end();
+            lexer.next();
+            if (depth == 0) {
+                return lexer.slice(start, end);
+            }
+        } while (true);
+    }
+
+    /**
+     * 解析无法识别的对象类型（如 RESOURCE GROUP rg、STORAGE VOLUME sv），原文中相邻的词法单元直接连接，
+     * 不相邻的以单个空格连接，反引号标识符去除引号并反转义
+     */
+    private String parseOther(GrantLexer lexer) {
+        StringBuilder builder = new StringBuilder(32);
+        int previousEnd = -1;
+        while (lexer.type() != GrantLexer.EOF && !lexer.isKeyword("TO")) {
+            if (previousEnd >= 0 && previousEnd != lexer.start()) {
+                builder.append(' ');
+            }
+            builder.append(lexer.type() == GrantLexer.QUOTED_IDENTIFIER
+                    ? lexer.value() : lexer.slice(lexer.start(), lexer.end()));
+            previousEnd = lexer.end();
+            lexer.next();
+        }
+        if (builder.length() == 0) {
+            throw error("缺少授权对象", lexer);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 跳过 TO 之后的被授权人，解析可选的 WITH GRANT OPTION
+     *
+     * @return true如果带有GRANT OPTION
+     */
+    private boolean parseGrantee(GrantLexer lexer) {
+        lexer.next();
+        if (lexer.type() == GrantLexer.EOF) {
+            throw error("缺少被授权人", lexer);
+        }
+        while (lexer.type() != GrantLexer.EOF && !lexer.isKeyword("WITH")) {
+            lexer.next();
+        }
+        if (lexer.type() == GrantLexer.EOF) {
+            return false;
+        }
+        lexer.next();
+        expectKeyword(lexer, "GRANT");
+        lexer.next();
+        expectKeyword(lexer, "OPTION");
+        lexer.next();
+        if (lexer.type() != GrantLexer.EOF) {
+            throw error("语句结尾有多余内容", lexer);
+        }
+        return true;
+    }
+
+    private static int[] addItem(List<String> items, int[] spans, String item, int start, int end) {
+        int index = items.size();
+        items.add(item);
+        if (2 * index + 1 >= spans.length) {
+            spans = Arrays.copyOf(spans, spans.length * 2);
+        }
+        spans[2 * index] = start;
+        spans[2 * index + 1] = end;
+        return spans;
+    }
+
+    private static void expectKeyword(GrantLexer lexer, String keyword) {
+        if (!lexer.isKeyword(keyword)) {
+            throw error("缺少 " + keyword, lexer);
+        }
+    }
+
+    private static IllegalArgumentException error(String reason, GrantLexer lexer) {
+        return new IllegalArgumentException("授权语句格式不正确，" + reason + "，位置 " + lexer.start());
+    }
+}
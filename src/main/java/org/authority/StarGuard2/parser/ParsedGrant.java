@@ -0,0 +1,163 @@
+package org.authority.StarGuard2.parser;
+
+import org.authority.StarGuard2.model.Permission;
+import org.authority.StarGuard2.model.PermissionType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一条GRANT语句的解析结果，不包含被授权人信息，创建后不再修改
+ * 权限授权的对象描述与 {@link Permission#getDatabaseName()} 的取值格式一致；
+ * 角色授权的对象描述为 ROLE: r1, r2
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class ParsedGrant {
+    private final List<String> privilegeNames;
+    private final List<PermissionType> permissionTypes;
+    private final List<String> roles;
+    private final String objectDescription;
+    private final boolean withGrantOption;
+
+    /**
+     * 构造函数
+     *
+     * @param privilegeNames 按语句顺序排列的规范化权限名称，角色授权时为空
+     * @param permissionTypes 与权限名称一一对应的权限类型，无法识别的权限为null
+     * @param roles 授予的角色，权限授权时为空
+     * @param objectDescription 对象描述
+     * @param withGrantOption 是否带有GRANT OPTION
+     */
+    ParsedGrant(List<String> privilegeNames, List<PermissionType> permissionTypes, List<String> roles,
+                String objectDescription, boolean withGrantOption) {
+        this.privilegeNames = Collections.unmodifiableList(privilegeNames);
+        this.permissionTypes = Collections.unmodifiableList(permissionTypes);
+        this.roles = Collections.unmodifiableList(roles);
+        this.objectDescription = objectDescription;
+        this.withGrantOption = withGrantOption;
+    }
+
+    /**
+     * 获取规范化的权限名称（大写、单词之间单个空格分隔），顺序与语句一致
+     *
+     * @return 只读权限名称列表
+     */
+    public List<String> getPrivilegeNames() {
+        return privilegeNames;
+    }
+
+    /**
+     * 获取与权限名称一一对应的权限类型
+     *
+     * @return 只读权限类型列表，无法识别的权限对应null
+     */
+    public List<PermissionType> getPermissionTypes() {
+        return permissionTypes;
+    }
+
+    /**
+     * 获取角色授权中授予的角色
+     *
+     * @return 只读角色名列表，权限授权时为空
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * 检查是否是角色授权
+     *
+     * @return true如果是角色授权
+     */
+    public boolean isRoleGrant() {
+        return !roles.isEmpty();
+    }
+
+    /**
+     * 获取对象描述
+     *
+     * @return 对象描述
+     */
+    public String getObjectDescription() {
+        return objectDescription;
+    }
+
+    /**
+     * 检查是否带有GRANT OPTION
+     *
+     * @return true如果带有GRANT OPTION
+     */
+    public boolean isWithGrantOption() {
+        return withGrantOption;
+    }
+
+    /**
+     * 检查是否包含无法识别的权限
+     *
+     * @return true如果包含
+     */
+    public boolean hasUnknownPrivileges() {
+        return permissionTypes.contains(null);
+    }
+
+    /**
+     * 生成对应的权限对象，每次调用都返回新的对象
+     * 角色授权生成一个 ROLE_GRANT 权限；无法识别的权限保留原始名称，不映射为其他权限
+     *
+     * @return 权限对象列表
+     */
+    public List<Permission> toPermissions() {
+        List<Permission> permissions = new ArrayList<>(Math.max(1, privilegeNames.size()));
+        if (isRoleGrant()) {
+            Permission permission = new Permission(PermissionType.ROLE_GRANT, objectDescription);
+            permission.setWithGrantOption(withGrantOption);
+            permissions.add(permission);
+            return permissions;
+        }
+        for (int i = 0; i < privilegeNames.size(); i++) {
+            PermissionType type = permissionTypes.get(i);
+            Permission permission = type != null
+                    ? new Permission(type, objectDescription)
+                    : Permission.unknown(privilegeNames.get(i), objectDescription);
+            permission.setWithGrantOption(withGrantOption);
+            permissions.add(permission);
+        }
+        return permissions;
+    }
+
+    /**
+     * 生成规范化的文本表示，用于语料校验
+     * 格式为 SELECT, INSERT ON 对象描述 [WITH GRANT OPTION]，无法识别的权限前加 ?；角色授权为 ROLE r1, r2
+     *
+     * @return 文本表示
+     */
+    public String describe() {
+        StringBuilder builder = new StringBuilder();
+        if (isRoleGrant()) {
+            builder.append("ROLE ").append(String.join(", ", roles));
+        } else {
+            for (int i = 0; i < privilegeNames.size(); i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                if (permissionTypes.get(i) == null) {
+                    builder.append('?');
+                }
+                builder.append(privilegeNames.get(i));
+            }
+            builder.append(" ON ").append(objectDescription);
+        }
+        if (withGrantOption) {
+            builder.append(" WITH GRANT OPTION");
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return describe();
+    }
+}
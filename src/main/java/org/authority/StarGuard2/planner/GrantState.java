@@ -0,0 +1,172 @@
+package org.authority.StarGuard2.planner;
+
+import org.authority.StarGuard2.model.GrantObject;
+import org.authority.StarGuard2.model.GrantObjectType;
+import org.authority.StarGuard2.model.Permission;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.User;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 单个用户直接拥有的权限和角色，用于判断一项授权/撤销是否会改变用户的权限
+ * 每个授权对象上的权限保存为位掩码，第i位对应 PermissionType 的第i个枚举值，带GRANT OPTION的权限另有一个掩码
+ * 只考虑直接授予用户的权限，不展开角色：通过角色获得的权限在角色被撤销后会失去，不能代替直接授权
+ * 规划过程中随每项授权/撤销更新，同一计划中的后续请求基于更新后的状态判断；该类不是线程安全的
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class GrantState {
+    private static final long ALL_PRIVILEGES_BIT = bit(PermissionType.ALL_PRIVILEGES);
+
+    private final Map<GrantObject, Long> masks = new HashMap<>();
+    private final Map<GrantObject, Long> grantOptionMasks = new HashMap<>();
+    private final Set<String> roles = new HashSet<>();
+
+    /**
+     * 根据用户当前的权限创建状态，无法识别的权限和对象被忽略
+     *
+     * @param user 用户对象
+     * @return 权限状态
+     */
+    public static GrantState of(User user) {
+        GrantState state = new GrantState();
+        List<Permission> permissions = user.getPermissions();
+        if (permissions == null) {
+            return state;
+        }
+        for (Permission permission : permissions) {
+            PermissionType type = permission.getPermissionType();
+            if (type == PermissionType.ROLE_GRANT) {
+                state.roles.addAll(permission.getGrantedRoles());
+                continue;
+            }
+            GrantObject object = permission.getGrantObject();
+            if (type == null || !isComparable(object)) {
+                continue;
+            }
+            state.masks.merge(object, bit(type), (a, b) -> a | b);
+            if (permission.isWithGrantOption()) {
+                state.grantOptionMasks.merge(object, bit(type), (a, b) -> a | b);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * 判断授权是否多余，即用户已在目标对象或覆盖它的更大范围上拥有该权限（或ALL PRIVILEGES）
+     * 要求带GRANT OPTION时，已有的权限也必须带GRANT OPTION
+     *
+     * @param type 权限类型
+     * @param target 目标对象
+     * @param withGrantOption 是否要求GRANT OPTION
+     * @return 授权多余的原因，授权会改变用户权限时返回null
+     */
+    String grantNoOpReason(PermissionType type, GrantObject target, boolean withGrantOption) {
+        if (!isComparable(target)) {
+            return null;
+        }
+        long required = bit(type) | ALL_PRIVILEGES_BIT;
+        for (GrantObject object : target.getCoveringObjects()) {
+            Long mask = (withGrantOption ? grantOptionMasks : masks).get(object);
+            if (mask == null || (mask & required) == 0) {
+                continue;
+            }
+            boolean viaAll = (mask & bit(type)) == 0;
+            if (object.equals(target)) {
+                return viaAll ? "已拥有该对象上的ALL PRIVILEGES" : "已拥有该权限";
+            }
+            return "已由 " + object.describe() + " 上的" + (viaAll ? "ALL PRIVILEGES" : "授权") + "覆盖";
+        }
+        return null;
+    }
+
+    /**
+     * 判断撤销是否多余，即用户在目标对象上并没有直接授予的该权限
+     * 撤销只作用于完全相同的对象，更大范围上的授权不能通过撤销较小范围的对象来撤销，因此不考虑覆盖关系
+     *
+     * @param type 权限类型
+     * @param target 目标对象
+     * @return 撤销多余的原因，撤销会改变用户权限时返回null
+     */
+    String revokeNoOpReason(PermissionType type, GrantObject target) {
+        if (!isComparable(target)) {
+            return null;
+        }
+        Long mask = masks.get(target);
+        long required = type == PermissionType.ALL_PRIVILEGES ? -1L : bit(type) | ALL_PRIVILEGES_BIT;
+        return mask != null && (mask & required) != 0 ? null : "用户在该对象上没有该权限";
+    }
+
+    /**
+     * 判断角色授权是否多余
+     *
+     * @param role 角色名
+     * @return 授权多余的原因，授权会改变用户角色时返回null
+     */
+    String grantRoleNoOpReason(String role) {
+        return roles.contains(role) ? "已拥有该角色" : null;
+    }
+
+    /**
+     * 判断角色撤销是否多余
+     *
+     * @param role 角色名
+     * @return 撤销多余的原因，撤销会改变用户角色时返回null
+     */
+    String revokeRoleNoOpReason(String role) {
+        return roles.contains(role) ? null : "用户没有该角色";
+    }
+
+    /**
+     * 记录一项已规划的授权
+     */
+    void applyGrant(PermissionType type, GrantObject target, boolean withGrantOption) {
+        if (!isComparable(target)) {
+            return;
+        }
+        masks.merge(target, bit(type), (a, b) -> a | b);
+        if (withGrantOption) {
+            grantOptionMasks.merge(target, bit(type), (a, b) -> a | b);
+        }
+    }
+
+    /**
+     * 记录一项已规划的撤销，撤销ALL PRIVILEGES时清除该对象上的所有权限
+     */
+    void applyRevoke(PermissionType type, GrantObject target) {
+        if (!isComparable(target)) {
+            return;
+        }
+        long cleared = type == PermissionType.ALL_PRIVILEGES ? -1L : bit(type);
+        masks.computeIfPresent(target, (k, mask) -> (mask & ~cleared) == 0 ? null : mask & ~cleared);
+        grantOptionMasks.computeIfPresent(target, (k, mask) -> (mask & ~cleared) == 0 ? null : mask & ~cleared);
+    }
+
+    /**
+     * 记录一项已规划的角色授权
+     */
+    void applyGrantRole(String role) {
+        roles.add(role);
+    }
+
+    /**
+     * 记录一项已规划的角色撤销
+     */
+    void applyRevokeRole(String role) {
+        roles.remove(role);
+    }
+
+    private static boolean isComparable(GrantObject object) {
+        return object.getType() != GrantObjectType.OTHER && object.getType() != GrantObjectType.ROLE;
+    }
+
+    private static long bit(PermissionType type) {
+        return 1L << type.ordinal();
+    }
+}
@@ -0,0 +1,316 @@
+package org.authority.StarGuard2.planner;
+
+import org.authority.StarGuard2.model.GrantObject;
+import org.authority.StarGuard2.model.GrantObjectType;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.UserIdentity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * GRANT/REVOKE语句规划器
+ * 把同一被授权人在同一对象上的多个权限合并为一条 GRANT a, b, c ON ... TO ... 语句（REVOKE同理），
+ * 每条DDL都会在FE上写一次元数据日志，合并后N个权限只需一次往返
+ * 只在语法要求时拆分：GRANT与REVOKE分开；带与不带GRANT OPTION的授权分开；
+ * 角色授权（ROLE_GRANT）不能与权限混在一条语句中，同一被授权人的多个角色合并为一条角色语句
+ * 同一组中包含ALL PRIVILEGES时其他权限是多余的，只保留ALL PRIVILEGES
+ * 提供用户当前权限时按差异规划：不会改变用户权限的授权/撤销不生成语句，而是记录为跳过项，见 {@link GrantState}
+ * 语句按每组首次出现的顺序排列；该类不是线程安全的，每次规划使用一个新实例
+ *
+ * @author System
+ * @version 1.0
+ */
+public class GrantStatementPlanner {
+    private final Map<String, Group> groups = new LinkedHashMap<>();
+    private final Function<UserIdentity, GrantState> currentState;
+    private final Map<UserIdentity, GrantState> states = new HashMap<>();
+    private final List<SkippedPrivilege> skipped = new ArrayList<>();
+    private int requestedCount;
+
+    /**
+     * 构造函数，不比较用户当前权限，每一项都生成语句
+     */
+    public GrantStatementPlanner() {
+        this(null);
+    }
+
+    /**
+     * 构造函数，按与用户当前权限的差异规划
+     *
+     * @param currentState 获取用户当前权限的回调，每个用户只调用一次；返回null时该用户的每一项都生成语句
+     */
+    public GrantStatementPlanner(Function<UserIdentity, GrantState> currentState) {
+        this.currentState = currentState;
+    }
+
+    /**
+     * 添加一项授权
+     *
+     * @param grantee 被授权人
+     * @param permissionType 权限类型，ROLE_GRANT时object为角色名
+     * @param object 对象子句（见 {@link #objectClause}），角色授权时为角色名
+     * @param withGrantOption 是否带有GRANT OPTION
+     * @return 当前规划器
+     */
+    public GrantStatementPlanner grant(UserIdentity grantee, PermissionType permissionType, String object,
+                                       boolean withGrantOption) {
+        return add(PlannedStatement.Action.GRANT, grantee, permissionType, object, withGrantOption);
+    }
+
+    /**
+     * 添加一项撤销
+     *
+     * @param grantee 被授权人
+     * @param permissionType 权限类型，ROLE_GRANT时object为角色名
+     * @param object 对象子句（见 {@link #objectClause}），角色撤销时为角色名
+     * @return 当前规划器
+     */
+    public GrantStatementPlanner revoke(UserIdentity grantee, PermissionType permissionType, String object) {
+        return add(PlannedStatement.Action.REVOKE, grantee, permissionType, object, false);
+    }
+
+    /**
+     * 获取已添加的请求项数量（含重复项）
+     *
+     * @return 请求项数量
+     */
+    public int getRequestedCount() {
+        return requestedCount;
+    }
+
+    /**
+     * 获取因不会改变用户权限而跳过的项
+     *
+     * @return 按添加顺序排列的跳过项
+     */
+    public List<SkippedPrivilege> getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * 生成执行计划
+     *
+     * @return 按首次出现顺序排列的语句
+     */
+    public List<PlannedStatement> plan() {
+        List<PlannedStatement> statements = new ArrayList<>(groups.size());
+        for (Group group : groups.values()) {
+            statements.add(group.toStatement());
+        }
+        return statements;
+    }
+
+    /**
+     * 根据请求参数生成 ON 之后的对象子句，与单条授权时使用的格式相同
+     *
+     * @param scopeType 作用域类型（DATABASE/TABLE/VIEW/MATERIALIZED_VIEW/SYSTEM）
+     * @param viewScope 视图作用域（SINGLE_VIEW/ALL_VIEWS_IN_DATABASE/ALL_VIEWS_IN_ALL_DATABASES）
+     * @param databaseName 数据库名称
+     * @param viewName 视图名称
+     * @param allDatabases 是否是所有数据库的权限
+     * @return 对象子句
+     */
+    public static String objectClause(String scopeType, String viewScope, String databaseName, String viewName,
+                                      boolean allDatabases) {
+        if ("VIEW".equals(scopeType) || "MATERIALIZED_VIEW".equals(scopeType)) {
+            String keyword = "VIEW".equals(scopeType) ? "VIEW" : "MATERIALIZED VIEW";
+            if ("SINGLE_VIEW".equals(viewScope)) {
+                return keyword + " " + quoteIdentifier(databaseName) + "." + quoteIdentifier(viewName);
+            } else if ("ALL_VIEWS_IN_DATABASE".equals(viewScope)) {
+                return "ALL " + keyword + "S IN DATABASE " + quoteIdentifier(databaseName);
+            } else if ("ALL_VIEWS_IN_ALL_DATABASES".equals(viewScope)) {
+                return "ALL " + keyword + "S IN ALL DATABASES";
+            }
+            throw new IllegalArgumentException("无效的视图作用域: " + viewScope);
+        }
+        if ("TABLE".equals(scopeType)) {
+            return allDatabases ? "ALL TABLES IN ALL DATABASES" : "ALL TABLES IN DATABASE " + quoteIdentifier(databaseName);
+        }
+        if ("SYSTEM".equals(scopeType)) {
+            return "SYSTEM";
+        }
+        return allDatabases ? "ALL DATABASES" : "DATABASE " + quoteIdentifier(databaseName);
+    }
+
+    /**
+     * 根据结构化的授权对象生成 ON 之后的对象子句
+     * 函数名可能带有参数签名，不加引号
+     *
+     * @param object 授权对象，类型不能为ROLE或OTHER
+     * @return 对象子句
+     * @throws IllegalArgumentException 对象类型无法生成对象子句时抛出
+     */
+    public static String objectClause(GrantObject object) {
+        GrantObjectType type = object.getType();
+        switch (type) {
+            case SYSTEM:
+                return "SYSTEM";
+            case CATALOG:
+                return "CATALOG " + quoteIdentifier(object.getName());
+            case DATABASE:
+                return object.getDatabase() == null ? "ALL DATABASES" : "DATABASE " + quoteIdentifier(object.getDatabase());
+            case TABLE:
+            case VIEW:
+            case MATERIALIZED_VIEW:
+            case FUNCTION:
+                if (object.getDatabase() == null) {
+                    return "ALL " + type.getKeyword() + "S IN ALL DATABASES";
+                }
+                if (object.getName() == null) {
+                    return "ALL " + type.getKeyword() + "S IN DATABASE " + quoteIdentifier(object.getDatabase());
+                }
+                String name = type == GrantObjectType.FUNCTION ? object.getName() : quoteIdentifier(object.getName());
+                return type.getKeyword() + " " + quoteIdentifier(object.getDatabase()) + "." + name;
+            default:
+                throw new IllegalArgumentException("无法生成对象子句: " + object.describe());
+        }
+    }
+
+    /**
+     * 用反引号引用标识符，标识符中的反引号加倍转义
+     *
+     * @param identifier 标识符
+     * @return 引用后的标识符
+     */
+    public static String quoteIdentifier(String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+
+    /**
+     * 用单引号引用字符串字面量，转义反斜杠和单引号
+     *
+     * @param value 字符串
+     * @return 引用后的字符串
+     */
+    public static String quoteLiteral(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+
+    private GrantStatementPlanner add(PlannedStatement.Action action, UserIdentity grantee,
+                                      PermissionType permissionType, String object, boolean withGrantOption) {
+        requestedCount++;
+        boolean role = permissionType == PermissionType.ROLE_GRANT;
+        // 角色语句不支持 WITH GRANT OPTION
+        boolean grantOption = !role && action == PlannedStatement.Action.GRANT && withGrantOption;
+        String reason = diff(action, grantee, permissionType, object, grantOption);
+        if (reason != null) {
+            skipped.add(new SkippedPrivilege(action, grantee, permissionType, object, reason));
+            return this;
+        }
+        String key = action + "\u0000" + grantee.getUsername() + "\u0000" + grantee.getHost()
+                + "\u0000" + (role ? "\u0001ROLE" : object) + "\u0000" + grantOption;
+        Group group = groups.get(key);
+        if (group == null) {
+            group = new Group(action, grantee, role ? null : object, grantOption);
+            groups.put(key, group);
+        }
+        group.requestedCount++;
+        if (role) {
+            group.roles.add(object);
+        } else {
+            group.privileges.add(permissionType);
+        }
+        return this;
+    }
+
+    /**
+     * 与用户当前权限比较，会改变权限时更新状态
+     *
+     * @return 不会改变权限的原因，会改变权限或无法比较时返回null
+     */
+    private String diff(PlannedStatement.Action action, UserIdentity grantee, PermissionType permissionType,
+                        String object, boolean withGrantOption) {
+        if (currentState == null) {
+            return null;
+        }
+        GrantState state;
+        if (states.containsKey(grantee)) {
+            state = states.get(grantee);
+        } else {
+            state = currentState.apply(grantee);
+            states.put(grantee, state);
+        }
+        if (state == null) {
+            return null;
+        }
+        boolean grant = action == PlannedStatement.Action.GRANT;
+        String reason;
+        if (permissionType == PermissionType.ROLE_GRANT) {
+            reason = grant ? state.grantRoleNoOpReason(object) : state.revokeRoleNoOpReason(object);
+            if (reason == null) {
+                if (grant) {
+                    state.applyGrantRole(object);
+                } else {
+                    state.applyRevokeRole(object);
+                }
+            }
+            return reason;
+        }
+        GrantObject target = GrantObject.parse(object);
+        reason = grant ? state.grantNoOpReason(permissionType, target, withGrantOption)
+                : state.revokeNoOpReason(permissionType, target);
+        if (reason == null) {
+            if (grant) {
+                state.applyGrant(permissionType, target, withGrantOption);
+            } else {
+                state.applyRevoke(permissionType, target);
+            }
+        }
+        return reason;
+    }
+
+    /**
+     * 同一语句中合并的权限或角色
+     */
+    private static final class Group {
+        private final PlannedStatement.Action action;
+        private final UserIdentity grantee;
+        private final String object;
+        private final boolean withGrantOption;
+        private final Set<PermissionType> privileges = new LinkedHashSet<>();
+        private final Set<String> roles = new LinkedHashSet<>();
+        private int requestedCount;
+
+        private Group(PlannedStatement.Action action, UserIdentity grantee, String object, boolean withGrantOption) {
+            this.action = action;
+            this.grantee = grantee;
+            this.object = object;
+            this.withGrantOption = withGrantOption;
+        }
+
+        private PlannedStatement toStatement() {
+            boolean grant = action == PlannedStatement.Action.GRANT;
+            String granteeClause = quoteLiteral(grantee.getUsername()) + "@" + quoteLiteral(grantee.getHost());
+            StringBuilder sql = new StringBuilder(grant ? "GRANT " : "REVOKE ");
+            List<String> privilegeNames = new ArrayList<>();
+            List<String> roleNames = new ArrayList<>(roles);
+            if (object == null) {
+                for (int i = 0; i < roleNames.size(); i++) {
+                    sql.append(i > 0 ? ", " : "").append(quoteLiteral(roleNames.get(i)));
+                }
+            } else {
+                if (privileges.contains(PermissionType.ALL_PRIVILEGES)) {
+                    privilegeNames.add(PermissionType.ALL_PRIVILEGES.toGrantString());
+                } else {
+                    for (PermissionType privilege : privileges) {
+                        privilegeNames.add(privilege.toGrantString());
+                    }
+                }
+                sql.append(String.join(", ", privilegeNames)).append(" ON ").append(object);
+            }
+            sql.append(grant ? " TO " : " FROM ").append(granteeClause);
+            if (withGrantOption) {
+                sql.append(" WITH GRANT OPTION");
+            }
+            return new PlannedStatement(action, grantee, object, privilegeNames, roleNames, withGrantOption,
+                    requestedCount, sql.toString());
+        }
+    }
+}
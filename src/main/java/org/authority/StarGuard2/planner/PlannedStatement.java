@@ -0,0 +1,136 @@
+package org.authority.StarGuard2.planner;
+
+import org.authority.StarGuard2.model.UserIdentity;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 执行计划中的一条GRANT/REVOKE语句，由同一被授权人在同一对象上的多个权限（或多个角色）合并而成
+ * 该类不可变
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class PlannedStatement {
+
+    /**
+     * 语句类型
+     */
+    public enum Action {
+        /** 授予 */
+        GRANT,
+        /** 撤销 */
+        REVOKE
+    }
+
+    private final Action action;
+    private final UserIdentity grantee;
+    private final String object;
+    private final List<String> privileges;
+    private final List<String> roles;
+    private final boolean withGrantOption;
+    private final int requestedCount;
+    private final String sql;
+
+    /**
+     * 构造函数
+     *
+     * @param action 语句类型
+     * @param grantee 被授权人
+     * @param object ON 之后的对象子句，角色语句为null
+     * @param privileges 权限名称，角色语句为空列表
+     * @param roles 角色名称，权限语句为空列表
+     * @param withGrantOption 是否带有GRANT OPTION
+     * @param requestedCount 合并进该语句的请求项数量（含重复项）
+     * @param sql 完整的SQL语句
+     */
+    PlannedStatement(Action action, UserIdentity grantee, String object, List<String> privileges, List<String> roles,
+                     boolean withGrantOption, int requestedCount, String sql) {
+        this.action = action;
+        this.grantee = grantee;
+        this.object = object;
+        this.privileges = Collections.unmodifiableList(privileges);
+        this.roles = Collections.unmodifiableList(roles);
+        this.withGrantOption = withGrantOption;
+        this.requestedCount = requestedCount;
+        this.sql = sql;
+    }
+
+    /**
+     * 获取语句类型
+     *
+     * @return 语句类型
+     */
+    public Action getAction() {
+        return action;
+    }
+
+    /**
+     * 获取被授权人
+     *
+     * @return 用户标识
+     */
+    public UserIdentity getGrantee() {
+        return grantee;
+    }
+
+    /**
+     * 获取 ON 之后的对象子句
+     *
+     * @return 对象子句，角色语句为null
+     */
+    public String getObject() {
+        return object;
+    }
+
+    /**
+     * 获取语句中的权限名称
+     *
+     * @return 只读权限名称列表，角色语句为空列表
+     */
+    public List<String> getPrivileges() {
+        return privileges;
+    }
+
+    /**
+     * 获取语句中的角色名称
+     *
+     * @return 只读角色名称列表，权限语句为空列表
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * 检查语句是否带有GRANT OPTION
+     *
+     * @return true如果带有
+     */
+    public boolean isWithGrantOption() {
+        return withGrantOption;
+    }
+
+    /**
+     * 获取合并进该语句的请求项数量
+     *
+     * @return 请求项数量
+     */
+    public int getRequestedCount() {
+        return requestedCount;
+    }
+
+    /**
+     * 获取完整的SQL语句
+     *
+     * @return SQL语句
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+}
@@ -0,0 +1,82 @@
+package org.authority.StarGuard2.planner;
+
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.UserIdentity;
+
+/**
+ * 因不会改变用户权限而未生成语句的一项授权/撤销
+ * 该类不可变
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class SkippedPrivilege {
+    private final PlannedStatement.Action action;
+    private final UserIdentity grantee;
+    private final PermissionType permissionType;
+    private final String object;
+    private final String reason;
+
+    /**
+     * 构造函数
+     *
+     * @param action 语句类型
+     * @param grantee 被授权人
+     * @param permissionType 权限类型
+     * @param object 对象子句，角色授权时为角色名
+     * @param reason 跳过的原因
+     */
+    SkippedPrivilege(PlannedStatement.Action action, UserIdentity grantee, PermissionType permissionType,
+                     String object, String reason) {
+        this.action = action;
+        this.grantee = grantee;
+        this.permissionType = permissionType;
+        this.object = object;
+        this.reason = reason;
+    }
+
+    /**
+     * 获取语句类型
+     *
+     * @return 语句类型
+     */
+    public PlannedStatement.Action getAction() {
+        return action;
+    }
+
+    /**
+     * 获取被授权人
+     *
+     * @return 用户标识
+     */
+    public UserIdentity getGrantee() {
+        return grantee;
+    }
+
+    /**
+     * 获取权限类型
+     *
+     * @return 权限类型
+     */
+    public PermissionType getPermissionType() {
+        return permissionType;
+    }
+
+    /**
+     * 获取对象子句
+     *
+     * @return 对象子句，角色授权时为角色名
+     */
+    public String getObject() {
+        return object;
+    }
+
+    /**
+     * 获取跳过的原因
+     *
+     * @return 原因
+     */
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,69 @@
+package org.authority.StarGuard2.reconcile;
+
+import java.util.List;
+
+/**
+ * 期望状态中同一对象上的一组权限
+ *
+ * @author System
+ * @version 1.0
+ */
+public class DesiredGrant {
+    private List<String> privileges;
+    private String object;
+    private boolean withGrantOption;
+
+    /**
+     * 获取权限名称，如 SELECT、CREATE TABLE、ALL PRIVILEGES
+     *
+     * @return 权限名称列表
+     */
+    public List<String> getPrivileges() {
+        return privileges;
+    }
+
+    /**
+     * 设置权限名称，如 SELECT、CREATE TABLE、ALL PRIVILEGES
+     *
+     * @param privileges 权限名称列表
+     */
+    public void setPrivileges(List<String> privileges) {
+        this.privileges = privileges;
+    }
+
+    /**
+     * 获取授权对象，格式与 SHOW GRANTS 中 ON 之后的部分相同，如 ALL DATABASES、DATABASE db、ALL TABLES IN DATABASE db、TABLE db.t
+     *
+     * @return 授权对象
+     */
+    public String getObject() {
+        return object;
+    }
+
+    /**
+     * 设置授权对象，格式与 SHOW GRANTS 中 ON 之后的部分相同，如 ALL DATABASES、DATABASE db、ALL TABLES IN DATABASE db、TABLE db.t
+     *
+     * @param object 授权对象
+     */
+    public void setObject(String object) {
+        this.object = object;
+    }
+
+    /**
+     * 获取是否带有GRANT OPTION
+     *
+     * @return true表示带有GRANT OPTION
+     */
+    public boolean isWithGrantOption() {
+        return withGrantOption;
+    }
+
+    /**
+     * 设置是否带有GRANT OPTION
+     *
+     * @param withGrantOption true表示带有GRANT OPTION
+     */
+    public void setWithGrantOption(boolean withGrantOption) {
+        this.withGrantOption = withGrantOption;
+    }
+}
@@ -0,0 +1,32 @@
+package org.authority.StarGuard2.reconcile;
+
+import java.util.List;
+
+/**
+ * 期望的权限状态，即策略文件（JSON或YAML）的内容
+ * 文件中列出的用户以文件为准：缺少的权限和角色会被授予，多出的会被撤销；未列出的用户不受影响
+ *
+ * @author System
+ * @version 1.0
+ */
+public class DesiredState {
+    private List<DesiredUser> users;
+
+    /**
+     * 获取期望状态中的用户
+     *
+     * @return 用户列表
+     */
+    public List<DesiredUser> getUsers() {
+        return users;
+    }
+
+    /**
+     * 设置期望状态中的用户
+     *
+     * @param users 用户列表
+     */
+    public void setUsers(List<DesiredUser> users) {
+        this.users = users;
+    }
+}
@@ -0,0 +1,88 @@
+package org.authority.StarGuard2.reconcile;
+
+import java.util.List;
+
+/**
+ * 期望状态中的单个用户
+ *
+ * @author System
+ * @version 1.0
+ */
+public class DesiredUser {
+    private String username;
+    private String host;
+    private List<String> roles;
+    private List<DesiredGrant> grants;
+
+    /**
+     * 获取用户名
+     *
+     * @return 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 设置用户名
+     *
+     * @param username 用户名
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * 获取主机地址，未指定时为%
+     *
+     * @return 主机地址
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * 设置主机地址，未指定时为%
+     *
+     * @param host 主机地址
+     */
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    /**
+     * 获取用户应直接拥有的角色
+     *
+     * @return 角色列表
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * 设置用户应直接拥有的角色
+     *
+     * @param roles 角色列表
+     */
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
+
+    /**
+     * 获取用户应直接拥有的权限
+     *
+     * @return 权限列表
+     */
+    public List<DesiredGrant> getGrants() {
+        return grants;
+    }
+
+    /**
+     * 设置用户应直接拥有的权限
+     *
+     * @param grants 权限列表
+     */
+    public void setGrants(List<DesiredGrant> grants) {
+        this.grants = grants;
+    }
+}
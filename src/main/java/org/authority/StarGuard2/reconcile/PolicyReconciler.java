@@ -0,0 +1,287 @@
+package org.authority.StarGuard2.reconcile;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.authority.StarGuard2.cache.PrivilegeSnapshot;
+import org.authority.StarGuard2.exception.PermissionException;
+import org.authority.StarGuard2.model.GrantObject;
+import org.authority.StarGuard2.model.GrantObjectType;
+import org.authority.StarGuard2.model.Permission;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.User;
+import org.authority.StarGuard2.model.UserIdentity;
+import org.authority.StarGuard2.planner.GrantStatementPlanner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 权限策略同步：把期望状态与权限快照在内存中逐用户比较，生成使两者一致所需的最少GRANT/REVOKE
+ * 每个用户的权限按授权对象归并为位掩码（与 {@link org.authority.StarGuard2.cache.CompactUser} 的布局相同），
+ * 比较只需对每个对象做几次位运算，不需要逐个对象查询数据库
+ * 只比较直接授予用户的权限和角色，无法识别的权限和对象保持不变
+ *
+ * @author System
+ * @version 1.0
+ */
+@Component
+public class PolicyReconciler {
+    private static final PermissionType[] TYPES = PermissionType.values();
+
+    // 校验失败时错误信息中最多列出的错误数
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 构造函数
+     *
+     * @param objectMapper JSON序列化工具
+     */
+    @Autowired
+    public PolicyReconciler(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 解析策略文件，以 { 开头时按JSON解析，否则按YAML解析
+     *
+     * @param text 策略文件内容
+     * @return 期望状态
+     * @throws PermissionException 内容为空或格式不正确时抛出
+     */
+    public DesiredState parse(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new PermissionException(400, "策略文件不能为空");
+        }
+        try {
+            // 拼错的字段（如 grant、role）会使该用户的期望状态为空并撤销其所有权限，因此不忽略未知字段
+            ObjectReader reader = objectMapper.readerFor(DesiredState.class)
+                    .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+            if (text.trim().startsWith("{")) {
+                return reader.readValue(text);
+            }
+            Object tree = new Yaml().load(text);
+            JsonNode node = objectMapper.valueToTree(tree);
+            return reader.readValue(node);
+        } catch (Exception e) {
+            throw new PermissionException(400, "策略文件格式不正确: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 比较期望状态与快照，生成变更计划
+     *
+     * @param desired 期望状态
+     * @param snapshot 权限快照
+     * @return 变更计划
+     * @throws PermissionException 期望状态中有无效的用户、权限或对象时抛出，错误信息列出所有错误
+     */
+    public ReconcilePlan plan(DesiredState desired, PrivilegeSnapshot snapshot) {
+        long start = System.currentTimeMillis();
+        List<String> errors = new ArrayList<>();
+        Map<UserIdentity, GrantStatementPlanner> changes = new LinkedHashMap<>();
+        Set<UserIdentity> seen = new HashSet<>();
+        int grantCount = 0;
+        int revokeCount = 0;
+        int unmanagedCount = 0;
+        List<DesiredUser> users = desired.getUsers() != null ? desired.getUsers() : new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            DesiredUser desiredUser = users.get(i);
+            String prefix = "users[" + i + "]";
+            if (desiredUser == null || desiredUser.getUsername() == null || desiredUser.getUsername().trim().isEmpty()) {
+                errors.add(prefix + ": 用户名不能为空");
+                continue;
+            }
+            String host = desiredUser.getHost() == null || desiredUser.getHost().trim().isEmpty() ? "%" : desiredUser.getHost();
+            UserIdentity identity = new UserIdentity(desiredUser.getUsername(), host);
+            prefix = prefix + " " + identity;
+            if (!seen.add(identity)) {
+                errors.add(prefix + ": 用户重复");
+                continue;
+            }
+            User current = snapshot.getUser(identity);
+            if (current == null) {
+                errors.add(prefix + ": 用户不存在");
+                continue;
+            }
+            if (current.getLoadError() != null) {
+                errors.add(prefix + ": 用户权限加载失败: " + current.getLoadError());
+                continue;
+            }
+
+            ObjectMasks want = new ObjectMasks();
+            Set<String> wantRoles = new LinkedHashSet<>();
+            int errorCount = errors.size();
+            collectDesired(desiredUser, prefix, want, wantRoles, errors);
+            if (errors.size() > errorCount) {
+                continue;
+            }
+            ObjectMasks have = new ObjectMasks();
+            Set<String> haveRoles = new LinkedHashSet<>();
+            unmanagedCount += collectCurrent(current, have, haveRoles);
+
+            GrantStatementPlanner planner = new GrantStatementPlanner();
+            int[] counts = diff(identity, have, haveRoles, want, wantRoles, planner);
+            grantCount += counts[0];
+            revokeCount += counts[1];
+            if (planner.getRequestedCount() > 0) {
+                changes.put(identity, planner);
+            }
+        }
+        if (!errors.isEmpty()) {
+            List<String> reported = errors.subList(0, Math.min(errors.size(), MAX_REPORTED_ERRORS));
+            throw new PermissionException(400, "策略文件校验失败，共" + errors.size() + "个错误: " + String.join("; ", reported)
+                    + (errors.size() > reported.size() ? "; ..." : ""));
+        }
+        return new ReconcilePlan(changes, users.size(), grantCount, revokeCount, unmanagedCount,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 把期望的权限归并为位掩码，无效的权限和对象记录为错误
+     */
+    private static void collectDesired(DesiredUser user, String prefix, ObjectMasks want, Set<String> wantRoles,
+                                       List<String> errors) {
+        if (user.getRoles() != null) {
+            for (String role : user.getRoles()) {
+                if (role == null || role.trim().isEmpty()) {
+                    errors.add(prefix + ": 角色名不能为空");
+                } else {
+                    wantRoles.add(role.trim());
+                }
+            }
+        }
+        if (user.getGrants() == null) {
+            return;
+        }
+        for (DesiredGrant grant : user.getGrants()) {
+            if (grant == null) {
+                continue;
+            }
+            GrantObject object = GrantObject.parse(grant.getObject());
+            if (object.getType() == GrantObjectType.OTHER || object.getType() == GrantObjectType.ROLE) {
+                errors.add(prefix + ": 无法识别的授权对象: " + grant.getObject());
+                continue;
+            }
+            if (grant.getPrivileges() == null || grant.getPrivileges().isEmpty()) {
+                errors.add(prefix + ": " + grant.getObject() + " 上的权限不能为空");
+                continue;
+            }
+            for (String privilege : grant.getPrivileges()) {
+                PermissionType type = privilege != null
+                        ? PermissionType.lookup(privilege.trim().toUpperCase(Locale.ROOT)) : null;
+                if (type == null || type == PermissionType.ROLE_GRANT) {
+                    errors.add(prefix + ": 无效的权限类型: " + privilege);
+                    continue;
+                }
+                want.add(object, type, grant.isWithGrantOption());
+            }
+        }
+    }
+
+    /**
+     * 把用户当前直接拥有的权限归并为位掩码
+     *
+     * @return 无法识别、不做处理的权限数
+     */
+    private static int collectCurrent(User user, ObjectMasks have, Set<String> haveRoles) {
+        int unmanaged = 0;
+        if (user.getPermissions() == null) {
+            return 0;
+        }
+        for (Permission permission : user.getPermissions()) {
+            PermissionType type = permission.getPermissionType();
+            if (type == PermissionType.ROLE_GRANT) {
+                haveRoles.addAll(permission.getGrantedRoles());
+                continue;
+            }
+            GrantObject object = permission.getGrantObject();
+            if (type == null || object.getType() == GrantObjectType.OTHER || object.getType() == GrantObjectType.ROLE) {
+                unmanaged++;
+                continue;
+            }
+            have.add(object, type, permission.isWithGrantOption());
+        }
+        return unmanaged;
+    }
+
+    /**
+     * 比较单个用户的当前状态与期望状态，把变更项加入规划器：先撤销，后授予
+     * 当前带GRANT OPTION而期望不带时，撤销后重新授予不带GRANT OPTION的权限
+     *
+     * @return 长度为2的数组：授予项数、撤销项数
+     */
+    private static int[] diff(UserIdentity identity, ObjectMasks have, Set<String> haveRoles, ObjectMasks want,
+                              Set<String> wantRoles, GrantStatementPlanner planner) {
+        int grants = 0;
+        int revokes = 0;
+        for (Map.Entry<GrantObject, long[]> entry : have.masks.entrySet()) {
+            long[] current = entry.getValue();
+            long[] target = want.masks.getOrDefault(entry.getKey(), ObjectMasks.EMPTY);
+            // 期望中没有的权限，以及需要去掉GRANT OPTION的权限
+            long revoke = (current[0] & ~target[0]) | (current[1] & ~target[1] & target[0]);
+            String clause = GrantStatementPlanner.objectClause(entry.getKey());
+            for (long mask = revoke; mask != 0; mask &= mask - 1) {
+                planner.revoke(identity, TYPES[Long.numberOfTrailingZeros(mask)], clause);
+                revokes++;
+            }
+        }
+        for (String role : haveRoles) {
+            if (!wantRoles.contains(role)) {
+                planner.revoke(identity, PermissionType.ROLE_GRANT, role);
+                revokes++;
+            }
+        }
+        for (String role : wantRoles) {
+            if (!haveRoles.contains(role)) {
+                planner.grant(identity, PermissionType.ROLE_GRANT, role, false);
+                grants++;
+            }
+        }
+        for (Map.Entry<GrantObject, long[]> entry : want.masks.entrySet()) {
+            long[] target = entry.getValue();
+            long[] current = have.masks.getOrDefault(entry.getKey(), ObjectMasks.EMPTY);
+            // 缺少的权限、需要加上GRANT OPTION的权限，以及上面为去掉GRANT OPTION而撤销的权限
+            long missing = target[0] & ~current[0];
+            long addOption = target[1] & ~current[1];
+            long dropOption = current[1] & ~target[1] & target[0];
+            String clause = GrantStatementPlanner.objectClause(entry.getKey());
+            for (long mask = missing | addOption | dropOption; mask != 0; mask &= mask - 1) {
+                long bit = mask & -mask;
+                planner.grant(identity, TYPES[Long.numberOfTrailingZeros(mask)], clause, (target[1] & bit) != 0);
+                grants++;
+            }
+        }
+        return new int[] {grants, revokes};
+    }
+
+    /**
+     * 授权对象到权限掩码的映射，值为长度为2的数组：所有权限的掩码、其中带GRANT OPTION的掩码
+     */
+    private static final class ObjectMasks {
+        private static final long[] EMPTY = new long[2];
+
+        private final Map<GrantObject, long[]> masks = new LinkedHashMap<>();
+
+        private void add(GrantObject object, PermissionType type, boolean withGrantOption) {
+            long[] entry = masks.computeIfAbsent(object, k -> new long[2]);
+            long bit = 1L << type.ordinal();
+            entry[0] |= bit;
+            if (withGrantOption) {
+                entry[1] |= bit;
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.authority.StarGuard2.reconcile;
+
+import org.authority.StarGuard2.model.UserIdentity;
+import org.authority.StarGuard2.planner.GrantStatementPlanner;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 期望状态与当前快照比较的结果：每个需要变更的用户对应一个已添加全部变更项的语句规划器
+ * 同一用户的撤销项排在授权项之前，降级GRANT OPTION时先撤销再重新授予
+ *
+ * @author System
+ * @version 1.0
+ */
+public final class ReconcilePlan {
+    private final Map<UserIdentity, GrantStatementPlanner> changes;
+    private final int desiredUserCount;
+    private final int grantCount;
+    private final int revokeCount;
+    private final int unmanagedCount;
+    private final long diffMillis;
+
+    /**
+     * 构造函数
+     *
+     * @param changes 需要变更的用户及其语句规划器，按期望状态中的顺序排列
+     * @param desiredUserCount 期望状态中的用户数
+     * @param grantCount 需要授予的权限项和角色数
+     * @param revokeCount 需要撤销的权限项和角色数
+     * @param unmanagedCount 当前无法识别、因此不做处理的权限数
+     * @param diffMillis 比较耗时（毫秒）
+     */
+    ReconcilePlan(Map<UserIdentity, GrantStatementPlanner> changes, int desiredUserCount, int grantCount,
+                  int revokeCount, int unmanagedCount, long diffMillis) {
+        this.changes = Collections.unmodifiableMap(changes);
+        this.desiredUserCount = desiredUserCount;
+        this.grantCount = grantCount;
+        this.revokeCount = revokeCount;
+        this.unmanagedCount = unmanagedCount;
+        this.diffMillis = diffMillis;
+    }
+
+    /**
+     * 获取需要变更的用户及其语句规划器
+     *
+     * @return 只读映射，按期望状态中的顺序排列
+     */
+    public Map<UserIdentity, GrantStatementPlanner> getChanges() {
+        return changes;
+    }
+
+    /**
+     * 获取期望状态中的用户数
+     *
+     * @return 用户数
+     */
+    public int getDesiredUserCount() {
+        return desiredUserCount;
+    }
+
+    /**
+     * 获取需要授予的权限项和角色数
+     *
+     * @return 授予项数
+     */
+    public int getGrantCount() {
+        return grantCount;
+    }
+
+    /**
+     * 获取需要撤销的权限项和角色数
+     *
+     * @return 撤销项数
+     */
+    public int getRevokeCount() {
+        return revokeCount;
+    }
+
+    /**
+     * 获取当前无法识别、因此不做处理的权限数
+     *
+     * @return 权限数
+     */
+    public int getUnmanagedCount() {
+        return unmanagedCount;
+    }
+
+    /**
+     * 获取比较耗时
+     *
+     * @return 毫秒数
+     */
+    public long getDiffMillis() {
+        return diffMillis;
+    }
+}
@@ -1,9 +1,18 @@
 package org.authority.StarGuard2.repository;
 
+import org.authority.StarGuard2.model.Permission;
 import org.authority.StarGuard2.model.User;
+import org.authority.StarGuard2.model.UserGrants;
+import org.authority.StarGuard2.model.UserIdentity;
+import org.authority.StarGuard2.model.UserSummary;
 import org.authority.StarGuard2.model.PermissionType;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * 权限管理Repository接口，定义了权限管理的核心操作
@@ -19,6 +28,29 @@ public interface PermissionRepository {
      */
     List<User> getAllUsers();
 
+    /**
+     * 逐个加载所有用户的权限并交给回调处理，不在内存中保留完整的用户列表
+     * 回调按 SHOW USERS 的顺序调用，单个用户加载失败时回调收到带有loadError的用户对象
+     * 
+     * @param consumer 处理单个用户的回调
+     */
+    void forEachUser(Consumer<User> consumer);
+
+    /**
+     * 获取所有用户标识（仅执行 SHOW USERS，不查询权限）
+     * 
+     * @return 用户标识列表，顺序与 SHOW USERS 一致
+     */
+    List<UserIdentity> getAllUserIdentities();
+
+    /**
+     * 以最低代价获取所有用户的摘要
+     * 集群支持权限系统视图时通过集合查询统计权限数量和角色；否则只执行 SHOW USERS，权限数量和角色为null
+     * 
+     * @return 用户摘要列表，顺序与 SHOW USERS 一致
+     */
+    List<UserSummary> getAllUserSummaries();
+
     /**
      * 获取特定用户的权限信息
      * 
@@ -28,6 +60,96 @@ public interface PermissionRepository {
      */
     User getUserPermissions(String username, String host);
 
+    /**
+     * 逐个查询指定用户的原始授权语句（SHOW GRANTS）并交给回调处理，不解析语句
+     * 回调按传入的顺序调用，单个用户查询失败时回调收到带有loadError的结果
+     *
+     * @param identities 用户标识
+     * @param consumer 处理单个用户授权语句的回调
+     */
+    void forEachUserGrants(List<UserIdentity> identities, Consumer<UserGrants> consumer);
+
+    /**
+     * 通过权限系统视图批量加载指定用户的权限，并按用户给出原始记录的指纹，查询次数与用户数量无关
+     * 所有查询完成后才开始回调，回调按传入的顺序调用；集群不支持系统视图或批量查询失败时不调用回调并返回false，
+     * 调用方应回退到逐用户 SHOW GRANTS。该指纹与 {@link UserGrants#fingerprint()} 不可比较
+     *
+     * @param identities 用户标识
+     * @param consumer 处理单个用户及其指纹的回调
+     * @return true如果已通过系统视图加载
+     */
+    boolean forEachUserInBulk(List<UserIdentity> identities, BiConsumer<User, Long> consumer);
+
+    /**
+     * 解析用户的原始授权语句
+     *
+     * @param grants 原始授权语句
+     * @return 用户对象，查询失败时带有loadError且权限列表为空
+     */
+    User parseUserGrants(UserGrants grants);
+
+    /**
+     * 获取所有角色名（SHOW ROLES）
+     * 
+     * @return 角色名列表
+     */
+    List<String> getAllRoleNames();
+
+    /**
+     * 获取所有数据库名（SHOW DATABASES）
+     * 
+     * @return 数据库名列表
+     */
+    List<String> getDatabaseNames();
+
+    /**
+     * 一次查询获取指定数据库中的所有表名（information_schema.tables，包含视图和物化视图）
+     * 
+     * @param databaseNames 数据库名集合，为null时查询所有数据库
+     * @return 数据库名到其中表名集合的映射，没有表的数据库不在映射中
+     */
+    Map<String, Set<String>> getTableNames(Collection<String> databaseNames);
+
+    /**
+     * 一次查询获取指定数据库中的所有视图名（information_schema.views）
+     * 
+     * @param databaseNames 数据库名集合，为null时查询所有数据库
+     * @return 数据库名到其中视图名集合的映射，没有视图的数据库不在映射中
+     */
+    Map<String, Set<String>> getViewNames(Collection<String> databaseNames);
+
+    /**
+     * 一次查询获取指定数据库中的所有物化视图名（information_schema.materialized_views）
+     * 
+     * @param databaseNames 数据库名集合，为null时查询所有数据库
+     * @return 数据库名到其中物化视图名集合的映射，没有物化视图的数据库不在映射中
+     */
+    Map<String, Set<String>> getMaterializedViewNames(Collection<String> databaseNames);
+
+    /**
+     * 以一条聚合查询获取每个数据库中表的数量和最近的创建时间（information_schema.tables）
+     * 用于判断数据库中的对象是否发生变化，不读取对象名
+     * 
+     * @return 数据库名到签名的映射，签名不同说明该数据库中有对象被创建或删除
+     */
+    Map<String, String> getTableSignatures();
+
+    /**
+     * 获取特定角色的权限（SHOW GRANTS FOR ROLE），授予该角色的其他角色以ROLE_GRANT权限表示
+     * 
+     * @param roleName 角色名
+     * @return 权限列表
+     */
+    List<Permission> getRolePermissions(String roleName);
+
+    /**
+     * 获取所有角色的权限，集群支持权限系统视图时批量读取，否则逐个角色执行 SHOW GRANTS FOR ROLE
+     * 授予角色的其他角色以ROLE_GRANT权限表示
+     * 
+     * @return 角色名到权限列表的映射
+     */
+    Map<String, List<Permission>> getAllRolePermissions();
+
     /**
      * 授予权限给用户
      * 
@@ -67,9 +189,10 @@ public interface PermissionRepository {
      * 检查用户是否存在
      * 
      * @param username 用户名
+     * @param host 主机地址
      * @return true表示用户存在
      */
-    boolean userExists(String username);
+    boolean userExists(String username, String host);
 
     /**
      * 执行自定义SQL语句
@@ -1,18 +1,34 @@
 package org.authority.StarGuard2.repository.impl;
 
 import org.authority.StarGuard2.model.User;
+import org.authority.StarGuard2.model.UserGrants;
+import org.authority.StarGuard2.model.UserIdentity;
+import org.authority.StarGuard2.model.UserSummary;
 import org.authority.StarGuard2.model.Permission;
 import org.authority.StarGuard2.model.PermissionType;
 import org.authority.StarGuard2.repository.PermissionRepository;
 import org.authority.StarGuard2.exception.PermissionException;
+import org.authority.StarGuard2.parser.GrantParseCache;
+import org.authority.StarGuard2.parser.ParsedGrant;
+import org.authority.StarGuard2.planner.GrantStatementPlanner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * 权限管理Repository的实现类，使用JDBC与StarRocks数据库交互
@@ -26,33 +42,74 @@ public class PermissionRepositoryImpl implements PermissionRepository {
 
     private final JdbcTemplate jdbcTemplate;
 
+    // 并行查询专用的JDBC模板，带有单条查询超时设置
+    private final JdbcTemplate fanoutJdbcTemplate;
+
+    private final ExecutorService grantQueryExecutor;
+
+    private final SysGrantsReader sysGrantsReader;
+
+    private final GrantParseCache grantParseCache;
+
+    // 是否启用并行加载用户权限
+    @Value("${starguard.grants.fanout.enabled:true}")
+    private boolean fanoutEnabled;
+
+    // 最大并行查询数
+    @Value("${starguard.grants.fanout.parallelism:8}")
+    private int fanoutParallelism;
+
+    // 单个用户 SHOW GRANTS 查询的超时时间（秒）
+    @Value("${starguard.grants.fanout.query-timeout-seconds:10}")
+    private int queryTimeoutSeconds;
+
     /**
      * 构造函数
      * 
      * @param jdbcTemplate Spring提供的JDBC模板
+     * @param grantQueryExecutor 并行执行 SHOW GRANTS 查询的线程池
+     * @param sysGrantsReader 基于系统视图的批量权限读取器
+     * @param grantParseCache GRANT语句解析结果缓存
      */
     @Autowired
-    public PermissionRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    public PermissionRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                    @Qualifier("grantQueryExecutor") ExecutorService grantQueryExecutor,
+                                    SysGrantsReader sysGrantsReader,
+                                    GrantParseCache grantParseCache) {
         this.jdbcTemplate = jdbcTemplate;
+        this.fanoutJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.grantQueryExecutor = grantQueryExecutor;
+        this.sysGrantsReader = sysGrantsReader;
+        this.grantParseCache = grantParseCache;
+    }
+
+    /**
+     * 初始化并行查询模板的超时设置
+     */
+    @PostConstruct
+    public void init() {
+        fanoutJdbcTemplate.setQueryTimeout(queryTimeoutSeconds);
     }
 
     @Override
     public List<User> getAllUsers() {
         logger.info("获取所有用户列表");
         try {
-            String sql = "SHOW USERS";
-            List<Map<String, Object>> userMaps = jdbcTemplate.queryForList(sql);
+            List<UserIdentity> identities = getAllUserIdentities();
+            if (sysGrantsReader.isSupported()) {
+                try {
+                    return getAllUsersInBulk(identities, null);
+                } catch (Exception e) {
+                    logger.warn("通过系统视图批量加载权限失败，回退到逐用户 SHOW GRANTS", e);
+                }
+            }
+            if (fanoutEnabled) {
+                return getAllUsersInParallel(identities);
+            }
             List<User> users = new ArrayList<>();
 
-            for (Map<String, Object> userMap : userMaps) {
-                System.out.println("user----------------"+userMap.get("User"));
-                String userIdentity = (String) userMap.get("User");
-                // 解析用户标识，格式为 'username'@'host'
-                String[] parts = parseUserIdentity(userIdentity);
-                String username = parts[0];
-                String host = parts[1];
-                
-                User user = getUserPermissions(username,host);
+            for (UserIdentity identity : identities) {
+                User user = getUserPermissions(identity.getUsername(), identity.getHost());
                 users.add(user);
             }
             
@@ -64,44 +121,508 @@ public class PermissionRepositoryImpl implements PermissionRepository {
         }
     }
 
+    @Override
+    public List<UserIdentity> getAllUserIdentities() {
+        try {
+            String sql = "SHOW USERS";
+            List<Map<String, Object>> userMaps = jdbcTemplate.queryForList(sql);
+            List<UserIdentity> identities = new ArrayList<>(userMaps.size());
+            for (Map<String, Object> userMap : userMaps) {
+                // 解析用户标识，格式为 'username'@'host'
+                identities.add(UserIdentity.parse((String) userMap.get("User")));
+            }
+            logger.debug("SHOW USERS 返回{}个用户", identities.size());
+            return identities;
+        } catch (Exception e) {
+            logger.error("获取用户标识列表失败", e);
+            throw new PermissionException("获取用户标识列表失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<UserSummary> getAllUserSummaries() {
+        List<UserIdentity> identities = getAllUserIdentities();
+        Map<UserIdentity, UserSummary> summaries = null;
+        if (sysGrantsReader.isSupported()) {
+            try {
+                summaries = sysGrantsReader.loadUserSummaries();
+            } catch (Exception e) {
+                logger.warn("通过系统视图统计权限摘要失败，仅返回用户标识", e);
+            }
+        }
+        List<UserSummary> result = new ArrayList<>(identities.size());
+        for (UserIdentity identity : identities) {
+            UserSummary summary;
+            if (summaries == null) {
+                summary = new UserSummary(identity.getUsername(), identity.getHost());
+            } else {
+                summary = summaries.get(identity);
+                if (summary == null) {
+                    summary = SysGrantsReader.emptySummary(identity);
+                }
+            }
+            result.add(summary);
+        }
+        logger.info("成功获取{}个用户的摘要", result.size());
+        return result;
+    }
+
     @Override
     public User getUserPermissions(String username, String host) {
         logger.info("获取用户权限: username={},host={}", username, host);
-        User user = new User(username, host);
-        List<Permission> permissions = new ArrayList<>();
-        boolean hasGrantOption = false;
-        
         try {
-            // 构建SQL语句
-            String sql = String.format("SHOW GRANTS FOR '%s'@'%s'", username, host);
-            System.out.println("查看权限sql---------------------"+sql);
-            
-            // 执行查询
-            List<Map<String, Object>> grantMaps = jdbcTemplate.queryForList(sql);
-            
-            // 解析授权语句
-            for (Map<String, Object> grantMap : grantMaps) {
-                String grantStatement = (String) grantMap.get("Grants");
-                List<Permission> permissionList = parseGrantStatement(grantStatement);
-                if (permissionList != null && !permissionList.isEmpty()) {
-                    permissions.addAll(permissionList);
-                    for (Permission permission : permissionList) {
-                        if (permission.isWithGrantOption()) {
-                            hasGrantOption = true;
-                        }
-                    }
+            User user = loadUserPermissions(jdbcTemplate, username, host);
+            logger.info("成功获取用户权限，共{}个权限", user.getPermissions().size());
+            return user;
+        } catch (Exception e) {
+            logger.error("获取用户权限失败: {}", e.getMessage(), e);
+            throw new PermissionException("获取用户权限失败", e);
+        }
+    }
+
+    @Override
+    public boolean forEachUserInBulk(List<UserIdentity> identities, BiConsumer<User, Long> consumer) {
+        if (!sysGrantsReader.isSupported()) {
+            return false;
+        }
+        Map<UserIdentity, Long> fingerprints = new HashMap<>();
+        List<User> users;
+        try {
+            users = getAllUsersInBulk(identities, fingerprints);
+        } catch (Exception e) {
+            logger.warn("通过系统视图批量加载权限失败，回退到逐用户 SHOW GRANTS", e);
+            return false;
+        }
+        for (User user : users) {
+            Long fingerprint = fingerprints.get(UserIdentity.of(user));
+            consumer.accept(user, fingerprint != null ? fingerprint : SysGrantsReader.NO_ROWS_FINGERPRINT);
+        }
+        return true;
+    }
+
+    /**
+     * 通过系统视图批量加载所有用户的权限，查询次数与用户数量无关
+     * 
+     * @param identities SHOW USERS 返回的用户标识
+     * @param fingerprints 用于接收有记录的用户的指纹，为null时不计算
+     * @return 用户列表，顺序与 SHOW USERS 一致
+     */
+    private List<User> getAllUsersInBulk(List<UserIdentity> identities, Map<UserIdentity, Long> fingerprints) {
+        Map<UserIdentity, List<Permission>> permissionsByUser = sysGrantsReader.loadUserPermissions(fingerprints);
+        List<User> users = new ArrayList<>(identities.size());
+        for (UserIdentity identity : identities) {
+            User user = new User(identity.getUsername(), identity.getHost());
+            List<Permission> permissions = permissionsByUser.get(identity);
+            if (permissions == null) {
+                permissions = new ArrayList<>();
+            }
+            boolean hasGrantOption = false;
+            for (Permission permission : permissions) {
+                if (permission.isWithGrantOption()) {
+                    hasGrantOption = true;
+                    break;
                 }
             }
-            
             user.setPermissions(permissions);
             user.setHasGrantOption(hasGrantOption);
-            
-            logger.info("成功获取用户权限，共{}个权限", permissions.size());
+            users.add(user);
+        }
+        logger.info("成功批量获取{}个用户", users.size());
+        return users;
+    }
+
+    /**
+     * 使用线程池并行查询每个用户的权限
+     * 结果保持 SHOW USERS 的返回顺序，单个用户查询失败不会影响整个列表，失败信息记录在对应用户的loadError中
+     * 
+     * @param identities SHOW USERS 返回的用户标识
+     * @return 用户列表
+     */
+    private List<User> getAllUsersInParallel(List<UserIdentity> identities) {
+        List<Future<User>> futures = new ArrayList<>(identities.size());
+        for (UserIdentity identity : identities) {
+            futures.add(submitLoad(identity));
+        }
+
+        List<User> users = new ArrayList<>(identities.size());
+        int failedCount = 0;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                User user = awaitUser(futures.get(i), identities.get(i));
+                if (user.getLoadError() != null) {
+                    failedCount++;
+                }
+                users.add(user);
+            }
+        } finally {
+            for (int i = users.size(); i < futures.size(); i++) {
+                futures.get(i).cancel(true);
+            }
+        }
+
+        logger.info("成功获取{}个用户，其中{}个用户权限加载失败", users.size(), failedCount);
+        return users;
+    }
+
+    @Override
+    public void forEachUser(Consumer<User> consumer) {
+        logger.info("逐个加载所有用户的权限");
+        List<UserIdentity> identities = getAllUserIdentities();
+        if (!fanoutEnabled) {
+            for (UserIdentity identity : identities) {
+                User user;
+                try {
+                    user = getUserPermissions(identity.getUsername(), identity.getHost());
+                } catch (PermissionException e) {
+                    user = new User(identity.getUsername(), identity.getHost());
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    markLoadFailed(user, cause.getMessage());
+                }
+                consumer.accept(user);
+            }
+            return;
+        }
+
+        // 滑动窗口：最多同时保留window个未消费的查询，内存占用与用户总数无关
+        int window = Math.max(1, fanoutParallelism) * 2;
+        Deque<Future<User>> inFlight = new ArrayDeque<>(window);
+        int next = 0;
+        int consumed = 0;
+        try {
+            while (consumed < identities.size()) {
+                while (next < identities.size() && inFlight.size() < window) {
+                    inFlight.addLast(submitLoad(identities.get(next++)));
+                }
+                consumer.accept(awaitUser(inFlight.pollFirst(), identities.get(consumed++)));
+            }
+        } finally {
+            for (Future<User> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+        logger.info("逐个加载完成，共{}个用户", consumed);
+    }
+
+    /**
+     * 提交单个用户的权限查询任务
+     * 
+     * @param identity 用户标识
+     * @return 查询任务
+     */
+    private Future<User> submitLoad(UserIdentity identity) {
+        return grantQueryExecutor.submit(
+                () -> loadUserPermissions(fanoutJdbcTemplate, identity.getUsername(), identity.getHost()));
+    }
+
+    /**
+     * 等待单个用户的权限查询结果，查询失败或超时时返回带有loadError的用户
+     * 线程池中的任务按提交顺序开始执行，按提交顺序等待时，排在当前任务之前的任务均已开始，
+     * 因此最多等待两倍查询超时（排队 + 执行）；队列满时任务由提交线程直接执行（CallerRunsPolicy），
+     * 提交返回时该任务已经结束，完成顺序不再与提交顺序一致，但等待它不会超时
+     * 
+     * @param future 查询任务
+     * @param identity 用户标识
+     * @return 用户对象
+     */
+    private User awaitUser(Future<User> future, UserIdentity identity) {
+        long waitSeconds = Math.max(1, queryTimeoutSeconds) * 2L;
+        User placeholder = new User(identity.getUsername(), identity.getHost());
+        try {
+            return future.get(waitSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            markLoadFailed(placeholder, "查询超时");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.warn("获取用户权限失败: username={}, host={}", identity.getUsername(), identity.getHost(), cause);
+            markLoadFailed(placeholder, cause.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PermissionException("获取用户权限被中断", e);
+        }
+        return placeholder;
+    }
+
+    /**
+     * 将用户标记为权限加载失败
+     * 
+     * @param user 用户对象
+     * @param message 失败原因
+     */
+    private void markLoadFailed(User user, String message) {
+        user.setPermissions(new ArrayList<>());
+        user.setHasGrantOption(false);
+        user.setLoadError(message != null ? message : "未知错误");
+    }
+
+    @Override
+    public void forEachUserGrants(List<UserIdentity> identities, Consumer<UserGrants> consumer) {
+        if (!fanoutEnabled) {
+            for (UserIdentity identity : identities) {
+                UserGrants grants;
+                try {
+                    grants = new UserGrants(identity, queryGrantStatements(jdbcTemplate, identity), null);
+                } catch (Exception e) {
+                    logger.warn("获取用户授权语句失败: username={}, host={}", identity.getUsername(), identity.getHost(), e);
+                    grants = new UserGrants(identity, null, e.getMessage() != null ? e.getMessage() : "未知错误");
+                }
+                consumer.accept(grants);
+            }
+            return;
+        }
+
+        // 与forEachUser相同的滑动窗口，内存中最多保留window个用户的原始语句
+        int window = Math.max(1, fanoutParallelism) * 2;
+        Deque<Future<List<String>>> inFlight = new ArrayDeque<>(window);
+        int next = 0;
+        int consumed = 0;
+        try {
+            while (consumed < identities.size()) {
+                while (next < identities.size() && inFlight.size() < window) {
+                    UserIdentity identity = identities.get(next++);
+                    inFlight.addLast(grantQueryExecutor.submit(() -> queryGrantStatements(fanoutJdbcTemplate, identity)));
+                }
+                consumer.accept(awaitGrants(inFlight.pollFirst(), identities.get(consumed++)));
+            }
+        } finally {
+            for (Future<List<String>> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    @Override
+    public User parseUserGrants(UserGrants grants) {
+        UserIdentity identity = grants.getIdentity();
+        User user = new User(identity.getUsername(), identity.getHost());
+        if (grants.getLoadError() != null) {
+            markLoadFailed(user, grants.getLoadError());
             return user;
+        }
+        List<Permission> permissions = new ArrayList<>();
+        boolean hasGrantOption = false;
+        for (String grantStatement : grants.getStatements()) {
+            List<Permission> permissionList = parseGrantStatement(grantStatement);
+            if (permissionList != null && !permissionList.isEmpty()) {
+                permissions.addAll(permissionList);
+                for (Permission permission : permissionList) {
+                    if (permission.isWithGrantOption()) {
+                        hasGrantOption = true;
+                    }
+                }
+            }
+        }
+        user.setPermissions(permissions);
+        user.setHasGrantOption(hasGrantOption);
+        return user;
+    }
+
+    /**
+     * 等待单个用户的授权语句查询结果，超时规则与 {@link #awaitUser} 相同
+     * 
+     * @param future 查询任务
+     * @param identity 用户标识
+     * @return 原始授权语句，查询失败或超时时带有loadError
+     */
+    private UserGrants awaitGrants(Future<List<String>> future, UserIdentity identity) {
+        long waitSeconds = Math.max(1, queryTimeoutSeconds) * 2L;
+        try {
+            return new UserGrants(identity, future.get(waitSeconds, TimeUnit.SECONDS), null);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return new UserGrants(identity, null, "查询超时");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.warn("获取用户授权语句失败: username={}, host={}", identity.getUsername(), identity.getHost(), cause);
+            return new UserGrants(identity, null, cause.getMessage() != null ? cause.getMessage() : "未知错误");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PermissionException("获取用户授权语句被中断", e);
+        }
+    }
+
+    /**
+     * 查询并解析单个用户的授权语句
+     * 
+     * @param template 使用的JDBC模板
+     * @param username 用户名
+     * @param host 主机地址
+     * @return 用户对象，包含其权限信息
+     */
+    private User loadUserPermissions(JdbcTemplate template, String username, String host) {
+        UserIdentity identity = new UserIdentity(username, host);
+        return parseUserGrants(new UserGrants(identity, queryGrantStatements(template, identity), null));
+    }
+
+    /**
+     * 执行 SHOW GRANTS 并返回原始授权语句
+     * 
+     * @param template 使用的JDBC模板
+     * @param identity 用户标识
+     * @return 授权语句列表
+     */
+    private List<String> queryGrantStatements(JdbcTemplate template, UserIdentity identity) {
+        // 构建SQL语句，用户名和主机地址需要转义
+        String sql = "SHOW GRANTS FOR " + GrantStatementPlanner.quoteLiteral(identity.getUsername())
+                + "@" + GrantStatementPlanner.quoteLiteral(identity.getHost());
+        logger.debug("查看权限sql: {}", sql);
+
+        // 执行查询
+        List<Map<String, Object>> grantMaps = template.queryForList(sql);
+        List<String> statements = new ArrayList<>(grantMaps.size());
+        for (Map<String, Object> grantMap : grantMaps) {
+            statements.add((String) grantMap.get("Grants"));
+        }
+        return statements;
+    }
+
+    @Override
+    public List<String> getAllRoleNames() {
+        try {
+            List<Map<String, Object>> roleMaps = jdbcTemplate.queryForList("SHOW ROLES");
+            List<String> roles = new ArrayList<>(roleMaps.size());
+            for (Map<String, Object> roleMap : roleMaps) {
+                roles.add(String.valueOf(roleMap.get("Name")));
+            }
+            logger.debug("SHOW ROLES 返回{}个角色", roles.size());
+            return roles;
         } catch (Exception e) {
-            logger.error("获取用户权限失败: {}", e.getMessage(), e);
-            throw new PermissionException("获取用户权限失败", e);
+            logger.error("获取角色列表失败", e);
+            throw new PermissionException("获取角色列表失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> getDatabaseNames() {
+        try {
+            List<String> databases = jdbcTemplate.queryForList("SHOW DATABASES", String.class);
+            logger.debug("SHOW DATABASES 返回{}个数据库", databases.size());
+            return databases;
+        } catch (Exception e) {
+            logger.error("获取数据库列表失败", e);
+            throw new PermissionException("获取数据库列表失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<String, Set<String>> getTableNames(Collection<String> databaseNames) {
+        return getTableNamesBySchema("information_schema.tables", databaseNames, "表");
+    }
+
+    @Override
+    public Map<String, Set<String>> getViewNames(Collection<String> databaseNames) {
+        return getTableNamesBySchema("information_schema.views", databaseNames, "视图");
+    }
+
+    @Override
+    public Map<String, Set<String>> getMaterializedViewNames(Collection<String> databaseNames) {
+        return getTableNamesBySchema("information_schema.materialized_views", databaseNames, "物化视图");
+    }
+
+    @Override
+    public Map<String, String> getTableSignatures() {
+        try {
+            String sql = "SELECT TABLE_SCHEMA, COUNT(*) AS TABLE_COUNT, MAX(CREATE_TIME) AS LAST_CREATE_TIME"
+                    + " FROM information_schema.tables GROUP BY TABLE_SCHEMA";
+            Map<String, String> signatures = new HashMap<>();
+            for (Map<String, Object> row : jdbcTemplate.queryForList(sql)) {
+                signatures.put(String.valueOf(row.get("TABLE_SCHEMA")),
+                        row.get("TABLE_COUNT") + "@" + row.get("LAST_CREATE_TIME"));
+            }
+            logger.debug("information_schema.tables 返回{}个数据库的签名", signatures.size());
+            return signatures;
+        } catch (Exception e) {
+            logger.error("获取表签名失败", e);
+            throw new PermissionException("获取表签名失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 以一条 TABLE_SCHEMA IN (...) 查询读取多个数据库中的对象名
+     * 
+     * @param table information_schema中的表名
+     * @param databaseNames 数据库名集合，为null时不限制数据库
+     * @param objectName 对象类型名称，用于日志和错误信息
+     * @return 数据库名到对象名集合的映射
+     */
+    private Map<String, Set<String>> getTableNamesBySchema(String table, Collection<String> databaseNames,
+                                                           String objectName) {
+        Map<String, Set<String>> result = new HashMap<>();
+        if (databaseNames != null && databaseNames.isEmpty()) {
+            return result;
+        }
+        StringBuilder sql = new StringBuilder("SELECT TABLE_SCHEMA, TABLE_NAME FROM ").append(table);
+        if (databaseNames != null) {
+            sql.append(" WHERE TABLE_SCHEMA IN (");
+            int i = 0;
+            for (String databaseName : databaseNames) {
+                sql.append(i++ > 0 ? ", " : "").append(GrantStatementPlanner.quoteLiteral(databaseName));
+            }
+            sql.append(')');
+        }
+        try {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql.toString());
+            for (Map<String, Object> row : rows) {
+                result.computeIfAbsent(String.valueOf(row.get("TABLE_SCHEMA")), k -> new HashSet<>())
+                        .add(String.valueOf(row.get("TABLE_NAME")));
+            }
+            logger.debug("{} 返回{}个数据库中的{}个{}", table, result.size(), rows.size(), objectName);
+            return result;
+        } catch (Exception e) {
+            logger.error("获取{}列表失败", objectName, e);
+            throw new PermissionException("获取" + objectName + "列表失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Permission> getRolePermissions(String roleName) {
+        try {
+            String sql = "SHOW GRANTS FOR ROLE " + GrantStatementPlanner.quoteLiteral(roleName);
+            logger.debug("查看角色权限sql: {}", sql);
+            List<Permission> permissions = new ArrayList<>();
+            for (Map<String, Object> grantMap : jdbcTemplate.queryForList(sql)) {
+                List<Permission> permissionList = parseGrantStatement((String) grantMap.get("Grants"));
+                if (permissionList != null) {
+                    permissions.addAll(permissionList);
+                }
+            }
+            return permissions;
+        } catch (Exception e) {
+            logger.error("获取角色权限失败: role={}", roleName, e);
+            throw new PermissionException("获取角色权限失败: " + roleName, e);
+        }
+    }
+
+    @Override
+    public Map<String, List<Permission>> getAllRolePermissions() {
+        List<String> roleNames = getAllRoleNames();
+        Map<String, List<Permission>> result = new LinkedHashMap<>();
+        if (sysGrantsReader.isSupported()) {
+            try {
+                Map<String, List<Permission>> rolePermissions = sysGrantsReader.loadRolePermissions();
+                Map<String, List<String>> roleEdges = sysGrantsReader.loadRoleEdges();
+                for (String roleName : roleNames) {
+                    List<Permission> permissions =
+                            new ArrayList<>(rolePermissions.getOrDefault(roleName, Collections.emptyList()));
+                    for (String parent : roleEdges.getOrDefault(roleName, Collections.emptyList())) {
+                        permissions.add(new Permission(PermissionType.ROLE_GRANT, "ROLE: " + parent));
+                    }
+                    result.put(roleName, permissions);
+                }
+                logger.info("通过系统视图批量加载了{}个角色的权限", result.size());
+                return result;
+            } catch (Exception e) {
+                logger.warn("通过系统视图批量加载角色权限失败，回退到逐角色 SHOW GRANTS", e);
+                result.clear();
+            }
         }
+        for (String roleName : roleNames) {
+            result.put(roleName, getRolePermissions(roleName));
+        }
+        logger.info("成功加载{}个角色的权限", result.size());
+        return result;
     }
 
     @Override
@@ -112,56 +633,11 @@ public class PermissionRepositoryImpl implements PermissionRepository {
         logger.info("授予权限: username={}, host={}, permissionType={}, databaseName={}, allDatabases={}, withGrantOption={}, scopeType={}, viewScope={}, viewName={}",
                 username, host, permissionType, databaseName, allDatabases, withGrantOption, scopeType, viewScope, viewName);
         try {
-            StringBuilder sqlBuilder = new StringBuilder();
-            sqlBuilder.append("GRANT ").append(permissionType.toGrantString()).append(" ON ");
-            
-            if ("VIEW".equals(scopeType)) {
-                if ("SINGLE_VIEW".equals(viewScope)) {
-                    sqlBuilder.append("VIEW `").append(databaseName).append("`.`").append(viewName).append("`");
-                } else if ("ALL_VIEWS_IN_DATABASE".equals(viewScope)) {
-                    sqlBuilder.append("ALL VIEWS IN DATABASE `").append(databaseName).append("`");
-                } else if ("ALL_VIEWS_IN_ALL_DATABASES".equals(viewScope)) {
-                    sqlBuilder.append("ALL VIEWS IN ALL DATABASES");
-                }
-            } else if ("MATERIALIZED_VIEW".equals(scopeType)) {
-                if ("SINGLE_VIEW".equals(viewScope)) {
-                    sqlBuilder.append("MATERIALIZED VIEW `").append(databaseName).append("`.`").append(viewName).append("`");
-                } else if ("ALL_VIEWS_IN_DATABASE".equals(viewScope)) {
-                    sqlBuilder.append("ALL MATERIALIZED VIEWS IN DATABASE `").append(databaseName).append("`");
-                } else if ("ALL_VIEWS_IN_ALL_DATABASES".equals(viewScope)) {
-                    sqlBuilder.append("ALL MATERIALIZED VIEWS IN ALL DATABASES");
-                }
-            } else if ("TABLE".equals(scopeType)) {
-                if (allDatabases) {
-                    sqlBuilder.append("ALL TABLES IN ALL DATABASES");
-                } else {
-                    sqlBuilder.append("ALL TABLES IN DATABASE `").append(databaseName).append("`");
-                }
-            } else if ("SYSTEM".equals(scopeType)) {
-                sqlBuilder.append("SYSTEM");
-            } else {
-                if (allDatabases) {
-                    sqlBuilder.append("ALL DATABASES");
-                } else {
-                    sqlBuilder.append("DATABASE `").append(databaseName).append("`");
-                }
-            }
-            
-            // 检查是否是角色授权，如果是，使用角色授权格式
-            if (permissionType == PermissionType.ROLE_GRANT) {
-                // 角色授权格式: GRANT 'role' TO 'user'@'host'
-                sqlBuilder.setLength(0); // 清空之前的内容
-                sqlBuilder.append("GRANT '").append(databaseName).append("' TO '").append(username).append("'@'").append(host).append("'");
-            } else {
-                // 标准授权格式: GRANT permission ON object TO 'user'@'host'
-                sqlBuilder.append(" TO '").append(username).append("'@'").append(host).append("'");
-            }
-            
-            if (withGrantOption) {
-                sqlBuilder.append(" WITH GRANT OPTION");
-            }
-            
-            String sql = sqlBuilder.toString();
+            String object = permissionType == PermissionType.ROLE_GRANT ? databaseName
+                    : GrantStatementPlanner.objectClause(scopeType, viewScope, databaseName, viewName, allDatabases);
+            String sql = new GrantStatementPlanner()
+                    .grant(new UserIdentity(username, host), permissionType, object, withGrantOption)
+                    .plan().get(0).getSql();
             logger.debug("执行授权SQL: {}", sql);
             
             jdbcTemplate.execute(sql);
@@ -181,52 +657,11 @@ public class PermissionRepositoryImpl implements PermissionRepository {
         logger.info("撤销权限: username={}, host={}, permissionType={}, databaseName={}, allDatabases={}, scopeType={}, viewScope={}, viewName={}",
                 username, host, permissionType, databaseName, allDatabases, scopeType, viewScope, viewName);
         try {
-            StringBuilder sqlBuilder = new StringBuilder();
-            sqlBuilder.append("REVOKE ").append(permissionType.toGrantString()).append(" ON ");
-            
-            if ("VIEW".equals(scopeType)) {
-                if ("SINGLE_VIEW".equals(viewScope)) {
-                    sqlBuilder.append("VIEW `").append(databaseName).append("`.`").append(viewName).append("`");
-                } else if ("ALL_VIEWS_IN_DATABASE".equals(viewScope)) {
-                    sqlBuilder.append("ALL VIEWS IN DATABASE `").append(databaseName).append("`");
-                } else if ("ALL_VIEWS_IN_ALL_DATABASES".equals(viewScope)) {
-                    sqlBuilder.append("ALL VIEWS IN ALL DATABASES");
-                }
-            } else if ("MATERIALIZED_VIEW".equals(scopeType)) {
-                if ("SINGLE_VIEW".equals(viewScope)) {
-                    sqlBuilder.append("MATERIALIZED VIEW `").append(databaseName).append("`.`").append(viewName).append("`");
-                } else if ("ALL_VIEWS_IN_DATABASE".equals(viewScope)) {
-                    sqlBuilder.append("ALL MATERIALIZED VIEWS IN DATABASE `").append(databaseName).append("`");
-                } else if ("ALL_VIEWS_IN_ALL_DATABASES".equals(viewScope)) {
-                    sqlBuilder.append("ALL MATERIALIZED VIEWS IN ALL DATABASES");
-                }
-            } else if ("TABLE".equals(scopeType)) {
-                if (allDatabases) {
-                    sqlBuilder.append("ALL TABLES IN ALL DATABASES");
-                } else {
-                    sqlBuilder.append("ALL TABLES IN DATABASE `").append(databaseName).append("`");
-                }
-            } else if ("SYSTEM".equals(scopeType)) {
-                sqlBuilder.append("SYSTEM");
-            } else {
-                if (allDatabases) {
-                    sqlBuilder.append("ALL DATABASES");
-                } else {
-                    sqlBuilder.append("DATABASE `").append(databaseName).append("`");
-                }
-            }
-            
-            // 检查是否是角色授权，如果是，使用角色撤销格式
-            if (permissionType == PermissionType.ROLE_GRANT) {
-                // 角色撤销格式: REVOKE 'role' FROM 'user'@'host'
-                sqlBuilder.setLength(0); // 清空之前的内容
-                sqlBuilder.append("REVOKE '").append(databaseName).append("' FROM '").append(username).append("'@'").append(host).append("'");
-            } else {
-                // 标准撤销格式: REVOKE permission ON object FROM 'user'@'host'
-                sqlBuilder.append(" FROM '").append(username).append("'@'").append(host).append("'");
-            }
-            
-            String sql = sqlBuilder.toString();
+            String object = permissionType == PermissionType.ROLE_GRANT ? databaseName
+                    : GrantStatementPlanner.objectClause(scopeType, viewScope, databaseName, viewName, allDatabases);
+            String sql = new GrantStatementPlanner()
+                    .revoke(new UserIdentity(username, host), permissionType, object)
+                    .plan().get(0).getSql();
             logger.debug("执行撤销SQL: {}", sql);
             
             jdbcTemplate.execute(sql);
@@ -239,27 +674,11 @@ public class PermissionRepositoryImpl implements PermissionRepository {
     }
 
     @Override
-    public boolean userExists(String username) {
-        logger.info("检查用户是否存在: username={}, host={}", username);
-        try {
-            String sql = "SHOW USERS";
-            List<Map<String, Object>> userMaps = jdbcTemplate.queryForList(sql);
-            
-            for (Map<String, Object> userMap : userMaps) {
-                String userIdentity = (String) userMap.get("User");
-                String[] parts = parseUserIdentity(userIdentity);
-                if (parts[0].equals(username)) {
-                    logger.info("用户存在");
-                    return true;
-                }
-            }
-            
-            logger.info("用户不存在");
-            return false;
-        } catch (Exception e) {
-            logger.error("检查用户是否存在失败", e);
-            throw new PermissionException("检查用户是否存在失败: " + e.getMessage(), e);
-        }
+    public boolean userExists(String username, String host) {
+        logger.info("检查用户是否存在: username={}, host={}", username, host);
+        boolean exists = getAllUserIdentities().contains(new UserIdentity(username, host));
+        logger.info(exists ? "用户存在" : "用户不存在");
+        return exists;
     }
 
     @Override
@@ -276,153 +695,26 @@ public class PermissionRepositoryImpl implements PermissionRepository {
         }
     }
 
-    /**
-     * 解析用户标识字符串，提取用户名和主机地址
-     * 
-     * @param userIdentity 用户标识字符串，格式为 'username'@'host'
-     * @return 包含用户名和主机地址的数组
-     */
-    private String[] parseUserIdentity(String userIdentity) {
-        // 移除引号并分割用户名和主机
-        userIdentity = userIdentity.replace("'", "");
-        int atIndex = userIdentity.indexOf('@');
-        String username = userIdentity.substring(0, atIndex);
-        String host = userIdentity.substring(atIndex + 1);
-        return new String[]{username, host};
-    }
-
     /**
      * 解析授权语句，提取权限信息
+     * 相同模板的语句共享缓存中的解析结果，每次调用只生成新的Permission对象
      * 
      * @param grantStatement 授权语句字符串
-     * @return 权限对象列表，如果解析失败则返回null
+     * @return 权限对象列表，如果不是授权语句或解析失败则返回null
      */
     private List<Permission> parseGrantStatement(String grantStatement) {
         try {
-            // 示例授权语句: GRANT SELECT ON database.table TO 'user'@'host' WITH GRANT OPTION
-            grantStatement = grantStatement.trim();
-            if (!grantStatement.startsWith("GRANT ")) {
+            ParsedGrant grant = grantParseCache.parse(grantStatement);
+            if (grant == null) {
                 return null;
             }
-
-            // 检查是否是角色授权格式: GRANT 'role' TO 'user'@'host'
-            int toIndex = grantStatement.indexOf(" TO ");
-            if (toIndex > 0) {
-                String beforeToPart = grantStatement.substring(6, toIndex).trim();
-                
-                // 如果字符串包含引号且不包含" ON "，则认为是角色授权格式
-                if (beforeToPart.contains("'") && !beforeToPart.contains(" ON ")) {
-                    // 提取角色名称（去掉引号）
-                    String roleName = beforeToPart.replace("'", "");
-                    
-                    // 创建角色授权类型的权限对象
-                    Permission permission = new Permission(PermissionType.ROLE_GRANT, "ROLE: " + roleName);
-                    
-                    // 检查是否带有GRANT OPTION
-                    boolean withGrantOption = grantStatement.contains("WITH GRANT OPTION");
-                    permission.setWithGrantOption(withGrantOption);
-                    
-                    List<Permission> permissions = new ArrayList<>();
-                    permissions.add(permission);
-                    return permissions;
-                }
-            }
-
-            // 标准授权格式处理
-            // 提取权限类型
-            int onIndex = grantStatement.indexOf(" ON ");
-            if (onIndex <= 0) {
-                logger.warn("授权语句格式不正确，缺少 ON 部分: {}", grantStatement);
-                return null;
-            }
-            
-            String permissionPart = grantStatement.substring(6, onIndex).trim();
-            List<PermissionType> permissionTypes = new ArrayList<>();
-            
-            // 处理多个权限类型用逗号分隔的情况
-            if (permissionPart.contains(",")) {
-                // 解析所有权限类型
-                String[] permissions = permissionPart.split(",");
-                for (String perm : permissions) {
-                    String trimmedPerm = perm.trim();
-                    try {
-                        PermissionType pt = PermissionType.fromString(trimmedPerm);
-                        if (pt != null) {
-                            permissionTypes.add(pt);
-                        }
-                    } catch (IllegalArgumentException e) {
-                        // 忽略无效的权限类型，继续尝试下一个
-                        logger.warn("未知的权限类型: {}", trimmedPerm);
-                    }
-                }
-            } else {
-                // 单权限类型处理
-                try {
-                    PermissionType pt = PermissionType.fromString(permissionPart);
-                    if (pt != null) {
-                        permissionTypes.add(pt);
-                    }
-                } catch (IllegalArgumentException e) {
-                    // 如果找不到精确匹配的权限类型，记录警告
-                    logger.warn("未知的权限类型: {}", permissionPart);
-                }
-            }
-            
-            if (permissionTypes.isEmpty()) {
-                // 如果没有找到有效的权限类型，默认为ALL_PRIVILEGES
-                permissionTypes.add(PermissionType.ALL_PRIVILEGES);
+            if (grant.hasUnknownPrivileges()) {
+                logger.debug("授权语句包含未知的权限类型，按原名保留: {}", grantStatement);
             }
-
-            // 提取数据库部分，处理TO后面可能有USER关键字的情况
-            toIndex = grantStatement.indexOf(" TO ", onIndex);
-            if (toIndex <= 0) {
-                logger.warn("授权语句格式不正确，缺少 TO 部分: {}", grantStatement);
-                return null;
-            }
-            
-            String databasePart = grantStatement.substring(onIndex + 4, toIndex).trim();
-            boolean allDatabases = databasePart.equals("ALL DATABASES");
-            // 处理ALL TABLES IN DATABASE格式
-            boolean allTablesInDatabase = databasePart.startsWith("ALL TABLES IN DATABASE");
-            
-            String databaseName;
-            if (allDatabases) {
-                databaseName = "ALL DATABASES";
-            } else if (allTablesInDatabase) {
-                // 从ALL TABLES IN DATABASE格式中提取数据库名
-                databaseName = extractDatabaseName(databasePart.replaceFirst("^ALL TABLES IN ", ""));
-            } else {
-                databaseName = extractDatabaseName(databasePart);
-            }
-
-            // 检查是否带有GRANT OPTION
-            boolean withGrantOption = grantStatement.contains("WITH GRANT OPTION");
-            
-            // 为每个权限类型创建一个Permission对象
-            List<Permission> resultPermissions = new ArrayList<>();
-            for (PermissionType pt : permissionTypes) {
-                Permission permission = new Permission(pt, databaseName);
-                permission.setWithGrantOption(withGrantOption);
-                resultPermissions.add(permission);
-            }
-
-            return resultPermissions;
-        } catch (Exception e) {
-            logger.warn("解析授权语句失败: {}", grantStatement, e);
+            return grant.toPermissions();
+        } catch (IllegalArgumentException e) {
+            logger.warn("解析授权语句失败: {}, 原因: {}", grantStatement, e.getMessage());
             return null;
         }
     }
-
-    /**
-     * 从数据库部分字符串中提取数据库名称
-     * 
-     * @param databasePart 数据库部分字符串，格式为 DATABASE database_name 或 ALL TABLES IN DATABASE database_name
-     * @return 数据库名称
-     */
-    private String extractDatabaseName(String databasePart) {
-        if (databasePart.startsWith("DATABASE ")) {
-            return databasePart.substring(10).replace("`", "").trim();
-        }
-        return databasePart.replace("`", "").trim();
-    }
-}
\ No newline at end of file
+}
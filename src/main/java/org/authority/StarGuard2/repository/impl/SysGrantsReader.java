@@ -0,0 +1,340 @@
+package org.authority.StarGuard2.repository.impl;
+
+import org.authority.StarGuard2.model.Permission;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.UserGrants;
+import org.authority.StarGuard2.model.UserIdentity;
+import org.authority.StarGuard2.model.UserSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 基于StarRocks 3.x系统视图（sys.grants_to_users / sys.grants_to_roles / sys.role_edges）的批量权限读取器
+ * 通过少量集合查询一次性读取所有用户的权限，构建与 SHOW GRANTS 解析结果相同的Permission模型
+ * 启动时检测集群是否支持这些系统视图，不支持时由调用方回退到逐用户 SHOW GRANTS
+ *
+ * @author System
+ * @version 1.0
+ */
+@Component
+public class SysGrantsReader {
+    private static final Logger logger = LoggerFactory.getLogger(SysGrantsReader.class);
+
+    private static final String GRANTS_TO_USERS_SQL =
+            "SELECT GRANTEE, OBJECT_CATALOG, OBJECT_DATABASE, OBJECT_NAME, OBJECT_TYPE, PRIVILEGE_TYPE, IS_GRANTABLE "
+                    + "FROM sys.grants_to_users";
+    private static final String GRANTS_TO_ROLES_SQL =
+            "SELECT GRANTEE, OBJECT_CATALOG, OBJECT_DATABASE, OBJECT_NAME, OBJECT_TYPE, PRIVILEGE_TYPE, IS_GRANTABLE "
+                    + "FROM sys.grants_to_roles";
+    private static final String USER_PRIVILEGE_SUMMARY_SQL =
+            "SELECT GRANTEE, PRIVILEGE_TYPE, IS_GRANTABLE FROM sys.grants_to_users";
+    private static final String ROLE_EDGES_SQL = "SELECT FROM_ROLE, TO_ROLE, TO_USER FROM sys.role_edges";
+
+    // 没有任何系统视图记录的用户的指纹
+    static final long NO_ROWS_FINGERPRINT =
+            new UserGrants(null, Collections.<String>emptyList(), null).fingerprint();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 批量加载模式：auto（自动检测）、enabled（强制启用）、disabled（禁用）
+    @Value("${starguard.grants.bulk-load.mode:auto}")
+    private String mode;
+
+    // 检测结果，null表示尚未检测成功
+    private volatile Boolean supported;
+
+    /**
+     * 构造函数
+     *
+     * @param jdbcTemplate Spring提供的JDBC模板
+     */
+    @Autowired
+    public SysGrantsReader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 应用启动完成后检测集群是否支持权限系统视图
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void detectOnStartup() {
+        if ("auto".equalsIgnoreCase(mode)) {
+            isSupported();
+        }
+    }
+
+    /**
+     * 检查是否可以使用系统视图批量加载权限
+     * 检测因连接问题失败时不缓存结果，下次调用时重新检测
+     *
+     * @return true表示可以使用
+     */
+    public boolean isSupported() {
+        if ("disabled".equalsIgnoreCase(mode)) {
+            return false;
+        }
+        if ("enabled".equalsIgnoreCase(mode)) {
+            return true;
+        }
+        Boolean current = supported;
+        if (current != null) {
+            return current;
+        }
+        try {
+            jdbcTemplate.query("SELECT GRANTEE FROM sys.grants_to_users LIMIT 1", rs -> { });
+            jdbcTemplate.query("SELECT GRANTEE FROM sys.grants_to_roles LIMIT 1", rs -> { });
+            jdbcTemplate.query("SELECT FROM_ROLE FROM sys.role_edges LIMIT 1", rs -> { });
+            supported = Boolean.TRUE;
+            logger.info("集群支持权限系统视图，使用批量方式加载用户权限");
+        } catch (BadSqlGrammarException e) {
+            supported = Boolean.FALSE;
+            logger.info("集群不支持权限系统视图，回退到逐用户 SHOW GRANTS: {}", e.getMessage());
+        } catch (Exception e) {
+            logger.warn("检测权限系统视图失败，暂时回退到逐用户 SHOW GRANTS", e);
+            return false;
+        }
+        return supported;
+    }
+
+    /**
+     * 批量读取所有用户的权限，包括直接授予的权限和授予用户的角色
+     *
+     * @return 用户标识到权限列表的映射，未出现在结果中的用户没有任何权限
+     */
+    public Map<UserIdentity, List<Permission>> loadUserPermissions() {
+        return loadUserPermissions(null);
+    }
+
+    /**
+     * 批量读取所有用户的权限，同时按GRANTEE汇总原始记录计算每个用户的指纹
+     * 指纹与记录的返回顺序无关，用户的权限和角色都不变时指纹不变；没有任何记录的用户指纹为 {@link #NO_ROWS_FINGERPRINT}
+     *
+     * @param fingerprints 用于接收有记录的用户的指纹，为null时不计算
+     * @return 用户标识到权限列表的映射，未出现在结果中的用户没有任何权限
+     */
+    public Map<UserIdentity, List<Permission>> loadUserPermissions(Map<UserIdentity, Long> fingerprints) {
+        Map<UserIdentity, List<Permission>> result = new HashMap<>();
+        Map<UserIdentity, List<String>> rows = fingerprints != null ? new HashMap<>() : null;
+        Map<String, UserIdentity> granteeCache = new HashMap<>();
+        jdbcTemplate.query(GRANTS_TO_USERS_SQL, rs -> {
+            String grantee = rs.getString("GRANTEE");
+            UserIdentity identity = granteeCache.computeIfAbsent(grantee, UserIdentity::parse);
+            addPermissions(result.computeIfAbsent(identity, k -> new ArrayList<>()), rs);
+            if (rows != null) {
+                rows.computeIfAbsent(identity, k -> new ArrayList<>()).add(rs.getString("OBJECT_TYPE") + '\t'
+                        + rs.getString("OBJECT_CATALOG") + '\t' + rs.getString("OBJECT_DATABASE") + '\t'
+                        + rs.getString("OBJECT_NAME") + '\t' + rs.getString("PRIVILEGE_TYPE") + '\t'
+                        + rs.getString("IS_GRANTABLE"));
+            }
+        });
+        jdbcTemplate.query(ROLE_EDGES_SQL, rs -> {
+            String toUser = rs.getString("TO_USER");
+            if (toUser == null || toUser.isEmpty()) {
+                return;
+            }
+            UserIdentity identity = granteeCache.computeIfAbsent(toUser, UserIdentity::parse);
+            String role = unquote(rs.getString("FROM_ROLE"));
+            result.computeIfAbsent(identity, k -> new ArrayList<>())
+                    .add(new Permission(PermissionType.ROLE_GRANT, "ROLE: " + role));
+            if (rows != null) {
+                rows.computeIfAbsent(identity, k -> new ArrayList<>()).add("ROLE\t" + role);
+            }
+        });
+        if (rows != null) {
+            for (Map.Entry<UserIdentity, List<String>> entry : rows.entrySet()) {
+                Collections.sort(entry.getValue());
+                fingerprints.put(entry.getKey(), new UserGrants(entry.getKey(), entry.getValue(), null).fingerprint());
+            }
+        }
+        logger.info("通过系统视图批量加载了{}个用户的权限", result.size());
+        return result;
+    }
+
+    /**
+     * 批量读取所有用户的权限摘要（权限数量、是否带GRANT OPTION、角色名），只读取统计所需的列，不构建权限对象
+     * 统计口径与 {@link #loadUserPermissions()} 一致，每个角色计为一项权限
+     *
+     * @return 用户标识到权限摘要的映射，未出现在结果中的用户没有任何权限
+     */
+    public Map<UserIdentity, UserSummary> loadUserSummaries() {
+        Map<UserIdentity, UserSummary> result = new HashMap<>();
+        Map<String, UserIdentity> granteeCache = new HashMap<>();
+        jdbcTemplate.query(USER_PRIVILEGE_SUMMARY_SQL, rs -> {
+            UserIdentity identity = granteeCache.computeIfAbsent(rs.getString("GRANTEE"), UserIdentity::parse);
+            UserSummary summary = result.computeIfAbsent(identity, SysGrantsReader::emptySummary);
+            String privileges = rs.getString("PRIVILEGE_TYPE");
+            if (privileges == null) {
+                return;
+            }
+            int count = 0;
+            for (String privilege : privileges.split(",")) {
+                if (!privilege.trim().isEmpty()) {
+                    count++;
+                }
+            }
+            if (count == 0) {
+                return;
+            }
+            summary.setPermissionCount(summary.getPermissionCount() + count);
+            if ("YES".equalsIgnoreCase(rs.getString("IS_GRANTABLE"))) {
+                summary.setHasGrantOption(true);
+            }
+        });
+        jdbcTemplate.query(ROLE_EDGES_SQL, rs -> {
+            String toUser = rs.getString("TO_USER");
+            if (toUser == null || toUser.isEmpty()) {
+                return;
+            }
+            UserIdentity identity = granteeCache.computeIfAbsent(toUser, UserIdentity::parse);
+            UserSummary summary = result.computeIfAbsent(identity, SysGrantsReader::emptySummary);
+            summary.getRoles().add(unquote(rs.getString("FROM_ROLE")));
+            summary.setPermissionCount(summary.getPermissionCount() + 1);
+        });
+        logger.info("通过系统视图批量加载了{}个用户的权限摘要", result.size());
+        return result;
+    }
+
+    /**
+     * 创建没有任何权限的用户摘要
+     *
+     * @param identity 用户标识
+     * @return 用户摘要
+     */
+    static UserSummary emptySummary(UserIdentity identity) {
+        UserSummary summary = new UserSummary(identity.getUsername(), identity.getHost());
+        summary.setPermissionCount(0);
+        summary.setRoles(new ArrayList<>());
+        return summary;
+    }
+
+    /**
+     * 批量读取所有角色自身的权限
+     *
+     * @return 角色名到权限列表的映射
+     */
+    public Map<String, List<Permission>> loadRolePermissions() {
+        Map<String, List<Permission>> result = new LinkedHashMap<>();
+        jdbcTemplate.query(GRANTS_TO_ROLES_SQL, rs -> {
+            String role = unquote(rs.getString("GRANTEE"));
+            addPermissions(result.computeIfAbsent(role, k -> new ArrayList<>()), rs);
+        });
+        return result;
+    }
+
+    /**
+     * 批量读取角色之间的继承关系
+     *
+     * @return 角色名到其被授予的父角色列表的映射
+     */
+    public Map<String, List<String>> loadRoleEdges() {
+        Map<String, List<String>> result = new LinkedHashMap<>();
+        jdbcTemplate.query(ROLE_EDGES_SQL, rs -> {
+            String toRole = rs.getString("TO_ROLE");
+            if (toRole == null || toRole.isEmpty()) {
+                return;
+            }
+            result.computeIfAbsent(unquote(toRole), k -> new ArrayList<>()).add(unquote(rs.getString("FROM_ROLE")));
+        });
+        return result;
+    }
+
+    /**
+     * 将一行系统视图记录转换为权限对象并加入列表
+     * PRIVILEGE_TYPE 可能包含逗号分隔的多个权限
+     *
+     * @param permissions 目标权限列表
+     * @param rs 结果集，指向当前行
+     * @throws SQLException 读取结果集失败
+     */
+    private void addPermissions(List<Permission> permissions, ResultSet rs) throws SQLException {
+        String objectDescription = describeObject(rs.getString("OBJECT_TYPE"), rs.getString("OBJECT_CATALOG"),
+                rs.getString("OBJECT_DATABASE"), rs.getString("OBJECT_NAME"));
+        boolean withGrantOption = "YES".equalsIgnoreCase(rs.getString("IS_GRANTABLE"));
+        String privileges = rs.getString("PRIVILEGE_TYPE");
+        if (privileges == null) {
+            return;
+        }
+        for (String privilege : privileges.split(",")) {
+            String trimmed = privilege.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            // 未知的权限类型按原名保留，与 SHOW GRANTS 的解析结果一致
+            String normalized = trimmed.toUpperCase(Locale.ROOT);
+            PermissionType type = PermissionType.lookup(normalized);
+            Permission permission = type != null
+                    ? new Permission(type, objectDescription)
+                    : Permission.unknown(normalized, objectDescription);
+            permission.setWithGrantOption(withGrantOption);
+            permissions.add(permission);
+        }
+    }
+
+    /**
+     * 将系统视图中的对象描述转换为与 SHOW GRANTS 解析结果一致的数据库描述字符串
+     *
+     * @param objectType 对象类型
+     * @param catalog 对象所在Catalog
+     * @param database 对象所在数据库，null表示所有数据库
+     * @param name 对象名称，null表示数据库内的所有对象
+     * @return 数据库描述字符串
+     */
+    private String describeObject(String objectType, String catalog, String database, String name) {
+        String type = objectType == null ? "" : objectType.trim().toUpperCase(Locale.ROOT);
+        switch (type) {
+            case "SYSTEM":
+                return "SYSTEM";
+            case "DATABASE":
+                return database == null ? "ALL DATABASES" : database;
+            case "TABLE":
+                if (database == null) {
+                    return "ALL TABLES IN ALL DATABASES";
+                }
+                return name == null ? "ALL TABLES IN DATABASE " + database : "TABLE " + database + "." + name;
+            case "VIEW":
+            case "MATERIALIZED VIEW":
+                if (database == null) {
+                    return "ALL " + type + "S IN ALL DATABASES";
+                }
+                return name == null ? "ALL " + type + "S IN DATABASE " + database : type + " " + database + "." + name;
+            case "CATALOG":
+                return "CATALOG " + (name != null ? name : catalog);
+            default:
+                StringBuilder builder = new StringBuilder(type);
+                if (database != null) {
+                    builder.append(' ').append(database);
+                }
+                if (name != null) {
+                    builder.append(database != null ? "." : " ").append(name);
+                }
+                return builder.toString();
+        }
+    }
+
+    /**
+     * 去除角色名两侧的引号
+     *
+     * @param name 角色名
+     * @return 去除引号后的角色名
+     */
+    private String unquote(String name) {
+        return name == null ? null : name.replace("'", "").trim();
+    }
+}
@@ -1,10 +1,27 @@
 package org.authority.StarGuard2.service;
 
 import org.authority.StarGuard2.dto.GrantPermissionRequestDTO;
+import org.authority.StarGuard2.dto.BatchJobDTO;
+import org.authority.StarGuard2.dto.BatchReportDTO;
+import org.authority.StarGuard2.dto.CatalogDatabaseDTO;
+import org.authority.StarGuard2.dto.CatalogInfoDTO;
+import org.authority.StarGuard2.dto.EffectivePrivilegesDTO;
+import org.authority.StarGuard2.dto.ExecutionPlanDTO;
+import org.authority.StarGuard2.dto.ObjectAccessDTO;
+import org.authority.StarGuard2.dto.PageDTO;
+import org.authority.StarGuard2.dto.ParseCacheStatsDTO;
+import org.authority.StarGuard2.dto.PermissionCheckRequestDTO;
+import org.authority.StarGuard2.dto.PermissionCheckResultDTO;
+import org.authority.StarGuard2.dto.ReconcileResultDTO;
 import org.authority.StarGuard2.dto.RevokePermissionRequestDTO;
+import org.authority.StarGuard2.dto.SnapshotInfoDTO;
+import org.authority.StarGuard2.dto.TypeaheadResultDTO;
 import org.authority.StarGuard2.dto.UserPermissionDTO;
+import org.authority.StarGuard2.dto.UserSummaryDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 权限管理Service接口，定义了权限管理的业务逻辑操作
@@ -20,6 +37,71 @@ public interface PermissionService {
      */
     List<UserPermissionDTO> getAllUsersWithPermissions();
 
+    /**
+     * 获取所有用户列表的ETag，由快照版本号生成，快照内容任何变化都会改变ETag
+     * 
+     * @return 强ETag
+     */
+    String getUsersETag();
+
+    /**
+     * 逐个导出所有用户及其权限，每加载并解析完一个用户即交给回调处理
+     * 直接读取数据库而非快照，内存占用与用户数量无关
+     * 
+     * @param consumer 处理单个用户权限DTO的回调
+     */
+    void exportUsersWithPermissions(Consumer<UserPermissionDTO> consumer);
+
+    /**
+     * 按游标分页获取用户及其权限
+     * 
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页数量
+     * @param sort 排序字段（username/host）
+     * @param order 排序方向（asc/desc）
+     * @return 分页结果
+     */
+    PageDTO<UserPermissionDTO> getUsersPage(String cursor, int size, String sort, String order);
+
+    /**
+     * 按游标分页获取用户摘要（权限数量、是否带GRANT OPTION、角色名），不返回完整的权限列表
+     * 
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页数量
+     * @param sort 排序字段（username/host）
+     * @param order 排序方向（asc/desc）
+     * @return 分页结果
+     */
+    PageDTO<UserSummaryDTO> getUserSummariesPage(String cursor, int size, String sort, String order);
+
+    /**
+     * 在内存索引中搜索用户，结果按用户名、主机地址排序并按游标分页，条件为空表示不过滤
+     * 
+     * @param username 用户名前缀
+     * @param host 主机地址前缀
+     * @param permissionType 权限类型
+     * @param database 数据库名，* 表示所有数据库级别的授权
+     * @param grantOption 是否拥有带GRANT OPTION的权限
+     * @param cursor 上一页返回的游标，为空表示第一页
+     * @param size 每页数量
+     * @return 分页结果
+     */
+    PageDTO<UserSummaryDTO> searchUsers(String username, String host, String permissionType, String database,
+                                        Boolean grantOption, String cursor, int size);
+
+    /**
+     * 查询可以访问某个对象的用户及其授权，考虑授权层级（所有数据库覆盖任意数据库，数据库内所有某类对象覆盖其中该类型的对象）
+     * 
+     * @param objectType 对象类型（SYSTEM/CATALOG/DATABASE/TABLE/VIEW/MATERIALIZED_VIEW/FUNCTION）
+     * @param database 对象所属数据库，为空表示所有数据库
+     * @param name 对象名称，为空表示该类型的所有对象
+     * @param permissionType 权限类型，为空表示所有权限
+     * @param includeChildren 是否同时返回下级对象上的授权
+     * @return 查询结果
+     */
+    ObjectAccessDTO getObjectAccess(String objectType, String database, String name, String permissionType,
+                                    boolean includeChildren);
+
     /**
      * 获取特定用户的权限信息
      * 
@@ -29,21 +111,74 @@ public interface PermissionService {
      */
     UserPermissionDTO getUserPermissions(String username,String host);
 
+    /**
+     * 获取特定用户权限信息的ETag，由快照中该用户权限内容的哈希生成，其他用户的变化不影响该ETag
+     * 
+     * @param username 用户名
+     * @param host 主机地址
+     * @return 强ETag，用户不存在或尚未进入快照时返回null
+     */
+    String getUserETag(String username, String host);
+
+    /**
+     * 检查用户是否拥有某个对象上的某项权限（含角色继承），由内存索引回答
+     * 
+     * @param request 检查请求
+     * @return 检查结果
+     */
+    PermissionCheckResultDTO checkPermission(PermissionCheckRequestDTO request);
+
+    /**
+     * 批量检查权限，所有检查使用同一版本的索引；单项请求无效时在该项结果中返回原因，不影响其他项
+     * 
+     * @param requests 检查请求列表
+     * @return 检查结果列表，顺序与请求一致
+     */
+    List<PermissionCheckResultDTO> batchCheckPermissions(List<PermissionCheckRequestDTO> requests);
+
+    /**
+     * 获取用户的有效权限，包括直接授予的权限和通过角色（含角色继承）获得的权限，并给出每项权限的来源路径
+     * 
+     * @param username 用户名
+     * @param host 主机地址
+     * @return 有效权限
+     */
+    EffectivePrivilegesDTO getEffectivePrivileges(String username, String host);
+
+    /**
+     * 获取所有角色名
+     * 
+     * @return 排序后的角色名列表
+     */
+    List<String> getRoleNames();
+
+    /**
+     * 重新加载单个角色的定义，只重新计算受影响角色的闭包
+     * 
+     * @param roleName 角色名
+     * @return 被失效的角色闭包数量
+     */
+    int refreshRole(String roleName);
+
     /**
      * 授予权限给用户
      * 
+     * 请求中同一对象上的多个权限合并为一条语句执行
+     * 
      * @param request 授权请求DTO
-     * @return 操作结果，true表示成功
+     * @return 实际执行的语句
      */
-    boolean grantPermission(GrantPermissionRequestDTO request);
+    ExecutionPlanDTO grantPermission(GrantPermissionRequestDTO request);
 
     /**
      * 撤销用户的权限
      * 
+     * 请求中同一对象上的多个权限合并为一条语句执行
+     * 
      * @param request 撤销权限请求DTO
-     * @return 操作结果，true表示成功
+     * @return 实际执行的语句
      */
-    boolean revokePermission(RevokePermissionRequestDTO request);
+    ExecutionPlanDTO revokePermission(RevokePermissionRequestDTO request);
 
     /**
      * 检查用户是否存在
@@ -57,16 +192,148 @@ public interface PermissionService {
     /**
      * 批量授予权限给用户
      * 
+     * 不同用户的请求并行执行，同一用户的请求按顺序执行；单个请求失败不影响其他请求
+     * 
      * @param requests 授权请求DTO列表
-     * @return 操作结果，true表示全部成功
+     * @return 每个请求的执行结果
      */
-    boolean batchGrantPermissions(List<GrantPermissionRequestDTO> requests);
+    BatchReportDTO batchGrantPermissions(List<GrantPermissionRequestDTO> requests);
 
     /**
      * 批量撤销用户的权限
      * 
+     * 不同用户的请求并行执行，同一用户的请求按顺序执行；单个请求失败不影响其他请求
+     * 
+     * @param requests 撤销权限请求DTO列表
+     * @return 每个请求的执行结果
+     */
+    BatchReportDTO batchRevokePermissions(List<RevokePermissionRequestDTO> requests);
+
+    /**
+     * 提交异步批量授权任务，立即返回任务ID
+     * 
+     * @param requests 授权请求DTO列表
+     * @return 任务进度
+     */
+    BatchJobDTO submitBatchGrantJob(List<GrantPermissionRequestDTO> requests);
+
+    /**
+     * 提交异步批量撤销权限任务，立即返回任务ID
+     * 
      * @param requests 撤销权限请求DTO列表
-     * @return 操作结果，true表示全部成功
+     * @return 任务进度
+     */
+    BatchJobDTO submitBatchRevokeJob(List<RevokePermissionRequestDTO> requests);
+
+    /**
+     * 获取异步批量任务的进度
+     * 
+     * @param jobId 任务ID
+     * @param itemsFrom 返回从该下标开始的请求结果，为null时不返回结果
+     * @return 任务进度
+     */
+    BatchJobDTO getBatchJob(String jobId, Integer itemsFrom);
+
+    /**
+     * 获取所有异步批量任务的进度，按提交时间倒序
+     * 
+     * @return 任务进度列表
+     */
+    List<BatchJobDTO> listBatchJobs();
+
+    /**
+     * 取消异步批量任务，正在执行的任务在当前块执行完毕后停止
+     * 
+     * @param jobId 任务ID
+     * @return 任务进度
+     */
+    BatchJobDTO cancelBatchJob(String jobId);
+
+    /**
+     * 获取当前权限快照的信息
+     * 
+     * @return 快照信息DTO
+     */
+    SnapshotInfoDTO getSnapshotInfo();
+
+    /**
+     * 立即重新加载权限快照
+     * 
+     * @return 重新加载后的快照信息DTO
+     */
+    SnapshotInfoDTO refreshSnapshot();
+
+    /**
+     * 立即增量刷新权限快照，只重新解析授权语句发生变化的用户
+     * 
+     * @return 刷新后的快照信息DTO，包含本次的用户变化列表
+     */
+    SnapshotInfoDTO refreshSnapshotIncrementally();
+
+    /**
+     * 获取元数据缓存的信息，尚未加载时同步加载
+     * 
+     * @return 元数据缓存信息DTO
+     */
+    CatalogInfoDTO getCatalogInfo();
+
+    /**
+     * 立即完整刷新元数据缓存
+     * 
+     * @return 刷新后的元数据缓存信息DTO
+     */
+    CatalogInfoDTO refreshCatalog();
+
+    /**
+     * 从元数据缓存获取所有数据库名
+     * 
+     * @return 排序后的数据库名列表
+     */
+    List<String> getCatalogDatabaseNames();
+
+    /**
+     * 从元数据缓存获取数据库中的表、视图和物化视图
+     * 
+     * @param database 数据库名
+     * @return 数据库对象列表DTO
+     * @throws PermissionException 数据库不存在时抛出（404）
+     */
+    CatalogDatabaseDTO getCatalogDatabase(String database);
+
+    /**
+     * 按前缀返回排名最高的数据库、表、视图、物化视图或用户名，只查询内存中的前缀索引
+     * 
+     * @param type 对象类型（DATABASE/TABLE/VIEW/MATERIALIZED_VIEW/USER），不区分大小写
+     * @param prefix 名称前缀，不区分大小写，为空时按字典序返回
+     * @param database 限定的数据库，只对表、视图和物化视图有效，为空时在所有数据库中查找
+     * @param limit 最多返回的候选项数
+     * @return 输入提示结果DTO
+     * @throws PermissionException 类型无效或limit超出范围时抛出（400）
+     */
+    TypeaheadResultDTO typeahead(String type, String prefix, String database, int limit);
+
+    /**
+     * 订阅权限变更事件（SSE）
+     * 
+     * @param lastEventId 断线重连时客户端收到的最后一个事件ID，首次连接时为null
+     * @return SSE连接
+     */
+    SseEmitter subscribePrivilegeEvents(String lastEventId);
+
+    /**
+     * 把策略文件描述的期望状态与当前权限快照比较，生成使两者一致所需的GRANT/REVOKE
+     * 策略文件中列出的用户以文件为准，未列出的用户不受影响
+     * 
+     * @param policy 策略文件内容（JSON或YAML）
+     * @param dryRun true时只返回计划，false时按用户并行执行
+     * @return 同步结果
+     */
+    ReconcileResultDTO reconcile(String policy, boolean dryRun);
+
+    /**
+     * 获取GRANT语句解析结果缓存的统计信息
+     * 
+     * @return 缓存统计DTO
      */
-    boolean batchRevokePermissions(List<RevokePermissionRequestDTO> requests);
-}
\ No newline at end of file
+    ParseCacheStatsDTO getParseCacheStats();
+}
@@ -1,22 +1,92 @@
 package org.authority.StarGuard2.service.impl;
 
+import org.authority.StarGuard2.batch.BatchExecutor;
+import org.authority.StarGuard2.batch.BatchJob;
+import org.authority.StarGuard2.batch.BatchJobManager;
+import org.authority.StarGuard2.batch.BatchTask;
+import org.authority.StarGuard2.batch.BatchValidator;
+import org.authority.StarGuard2.cache.AccessIndex;
+import org.authority.StarGuard2.cache.CatalogCache;
+import org.authority.StarGuard2.cache.CatalogDatabase;
+import org.authority.StarGuard2.cache.CatalogSnapshot;
+import org.authority.StarGuard2.cache.PrefixIndex;
+import org.authority.StarGuard2.cache.PrivilegeCheckCache;
+import org.authority.StarGuard2.cache.PrivilegeCheckIndex;
+import org.authority.StarGuard2.cache.PrivilegeSnapshot;
+import org.authority.StarGuard2.cache.PrivilegeSnapshotCache;
+import org.authority.StarGuard2.cache.RoleGraphCache;
+import org.authority.StarGuard2.cache.TypeaheadCache;
+import org.authority.StarGuard2.cache.UserChange;
+import org.authority.StarGuard2.cache.UserIdentityRegistry;
+import org.authority.StarGuard2.cache.UserOrderIndex;
+import org.authority.StarGuard2.cache.UserSearchIndex;
+import org.authority.StarGuard2.event.PrivilegeEventBroadcaster;
+import org.authority.StarGuard2.model.EffectivePermission;
+import org.authority.StarGuard2.model.GrantObject;
+import org.authority.StarGuard2.model.GrantObjectType;
 import org.authority.StarGuard2.model.User;
+import org.authority.StarGuard2.model.UserIdentity;
+import org.authority.StarGuard2.model.UserSummary;
 import org.authority.StarGuard2.model.Permission;
 import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.parser.GrantParseCache;
+import org.authority.StarGuard2.planner.GrantState;
+import org.authority.StarGuard2.planner.GrantStatementPlanner;
+import org.authority.StarGuard2.planner.PlannedStatement;
+import org.authority.StarGuard2.planner.SkippedPrivilege;
+import org.authority.StarGuard2.reconcile.DesiredState;
+import org.authority.StarGuard2.reconcile.PolicyReconciler;
+import org.authority.StarGuard2.reconcile.ReconcilePlan;
 import org.authority.StarGuard2.repository.PermissionRepository;
 import org.authority.StarGuard2.service.PermissionService;
+import org.authority.StarGuard2.dto.BatchItemResultDTO;
+import org.authority.StarGuard2.dto.BatchJobDTO;
+import org.authority.StarGuard2.dto.BatchReportDTO;
+import org.authority.StarGuard2.dto.CatalogDatabaseDTO;
+import org.authority.StarGuard2.dto.CatalogInfoDTO;
 import org.authority.StarGuard2.dto.GrantPermissionRequestDTO;
+import org.authority.StarGuard2.dto.EffectivePrivilegesDTO;
+import org.authority.StarGuard2.dto.ExecutionPlanDTO;
+import org.authority.StarGuard2.dto.ObjectAccessDTO;
+import org.authority.StarGuard2.dto.PageDTO;
+import org.authority.StarGuard2.dto.ParseCacheStatsDTO;
+import org.authority.StarGuard2.dto.PermissionCheckRequestDTO;
+import org.authority.StarGuard2.dto.PermissionCheckResultDTO;
+import org.authority.StarGuard2.dto.PlannedStatementDTO;
+import org.authority.StarGuard2.dto.ReconcileResultDTO;
 import org.authority.StarGuard2.dto.RevokePermissionRequestDTO;
+import org.authority.StarGuard2.dto.SkippedPrivilegeDTO;
+import org.authority.StarGuard2.dto.SnapshotChangeDTO;
+import org.authority.StarGuard2.dto.SnapshotInfoDTO;
+import org.authority.StarGuard2.dto.TypeaheadItemDTO;
+import org.authority.StarGuard2.dto.TypeaheadResultDTO;
 import org.authority.StarGuard2.dto.UserPermissionDTO;
+import org.authority.StarGuard2.dto.UserSummaryDTO;
+import org.authority.StarGuard2.dto.ValidationErrorDTO;
 import org.authority.StarGuard2.exception.PermissionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * 权限管理Service的实现类，实现了权限管理的业务逻辑
@@ -28,29 +98,78 @@ import java.util.List;
 public class PermissionServiceImpl implements PermissionService {
     private static final Logger logger = LoggerFactory.getLogger(PermissionServiceImpl.class);
 
+    // 输入提示单次返回的最大候选项数
+    private static final int MAX_TYPEAHEAD_LIMIT = 50;
+
     private final PermissionRepository permissionRepository;
+    private final PrivilegeSnapshotCache snapshotCache;
+    private final UserIdentityRegistry userIdentityRegistry;
+    private final RoleGraphCache roleGraphCache;
+    private final PrivilegeCheckCache privilegeCheckCache;
+    private final GrantParseCache grantParseCache;
+    private final PrivilegeEventBroadcaster privilegeEventBroadcaster;
+    private final BatchExecutor batchExecutor;
+    private final BatchJobManager batchJobManager;
+    private final BatchValidator batchValidator;
+    private final CatalogCache catalogCache;
+    private final TypeaheadCache typeaheadCache;
+    private final PolicyReconciler policyReconciler;
+    private final boolean diffEnabled;
 
     /**
      * 构造函数
      * 
      * @param permissionRepository 权限管理Repository
+     * @param snapshotCache 权限快照缓存
+     * @param userIdentityRegistry 用户标识注册表
+     * @param roleGraphCache 角色图缓存
+     * @param privilegeCheckCache 权限检查索引缓存
+     * @param grantParseCache GRANT语句解析结果缓存
+     * @param privilegeEventBroadcaster 权限变更事件广播器
+     * @param batchExecutor 批量授权/撤销执行器
+     * @param batchJobManager 异步批量任务管理器
+     * @param batchValidator 批量授权/撤销请求校验器
+     * @param catalogCache 元数据缓存
+     * @param typeaheadCache 输入提示索引缓存
+     * @param policyReconciler 权限策略同步
+     * @param diffEnabled 是否按与用户当前权限的差异规划授权/撤销语句
      */
     @Autowired
-    public PermissionServiceImpl(PermissionRepository permissionRepository) {
+    public PermissionServiceImpl(PermissionRepository permissionRepository, PrivilegeSnapshotCache snapshotCache,
+                                 UserIdentityRegistry userIdentityRegistry, RoleGraphCache roleGraphCache,
+                                 PrivilegeCheckCache privilegeCheckCache,
+                                 GrantParseCache grantParseCache,
+                                 PrivilegeEventBroadcaster privilegeEventBroadcaster,
+                                 BatchExecutor batchExecutor,
+                                 BatchJobManager batchJobManager,
+                                 BatchValidator batchValidator,
+                                 CatalogCache catalogCache,
+                                 TypeaheadCache typeaheadCache,
+                                 PolicyReconciler policyReconciler,
+                                 @Value("${starguard.grants.diff.enabled:true}") boolean diffEnabled) {
         this.permissionRepository = permissionRepository;
+        this.snapshotCache = snapshotCache;
+        this.userIdentityRegistry = userIdentityRegistry;
+        this.roleGraphCache = roleGraphCache;
+        this.privilegeCheckCache = privilegeCheckCache;
+        this.grantParseCache = grantParseCache;
+        this.privilegeEventBroadcaster = privilegeEventBroadcaster;
+        this.batchExecutor = batchExecutor;
+        this.batchJobManager = batchJobManager;
+        this.batchValidator = batchValidator;
+        this.catalogCache = catalogCache;
+        this.typeaheadCache = typeaheadCache;
+        this.policyReconciler = policyReconciler;
+        this.diffEnabled = diffEnabled;
     }
 
     @Override
     public List<UserPermissionDTO> getAllUsersWithPermissions() {
         logger.info("获取所有用户及其权限信息");
         try {
-            List<User> users = permissionRepository.getAllUsers();
-            List<UserPermissionDTO> userPermissionDTOs = new ArrayList<>();
-
-            for (User user : users) {
-                UserPermissionDTO dto = convertToDTO(user);
-                userPermissionDTOs.add(dto);
-            }
+            PrivilegeSnapshot snapshot = snapshotCache.getSnapshot();
+            List<UserPermissionDTO> userPermissionDTOs = new ArrayList<>(snapshot.size());
+            snapshot.forEachUser(user -> userPermissionDTOs.add(convertToDTO(user)));
 
             logger.info("成功获取{}个用户的权限信息", userPermissionDTOs.size());
             return userPermissionDTOs;
@@ -60,6 +179,196 @@ public class PermissionServiceImpl implements PermissionService {
         }
     }
 
+    @Override
+    public void exportUsersWithPermissions(Consumer<UserPermissionDTO> consumer) {
+        logger.info("流式导出所有用户及其权限信息");
+        long start = System.currentTimeMillis();
+        int[] count = new int[1];
+        permissionRepository.forEachUser(user -> {
+            consumer.accept(convertToDTO(user));
+            count[0]++;
+        });
+        logger.info("流式导出完成，共{}个用户，耗时{}ms", count[0], System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public PageDTO<UserPermissionDTO> getUsersPage(String cursor, int size, String sort, String order) {
+        logger.info("分页获取用户权限信息: cursor={}, size={}, sort={}, order={}", cursor, size, sort, order);
+        UserOrderIndex.SortKey sortKey = parseSortKey(sort);
+        boolean descending = "desc".equalsIgnoreCase(order);
+        UserIdentity after = decodeCursor(cursor);
+
+        PrivilegeSnapshot snapshot = snapshotCache.getSnapshot();
+        UserOrderIndex<UserIdentity> index = snapshot.getOrderIndex();
+        List<UserIdentity> identities = index.page(sortKey, descending, after, size);
+        boolean hasMore = identities.size() > size;
+        if (hasMore) {
+            identities = identities.subList(0, size);
+        }
+
+        // 只为当前页的用户生成权限对象
+        List<UserPermissionDTO> items = new ArrayList<>(identities.size());
+        for (UserIdentity identity : identities) {
+            items.add(convertToDTO(snapshot.getUser(identity)));
+        }
+        PageDTO<UserPermissionDTO> page = new PageDTO<>();
+        page.setItems(items);
+        page.setHasMore(hasMore);
+        page.setNextCursor(hasMore ? encodeCursor(identities.get(identities.size() - 1)) : null);
+        page.setTotal(index.size());
+        page.setSnapshotVersion(snapshot.getVersion());
+        return page;
+    }
+
+    @Override
+    public PageDTO<UserSummaryDTO> getUserSummariesPage(String cursor, int size, String sort, String order) {
+        logger.info("分页获取用户摘要: cursor={}, size={}, sort={}, order={}", cursor, size, sort, order);
+        UserOrderIndex.SortKey sortKey = parseSortKey(sort);
+        boolean descending = "desc".equalsIgnoreCase(order);
+        UserIdentity after = decodeCursor(cursor);
+
+        // 快照已加载时直接由快照生成摘要，不访问数据库
+        PrivilegeSnapshot snapshot = snapshotCache.peek();
+        List<UserSummary> summaries;
+        int total;
+        if (snapshot != null) {
+            UserOrderIndex<UserIdentity> index = snapshot.getOrderIndex();
+            List<UserIdentity> identities = index.page(sortKey, descending, after, size);
+            summaries = new ArrayList<>(identities.size());
+            for (UserIdentity identity : identities) {
+                summaries.add(UserSummary.of(snapshot.getUser(identity)));
+            }
+            total = index.size();
+        } else {
+            // 快照尚未加载：以最低代价获取摘要，同时在后台预热快照，后续请求直接使用快照
+            List<UserSummary> all = permissionRepository.getAllUserSummaries();
+            List<UserIdentity> identities = new ArrayList<>(all.size());
+            for (UserSummary summary : all) {
+                identities.add(summary.getIdentity());
+            }
+            userIdentityRegistry.replaceAll(identities);
+            snapshotCache.refreshAsync();
+            UserOrderIndex<UserSummary> index = new UserOrderIndex<>(all, UserSummary::getIdentity);
+            summaries = index.page(sortKey, descending, after, size);
+            total = index.size();
+        }
+        boolean hasMore = summaries.size() > size;
+        if (hasMore) {
+            summaries = summaries.subList(0, size);
+        }
+
+        List<UserSummaryDTO> items = new ArrayList<>(summaries.size());
+        for (UserSummary summary : summaries) {
+            items.add(convertToSummaryDTO(summary));
+        }
+        PageDTO<UserSummaryDTO> page = new PageDTO<>();
+        page.setItems(items);
+        page.setHasMore(hasMore);
+        page.setNextCursor(hasMore ? encodeCursor(summaries.get(summaries.size() - 1).getIdentity()) : null);
+        page.setTotal(total);
+        page.setSnapshotVersion(snapshot != null ? snapshot.getVersion() : 0L);
+        return page;
+    }
+
+    @Override
+    public PageDTO<UserSummaryDTO> searchUsers(String username, String host, String permissionType, String database,
+                                               Boolean grantOption, String cursor, int size) {
+        logger.debug("搜索用户: username={}, host={}, permissionType={}, database={}, grantOption={}, cursor={}, size={}",
+                username, host, permissionType, database, grantOption, cursor, size);
+        PermissionType type = parsePermissionType(permissionType);
+        UserIdentity after = decodeCursor(cursor);
+
+        PrivilegeSnapshot snapshot = snapshotCache.getSnapshot();
+        UserSearchIndex index = snapshot.getSearchIndex();
+        BitSet matches = index.match(username, host, type, database, grantOption);
+        List<UserIdentity> identities = index.page(matches, after, size);
+        boolean hasMore = identities.size() > size;
+        if (hasMore) {
+            identities = identities.subList(0, size);
+        }
+
+        List<UserSummaryDTO> items = new ArrayList<>(identities.size());
+        for (UserIdentity identity : identities) {
+            items.add(convertToSummaryDTO(UserSummary.of(snapshot.getUser(identity))));
+        }
+        PageDTO<UserSummaryDTO> page = new PageDTO<>();
+        page.setItems(items);
+        page.setHasMore(hasMore);
+        page.setNextCursor(hasMore ? encodeCursor(identities.get(identities.size() - 1)) : null);
+        page.setTotal(matches.cardinality());
+        page.setSnapshotVersion(snapshot.getVersion());
+        return page;
+    }
+
+    @Override
+    public ObjectAccessDTO getObjectAccess(String objectType, String database, String name, String permissionType,
+                                           boolean includeChildren) {
+        GrantObject target = parseGrantObject(objectType, database, name);
+        GrantObjectType type = target.getType();
+        PermissionType privilege = parsePermissionType(permissionType);
+
+        PrivilegeSnapshot snapshot = snapshotCache.getSnapshot();
+        List<AccessIndex.Match> matches = snapshot.getAccessIndex().query(target, privilege, includeChildren);
+        List<ObjectAccessDTO.AccessGrantDTO> grants = new ArrayList<>(matches.size());
+        for (AccessIndex.Match match : matches) {
+            AccessIndex.Grant grant = match.getGrant();
+            ObjectAccessDTO.AccessGrantDTO dto = new ObjectAccessDTO.AccessGrantDTO();
+            dto.setUsername(grant.getUser().getUsername());
+            dto.setHost(grant.getUser().getHost());
+            dto.setPermissionType(grant.getPermissionType().getValue());
+            dto.setWithGrantOption(grant.isWithGrantOption());
+            dto.setGrantedOn(grant.getDescription());
+            dto.setCoverage(match.getCoverage().name());
+            grants.add(dto);
+        }
+
+        ObjectAccessDTO result = new ObjectAccessDTO();
+        result.setObjectType(type.name());
+        result.setDatabase(target.getDatabase());
+        result.setName(target.getName());
+        result.setPermissionType(privilege != null ? privilege.getValue() : null);
+        result.setSnapshotVersion(snapshot.getVersion());
+        result.setGrants(grants);
+        return result;
+    }
+
+    @Override
+    public PermissionCheckResultDTO checkPermission(PermissionCheckRequestDTO request) {
+        return checkPermission(privilegeCheckCache.getIndex(), request);
+    }
+
+    @Override
+    public List<PermissionCheckResultDTO> batchCheckPermissions(List<PermissionCheckRequestDTO> requests) {
+        long start = System.nanoTime();
+        PrivilegeCheckIndex index = privilegeCheckCache.getIndex();
+        List<PermissionCheckResultDTO> results = new ArrayList<>(requests.size());
+        for (PermissionCheckRequestDTO request : requests) {
+            try {
+                results.add(checkPermission(index, request));
+            } catch (PermissionException e) {
+                PermissionCheckResultDTO result = newCheckResult(request);
+                result.setMessage(e.getMessage());
+                results.add(result);
+            }
+        }
+        logger.debug("批量权限检查完成，共{}项，耗时{}us", requests.size(), (System.nanoTime() - start) / 1000);
+        return results;
+    }
+
+    @Override
+    public String getUsersETag() {
+        return "\"v" + snapshotCache.getSnapshot().getVersion() + "\"";
+    }
+
+    @Override
+    public String getUserETag(String username, String host) {
+        if (!userIdentityRegistry.exists(username, host)) {
+            return null;
+        }
+        Long hash = snapshotCache.getSnapshot().getUserContentHash(new UserIdentity(username, host));
+        return hash != null ? "\"u" + Long.toHexString(hash) + "\"" : null;
+    }
+
     @Override
     public UserPermissionDTO getUserPermissions(String username, String host) {
         logger.info("获取特定用户的权限信息: username={}, host={}", username,host);
@@ -73,11 +382,11 @@ public class PermissionServiceImpl implements PermissionService {
             }
             
             // 检查用户是否存在
-            if (!permissionRepository.userExists(username)) {
-                throw new PermissionException("用户不存在: " + username);
+            if (!userIdentityRegistry.exists(username, host)) {
+                throw new PermissionException("用户不存在: " + username + "@" + host);
             }
 
-            User user = permissionRepository.getUserPermissions(username, host);
+            User user = snapshotCache.getUser(username, host);
             UserPermissionDTO dto = convertToDTO(user);
 
             logger.info("成功获取用户权限信息");
@@ -91,85 +400,107 @@ public class PermissionServiceImpl implements PermissionService {
         }
     }
 
+    @Override
+    public EffectivePrivilegesDTO getEffectivePrivileges(String username, String host) {
+        logger.info("获取用户的有效权限: username={}, host={}", username, host);
+        if (!userIdentityRegistry.exists(username, host)) {
+            throw new PermissionException("用户不存在: " + username + "@" + host);
+        }
+        try {
+            User user = snapshotCache.getUser(username, host);
+            List<String> grantedRoles = new ArrayList<>();
+            for (Permission permission : user.getPermissions()) {
+                for (String role : permission.getGrantedRoles()) {
+                    if (!grantedRoles.contains(role)) {
+                        grantedRoles.add(role);
+                    }
+                }
+            }
+            List<EffectivePermission> effective = roleGraphCache.resolve(user);
+            List<EffectivePrivilegesDTO.EffectivePrivilegeDTO> privileges = new ArrayList<>(effective.size());
+            for (EffectivePermission item : effective) {
+                Permission permission = item.getPermission();
+                EffectivePrivilegesDTO.EffectivePrivilegeDTO dto = new EffectivePrivilegesDTO.EffectivePrivilegeDTO();
+                dto.setPermissionType(permission.getPrivilegeName());
+                dto.setDatabaseName(permission.getDatabaseName());
+                dto.setWithGrantOption(permission.isWithGrantOption());
+                dto.setDirect(item.isDirect());
+                dto.setRolePath(item.getRolePath());
+                privileges.add(dto);
+            }
+
+            EffectivePrivilegesDTO result = new EffectivePrivilegesDTO();
+            result.setUsername(username);
+            result.setHost(host);
+            result.setGrantedRoles(grantedRoles);
+            result.setPrivileges(privileges);
+            logger.info("成功获取用户的有效权限，共{}项", privileges.size());
+            return result;
+        } catch (PermissionException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("获取用户的有效权限失败", e);
+            throw new PermissionException("获取用户的有效权限失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> getRoleNames() {
+        return new ArrayList<>(roleGraphCache.getRoleNames());
+    }
+
+    @Override
+    public int refreshRole(String roleName) {
+        if (roleName == null || roleName.trim().isEmpty()) {
+            throw new PermissionException(400, "角色名不能为空");
+        }
+        return roleGraphCache.refreshRole(roleName.trim());
+    }
+
     @Override
     @Transactional
-    public boolean grantPermission(GrantPermissionRequestDTO request) {
+    public ExecutionPlanDTO grantPermission(GrantPermissionRequestDTO request) {
         logger.info("授予权限: {}", request);
         try {
             // 验证请求参数
-            validateGrantRequest(request);
-
-            // 处理每个权限类型
-            for (String permissionTypeStr : request.getPermissionTypes()) {
-                PermissionType permissionType = PermissionType.fromString(permissionTypeStr);
-                if (permissionType == null) {
-                    throw new PermissionException("无效的权限类型: " + permissionTypeStr);
-                }
-
-                boolean success = permissionRepository.grantPermission(
-                        request.getUsername(),
-                        request.getHost(),
-                        permissionType,
-                        request.getDatabaseName(),
-                        request.isAllDatabases(),
-                        request.isWithGrantOption(),
-                        request.getScopeType(),
-                        request.getViewScope(),
-                        request.getViewName());
-
-                if (!success) {
-                    throw new PermissionException("权限授予失败: " + permissionTypeStr);
-                }
-            }
+            batchValidator.validateGrants(Collections.singletonList(request));
 
+            GrantStatementPlanner planner = newPlanner();
+            addGrants(planner, request);
+            ExecutionPlanDTO plan = executePlan(planner, "权限授予");
             logger.info("权限授予成功");
-            return true;
+            return plan;
         } catch (PermissionException e) {
             logger.error("权限授予失败", e);
+            invalidateSnapshotUser(request);
             throw e;
         } catch (Exception e) {
             logger.error("权限授予失败", e);
+            invalidateSnapshotUser(request);
             throw new PermissionException("权限授予失败: " + e.getMessage(), e);
         }
     }
 
     @Override
     @Transactional
-    public boolean revokePermission(RevokePermissionRequestDTO request) {
+    public ExecutionPlanDTO revokePermission(RevokePermissionRequestDTO request) {
         logger.info("撤销权限: {}", request);
         try {
             // 验证请求参数
-            validateRevokeRequest(request);
-
-            // 处理每个权限类型
-            for (String permissionTypeStr : request.getPermissionTypes()) {
-                PermissionType permissionType = PermissionType.fromString(permissionTypeStr);
-                if (permissionType == null) {
-                    throw new PermissionException("无效的权限类型: " + permissionTypeStr);
-                }
-
-                boolean success = permissionRepository.revokePermission(
-                        request.getUsername(),
-                        request.getHost(),
-                        permissionType,
-                        request.getDatabaseName(),
-                        request.isAllDatabases(),
-                        request.getScopeType(),
-                        request.getViewScope(),
-                        request.getViewName());
-
-                if (!success) {
-                    throw new PermissionException("权限撤销失败: " + permissionTypeStr);
-                }
-            }
+            batchValidator.validateRevokes(Collections.singletonList(request));
 
+            GrantStatementPlanner planner = newPlanner();
+            addRevokes(planner, request);
+            ExecutionPlanDTO plan = executePlan(planner, "权限撤销");
             logger.info("权限撤销成功");
-            return true;
+            return plan;
         } catch (PermissionException e) {
             logger.error("权限撤销失败", e);
+            invalidateSnapshotUser(request);
             throw e;
         } catch (Exception e) {
             logger.error("权限撤销失败", e);
+            invalidateSnapshotUser(request);
             throw new PermissionException("权限撤销失败: " + e.getMessage(), e);
         }
     }
@@ -178,7 +509,7 @@ public class PermissionServiceImpl implements PermissionService {
     public boolean userExists(String username, String host) {
         logger.info("检查用户是否存在: username={}, host={}", username, host);
         try {
-            boolean exists = permissionRepository.userExists(username);
+            boolean exists = userIdentityRegistry.exists(username, host);
             logger.info("用户存在检查结果: {}", exists);
             return exists;
         } catch (Exception e) {
@@ -188,203 +519,944 @@ public class PermissionServiceImpl implements PermissionService {
     }
 
     @Override
-    @Transactional
-    public boolean batchGrantPermissions(List<GrantPermissionRequestDTO> requests) {
+    public BatchReportDTO batchGrantPermissions(List<GrantPermissionRequestDTO> requests) {
         logger.info("批量授予权限，共{}个请求", requests.size());
+        batchValidator.validateGrants(requests);
+        return executeBatch(createGrantTasks(requests, 0, Collections.emptyList()), "批量授予权限");
+    }
+
+    @Override
+    public BatchReportDTO batchRevokePermissions(List<RevokePermissionRequestDTO> requests) {
+        logger.info("批量撤销权限，共{}个请求", requests.size());
+        batchValidator.validateRevokes(requests);
+        return executeBatch(createRevokeTasks(requests, 0, Collections.emptyList()), "批量撤销权限");
+    }
+
+    @Override
+    public BatchJobDTO submitBatchGrantJob(List<GrantPermissionRequestDTO> requests) {
+        logger.info("提交批量授予权限任务，共{}个请求", requests != null ? requests.size() : 0);
+        BatchJob job = new BatchJob();
+        job.setOperation(BatchJob.Operation.GRANT);
+        job.setGrantRequests(requests != null ? new ArrayList<>(requests) : new ArrayList<>());
+        batchValidator.validateGrants(job.getGrantRequests());
+        return batchJobManager.submit(job, this::runBatchJobChunk);
+    }
+
+    @Override
+    public BatchJobDTO submitBatchRevokeJob(List<RevokePermissionRequestDTO> requests) {
+        logger.info("提交批量撤销权限任务，共{}个请求", requests != null ? requests.size() : 0);
+        BatchJob job = new BatchJob();
+        job.setOperation(BatchJob.Operation.REVOKE);
+        job.setRevokeRequests(requests != null ? new ArrayList<>(requests) : new ArrayList<>());
+        batchValidator.validateRevokes(job.getRevokeRequests());
+        return batchJobManager.submit(job, this::runBatchJobChunk);
+    }
+
+    @Override
+    public BatchJobDTO getBatchJob(String jobId, Integer itemsFrom) {
+        return batchJobManager.getJob(jobId, itemsFrom);
+    }
+
+    @Override
+    public List<BatchJobDTO> listBatchJobs() {
+        return batchJobManager.listJobs();
+    }
+
+    @Override
+    public BatchJobDTO cancelBatchJob(String jobId) {
+        logger.info("取消批量任务: {}", jobId);
+        return batchJobManager.cancel(jobId);
+    }
+
+    /**
+     * 应用启动完成后恢复服务重启前未结束的批量任务
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeBatchJobs() {
+        batchJobManager.resume(this::runBatchJobChunk);
+    }
+
+    @Override
+    public SnapshotInfoDTO getSnapshotInfo() {
+        return convertToSnapshotInfo(snapshotCache.getSnapshot());
+    }
+
+    @Override
+    public SnapshotInfoDTO refreshSnapshot() {
+        logger.info("手动刷新权限快照");
         try {
-            for (GrantPermissionRequestDTO request : requests) {
-                grantPermission(request);
-            }
-            logger.info("批量授予权限成功");
-            return true;
+            return convertToSnapshotInfo(snapshotCache.refresh());
+        } catch (PermissionException e) {
+            throw e;
         } catch (Exception e) {
-            logger.error("批量授予权限失败", e);
-            throw new PermissionException("批量授予权限失败: " + e.getMessage(), e);
+            logger.error("刷新权限快照失败", e);
+            throw new PermissionException("刷新权限快照失败: " + e.getMessage(), e);
         }
     }
 
     @Override
-    @Transactional
-    public boolean batchRevokePermissions(List<RevokePermissionRequestDTO> requests) {
-        logger.info("批量撤销权限，共{}个请求", requests.size());
+    public SnapshotInfoDTO refreshSnapshotIncrementally() {
+        logger.info("手动增量刷新权限快照");
+        try {
+            return convertToSnapshotInfo(snapshotCache.refreshIncrementally());
+        } catch (PermissionException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("增量刷新权限快照失败", e);
+            throw new PermissionException("增量刷新权限快照失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CatalogInfoDTO getCatalogInfo() {
+        return convertToCatalogInfo(catalogCache.getSnapshot());
+    }
+
+    @Override
+    public CatalogInfoDTO refreshCatalog() {
+        logger.info("手动刷新元数据缓存");
         try {
-            for (RevokePermissionRequestDTO request : requests) {
-                revokePermission(request);
+            return convertToCatalogInfo(catalogCache.refresh());
+        } catch (PermissionException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("刷新元数据缓存失败", e);
+            throw new PermissionException("刷新元数据缓存失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> getCatalogDatabaseNames() {
+        return catalogCache.getSnapshot().getDatabaseNames();
+    }
+
+    @Override
+    public CatalogDatabaseDTO getCatalogDatabase(String database) {
+        CatalogDatabase found = catalogCache.findDatabase(database);
+        if (found == null) {
+            throw new PermissionException(404, "数据库不存在: " + database);
+        }
+        CatalogDatabaseDTO dto = new CatalogDatabaseDTO();
+        dto.setName(found.getName());
+        dto.setTables(found.getTables());
+        dto.setViews(found.getViews());
+        dto.setMaterializedViews(found.getMaterializedViews());
+        return dto;
+    }
+
+    @Override
+    public TypeaheadResultDTO typeahead(String type, String prefix, String database, int limit) {
+        if (limit < 1 || limit > MAX_TYPEAHEAD_LIMIT) {
+            throw new PermissionException(400, "limit必须在1到" + MAX_TYPEAHEAD_LIMIT + "之间");
+        }
+        TypeaheadCache.Kind kind;
+        try {
+            kind = TypeaheadCache.Kind.fromString(type);
+        } catch (IllegalArgumentException e) {
+            throw new PermissionException(400, "无效的对象类型: " + type);
+        }
+        String qualifier = kind == TypeaheadCache.Kind.DATABASE || kind == TypeaheadCache.Kind.USER
+                ? null : emptyToNull(database);
+        PrefixIndex index = typeaheadCache.getIndex(kind, qualifier != null);
+
+        long start = System.nanoTime();
+        List<Integer> matches = index.search(qualifier, prefix, limit);
+        List<TypeaheadItemDTO> items = new ArrayList<>(matches.size());
+        for (int match : matches) {
+            TypeaheadItemDTO item = new TypeaheadItemDTO();
+            item.setName(index.getName(match));
+            if (kind == TypeaheadCache.Kind.USER) {
+                item.setHost(index.getQualifier(match));
+            } else if (kind != TypeaheadCache.Kind.DATABASE) {
+                item.setDatabase(index.getQualifier(match));
+            }
+            items.add(item);
+        }
+        TypeaheadResultDTO result = new TypeaheadResultDTO();
+        result.setType(kind.name());
+        result.setPrefix(prefix);
+        result.setDatabase(qualifier);
+        result.setItems(items);
+        result.setElapsedMicros((System.nanoTime() - start) / 1000);
+        return result;
+    }
+
+    @Override
+    public SseEmitter subscribePrivilegeEvents(String lastEventId) {
+        Long lastVersion = null;
+        if (lastEventId != null && !lastEventId.trim().isEmpty()) {
+            try {
+                lastVersion = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                // 无法识别的事件ID视为错过了事件，由广播器通知客户端重新加载
+                lastVersion = -1L;
+            }
+        }
+        return privilegeEventBroadcaster.subscribe(lastVersion);
+    }
+
+    @Override
+    public ReconcileResultDTO reconcile(String policy, boolean dryRun) {
+        DesiredState desired = policyReconciler.parse(policy);
+        PrivilegeSnapshot snapshot = snapshotCache.getSnapshot();
+        ReconcilePlan plan = policyReconciler.plan(desired, snapshot);
+
+        ReconcileResultDTO result = new ReconcileResultDTO();
+        result.setDryRun(dryRun);
+        result.setDesiredUserCount(plan.getDesiredUserCount());
+        result.setChangedUserCount(plan.getChanges().size());
+        result.setGrantCount(plan.getGrantCount());
+        result.setRevokeCount(plan.getRevokeCount());
+        result.setUnmanagedCount(plan.getUnmanagedCount());
+        result.setDiffMs(plan.getDiffMillis());
+        result.setSnapshotVersion(snapshot.getVersion());
+        int statementCount = 0;
+        for (GrantStatementPlanner planner : plan.getChanges().values()) {
+            statementCount += planner.plan().size();
+        }
+        result.setStatementCount(statementCount);
+        logger.info("策略同步: {}个用户中{}个需要变更，授予{}项，撤销{}项，共{}条语句，比较耗时{}ms，dryRun={}",
+                plan.getDesiredUserCount(), plan.getChanges().size(), plan.getGrantCount(), plan.getRevokeCount(),
+                statementCount, plan.getDiffMillis(), dryRun);
+
+        if (dryRun) {
+            List<ExecutionPlanDTO> plans = new ArrayList<>(plan.getChanges().size());
+            for (GrantStatementPlanner planner : plan.getChanges().values()) {
+                plans.add(previewStatements(planner));
             }
-            logger.info("批量撤销权限成功");
-            return true;
+            result.setPlans(plans);
+            return result;
+        }
+        List<BatchTask> tasks = new ArrayList<>(plan.getChanges().size());
+        int index = 0;
+        for (Map.Entry<UserIdentity, GrantStatementPlanner> change : plan.getChanges().entrySet()) {
+            GrantStatementPlanner planner = change.getValue();
+            tasks.add(new BatchTask(index++, change.getKey(), () -> executeStatements(planner, "策略同步")));
+        }
+        result.setReport(executeBatch(tasks, "策略同步"));
+        return result;
+    }
+
+    @Override
+    public ParseCacheStatsDTO getParseCacheStats() {
+        ParseCacheStatsDTO dto = new ParseCacheStatsDTO();
+        dto.setMaxEntries(grantParseCache.getMaxEntries());
+        dto.setSize(grantParseCache.size());
+        dto.setHits(grantParseCache.getHits());
+        dto.setMisses(grantParseCache.getMisses());
+        dto.setEvictions(grantParseCache.getEvictions());
+        dto.setBypasses(grantParseCache.getBypasses());
+        dto.setHitRate(grantParseCache.getHitRate());
+        return dto;
+    }
+
+    /**
+     * 授权/撤销成功后重新加载快照中的用户，加载失败不影响操作结果
+     * 
+     * @param username 用户名
+     * @param host 主机地址
+     */
+    private void refreshSnapshotUser(String username, String host) {
+        try {
+            snapshotCache.refreshUser(username, host);
         } catch (Exception e) {
-            logger.error("批量撤销权限失败", e);
-            throw new PermissionException("批量撤销权限失败: " + e.getMessage(), e);
+            logger.warn("刷新快照中的用户失败，已使其失效: username={}, host={}", username, host, e);
         }
     }
 
     /**
-     * 将User对象转换为UserPermissionDTO
+     * 把授权请求中的每个权限加入语句规划器
      * 
-     * @param user 用户对象
-     * @return 用户权限DTO
+     * @param planner 语句规划器
+     * @param request 授权请求DTO
+     * @throws PermissionException 权限类型无效时抛出
      */
-    private UserPermissionDTO convertToDTO(User user) {
-        UserPermissionDTO dto = new UserPermissionDTO();
-        dto.setUsername(user.getUsername());
-        dto.setHost(user.getHost());
-        dto.setHasGrantOption(user.isHasGrantOption());
+    private void addGrants(GrantStatementPlanner planner, GrantPermissionRequestDTO request) {
+        UserIdentity grantee = new UserIdentity(request.getUsername(), request.getHost());
+        for (String permissionTypeStr : request.getPermissionTypes()) {
+            PermissionType permissionType = permissionTypeStr != null
+                    ? PermissionType.lookup(permissionTypeStr.trim().toUpperCase(Locale.ROOT)) : null;
+            if (permissionType == null) {
+                throw new PermissionException("无效的权限类型: " + permissionTypeStr);
+            }
+            // 角色授权时databaseName为角色名
+            String object = permissionType == PermissionType.ROLE_GRANT ? request.getDatabaseName()
+                    : GrantStatementPlanner.objectClause(request.getScopeType(), request.getViewScope(),
+                    request.getDatabaseName(), request.getViewName(), request.isAllDatabases());
+            planner.grant(grantee, permissionType, object, request.isWithGrantOption());
+        }
+    }
 
-        List<UserPermissionDTO.PermissionDTO> permissionDTOs = new ArrayList<>();
-        if (user.getPermissions() != null) {
-            for (Permission permission : user.getPermissions()) {
-                UserPermissionDTO.PermissionDTO permissionDTO = new UserPermissionDTO.PermissionDTO();
-                permissionDTO.setPermissionType(permission.getPermissionType().toGrantString());
-                permissionDTO.setDatabaseName(permission.getDatabaseName());
-                permissionDTO.setAllDatabases(permission.isAllDatabases());
-                permissionDTO.setWithGrantOption(permission.isWithGrantOption());
-                permissionDTOs.add(permissionDTO);
+    /**
+     * 把撤销请求中的每个权限加入语句规划器
+     * 
+     * @param planner 语句规划器
+     * @param request 撤销权限请求DTO
+     * @throws PermissionException 权限类型无效时抛出
+     */
+    private void addRevokes(GrantStatementPlanner planner, RevokePermissionRequestDTO request) {
+        UserIdentity grantee = new UserIdentity(request.getUsername(), request.getHost());
+        for (String permissionTypeStr : request.getPermissionTypes()) {
+            PermissionType permissionType = permissionTypeStr != null
+                    ? PermissionType.lookup(permissionTypeStr.trim().toUpperCase(Locale.ROOT)) : null;
+            if (permissionType == null) {
+                throw new PermissionException("无效的权限类型: " + permissionTypeStr);
             }
+            String object = permissionType == PermissionType.ROLE_GRANT ? request.getDatabaseName()
+                    : GrantStatementPlanner.objectClause(request.getScopeType(), request.getViewScope(),
+                    request.getDatabaseName(), request.getViewName(), request.isAllDatabases());
+            planner.revoke(grantee, permissionType, object);
         }
+    }
 
-        dto.setPermissions(permissionDTOs);
-        return dto;
+    /**
+     * 创建语句规划器，启用差异规划时与用户当前的权限比较，跳过不会改变权限的项
+     * 
+     * @return 语句规划器
+     */
+    private GrantStatementPlanner newPlanner() {
+        return diffEnabled ? new GrantStatementPlanner(this::loadGrantState) : new GrantStatementPlanner();
     }
 
     /**
-     * 验证授权请求参数
+     * 创建在一批请求之间共享用户权限状态的语句规划器，每个用户在一批中只读取一次当前权限
+     * 同一用户的请求在同一通道中依次执行，后续请求基于前面请求更新后的状态判断
      * 
-     * @param request 授权请求DTO
+     * @param states 本批请求共享的用户权限状态
+     * @return 语句规划器
      */
-    private void validateGrantRequest(GrantPermissionRequestDTO request) {
-        if (request == null) {
-            throw new PermissionException("授权请求不能为空");
+    private GrantStatementPlanner newPlanner(Map<UserIdentity, GrantState> states) {
+        if (!diffEnabled) {
+            return new GrantStatementPlanner();
         }
+        return new GrantStatementPlanner(identity -> {
+            GrantState state = states.get(identity);
+            if (state == null) {
+                state = loadGrantState(identity);
+                if (state != null) {
+                    states.put(identity, state);
+                }
+            }
+            return state;
+        });
+    }
 
-        if (request.getPermissionTypes() == null || request.getPermissionTypes().isEmpty()) {
-            throw new PermissionException("权限类型不能为空");
+    /**
+     * 执行批量任务中的单个请求，规划时使用并更新本批共享的用户权限状态
+     * 规划失败或有语句执行失败时共享状态已与实际权限不符，丢弃该用户的状态，由下一个请求重新读取
+     * 
+     * @param states 本批请求共享的用户权限状态
+     * @param identity 用户标识
+     * @param request 把请求加入规划器的回调
+     * @param operation 操作名称，用于日志
+     * @return 执行计划
+     */
+    private ExecutionPlanDTO executeBatchItem(Map<UserIdentity, GrantState> states, UserIdentity identity,
+                                              Consumer<GrantStatementPlanner> request, String operation) {
+        try {
+            GrantStatementPlanner planner = newPlanner(states);
+            request.accept(planner);
+            ExecutionPlanDTO plan = executeStatements(planner, operation);
+            if (plan.getFailedCount() > 0) {
+                states.remove(identity);
+            }
+            return plan;
+        } catch (RuntimeException e) {
+            states.remove(identity);
+            throw e;
+        }
+    }
+
+    /**
+     * 从数据库读取用户当前直接拥有的权限，不使用快照，避免快照过期时跳过实际需要执行的语句
+     * 
+     * @param identity 用户标识
+     * @return 权限状态，读取失败或用户不存在时返回null，此时不跳过任何项
+     */
+    private GrantState loadGrantState(UserIdentity identity) {
+        try {
+            User user = permissionRepository.getUserPermissions(identity.getUsername(), identity.getHost());
+            return user != null && user.getLoadError() == null ? GrantState.of(user) : null;
+        } catch (Exception e) {
+            logger.warn("读取用户当前权限失败，不跳过任何授权项: {}", identity, e);
+            return null;
         }
+    }
 
-        if (request.isAllDatabases() && (request.getDatabaseName() == null || request.getDatabaseName().trim().isEmpty())) {
-            throw new PermissionException("当指定所有数据库时，数据库名称不能为空");
+    /**
+     * 执行规划出的语句并重新加载快照中受影响的用户，有语句失败时抛出异常
+     * 
+     * @param planner 语句规划器
+     * @param operation 操作名称，用于日志和错误信息
+     * @return 执行计划
+     * @throws PermissionException 有语句执行失败时抛出，错误信息包含第一条失败的语句
+     */
+    private ExecutionPlanDTO executePlan(GrantStatementPlanner planner, String operation) {
+        ExecutionPlanDTO plan = executeStatements(planner, operation);
+        Set<UserIdentity> affected = new LinkedHashSet<>();
+        for (PlannedStatementDTO statement : plan.getStatements()) {
+            affected.add(new UserIdentity(statement.getUsername(), statement.getHost()));
         }
+        for (UserIdentity identity : affected) {
+            refreshSnapshotUser(identity.getUsername(), identity.getHost());
+        }
+        String error = BatchExecutor.firstError(plan);
+        if (error != null) {
+            throw new PermissionException(operation + "失败，" + error);
+        }
+        return plan;
+    }
 
-        // 验证VIEW相关权限的字段
-        if ("VIEW".equals(request.getScopeType())) {
-            if (request.getViewScope() == null || request.getViewScope().trim().isEmpty()) {
-                throw new PermissionException("视图作用域不能为空");
+    /**
+     * 依次执行规划出的语句，单条语句失败不影响其他语句，不刷新快照
+     * 合并后的每条语句作用于不同的对象或角色，彼此独立
+     * 
+     * @param planner 语句规划器
+     * @param operation 操作名称，用于日志
+     * @return 执行计划，包含每条语句的执行结果
+     */
+    private ExecutionPlanDTO executeStatements(GrantStatementPlanner planner, String operation) {
+        List<PlannedStatement> statements = planner.plan();
+        List<SkippedPrivilege> skipped = planner.getSkipped();
+        logger.info("{}: {}个权限项合并为{}条语句，跳过{}项", operation, planner.getRequestedCount(), statements.size(),
+                skipped.size());
+        ExecutionPlanDTO plan = new ExecutionPlanDTO();
+        plan.setRequestedCount(planner.getRequestedCount());
+        plan.setStatementCount(statements.size());
+        List<PlannedStatementDTO> statementDTOs = new ArrayList<>(statements.size());
+        int executed = 0;
+        for (PlannedStatement statement : statements) {
+            PlannedStatementDTO dto = convertToStatementDTO(statement);
+            try {
+                permissionRepository.executeSql(statement.getSql());
+                dto.setExecuted(true);
+                executed++;
+            } catch (PermissionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.warn("{}: 语句执行失败: {}", operation, statement.getSql(), e);
+                dto.setError(cause.getMessage());
             }
-            
-            if ("SINGLE_VIEW".equals(request.getViewScope())) {
-                if (request.getViewName() == null || request.getViewName().trim().isEmpty()) {
-                    throw new PermissionException("视图名称不能为空");
+            statementDTOs.add(dto);
+        }
+        plan.setStatements(statementDTOs);
+        plan.setExecutedCount(executed);
+        plan.setFailedCount(statements.size() - executed);
+        List<SkippedPrivilegeDTO> skippedDTOs = new ArrayList<>(skipped.size());
+        for (SkippedPrivilege item : skipped) {
+            skippedDTOs.add(convertToSkippedDTO(item));
+        }
+        plan.setSkipped(skippedDTOs);
+        plan.setSkippedCount(skipped.size());
+        return plan;
+    }
+
+    /**
+     * 生成规划出的语句但不执行
+     * 
+     * @param planner 语句规划器
+     * @return 执行计划，所有语句均未执行
+     */
+    private ExecutionPlanDTO previewStatements(GrantStatementPlanner planner) {
+        List<PlannedStatement> statements = planner.plan();
+        ExecutionPlanDTO plan = new ExecutionPlanDTO();
+        plan.setRequestedCount(planner.getRequestedCount());
+        plan.setStatementCount(statements.size());
+        List<PlannedStatementDTO> statementDTOs = new ArrayList<>(statements.size());
+        for (PlannedStatement statement : statements) {
+            statementDTOs.add(convertToStatementDTO(statement));
+        }
+        plan.setStatements(statementDTOs);
+        plan.setSkipped(new ArrayList<>());
+        return plan;
+    }
+
+    /**
+     * 为授权请求创建批量任务
+     * 
+     * @param requests 授权请求DTO列表
+     * @param offset 第一个请求在整个批量请求中的下标
+     * @param invalid 未通过校验的请求，对应的任务直接失败
+     * @return 批量任务
+     */
+    private List<BatchTask> createGrantTasks(List<GrantPermissionRequestDTO> requests, int offset,
+                                           List<ValidationErrorDTO> invalid) {
+        Map<Integer, String> errors = errorsByIndex(invalid);
+        Map<UserIdentity, GrantState> states = new ConcurrentHashMap<>();
+        List<BatchTask> tasks = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            GrantPermissionRequestDTO request = requests.get(i);
+            UserIdentity identity = request != null ? identityOf(request.getUsername(), request.getHost()) : null;
+            String error = errors.get(offset + i);
+            tasks.add(new BatchTask(offset + i, identity, () -> {
+                if (error != null) {
+                    throw new PermissionException(400, error);
                 }
-                if (request.getDatabaseName() == null || request.getDatabaseName().trim().isEmpty()) {
-                    throw new PermissionException("视图所在数据库名称不能为空");
+                requireIdentity(identity);
+                return executeBatchItem(states, identity, planner -> addGrants(planner, request), "批量授予权限");
+            }));
+        }
+        return tasks;
+    }
+
+    /**
+     * 为撤销权限请求创建批量任务
+     * 
+     * @param requests 撤销权限请求DTO列表
+     * @param offset 第一个请求在整个批量请求中的下标
+     * @param invalid 未通过校验的请求，对应的任务直接失败
+     * @return 批量任务
+     */
+    private List<BatchTask> createRevokeTasks(List<RevokePermissionRequestDTO> requests, int offset,
+                                           List<ValidationErrorDTO> invalid) {
+        Map<Integer, String> errors = errorsByIndex(invalid);
+        Map<UserIdentity, GrantState> states = new ConcurrentHashMap<>();
+        List<BatchTask> tasks = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            RevokePermissionRequestDTO request = requests.get(i);
+            UserIdentity identity = request != null ? identityOf(request.getUsername(), request.getHost()) : null;
+            String error = errors.get(offset + i);
+            tasks.add(new BatchTask(offset + i, identity, () -> {
+                if (error != null) {
+                    throw new PermissionException(400, error);
                 }
-            } else if ("ALL_VIEWS_IN_DATABASE".equals(request.getViewScope())) {
-                if (request.getDatabaseName() == null || request.getDatabaseName().trim().isEmpty()) {
-                    throw new PermissionException("数据库名称不能为空");
+                requireIdentity(identity);
+                return executeBatchItem(states, identity, planner -> addRevokes(planner, request), "批量撤销权限");
+            }));
+        }
+        return tasks;
+    }
+
+    /**
+     * 执行异步批量任务中的一块请求
+     * 
+     * @param job 批量任务
+     * @param from 起始下标（包含）
+     * @param to 结束下标（不包含）
+     * @return 每个请求的结果
+     */
+    private List<BatchItemResultDTO> runBatchJobChunk(BatchJob job, int from, int to) {
+        // 提交时已经校验过，恢复执行时元数据可能已经变化，逐块重新校验，未通过的请求记为失败
+        List<BatchTask> tasks;
+        if (job.getOperation() == BatchJob.Operation.GRANT) {
+            List<GrantPermissionRequestDTO> requests = job.getGrantRequests().subList(from, to);
+            tasks = createGrantTasks(requests, from, batchValidator.checkGrants(requests, from));
+        } else {
+            List<RevokePermissionRequestDTO> requests = job.getRevokeRequests().subList(from, to);
+            tasks = createRevokeTasks(requests, from, batchValidator.checkRevokes(requests, from));
+        }
+        return executeItems(tasks);
+    }
+
+    /**
+     * 并行执行批量任务
+     * 每个用户的请求全部成功后在该通道的线程中重新读取该用户，全部执行完毕后一次写入快照，只发布一个快照版本；
+     * 有请求失败或重新读取失败时使其失效，由下次读取时重新加载
+     * 
+     * @param tasks 批量任务
+     * @return 每个请求的结果
+     */
+    private List<BatchItemResultDTO> executeItems(List<BatchTask> tasks) {
+        Map<UserIdentity, User> refreshed = new ConcurrentHashMap<>();
+        try {
+            return batchExecutor.execute(tasks, (identity, allSucceeded) -> {
+                if (allSucceeded) {
+                    try {
+                        refreshed.put(identity, permissionRepository.getUserPermissions(identity.getUsername(),
+                                identity.getHost()));
+                        return;
+                    } catch (Exception e) {
+                        logger.warn("重新读取用户权限失败，已使其失效: {}", identity, e);
+                    }
                 }
-            }
-            // ALL_VIEWS_IN_ALL_DATABASES 不需要额外的验证
+                snapshotCache.invalidateUser(identity.getUsername(), identity.getHost());
+            });
+        } finally {
+            // 中断时已完成的用户同样写入快照
+            snapshotCache.putUsers(refreshed.values());
         }
-        
-        // 验证MATERIALIZED_VIEW相关权限的字段
-        if ("MATERIALIZED_VIEW".equals(request.getScopeType())) {
-            if (request.getViewScope() == null || request.getViewScope().trim().isEmpty()) {
-                throw new PermissionException("物化视图作用域不能为空");
+    }
+
+    /**
+     * 并行执行批量任务并汇总报告
+     * 
+     * @param tasks 批量任务
+     * @param operation 操作名称，用于日志
+     * @return 批量操作报告
+     */
+    private BatchReportDTO executeBatch(List<BatchTask> tasks, String operation) {
+        long start = System.currentTimeMillis();
+        List<BatchItemResultDTO> items = executeItems(tasks);
+
+        BatchReportDTO report = new BatchReportDTO();
+        report.setTotal(items.size());
+        int succeeded = 0;
+        Set<UserIdentity> users = new LinkedHashSet<>();
+        for (BatchItemResultDTO item : items) {
+            if (item.isSuccess()) {
+                succeeded++;
             }
-            
-            if ("SINGLE_VIEW".equals(request.getViewScope())) {
-                if (request.getViewName() == null || request.getViewName().trim().isEmpty()) {
-                    throw new PermissionException("物化视图名称不能为空");
-                }
-                if (request.getDatabaseName() == null || request.getDatabaseName().trim().isEmpty()) {
-                    throw new PermissionException("物化视图所在数据库名称不能为空");
-                }
-            } else if ("ALL_VIEWS_IN_DATABASE".equals(request.getViewScope())) {
-                if (request.getDatabaseName() == null || request.getDatabaseName().trim().isEmpty()) {
-                    throw new PermissionException("数据库名称不能为空");
-                }
+            if (item.getUsername() != null && item.getHost() != null) {
+                users.add(new UserIdentity(item.getUsername(), item.getHost()));
             }
-            // ALL_VIEWS_IN_ALL_DATABASES 不需要额外的验证
         }
-        
-        // 验证TABLE相关权限的字段
-        if ("TABLE".equals(request.getScopeType())) {
-            if (request.isAllDatabases() && (request.getDatabaseName() == null || request.getDatabaseName().trim().isEmpty())) {
-                throw new PermissionException("当指定所有数据库时，数据库名称不能为空");
-            }
+        report.setSucceeded(succeeded);
+        report.setFailed(items.size() - succeeded);
+        report.setUserCount(users.size());
+        report.setElapsedMs(System.currentTimeMillis() - start);
+        report.setItems(items);
+        logger.info("{}完成: 共{}个请求，成功{}个，失败{}个，涉及{}个用户，耗时{}ms", operation, report.getTotal(),
+                report.getSucceeded(), report.getFailed(), report.getUserCount(), report.getElapsedMs());
+        return report;
+    }
+
+    /**
+     * 按请求下标汇总校验错误，同一请求的多个错误以分号连接
+     * 
+     * @param errors 校验错误列表
+     * @return 请求下标到错误信息的映射
+     */
+    private static Map<Integer, String> errorsByIndex(List<ValidationErrorDTO> errors) {
+        Map<Integer, String> result = new HashMap<>();
+        for (ValidationErrorDTO error : errors) {
+            result.merge(error.getIndex(), error.getMessage(), (a, b) -> a + "; " + b);
         }
-        
-        // SYSTEM权限不需要额外的验证，只要指定了作用域类型即可
+        return result;
+    }
 
-        // 检查用户是否存在
-        if (!permissionRepository.userExists(request.getUsername())) {
-            throw new PermissionException("用户不存在: " + request.getUsername() + "@" + request.getHost());
+    /**
+     * 由用户名和主机地址构造用户标识
+     * 
+     * @param username 用户名
+     * @param host 主机地址
+     * @return 用户标识，用户名或主机地址为空时返回null
+     */
+    private static UserIdentity identityOf(String username, String host) {
+        if (username == null || username.trim().isEmpty() || host == null || host.trim().isEmpty()) {
+            return null;
         }
+        return new UserIdentity(username, host);
     }
 
     /**
-     * 验证撤销权限请求参数
+     * 检查批量请求中的用户标识
+     * 
+     * @param identity 用户标识
+     * @throws PermissionException 用户名或主机地址为空时抛出
+     */
+    private static void requireIdentity(UserIdentity identity) {
+        if (identity == null) {
+            throw new PermissionException("用户名和主机地址不能为空");
+        }
+    }
+
+    /**
+     * 授权失败后使快照中的用户失效，部分权限可能已经生效
+     * 
+     * @param request 授权请求DTO
+     */
+    private void invalidateSnapshotUser(GrantPermissionRequestDTO request) {
+        if (request != null && request.getUsername() != null && request.getHost() != null) {
+            snapshotCache.invalidateUser(request.getUsername(), request.getHost());
+        }
+    }
+
+    /**
+     * 撤销失败后使快照中的用户失效，部分权限可能已经撤销
      * 
      * @param request 撤销权限请求DTO
      */
-    private void validateRevokeRequest(RevokePermissionRequestDTO request) {
-        if (request == null) {
-            throw new PermissionException("撤销权限请求不能为空");
+    private void invalidateSnapshotUser(RevokePermissionRequestDTO request) {
+        if (request != null && request.getUsername() != null && request.getHost() != null) {
+            snapshotCache.invalidateUser(request.getUsername(), request.getHost());
         }
+    }
 
-        if (request.getPermissionTypes() == null || request.getPermissionTypes().isEmpty()) {
-            throw new PermissionException("权限类型不能为空");
+    /**
+     * 解析排序字段
+     *
+     * @param sort 排序字段字符串
+     * @return 排序字段
+     * @throws PermissionException 排序字段无效时抛出
+     */
+    private UserOrderIndex.SortKey parseSortKey(String sort) {
+        try {
+            return UserOrderIndex.SortKey.fromString(sort);
+        } catch (IllegalArgumentException e) {
+            throw new PermissionException(400, "无效的排序字段: " + sort);
         }
+    }
 
-        if (request.isAllDatabases() && (request.getDatabaseName() == null || request.getDatabaseName().trim().isEmpty())) {
-            throw new PermissionException("当指定所有数据库时，数据库名称不能为空");
+    /**
+     * 使用权限检查索引检查单项权限，用户不在快照中但确实存在时，先加载该用户再检查
+     *
+     * @param index 权限检查索引
+     * @param request 检查请求
+     * @return 检查结果
+     * @throws PermissionException 权限类型或对象类型无效时抛出
+     */
+    private PermissionCheckResultDTO checkPermission(PrivilegeCheckIndex index, PermissionCheckRequestDTO request) {
+        PermissionType permissionType = parsePermissionType(request.getPermissionType());
+        if (permissionType == null) {
+            throw new PermissionException(400, "权限类型不能为空");
         }
+        String objectType = request.getObjectType() == null || request.getObjectType().trim().isEmpty()
+                ? GrantObjectType.DATABASE.name() : request.getObjectType();
+        GrantObject target = parseGrantObject(objectType, request.getDatabase(), request.getName());
 
-        // 验证VIEW相关权限的字段
-        if ("VIEW".equals(request.getScopeType())) {
-            if (request.getViewScope() == null || request.getViewScope().trim().isEmpty()) {
-                throw new PermissionException("视图作用域不能为空");
-            }
-            
-            if ("SINGLE_VIEW".equals(request.getViewScope())) {
-                if (request.getViewName() == null || request.getViewName().trim().isEmpty()) {
-                    throw new PermissionException("视图名称不能为空");
-                }
-                if (request.getDatabaseName() == null || request.getDatabaseName().trim().isEmpty()) {
-                    throw new PermissionException("视图所在数据库名称不能为空");
-                }
-            } else if ("ALL_VIEWS_IN_DATABASE".equals(request.getViewScope())) {
-                if (request.getDatabaseName() == null || request.getDatabaseName().trim().isEmpty()) {
-                    throw new PermissionException("数据库名称不能为空");
-                }
-            }
-            // ALL_VIEWS_IN_ALL_DATABASES 不需要额外的验证
+        PermissionCheckResultDTO result = newCheckResult(request);
+        result.setObjectType(target.getType().name());
+        String username = request.getUsername();
+        String host = request.getHost();
+        if (username == null || host == null) {
+            result.setMessage("用户名和主机地址不能为空");
+            return result;
         }
-        
-        // 验证MATERIALIZED_VIEW相关权限的字段
-        if ("MATERIALIZED_VIEW".equals(request.getScopeType())) {
-            if (request.getViewScope() == null || request.getViewScope().trim().isEmpty()) {
-                throw new PermissionException("物化视图作用域不能为空");
-            }
-            
-            if ("SINGLE_VIEW".equals(request.getViewScope())) {
-                if (request.getViewName() == null || request.getViewName().trim().isEmpty()) {
-                    throw new PermissionException("物化视图名称不能为空");
-                }
-                if (request.getDatabaseName() == null || request.getDatabaseName().trim().isEmpty()) {
-                    throw new PermissionException("物化视图所在数据库名称不能为空");
-                }
-            } else if ("ALL_VIEWS_IN_DATABASE".equals(request.getViewScope())) {
-                if (request.getDatabaseName() == null || request.getDatabaseName().trim().isEmpty()) {
-                    throw new PermissionException("数据库名称不能为空");
-                }
+        UserIdentity identity = new UserIdentity(username, host);
+        PrivilegeCheckIndex.Result checked = index.check(identity, permissionType, target);
+        if (checked == null && userIdentityRegistry.exists(username, host)) {
+            snapshotCache.getUser(username, host);
+            checked = privilegeCheckCache.getIndex().check(identity, permissionType, target);
+        }
+        if (checked == null) {
+            result.setMessage("用户不存在: " + username + "@" + host);
+            return result;
+        }
+        result.setAllowed(checked.isAllowed());
+        result.setMatchedOn(checked.isAllowed() ? checked.getMatchedOn().describe() : null);
+        return result;
+    }
+
+    /**
+     * 创建回显请求内容的检查结果
+     */
+    private PermissionCheckResultDTO newCheckResult(PermissionCheckRequestDTO request) {
+        PermissionCheckResultDTO result = new PermissionCheckResultDTO();
+        result.setUsername(request.getUsername());
+        result.setHost(request.getHost());
+        result.setPermissionType(request.getPermissionType());
+        result.setObjectType(request.getObjectType());
+        result.setDatabase(request.getDatabase());
+        result.setName(request.getName());
+        return result;
+    }
+
+    /**
+     * 根据查询条件构建授权对象
+     *
+     * @param objectType 对象类型
+     * @param database 对象所属数据库
+     * @param name 对象名称
+     * @return 授权对象
+     * @throws PermissionException 对象类型无效或不支持时抛出
+     */
+    private GrantObject parseGrantObject(String objectType, String database, String name) {
+        GrantObjectType type;
+        try {
+            type = GrantObjectType.fromString(objectType);
+        } catch (IllegalArgumentException e) {
+            throw new PermissionException(400, "无效的对象类型: " + objectType);
+        }
+        if (type == GrantObjectType.ROLE || type == GrantObjectType.OTHER) {
+            throw new PermissionException(400, "不支持查询该类型的对象: " + objectType);
+        }
+        GrantObject target = new GrantObject(type, emptyToNull(database), emptyToNull(name));
+        if (type.isDatabaseChild() && target.getDatabase() == null && target.getName() != null) {
+            throw new PermissionException(400, "查询具体对象时必须指定数据库");
+        }
+        return target;
+    }
+
+    /**
+     * 解析查询条件中的权限类型
+     *
+     * @param permissionType 权限类型字符串
+     * @return 权限类型，为空时返回null
+     * @throws PermissionException 权限类型无效时抛出
+     */
+    private PermissionType parsePermissionType(String permissionType) {
+        if (permissionType == null || permissionType.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return PermissionType.fromString(permissionType);
+        } catch (IllegalArgumentException e) {
+            throw new PermissionException(400, "无效的权限类型: " + permissionType);
+        }
+    }
+
+    /**
+     * 将空字符串转换为null
+     */
+    private String emptyToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    /**
+     * 将用户摘要转换为DTO
+     *
+     * @param summary 用户摘要
+     * @return 用户摘要DTO
+     */
+    private UserSummaryDTO convertToSummaryDTO(UserSummary summary) {
+        UserSummaryDTO dto = new UserSummaryDTO();
+        dto.setUsername(summary.getUsername());
+        dto.setHost(summary.getHost());
+        dto.setPermissionCount(summary.getPermissionCount());
+        dto.setHasGrantOption(summary.isHasGrantOption());
+        dto.setRoles(summary.getRoles());
+        dto.setLoadError(summary.getLoadError());
+        return dto;
+    }
+
+    /**
+     * 将用户标识编码为分页游标
+     * 
+     * @param identity 用户标识
+     * @return 分页游标
+     */
+    private String encodeCursor(UserIdentity identity) {
+        String raw = identity.getUsername() + '\u0000' + identity.getHost();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 将分页游标解码为用户标识
+     * 
+     * @param cursor 分页游标
+     * @return 用户标识，游标为空时返回null
+     */
+    private UserIdentity decodeCursor(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('\u0000');
+            if (separator < 0) {
+                throw new IllegalArgumentException("missing separator");
             }
-            // ALL_VIEWS_IN_ALL_DATABASES 不需要额外的验证
+            return new UserIdentity(raw.substring(0, separator), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new PermissionException(400, "无效的分页游标: " + cursor);
         }
+    }
+
+    /**
+     * 将元数据快照转换为DTO
+     * 
+     * @param snapshot 元数据快照
+     * @return 元数据缓存信息DTO
+     */
+    private CatalogInfoDTO convertToCatalogInfo(CatalogSnapshot snapshot) {
+        CatalogInfoDTO dto = new CatalogInfoDTO();
+        dto.setVersion(snapshot.getVersion());
+        dto.setLoadedAt(snapshot.getLoadedAt());
+        dto.setDatabaseCount(snapshot.getDatabaseNames().size());
+        dto.setTableCount(snapshot.getTableCount());
+        dto.setViewCount(snapshot.getViewCount());
+        dto.setMaterializedViewCount(snapshot.getMaterializedViewCount());
+        dto.setLastRefreshAt(catalogCache.getLastRefreshAt());
+        dto.setLastFullRefreshAt(catalogCache.getLastFullRefreshAt());
+        dto.setLastRefreshElapsedMs(catalogCache.getLastRefreshElapsedMs());
+        dto.setLastReloadedDatabases(catalogCache.getLastReloadedDatabases());
+        return dto;
+    }
+
+    /**
+     * 将快照转换为SnapshotInfoDTO
+     * 
+     * @param snapshot 权限快照
+     * @return 快照信息DTO
+     */
+    private SnapshotInfoDTO convertToSnapshotInfo(PrivilegeSnapshot snapshot) {
+        SnapshotInfoDTO dto = new SnapshotInfoDTO();
+        dto.setVersion(snapshot.getVersion());
+        dto.setLoadedAt(snapshot.getLoadedAt());
+        dto.setAgeMillis(snapshot.getAgeMillis());
+        dto.setUserCount(snapshot.size());
+        dto.setRefreshing(snapshotCache.isRefreshing());
+        dto.setGrantCount(snapshot.getGrantCount());
+        dto.setObjectDictionarySize(snapshot.getObjectDictionarySize());
+        dto.setHostDictionarySize(snapshot.getHostDictionarySize());
+        dto.setFullReload(snapshot.isFullReload());
+        List<SnapshotChangeDTO> changes = new ArrayList<>(snapshot.getChanges().size());
+        for (UserChange change : snapshot.getChanges()) {
+            SnapshotChangeDTO changeDTO = new SnapshotChangeDTO();
+            changeDTO.setType(change.getType().name());
+            changeDTO.setUsername(change.getIdentity().getUsername());
+            changeDTO.setHost(change.getIdentity().getHost());
+            changes.add(changeDTO);
+        }
+        dto.setChanges(changes);
+        dto.setLastIncrementalRefreshAt(snapshotCache.getLastIncrementalRefreshAt());
+        dto.setLastIncrementalCheckedUsers(snapshotCache.getLastIncrementalCheckedUsers());
+        dto.setLastIncrementalReparsedUsers(snapshotCache.getLastIncrementalReparsedUsers());
+        return dto;
+    }
+
+    /**
+     * 将规划出的语句转换为PlannedStatementDTO
+     * 
+     * @param statement 规划出的语句
+     * @return 语句DTO
+     */
+    private PlannedStatementDTO convertToStatementDTO(PlannedStatement statement) {
+        PlannedStatementDTO dto = new PlannedStatementDTO();
+        dto.setAction(statement.getAction().name());
+        dto.setUsername(statement.getGrantee().getUsername());
+        dto.setHost(statement.getGrantee().getHost());
+        dto.setObject(statement.getObject());
+        dto.setPrivileges(statement.getPrivileges());
+        dto.setRoles(statement.getRoles());
+        dto.setWithGrantOption(statement.isWithGrantOption());
+        dto.setRequestedCount(statement.getRequestedCount());
+        dto.setSql(statement.getSql());
+        return dto;
+    }
+
+    /**
+     * 将跳过项转换为SkippedPrivilegeDTO
+     * 
+     * @param item 跳过项
+     * @return 跳过项DTO
+     */
+    private SkippedPrivilegeDTO convertToSkippedDTO(SkippedPrivilege item) {
+        SkippedPrivilegeDTO dto = new SkippedPrivilegeDTO();
+        dto.setAction(item.getAction().name());
+        dto.setUsername(item.getGrantee().getUsername());
+        dto.setHost(item.getGrantee().getHost());
+        dto.setPermissionType(item.getPermissionType().name());
+        dto.setObject(item.getObject());
+        dto.setReason(item.getReason());
+        return dto;
+    }
+
+    /**
+     * 将User对象转换为UserPermissionDTO
+     * 
+     * @param user 用户对象
+     * @return 用户权限DTO
+     */
+    private UserPermissionDTO convertToDTO(User user) {
+        UserPermissionDTO dto = new UserPermissionDTO();
+        dto.setUsername(user.getUsername());
+        dto.setHost(user.getHost());
+        dto.setHasGrantOption(user.isHasGrantOption());
+        dto.setLoadError(user.getLoadError());
 
-        // 检查用户是否存在
-        if (!permissionRepository.userExists(request.getUsername())) {
-            throw new PermissionException("用户不存在: " + request.getUsername() + "@" + request.getHost());
+        List<UserPermissionDTO.PermissionDTO> permissionDTOs = new ArrayList<>();
+        if (user.getPermissions() != null) {
+            for (Permission permission : user.getPermissions()) {
+                UserPermissionDTO.PermissionDTO permissionDTO = new UserPermissionDTO.PermissionDTO();
+                permissionDTO.setPermissionType(permission.getPrivilegeName());
+                permissionDTO.setDatabaseName(permission.getDatabaseName());
+                permissionDTO.setAllDatabases(permission.isAllDatabases());
+                permissionDTO.setWithGrantOption(permission.isWithGrantOption());
+                permissionDTOs.add(permissionDTO);
+            }
         }
+
+        dto.setPermissions(permissionDTOs);
+        return dto;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,17 @@
 // 主应用模块
 const App = (function() {
+    // 用户列表下一页的游标
+    let nextUserCursor = null;
+    // 正在进行的用户列表请求，新的请求发出时取消旧请求
+    let userListRequest = null;
+    // 权限变更事件连接，连接正常时授权/撤销后不再重新加载用户列表
+    let eventSource = null;
+    // 输入提示的防抖定时器和正在进行的请求，新的输入到来时取消旧请求
+    let typeaheadTimer = null;
+    let typeaheadRequest = null;
+    // 输入停止多久后才查询输入提示（毫秒）
+    const TYPEAHEAD_DELAY_MS = 150;
+
     // 初始化应用
     function init() {
         setupEventListeners();
@@ -8,6 +20,19 @@ const App = (function() {
 
     // 设置事件监听器
     function setupEventListeners() {
+        // 加载更多用户
+        $('#user-list-more').click(function() {
+            loadUserList(true);
+        });
+
+        // 搜索条件变化时实时查询
+        $('#search-username, #search-host, #search-database').on('input', function() {
+            loadUserList();
+        });
+        $('#search-permission-type, #search-grant-option').change(function() {
+            loadUserList();
+        });
+
         // 授予权限表单提交事件
         $('#grant-permission-form').submit(function(event) {
             event.preventDefault();
@@ -66,27 +91,163 @@ const App = (function() {
         });
         // 页面加载时初始化权限类型显示
         handlePermissionTypeDisplay();
+
+        // 用户名、数据库、表和视图名称的输入提示
+        $('#grant-username, #revoke-username, #grant-database, #revoke-database, ' +
+            '#grant-table-database, #revoke-table-database, #grant-view-database, #revoke-view-database, ' +
+            '#grant-table-name, #revoke-table-name, #grant-view-name, #revoke-view-name').on('input', function() {
+            scheduleTypeahead($(this));
+        });
+    }
+
+    // 根据输入框确定输入提示的对象类型和所在数据库
+    function getTypeaheadTarget(input) {
+        const id = input.attr('id');
+        const form = id.startsWith('grant-') ? 'grant' : 'revoke';
+        const field = id.substring(form.length + 1);
+        if (field === 'username') {
+            return { type: 'USER' };
+        }
+        if (field === 'table-name') {
+            return { type: 'TABLE', database: $(`#${form}-table-database`).val() };
+        }
+        if (field === 'view-name') {
+            const scopeType = $(`#${form}-scope-type`).val();
+            return {
+                type: scopeType === 'MATERIALIZED_VIEW' ? 'MATERIALIZED_VIEW' : 'VIEW',
+                database: $(`#${form}-view-database`).val()
+            };
+        }
+        return { type: 'DATABASE' };
+    }
+
+    // 输入停止一段时间后再查询输入提示，避免每次按键都发出请求
+    function scheduleTypeahead(input) {
+        clearTimeout(typeaheadTimer);
+        typeaheadTimer = setTimeout(function() {
+            loadTypeahead(input);
+        }, TYPEAHEAD_DELAY_MS);
+    }
+
+    // 查询输入提示并填充输入框对应的datalist
+    function loadTypeahead(input) {
+        const target = getTypeaheadTarget(input);
+        const datalist = $(`#${input.attr('list')}`);
+        if (typeaheadRequest) {
+            typeaheadRequest.abort();
+        }
+        const request = PermissionManager.typeahead(target.type, input.val(), target.database);
+        typeaheadRequest = request;
+        request
+            .done(function(response) {
+                if (response.code !== 200) {
+                    return;
+                }
+                datalist.empty();
+                response.data.items.forEach(function(item) {
+                    const option = $('<option>').attr('value', item.name);
+                    if (item.host) {
+                        option.text(`${item.name}@${item.host}`);
+                    } else if (item.database && !target.database) {
+                        option.text(`${item.database}.${item.name}`);
+                    }
+                    datalist.append(option);
+                });
+            })
+            .fail(function(xhr, status, error) {
+                if (status !== 'abort') {
+                    console.error('加载输入提示失败:', error);
+                }
+            })
+            .always(function() {
+                if (typeaheadRequest === request) {
+                    typeaheadRequest = null;
+                }
+            });
     }
 
     // 加载初始数据
     function loadInitialData() {
         loadUserList();
+        subscribePrivilegeEvents();
+    }
+
+    // 订阅权限变更事件，按事件增量更新用户列表
+    function subscribePrivilegeEvents() {
+        eventSource = UserManager.subscribeEvents({
+            // 服务端完整刷新或客户端错过了事件
+            'reload': function() {
+                loadUserList();
+            },
+            'user-added': function(event) {
+                // 有搜索条件或还有未加载的页时，新用户不一定属于当前列表
+                const appendIfMissing = !getUserSearchFilters() && !$('#user-list-more').is(':visible');
+                UserManager.applyUserEvent(event, appendIfMissing);
+            },
+            'user-updated': function(event) {
+                UserManager.applyUserEvent(event, false);
+            },
+            'user-removed': function(event) {
+                UserManager.removeUserRow(event.username, event.host);
+            }
+        });
+    }
+
+    // 事件连接正常时由事件更新列表，否则重新加载
+    function refreshAfterChange() {
+        if (!eventSource || eventSource.readyState !== EventSource.OPEN) {
+            loadUserList();
+        }
+    }
+
+    // 获取用户搜索条件，没有任何条件时返回null
+    function getUserSearchFilters() {
+        const filters = {
+            username: $('#search-username').val(),
+            host: $('#search-host').val(),
+            permissionType: $('#search-permission-type').val(),
+            database: $('#search-database').val(),
+            grantOption: $('#search-grant-option').val()
+        };
+        Object.keys(filters).forEach(function(key) {
+            if (!filters[key] || !filters[key].trim()) {
+                delete filters[key];
+            }
+        });
+        return Object.keys(filters).length > 0 ? filters : null;
     }
 
-    // 加载用户列表
-    function loadUserList() {
-        UserManager.loadUserList()
+    // 加载用户列表，append为true时加载下一页并追加到列表末尾；有搜索条件时使用搜索接口
+    function loadUserList(append) {
+        const filters = getUserSearchFilters();
+        const cursor = append ? nextUserCursor : null;
+        if (userListRequest) {
+            userListRequest.abort();
+        }
+        const request = filters ? UserManager.searchUsers(filters, cursor) : UserManager.loadUserList(cursor);
+        userListRequest = request;
+        request
             .done(function(response) {
                 if (response.code === 200) {
-                    UserManager.renderUserList(response.data);
+                    UserManager.renderUserList(response.data.items, append);
+                    nextUserCursor = response.data.nextCursor;
+                    $('#user-list-more').toggle(response.data.hasMore);
                 } else {
                     UIUtils.showMessage('错误', response.message, 'danger');
                 }
             })
             .fail(function(xhr, status, error) {
+                if (status === 'abort') {
+                    return;
+                }
                 console.error('加载用户列表失败:', error);
                 UIUtils.showMessage('错误', '加载用户列表失败: ' + xhr.responseText, 'danger');
-                $('#user-list-body').html('<tr><td colspan="5" class="text-center text-danger">加载用户列表失败，请刷新页面重试</td></tr>');
+                $('#user-list-body').html('<tr><td colspan="6" class="text-center text-danger">加载用户列表失败，请刷新页面重试</td></tr>');
+            })
+            .always(function() {
+                if (userListRequest === request) {
+                    userListRequest = null;
+                }
             });
     }
 
@@ -108,7 +269,7 @@ const App = (function() {
                 if (response.code === 200) {
                     UIUtils.showMessage('成功', '权限授予成功', 'success');
                     PermissionManager.resetGrantForm();
-                    loadUserList();
+                    refreshAfterChange();
                 } else {
                     UIUtils.showMessage('错误', response.message, 'danger');
                 }
@@ -515,7 +676,7 @@ const App = (function() {
                 if (response.code === 200) {
                     UIUtils.showMessage('成功', '权限撤销成功', 'success');
                     PermissionManager.resetRevokeForm();
-                    loadUserList();
+                    refreshAfterChange();
                 } else {
                     UIUtils.showMessage('错误', response.message, 'danger');
                 }
@@ -538,6 +699,18 @@ const App = (function() {
                 if (response.code === 200) {
                     UserManager.renderUserPermissions(response.data);
                     UIUtils.showModal('user-permissions-modal');
+                    // 用户被授予了角色时，继续加载通过角色继承的权限
+                    const hasRoles = (response.data.permissions || []).some(function(permission) {
+                        return permission.permissionType === 'ROLE_GRANT';
+                    });
+                    if (hasRoles) {
+                        UserManager.loadEffectivePrivileges(response.data.username, response.data.host)
+                            .done(function(effectiveResponse) {
+                                if (effectiveResponse.code === 200) {
+                                    UserManager.renderInheritedPrivileges(effectiveResponse.data);
+                                }
+                            });
+                    }
                 } else {
                     UIUtils.showMessage('错误', response.message, 'danger');
                 }
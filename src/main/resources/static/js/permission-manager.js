@@ -22,6 +22,19 @@ const PermissionManager = (function() {
         });
     }
 
+    // 查询名称输入提示，type为DATABASE、TABLE、VIEW、MATERIALIZED_VIEW或USER，database只对表和视图有效
+    function typeahead(type, prefix, database, limit) {
+        const params = { type: type, prefix: prefix, limit: limit || 10 };
+        if (database) {
+            params.database = database;
+        }
+        return $.ajax({
+            url: `${API_BASE_URL}/typeahead`,
+            type: 'GET',
+            data: params
+        });
+    }
+
     // 获取授予权限表单数据
     function getGrantFormData() {
         const username = $('#grant-username').val();
@@ -202,6 +215,7 @@ const PermissionManager = (function() {
     return {
         grantPermission,
         revokePermission,
+        typeahead,
         getGrantFormData,
         getRevokeFormData,
         validatePermissionTypes,
@@ -2,49 +2,131 @@
 
 const UserManager = (function() {
     const API_BASE_URL = '/starGuard/api/permission';
+    // 每页加载的用户数量
+    const PAGE_SIZE = 100;
 
-    // 加载用户列表
-    function loadUserList() {
+    // 分页加载用户摘要列表，cursor为空时加载第一页；完整权限在查看详情时再加载
+    function loadUserList(cursor) {
+        const params = { size: PAGE_SIZE };
+        if (cursor) {
+            params.cursor = cursor;
+        }
         return $.ajax({
-            url: `${API_BASE_URL}/users`,
+            url: `${API_BASE_URL}/users/summary`,
             type: 'GET',
+            data: params,
             dataType: 'json'
         });
     }
 
-    // 渲染用户列表
-    function renderUserList(users) {
+    // 按条件搜索用户，cursor为空时加载第一页
+    function searchUsers(filters, cursor) {
+        const params = Object.assign({ size: PAGE_SIZE }, filters);
+        if (cursor) {
+            params.cursor = cursor;
+        }
+        return $.ajax({
+            url: `${API_BASE_URL}/users/search`,
+            type: 'GET',
+            data: params,
+            dataType: 'json'
+        });
+    }
+
+    // 渲染用户列表，append为true时追加到已有列表末尾
+    function renderUserList(users, append) {
         const tbody = $('#user-list-body');
-        tbody.empty();
+        if (!append) {
+            tbody.empty();
+        }
 
         if (users && users.length > 0) {
+            tbody.find('.user-list-empty').remove();
             users.forEach(function(user) {
-                const hasGrantOption = user.hasGrantOption ?
-                    '<span class="badge badge-success">是</span>' :
-                    '<span class="badge badge-secondary">否</span>';
-                const permissionCount = user.permissions ? user.permissions.length : 0;
-                const permissionCountBadge = permissionCount > 0 ?
-                    `<span class="badge badge-info">${permissionCount}</span>` :
-                    '<span class="badge badge-warning">0</span>';
-
-                const row = `<tr>
-                    <td>${user.username}</td>
-                    <td>${user.host}</td>
-                    <td>${permissionCountBadge}</td>
-                    <td>${hasGrantOption}</td>
-                    <td>
-                        <button class="btn btn-sm btn-primary" onclick="showUserPermissions('${encodeURIComponent(user.username)}', '${encodeURIComponent(user.host)}')">
-                            <i class="fas fa-eye mr-1"></i>查看权限
-                        </button>
-                    </td>
-                </tr>`;
-                tbody.append(row);
+                tbody.append(buildUserRow(user));
             });
+        } else if (!append) {
+            tbody.append('<tr class="user-list-empty"><td colspan="6" class="text-center">暂无用户数据</td></tr>');
+        }
+    }
+
+    // 用户行的标识，用于按用户查找已渲染的行
+    function userKey(username, host) {
+        return encodeURIComponent(username) + '@' + encodeURIComponent(host);
+    }
+
+    // 查找已渲染的用户行
+    function findUserRow(username, host) {
+        const key = userKey(username, host);
+        return $('#user-list-body tr').filter(function() {
+            return $(this).attr('data-user-key') === key;
+        });
+    }
+
+    // 生成单个用户的表格行
+    function buildUserRow(user) {
+        const hasGrantOption = user.hasGrantOption ?
+            '<span class="badge badge-success">是</span>' :
+            '<span class="badge badge-secondary">否</span>';
+        // 权限数量和角色为null表示服务端暂未统计
+        const permissionCount = user.permissionCount;
+        let permissionCountBadge;
+        if (permissionCount === null || permissionCount === undefined) {
+            permissionCountBadge = '<span class="badge badge-light">-</span>';
+        } else if (permissionCount > 0) {
+            permissionCountBadge = `<span class="badge badge-info">${permissionCount}</span>`;
         } else {
-            tbody.append('<tr><td colspan="5" class="text-center">暂无用户数据</td></tr>');
+            permissionCountBadge = '<span class="badge badge-warning">0</span>';
+        }
+        const roles = user.roles ?
+            (user.roles.length > 0 ?
+                user.roles.map(role => `<span class="badge badge-primary mr-1">${role}</span>`).join('') :
+                '<span class="text-muted">无</span>') :
+            '<span class="text-muted">-</span>';
+
+        return `<tr data-user-key="${userKey(user.username, user.host)}">
+            <td>${user.username}</td>
+            <td>${user.host}</td>
+            <td>${permissionCountBadge}</td>
+            <td>${roles}</td>
+            <td>${hasGrantOption}</td>
+            <td>
+                <button class="btn btn-sm btn-primary" onclick="showUserPermissions('${encodeURIComponent(user.username)}', '${encodeURIComponent(user.host)}')">
+                    <i class="fas fa-eye mr-1"></i>查看权限
+                </button>
+            </td>
+        </tr>`;
+    }
+
+    // 根据变更事件更新已渲染的用户行，appendIfMissing为true时把不在列表中的用户追加到末尾
+    function applyUserEvent(event, appendIfMissing) {
+        const row = findUserRow(event.username, event.host);
+        if (row.length > 0) {
+            row.replaceWith(buildUserRow(event));
+        } else if (appendIfMissing) {
+            renderUserList([event], true);
         }
     }
 
+    // 从列表中移除用户行
+    function removeUserRow(username, host) {
+        findUserRow(username, host).remove();
+    }
+
+    // 订阅权限变更事件，handlers为事件类型到处理函数的映射；浏览器不支持SSE时返回null
+    function subscribeEvents(handlers) {
+        if (!window.EventSource) {
+            return null;
+        }
+        const source = new EventSource(`${API_BASE_URL}/events`);
+        Object.keys(handlers).forEach(function(type) {
+            source.addEventListener(type, function(message) {
+                handlers[type](JSON.parse(message.data));
+            });
+        });
+        return source;
+    }
+
     // 显示用户权限详情
     function showUserPermissions(username, host) {
         // 注意：需要对接收到的编码参数进行解码，以避免浏览器在URL中自动再次编码
@@ -101,10 +183,59 @@ const UserManager = (function() {
         }
     }
 
+    // 加载用户的有效权限（包含通过角色继承的权限）
+    function loadEffectivePrivileges(username, host) {
+        return $.ajax({
+            url: `${API_BASE_URL}/users/${encodeURIComponent(username)}/${encodeURIComponent(host)}/effective`,
+            type: 'GET',
+            dataType: 'json'
+        });
+    }
+
+    // 在权限详情下方渲染通过角色继承的权限及其来源路径
+    function renderInheritedPrivileges(effective) {
+        const content = $('#user-permissions-content');
+        const inherited = (effective.privileges || []).filter(function(privilege) {
+            return !privilege.direct;
+        });
+        content.append('<h5 class="mt-4">通过角色获得的权限</h5>');
+        if (inherited.length === 0) {
+            content.append('<div class="alert alert-info">角色未提供额外权限</div>');
+            return;
+        }
+        const rows = inherited.map(function(privilege) {
+            return `<tr>
+                <td><span class="badge badge-primary">${privilege.permissionType}</span></td>
+                <td>${privilege.databaseName}</td>
+                <td>${privilege.rolePath.join(' &rarr; ')}</td>
+                <td><span class="badge ${privilege.withGrantOption ? 'badge-warning' : 'badge-secondary'} p-1">${privilege.withGrantOption ? '是' : '否'}</span></td>
+            </tr>`;
+        }).join('');
+        content.append(`<div class="table-responsive">
+            <table class="table table-striped table-sm">
+                <thead class="thead-light">
+                    <tr>
+                        <th>权限类型</th>
+                        <th>对象</th>
+                        <th>来源角色</th>
+                        <th>With Grant Option</th>
+                    </tr>
+                </thead>
+                <tbody>${rows}</tbody>
+            </table>
+        </div>`);
+    }
+
     return {
         loadUserList,
+        searchUsers,
         renderUserList,
+        applyUserEvent,
+        removeUserRow,
+        subscribeEvents,
         showUserPermissions,
-        renderUserPermissions
+        renderUserPermissions,
+        loadEffectivePrivileges,
+        renderInheritedPrivileges
     };
 })();
\ No newline at end of file
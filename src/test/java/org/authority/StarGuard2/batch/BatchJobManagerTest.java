@@ -0,0 +1,139 @@
+package org.authority.StarGuard2.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.authority.StarGuard2.dto.BatchItemResultDTO;
+import org.authority.StarGuard2.dto.BatchJobDTO;
+import org.authority.StarGuard2.dto.GrantPermissionRequestDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 异步批量任务的日志：请求文件只写一次，每个检查点只追加该块的结果，重启后从检查点恢复
+ *
+ * @author System
+ * @version 1.0
+ */
+class BatchJobManagerTest {
+    private static final int CHUNK_SIZE = 2;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    void checkpointsAppendResultsWithoutRewritingRequests() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        BatchJobManager manager = newManager(executor);
+        List<int[]> chunks = new ArrayList<>();
+
+        BatchJobDTO submitted = manager.submit(grantJob(5), recordingRunner(chunks));
+        Path jobFile = journalDir.resolve(submitted.getId() + ".job.json");
+        byte[] requests = Files.readAllBytes(jobFile);
+        awaitIdle(executor);
+
+        assertEquals(3, chunks.size());
+        assertArrayEquals(requests, Files.readAllBytes(jobFile));
+        assertEquals(3, Files.readAllLines(journalDir.resolve(submitted.getId() + ".results.ndjson")).size());
+        BatchJobDTO finished = manager.getJob(submitted.getId(), null);
+        assertEquals("COMPLETED", finished.getStatus());
+        assertEquals(5, finished.getSucceeded());
+    }
+
+    @Test
+    void resumeDiscardsResultsPastCheckpointAndContinues() throws Exception {
+        ExecutorService firstExecutor = Executors.newSingleThreadExecutor();
+        BatchJobManager first = newManager(firstExecutor);
+        List<int[]> firstChunks = new ArrayList<>();
+        // 执行完第二块后模拟应用关闭
+        BatchJobDTO submitted = first.submit(grantJob(5), (job, from, to) -> {
+            firstChunks.add(new int[] {from, to});
+            if (firstChunks.size() == 2) {
+                first.stop();
+            }
+            return results(from, to);
+        });
+        awaitIdle(firstExecutor);
+        assertEquals(2, firstChunks.size());
+        // 模拟重启前正在执行的第三块：结果已写入一半，检查点尚未更新
+        Path resultsFile = journalDir.resolve(submitted.getId() + ".results.ndjson");
+        Files.write(resultsFile, "{\"from\":4,\"items\":[{\"ind".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        ExecutorService secondExecutor = Executors.newSingleThreadExecutor();
+        BatchJobManager second = newManager(secondExecutor);
+        List<int[]> secondChunks = new ArrayList<>();
+        second.resume(recordingRunner(secondChunks));
+        awaitIdle(secondExecutor);
+
+        assertEquals(1, secondChunks.size());
+        assertArrayEquals(new int[] {4, 5}, secondChunks.get(0));
+        BatchJobDTO resumed = second.getJob(submitted.getId(), 0);
+        assertEquals("COMPLETED", resumed.getStatus());
+        assertEquals(1, resumed.getResumeCount());
+        assertEquals(5, resumed.getItems().size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, resumed.getItems().get(i).getIndex());
+        }
+        List<String> lines = Files.readAllLines(resultsFile);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(2).startsWith("{\"from\":4,"));
+    }
+
+    private BatchJobManager newManager(ExecutorService executor) {
+        return new BatchJobManager(executor, objectMapper, journalDir.toString(), CHUNK_SIZE, 24);
+    }
+
+    private static BatchJob grantJob(int size) {
+        BatchJob job = new BatchJob();
+        job.setOperation(BatchJob.Operation.GRANT);
+        List<GrantPermissionRequestDTO> requests = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            GrantPermissionRequestDTO request = new GrantPermissionRequestDTO();
+            request.setUsername("user" + i);
+            request.setHost("%");
+            requests.add(request);
+        }
+        job.setGrantRequests(requests);
+        return job;
+    }
+
+    private static BatchJobManager.ChunkRunner recordingRunner(List<int[]> chunks) {
+        return (job, from, to) -> {
+            chunks.add(new int[] {from, to});
+            return results(from, to);
+        };
+    }
+
+    private static List<BatchItemResultDTO> results(int from, int to) {
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            BatchItemResultDTO result = new BatchItemResultDTO();
+            result.setIndex(i);
+            result.setUsername("user" + i);
+            result.setHost("%");
+            result.setSuccess(true);
+            results.add(result);
+        }
+        return results;
+    }
+
+    private static void awaitIdle(ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+}
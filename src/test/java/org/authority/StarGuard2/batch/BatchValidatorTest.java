@@ -0,0 +1,153 @@
+package org.authority.StarGuard2.batch;
+
+import org.authority.StarGuard2.cache.CatalogCache;
+import org.authority.StarGuard2.cache.UserIdentityRegistry;
+import org.authority.StarGuard2.dto.GrantPermissionRequestDTO;
+import org.authority.StarGuard2.dto.RevokePermissionRequestDTO;
+import org.authority.StarGuard2.dto.ValidationErrorDTO;
+import org.authority.StarGuard2.exception.BatchValidationException;
+import org.authority.StarGuard2.repository.PermissionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 批量请求校验器：逐项字段检查，以及按批汇总后每个不同的用户、角色、数据库、视图只检查一次
+ *
+ * @author System
+ * @version 1.0
+ */
+class BatchValidatorTest {
+    private PermissionRepository repository;
+    private UserIdentityRegistry registry;
+    private CatalogCache catalogCache;
+    private BatchValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PermissionRepository.class);
+        registry = mock(UserIdentityRegistry.class);
+        catalogCache = mock(CatalogCache.class);
+        when(registry.exists("alice", "%")).thenReturn(true);
+        when(repository.getAllRoleNames()).thenReturn(Arrays.asList("analyst", "etl"));
+        when(catalogCache.databaseExists("sales")).thenReturn(true);
+        when(catalogCache.viewExists("sales", "v_orders")).thenReturn(true);
+        validator = new BatchValidator(repository, registry, catalogCache);
+    }
+
+    @Test
+    void acceptsValidBatch() {
+        List<ValidationErrorDTO> errors = validator.checkGrants(Arrays.asList(
+                grant("alice", "DATABASE", "sales", "SELECT", "INSERT"),
+                view(grant("alice", "VIEW", "sales", "SELECT"), "SINGLE_VIEW", "v_orders"),
+                grant("alice", "DATABASE", "analyst", "ROLE_GRANT")), 0);
+
+        assertTrue(errors.isEmpty(), errors.toString());
+    }
+
+    @Test
+    void reportsFieldErrorsWithoutTouchingMetadata() {
+        GrantPermissionRequestDTO noUser = grant(null, "DATABASE", "sales", "SELECT");
+        GrantPermissionRequestDTO badType = grant("alice", "DATABASE", "sales", "FLY");
+        GrantPermissionRequestDTO noViewScope = grant("alice", "VIEW", "sales", "SELECT");
+
+        List<ValidationErrorDTO> errors = validator.checkGrants(Arrays.asList(noUser, null, badType, noViewScope), 10);
+
+        assertEquals(4, errors.size());
+        assertEquals(Arrays.asList(10, 11, 12, 13), Arrays.asList(errors.get(0).getIndex(), errors.get(1).getIndex(),
+                errors.get(2).getIndex(), errors.get(3).getIndex()));
+        assertEquals("username", errors.get(0).getField());
+        assertEquals("permissionTypes", errors.get(2).getField());
+        assertEquals("viewScope", errors.get(3).getField());
+        verify(registry, never()).exists(anyString(), anyString());
+        verify(catalogCache, never()).databaseExists(anyString());
+    }
+
+    @Test
+    void checksEachDistinctReferenceOnce() {
+        when(catalogCache.materializedViewExists("sales", "mv_daily")).thenReturn(false);
+
+        List<ValidationErrorDTO> errors = validator.checkGrants(Arrays.asList(
+                grant("alice", "DATABASE", "sales", "SELECT"),
+                grant("alice", "DATABASE", "sales", "INSERT"),
+                grant("bob", "DATABASE", "missing_db", "SELECT"),
+                grant("bob", "DATABASE", "missing_db", "INSERT"),
+                view(grant("alice", "MATERIALIZED_VIEW", "sales", "SELECT"), "SINGLE_VIEW", "mv_daily"),
+                grant("alice", "DATABASE", "ghost", "ROLE_GRANT"),
+                grant("alice", "DATABASE", "etl", "ROLE_GRANT")), 0);
+
+        assertEquals(6, errors.size(), errors.toString());
+        assertEquals("username", errors.get(0).getField());
+        assertEquals(2, errors.get(0).getIndex());
+        assertEquals("databaseName", errors.get(1).getField());
+        assertEquals("物化视图不存在: sales.mv_daily", errors.get(4).getMessage());
+        assertEquals("角色不存在: ghost", errors.get(5).getMessage());
+        verify(registry, times(1)).exists("alice", "%");
+        verify(registry, times(1)).exists("bob", "%");
+        verify(catalogCache, times(1)).databaseExists("sales");
+        verify(catalogCache, times(1)).databaseExists("missing_db");
+        verify(repository, times(1)).getAllRoleNames();
+    }
+
+    @Test
+    void skipsCatalogChecksWhenCacheUnavailable() {
+        when(catalogCache.databaseExists("sales")).thenThrow(new IllegalStateException("catalog down"));
+
+        List<ValidationErrorDTO> errors = validator.checkGrants(Collections.singletonList(
+                grant("alice", "DATABASE", "sales", "SELECT")), 0);
+
+        assertTrue(errors.isEmpty(), errors.toString());
+    }
+
+    @Test
+    void validateRevokesThrowsWithAllErrors() {
+        RevokePermissionRequestDTO unknownUser = new RevokePermissionRequestDTO();
+        unknownUser.setUsername("carol");
+        unknownUser.setHost("%");
+        unknownUser.setPermissionTypes(Collections.singletonList("SELECT"));
+        unknownUser.setScopeType("DATABASE");
+        unknownUser.setDatabaseName("sales");
+        RevokePermissionRequestDTO noDatabase = new RevokePermissionRequestDTO();
+        noDatabase.setUsername("alice");
+        noDatabase.setHost("%");
+        noDatabase.setPermissionTypes(Collections.singletonList("SELECT"));
+        noDatabase.setScopeType("DATABASE");
+
+        BatchValidationException e = assertThrows(BatchValidationException.class,
+                () -> validator.validateRevokes(Arrays.asList(unknownUser, noDatabase)));
+
+        assertEquals(400, e.getCode());
+        assertEquals(2, e.getErrors().size());
+        assertTrue(e.getMessage().startsWith("请求校验失败，共2个错误"), e.getMessage());
+    }
+
+    private static GrantPermissionRequestDTO grant(String username, String scopeType, String databaseName,
+                                                   String... permissionTypes) {
+        GrantPermissionRequestDTO request = new GrantPermissionRequestDTO();
+        request.setUsername(username);
+        request.setHost("%");
+        request.setScopeType(scopeType);
+        request.setDatabaseName(databaseName);
+        request.setPermissionTypes(Arrays.asList(permissionTypes));
+        return request;
+    }
+
+    private static GrantPermissionRequestDTO view(GrantPermissionRequestDTO request, String viewScope, String viewName) {
+        request.setViewScope(viewScope);
+        request.setViewName(viewName);
+        return request;
+    }
+}
@@ -0,0 +1,144 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.repository.PermissionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 元数据缓存的增量刷新：只重新加载签名变化或新增的数据库，处理删除的数据库，未命中时触发一次增量刷新
+ *
+ * @author System
+ * @version 1.0
+ */
+class CatalogCacheTest {
+    // 模拟的集群元数据：数据库名 -> 表名（签名为表数量）
+    private final Map<String, Set<String>> tables = new TreeMap<>();
+    private final Map<String, Set<String>> views = new TreeMap<>();
+    // 每次按数据库加载对象名时的过滤条件，null表示所有数据库
+    private final List<Collection<String>> filters = new ArrayList<>();
+    private CatalogCache cache;
+
+    @BeforeEach
+    void setUp() {
+        tables.put("sales", new HashSet<>(Arrays.asList("orders", "v_orders")));
+        tables.put("ods", new HashSet<>(Collections.singletonList("events")));
+        views.put("sales", new HashSet<>(Collections.singletonList("v_orders")));
+
+        PermissionRepository repository = mock(PermissionRepository.class);
+        when(repository.getDatabaseNames()).thenAnswer(invocation -> new ArrayList<>(tables.keySet()));
+        when(repository.getTableSignatures()).thenAnswer(invocation -> {
+            Map<String, String> signatures = new LinkedHashMap<>();
+            tables.forEach((database, names) -> signatures.put(database, names.size() + "@0"));
+            return signatures;
+        });
+        when(repository.getTableNames(any())).thenAnswer(invocation -> {
+            Collection<String> filter = invocation.getArgument(0);
+            filters.add(filter == null ? null : new TreeSet<>(filter));
+            return select(tables, filter);
+        });
+        when(repository.getViewNames(any())).thenAnswer(invocation -> select(views, invocation.getArgument(0)));
+        when(repository.getMaterializedViewNames(any())).thenReturn(Collections.emptyMap());
+
+        cache = new CatalogCache(repository);
+        ReflectionTestUtils.setField(cache, "fullRefreshEvery", 3);
+        ReflectionTestUtils.setField(cache, "minReloadIntervalMillis", 0L);
+    }
+
+    @Test
+    void incrementalRefreshWithoutChangesKeepsSnapshot() {
+        CatalogSnapshot loaded = cache.refresh();
+
+        assertSame(loaded, cache.refreshIncrementally());
+        assertEquals(0, cache.getLastReloadedDatabases());
+        assertEquals(Collections.singletonList(null), filters);
+    }
+
+    @Test
+    void incrementalRefreshReloadsOnlyChangedDatabases() {
+        CatalogSnapshot loaded = cache.refresh();
+        tables.get("sales").add("returns");
+        tables.put("dw", new HashSet<>(Collections.singletonList("fact")));
+
+        CatalogSnapshot next = cache.refreshIncrementally();
+
+        assertEquals(2, cache.getLastReloadedDatabases());
+        assertEquals(new HashSet<>(Arrays.asList("dw", "sales")), filters.get(1));
+        assertTrue(next.getDatabase("sales").containsTable("returns"));
+        assertTrue(next.getDatabase("sales").containsView("v_orders"));
+        assertTrue(next.getDatabase("dw").containsTable("fact"));
+        // 未变化的数据库沿用上一版本的对象
+        assertSame(loaded.getDatabase("ods"), next.getDatabase("ods"));
+    }
+
+    @Test
+    void incrementalRefreshDropsRemovedDatabases() {
+        cache.refresh();
+        tables.remove("ods");
+
+        CatalogSnapshot next = cache.refreshIncrementally();
+
+        assertEquals(0, cache.getLastReloadedDatabases());
+        assertEquals(Collections.singletonList("sales"), next.getDatabaseNames());
+        assertNull(next.getDatabase("ods"));
+    }
+
+    @Test
+    void missTriggersIncrementalRefresh() {
+        cache.refresh();
+        tables.put("dw", new HashSet<>(Collections.singletonList("fact")));
+        views.put("dw", new HashSet<>(Collections.singletonList("v_fact")));
+
+        assertTrue(cache.databaseExists("dw"));
+        assertTrue(cache.viewExists("dw", "v_fact"));
+        assertFalse(cache.viewExists("dw", "missing"));
+        assertEquals(Arrays.asList(null, Collections.singleton("dw")), filters.subList(0, 2));
+    }
+
+    @Test
+    void scheduledRefreshRunsFullReloadPeriodically() {
+        cache.refresh();
+        cache.scheduledRefresh();
+        cache.scheduledRefresh();
+        assertEquals(1, filters.size());
+
+        cache.scheduledRefresh();
+
+        assertEquals(2, filters.size());
+        assertNull(filters.get(1));
+    }
+
+    /**
+     * 按过滤条件选取数据库的对象名，过滤条件为null时返回所有数据库
+     */
+    private static Map<String, Set<String>> select(Map<String, Set<String>> source, Collection<String> filter) {
+        Map<String, Set<String>> result = new LinkedHashMap<>();
+        source.forEach((database, names) -> {
+            if (filter == null || filter.contains(database)) {
+                result.put(database, new HashSet<>(names));
+            }
+        });
+        return result;
+    }
+}
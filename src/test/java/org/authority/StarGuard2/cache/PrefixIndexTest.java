@@ -0,0 +1,100 @@
+package org.authority.StarGuard2.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 名称前缀索引：按长度、再按字典序排名，前缀和限定名均不区分大小写
+ *
+ * @author System
+ * @version 1.0
+ */
+class PrefixIndexTest {
+
+    @Test
+    void ranksByLengthThenAlphabetically() {
+        PrefixIndex index = PrefixIndex.build(Arrays.asList("orders_2024", "orders", "order_items", "ord", "other"),
+                null, false);
+
+        assertEquals(Arrays.asList("ord", "orders", "order_items", "orders_2024"), names(index, null, "ord", 10));
+    }
+
+    @Test
+    void exactMatchComesFirst() {
+        PrefixIndex index = PrefixIndex.build(Arrays.asList("salesx", "sales_eu", "sales", "sa"), null, false);
+
+        assertEquals("sales", names(index, null, "sales", 1).get(0));
+    }
+
+    @Test
+    void matchesPrefixCaseInsensitively() {
+        PrefixIndex index = PrefixIndex.build(Arrays.asList("Orders", "ORDER_ITEMS", "customers"), null, false);
+
+        assertEquals(Arrays.asList("Orders", "ORDER_ITEMS"), names(index, null, "oRd", 10));
+    }
+
+    @Test
+    void matchesQualifierCaseInsensitively() {
+        PrefixIndex index = PrefixIndex.build(Arrays.asList("orders", "returns", "orders"),
+                Arrays.asList("Sales", "Sales", "ods"), true);
+
+        List<Integer> matches = index.search("SALES", "", 10);
+
+        assertEquals(Arrays.asList("orders", "returns"), names(index, "SALES", "", 10));
+        assertEquals("Sales", index.getQualifier(matches.get(0)));
+        assertEquals(Collections.singletonList("orders"), names(index, "ods", "or", 10));
+    }
+
+    @Test
+    void returnsAtMostLimitItems() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            names.add("t" + i);
+        }
+        PrefixIndex index = PrefixIndex.build(names, null, false);
+
+        assertEquals(Arrays.asList("t1", "t10", "t11"), names(index, null, "t1", 3));
+        assertTrue(index.search(null, "t", 0).isEmpty());
+    }
+
+    @Test
+    void emptyPrefixMatchesEverything() {
+        PrefixIndex index = PrefixIndex.build(Arrays.asList("bb", "a", "ccc"), null, false);
+
+        assertEquals(Arrays.asList("a", "bb", "ccc"), names(index, null, "", 10));
+        assertEquals(Arrays.asList("a", "bb", "ccc"), names(index, null, null, 10));
+    }
+
+    @Test
+    void unqualifiedIndexIgnoresQualifier() {
+        PrefixIndex index = PrefixIndex.build(Arrays.asList("alice", "bob"), Arrays.asList("%", "10.0.0.1"), false);
+
+        assertEquals(Collections.singletonList("alice"), names(index, null, "a", 10));
+        assertEquals(Collections.singletonList("bob"), names(index, "anything", "b", 10));
+        assertEquals("10.0.0.1", index.getQualifier(index.search(null, "b", 1).get(0)));
+    }
+
+    @Test
+    void qualifiedIndexRequiresQualifier() {
+        PrefixIndex index = PrefixIndex.build(Collections.singletonList("orders"), Collections.singletonList("sales"),
+                true);
+
+        assertTrue(index.search(null, "o", 10).isEmpty());
+        assertTrue(index.search("ods", "o", 10).isEmpty());
+    }
+
+    private static List<String> names(PrefixIndex index, String qualifier, String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        for (int match : index.search(qualifier, prefix, limit)) {
+            result.add(index.getName(match));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,186 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.exception.PermissionException;
+import org.authority.StarGuard2.model.Permission;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.User;
+import org.authority.StarGuard2.model.UserGrants;
+import org.authority.StarGuard2.model.UserIdentity;
+import org.authority.StarGuard2.repository.PermissionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 权限快照缓存的完整刷新与增量刷新：完整刷新记录的指纹应使随后的增量刷新只重新解析变化的用户
+ *
+ * @author System
+ * @version 1.0
+ */
+class PrivilegeSnapshotCacheTest {
+    private static final UserIdentity ALICE = new UserIdentity("alice", "%");
+    private static final UserIdentity BOB = new UserIdentity("bob", "%");
+
+    // 每个用户当前的 SHOW GRANTS 输出
+    private final Map<UserIdentity, List<String>> grants = new LinkedHashMap<>();
+    private PermissionRepository repository;
+    private PrivilegeSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        grants.put(ALICE, Collections.singletonList("GRANT SELECT ON TABLE db1.t1 TO USER 'alice'@'%'"));
+        grants.put(BOB, Collections.singletonList("GRANT SELECT ON TABLE db1.t2 TO USER 'bob'@'%'"));
+
+        repository = mock(PermissionRepository.class);
+        when(repository.getAllUserIdentities()).thenAnswer(invocation -> new ArrayList<>(grants.keySet()));
+        doAnswer(invocation -> {
+            List<UserIdentity> identities = invocation.getArgument(0);
+            Consumer<UserGrants> consumer = invocation.getArgument(1);
+            for (UserIdentity identity : identities) {
+                consumer.accept(new UserGrants(identity, grants.get(identity), null));
+            }
+            return null;
+        }).when(repository).forEachUserGrants(anyList(), any());
+        when(repository.parseUserGrants(any())).thenAnswer(invocation -> {
+            UserGrants userGrants = invocation.getArgument(0);
+            UserIdentity identity = userGrants.getIdentity();
+            User user = new User(identity.getUsername(), identity.getHost());
+            List<Permission> permissions = new ArrayList<>();
+            for (String statement : userGrants.getStatements()) {
+                permissions.add(new Permission(PermissionType.SELECT, statement.split(" ")[4]));
+            }
+            user.setPermissions(permissions);
+            return user;
+        });
+
+        cache = new PrivilegeSnapshotCache(repository, new UserIdentityRegistry(repository),
+                mock(ExecutorService.class), mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(cache, "incrementalEnabled", true);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 900L);
+    }
+
+    @Test
+    void incrementalRefreshAfterFullLoadReparsesNothing() {
+        PrivilegeSnapshot loaded = cache.refresh();
+
+        PrivilegeSnapshot afterIncremental = cache.refreshIncrementally();
+
+        assertSame(loaded, afterIncremental);
+        assertEquals(2, cache.getLastIncrementalCheckedUsers());
+        assertEquals(0, cache.getLastIncrementalReparsedUsers());
+        // 启用增量刷新时完整刷新同样逐用户读取 SHOW GRANTS，以便记录指纹
+        verify(repository, never()).getAllUsers();
+    }
+
+    @Test
+    void incrementalRefreshPublishesOnlyChangedUsers() {
+        cache.refresh();
+        grants.put(BOB, Arrays.asList("GRANT SELECT ON TABLE db1.t2 TO USER 'bob'@'%'",
+                "GRANT SELECT ON TABLE db1.t3 TO USER 'bob'@'%'"));
+
+        PrivilegeSnapshot next = cache.refreshIncrementally();
+
+        assertEquals(1, cache.getLastIncrementalReparsedUsers());
+        assertEquals(1, next.getChanges().size());
+        assertEquals(UserChange.Type.UPDATED, next.getChanges().get(0).getType());
+        assertEquals(BOB, next.getChanges().get(0).getIdentity());
+        assertEquals(2, next.getUser(BOB).getPermissions().size());
+    }
+
+    @Test
+    void refreshesThroughBulkLoaderWhenSupported() {
+        when(repository.forEachUserInBulk(anyList(), any())).thenAnswer(invocation -> {
+            List<UserIdentity> identities = invocation.getArgument(0);
+            BiConsumer<User, Long> consumer = invocation.getArgument(1);
+            for (UserIdentity identity : identities) {
+                UserGrants userGrants = new UserGrants(identity, grants.get(identity), null);
+                consumer.accept(repository.parseUserGrants(userGrants), userGrants.fingerprint());
+            }
+            return true;
+        });
+        cache.refresh();
+        grants.put(BOB, Arrays.asList("GRANT SELECT ON TABLE db1.t2 TO USER 'bob'@'%'",
+                "GRANT SELECT ON TABLE db1.t3 TO USER 'bob'@'%'"));
+
+        PrivilegeSnapshot next = cache.refreshIncrementally();
+
+        assertEquals(2, cache.getLastIncrementalCheckedUsers());
+        assertEquals(1, cache.getLastIncrementalReparsedUsers());
+        assertEquals(2, next.getUser(BOB).getPermissions().size());
+        // 系统视图可用时不逐用户执行 SHOW GRANTS
+        verify(repository, never()).forEachUserGrants(anyList(), any());
+    }
+
+    @Test
+    void keepsInvalidatedUserWhenReloadFailsButUserExists() {
+        PrivilegeSnapshot loaded = cache.refresh();
+        when(repository.getUserPermissions("alice", "%")).thenThrow(new PermissionException("获取用户权限失败"));
+        cache.invalidateUser("alice", "%");
+
+        PrivilegeSnapshot current = cache.getSnapshot();
+
+        assertSame(loaded, current);
+        assertTrue(current.contains(ALICE));
+        // 仍处于失效状态，下次读取时重试
+        cache.getSnapshot();
+        verify(repository, times(2)).getUserPermissions("alice", "%");
+    }
+
+    @Test
+    void removesInvalidatedUserConfirmedDeleted() {
+        cache.refresh();
+        when(repository.getUserPermissions("alice", "%")).thenThrow(new PermissionException("获取用户权限失败"));
+        cache.invalidateUser("alice", "%");
+        grants.remove(ALICE);
+
+        PrivilegeSnapshot current = cache.getSnapshot();
+
+        assertFalse(current.contains(ALICE));
+        assertEquals(UserChange.Type.REMOVED, current.getChanges().get(0).getType());
+    }
+
+    @Test
+    void putUsersPublishesOneVersion() {
+        PrivilegeSnapshot loaded = cache.refresh();
+        UserIdentity carol = new UserIdentity("carol", "%");
+        User alice = new User("alice", "%");
+        alice.setPermissions(Collections.singletonList(new Permission(PermissionType.INSERT, "TABLE db1.t1")));
+        User newUser = new User("carol", "%");
+        newUser.setPermissions(new ArrayList<>());
+
+        cache.putUsers(Arrays.asList(alice, newUser));
+
+        PrivilegeSnapshot next = cache.peek();
+        assertEquals(loaded.getVersion() + 1, next.getVersion());
+        assertEquals(Arrays.asList(ALICE, BOB, carol), next.getIdentities());
+        assertEquals(2, next.getChanges().size());
+        assertEquals(UserChange.Type.UPDATED, next.getChanges().get(0).getType());
+        assertEquals(UserChange.Type.ADDED, next.getChanges().get(1).getType());
+        assertEquals(PermissionType.INSERT, next.getUser(ALICE).getPermissions().get(0).getPermissionType());
+        assertEquals(1, next.getUser(BOB).getPermissions().size());
+    }
+}
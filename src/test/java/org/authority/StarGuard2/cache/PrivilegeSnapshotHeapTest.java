@@ -0,0 +1,120 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.model.Permission;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.User;
+import org.authority.StarGuard2.model.UserIdentity;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 校验紧凑快照对授权对象描述的去重，并比较其与 User/Permission 对象模型在GC之后实际保留的堆内存
+ * 对象模型按解析 SHOW GRANTS 的结果构造：每个Permission持有独立的对象描述字符串
+ * 堆内存测量依赖GC时机，标记为 benchmark，默认构建不运行（mvn test -Pbenchmark）
+ *
+ * @author System
+ * @version 1.0
+ */
+class PrivilegeSnapshotHeapTest {
+    private static final Logger logger = LoggerFactory.getLogger(PrivilegeSnapshotHeapTest.class);
+    private static final int USERS = 2000;
+    private static final int GRANTS_PER_USER = 100;
+    private static final int DATABASES = 500;
+    private static final PermissionType[] TYPES = {
+            PermissionType.SELECT, PermissionType.INSERT, PermissionType.ALTER, PermissionType.DROP
+    };
+
+    @Test
+    void compactSnapshotStoresEachDistinctStringOnce() {
+        List<User> users = generateUsers();
+        Set<String> objects = new HashSet<>();
+        Set<String> hosts = new HashSet<>();
+        for (User user : users) {
+            hosts.add(user.getHost());
+            for (Permission permission : user.getPermissions()) {
+                objects.add(permission.getDatabaseName());
+            }
+        }
+
+        PrivilegeSnapshot snapshot = PrivilegeSnapshot.of(1, System.currentTimeMillis(), users);
+
+        assertEquals(USERS, snapshot.size());
+        assertEquals((long) USERS * GRANTS_PER_USER, snapshot.getGrantCount());
+        assertEquals(objects.size(), snapshot.getObjectDictionarySize());
+        assertEquals(hosts.size(), snapshot.getHostDictionarySize());
+        assertTrue(snapshot.getObjectDictionarySize() * 10L < snapshot.getGrantCount());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void compactSnapshotRetainsLessThanHalfOfObjectModel() {
+        long baseline = usedHeapAfterGc();
+        Map<UserIdentity, User> objectModel = new LinkedHashMap<>();
+        for (User user : generateUsers()) {
+            objectModel.put(new UserIdentity(user.getUsername(), user.getHost()), user);
+        }
+        long objectModelBytes = usedHeapAfterGc() - baseline;
+
+        PrivilegeSnapshot snapshot = PrivilegeSnapshot.of(1, System.currentTimeMillis(),
+                new ArrayList<>(objectModel.values()));
+        objectModel = null;
+        long compactBytes = usedHeapAfterGc() - baseline;
+
+        logger.info("{}个用户 x {}条授权: 对象模型 {} KB，紧凑快照 {} KB",
+                USERS, GRANTS_PER_USER, objectModelBytes / 1024, compactBytes / 1024);
+        assertEquals(USERS, snapshot.size());
+        assertEquals((long) USERS * GRANTS_PER_USER, snapshot.getGrantCount());
+        assertTrue(compactBytes * 2 < objectModelBytes,
+                "紧凑快照 " + compactBytes + " 字节，对象模型 " + objectModelBytes + " 字节");
+    }
+
+    private static List<User> generateUsers() {
+        List<User> users = new ArrayList<>(USERS);
+        for (int u = 0; u < USERS; u++) {
+            User user = new User("user_" + u, u % 2 == 0 ? "%" : "10.0.0." + (u % 250));
+            List<Permission> permissions = new ArrayList<>();
+            for (int g = 0; g < GRANTS_PER_USER; g++) {
+                PermissionType type = TYPES[g % TYPES.length];
+                // 与解析结果一样，每条授权都是新的字符串对象
+                String object = "db_" + ((u * 7 + g / TYPES.length) % DATABASES) + ".table_" + (g / TYPES.length);
+                permissions.add(new Permission(type, new String(object)));
+            }
+            user.setPermissions(permissions);
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // 反复GC直到占用不再下降
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long current = runtime.totalMemory() - runtime.freeMemory();
+            if (current >= used) {
+                return Math.min(used, current);
+            }
+            used = current;
+        }
+        return used;
+    }
+}
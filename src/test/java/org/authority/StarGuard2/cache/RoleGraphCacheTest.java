@@ -0,0 +1,139 @@
+package org.authority.StarGuard2.cache;
+
+import org.authority.StarGuard2.model.EffectivePermission;
+import org.authority.StarGuard2.model.Permission;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.repository.PermissionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 角色图缓存：角色定义变化时只失效该角色及继承它的角色的闭包，角色继承成环时闭包计算能够结束且结果完整
+ *
+ * @author System
+ * @version 1.0
+ */
+class RoleGraphCacheTest {
+    // 模拟的集群角色定义：角色名 -> 权限（含角色授权）
+    private final Map<String, List<Permission>> roles = new LinkedHashMap<>();
+    private RoleGraphCache cache;
+
+    @BeforeEach
+    void setUp() {
+        define("base", select("TABLE db.base"));
+        define("mid", select("TABLE db.mid"), inherits("base"));
+        define("top", inherits("mid"));
+        define("other", select("TABLE db.other"));
+
+        PermissionRepository repository = mock(PermissionRepository.class);
+        when(repository.getAllRolePermissions()).thenAnswer(invocation -> new LinkedHashMap<>(roles));
+        when(repository.getRolePermissions(anyString())).thenAnswer(invocation ->
+                roles.getOrDefault(invocation.<String>getArgument(0), new ArrayList<>()));
+        cache = new RoleGraphCache(repository);
+    }
+
+    @Test
+    void closureFollowsInheritedRoles() {
+        List<EffectivePermission> closure = cache.getClosure("top");
+
+        assertEquals(new TreeSet<>(Arrays.asList("TABLE db.base", "TABLE db.mid")), objects(closure));
+        for (EffectivePermission permission : closure) {
+            if (permission.getPermission().getDatabaseName().equals("TABLE db.base")) {
+                assertEquals(Arrays.asList("top", "mid", "base"), permission.getRolePath());
+            }
+        }
+    }
+
+    @Test
+    void refreshRoleInvalidatesOnlyRoleAndDependents() {
+        List<EffectivePermission> top = cache.getClosure("top");
+        List<EffectivePermission> other = cache.getClosure("other");
+        long version = cache.getVersion();
+
+        define("base", select("TABLE db.base"), select("TABLE db.extra"));
+
+        assertEquals(3, cache.refreshRole("base"));
+        assertTrue(cache.getVersion() > version);
+        assertSame(other, cache.getClosure("other"));
+        assertNotSame(top, cache.getClosure("top"));
+        assertTrue(objects(cache.getClosure("top")).contains("TABLE db.extra"));
+    }
+
+    @Test
+    void refreshRoleWithoutChangeKeepsClosures() {
+        List<EffectivePermission> top = cache.getClosure("top");
+        long version = cache.getVersion();
+
+        assertEquals(0, cache.refreshRole("base"));
+        assertEquals(version, cache.getVersion());
+        assertSame(top, cache.getClosure("top"));
+    }
+
+    @Test
+    void reloadInvalidatesChangedAndRemovedRolesOnly() {
+        List<EffectivePermission> base = cache.getClosure("base");
+        List<EffectivePermission> top = cache.getClosure("top");
+        List<EffectivePermission> other = cache.getClosure("other");
+
+        define("mid", select("TABLE db.mid"));
+        roles.remove("other");
+        cache.reload();
+
+        assertSame(base, cache.getClosure("base"));
+        assertNotSame(top, cache.getClosure("top"));
+        assertEquals(new TreeSet<>(Arrays.asList("TABLE db.mid")), objects(cache.getClosure("top")));
+        assertNotSame(other, cache.getClosure("other"));
+        assertTrue(cache.getClosure("other").isEmpty());
+        assertEquals(new TreeSet<>(Arrays.asList("base", "mid", "top")), cache.getRoleNames());
+    }
+
+    @Test
+    void cyclicInheritanceTerminatesWithCompleteClosures() {
+        define("a", select("TABLE db.a"), inherits("b"));
+        define("b", select("TABLE db.b"), inherits("c"));
+        define("c", select("TABLE db.c"), inherits("a"));
+        define("self", select("TABLE db.self"), inherits("self"));
+
+        TreeSet<String> all = new TreeSet<>(Arrays.asList("TABLE db.a", "TABLE db.b", "TABLE db.c"));
+        assertEquals(all, objects(cache.getClosure("a")));
+        // 计算a时经过的b、c不能缓存缺少回边权限的闭包
+        assertEquals(all, objects(cache.getClosure("b")));
+        assertEquals(all, objects(cache.getClosure("c")));
+        assertEquals(new TreeSet<>(Arrays.asList("TABLE db.self")), objects(cache.getClosure("self")));
+    }
+
+    private void define(String role, Permission... permissions) {
+        roles.put(role, new ArrayList<>(Arrays.asList(permissions)));
+    }
+
+    private static Permission select(String object) {
+        return new Permission(PermissionType.SELECT, object);
+    }
+
+    private static Permission inherits(String role) {
+        return new Permission(PermissionType.ROLE_GRANT, "ROLE: " + role);
+    }
+
+    private static TreeSet<String> objects(List<EffectivePermission> closure) {
+        TreeSet<String> result = new TreeSet<>();
+        for (EffectivePermission permission : closure) {
+            result.add(permission.getPermission().getDatabaseName());
+        }
+        return result;
+    }
+}
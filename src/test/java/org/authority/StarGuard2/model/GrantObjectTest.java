@@ -0,0 +1,85 @@
+package org.authority.StarGuard2.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 授权对象的解析与覆盖关系：覆盖只存在于同一类型之间，数据库级授权不覆盖其中的表、视图和物化视图
+ *
+ * @author System
+ * @version 1.0
+ */
+class GrantObjectTest {
+
+    @Test
+    void parsesAllTablesInDatabase() {
+        assertEquals(new GrantObject(GrantObjectType.TABLE, "db", null), GrantObject.parse("ALL TABLES IN DATABASE `db`"));
+        assertEquals(new GrantObject(GrantObjectType.TABLE, null, null), GrantObject.parse("ALL TABLES IN ALL DATABASES"));
+        assertEquals(new GrantObject(GrantObjectType.DATABASE, "db", null), GrantObject.parse("db"));
+    }
+
+    @Test
+    void objectWithoutDatabaseIsNotWildcard() {
+        assertEquals(GrantObjectType.OTHER, GrantObject.parse("TABLE orders").getType());
+        assertEquals(GrantObjectType.OTHER, GrantObject.parse("VIEW `v1`").getType());
+        assertEquals(GrantObjectType.OTHER, GrantObject.parse("MATERIALIZED VIEW mv").getType());
+    }
+
+    @Test
+    void parsesLowerCaseRegardlessOfDefaultLocale() {
+        Locale original = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertEquals(new GrantObject(GrantObjectType.MATERIALIZED_VIEW, "db", "mv"),
+                    GrantObject.parse("materialized view db.mv"));
+            assertEquals(new GrantObject(GrantObjectType.VIEW, "db", null), GrantObject.parse("all views in database db"));
+            assertEquals(GrantObjectType.MATERIALIZED_VIEW, GrantObjectType.fromString("materialized view"));
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    @Test
+    void allDatabasesCoversDatabase() {
+        assertTrue(GrantObject.parse("ALL DATABASES").covers(GrantObject.parse("DATABASE db")));
+        assertFalse(GrantObject.parse("DATABASE db").covers(GrantObject.parse("DATABASE other")));
+    }
+
+    @Test
+    void allTablesInAllDatabasesCoversAllTablesInDatabase() {
+        assertTrue(GrantObject.parse("ALL TABLES IN ALL DATABASES").covers(GrantObject.parse("ALL TABLES IN DATABASE db")));
+        assertTrue(GrantObject.parse("ALL TABLES IN ALL DATABASES").covers(GrantObject.parse("TABLE db.t")));
+    }
+
+    @Test
+    void allTablesInDatabaseCoversTable() {
+        assertTrue(GrantObject.parse("ALL TABLES IN DATABASE db").covers(GrantObject.parse("TABLE db.t")));
+        assertFalse(GrantObject.parse("ALL TABLES IN DATABASE db").covers(GrantObject.parse("TABLE other.t")));
+        assertFalse(GrantObject.parse("ALL TABLES IN DATABASE db").covers(GrantObject.parse("VIEW db.v")));
+    }
+
+    @Test
+    void databaseDoesNotCoverObjectsInIt() {
+        GrantObject database = GrantObject.parse("DATABASE db");
+        assertFalse(database.covers(GrantObject.parse("TABLE db.t")));
+        assertFalse(database.covers(GrantObject.parse("ALL TABLES IN DATABASE db")));
+        assertFalse(database.covers(GrantObject.parse("VIEW db.v")));
+        assertFalse(database.covers(GrantObject.parse("MATERIALIZED VIEW db.mv")));
+        assertFalse(GrantObject.parse("ALL DATABASES").covers(GrantObject.parse("TABLE db.t")));
+    }
+
+    @Test
+    void listsSameTypeCoveringObjects() {
+        assertEquals(Arrays.asList(GrantObject.parse("ALL TABLES IN ALL DATABASES"),
+                GrantObject.parse("ALL TABLES IN DATABASE db"), GrantObject.parse("TABLE db.t")),
+                GrantObject.parse("TABLE db.t").getCoveringObjects());
+        assertEquals(Arrays.asList(GrantObject.parse("ALL DATABASES"), GrantObject.parse("DATABASE db")),
+                GrantObject.parse("DATABASE db").getCoveringObjects());
+    }
+}
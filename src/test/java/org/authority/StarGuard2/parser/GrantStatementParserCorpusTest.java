@@ -0,0 +1,117 @@
+package org.authority.StarGuard2.parser;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * 使用记录的 SHOW GRANTS 输出语料（parser/grant-corpus.txt）校验GRANT语句解析器，并测量解析吞吐量
+ * 吞吐量测量标记为 benchmark，默认构建不运行（mvn test -Pbenchmark）
+ *
+ * @author System
+ * @version 1.0
+ */
+class GrantStatementParserCorpusTest {
+    private static final Logger logger = LoggerFactory.getLogger(GrantStatementParserCorpusTest.class);
+    private static final String CORPUS_LOCATION = "/parser/grant-corpus.txt";
+    private static final String SEPARATOR = " => ";
+    private static final String EXPECT_NULL = "NULL";
+    private static final String EXPECT_ERROR = "ERROR";
+    private static final int BENCHMARK_ITERATIONS = 2000;
+
+    private final GrantStatementParser parser = new GrantStatementParser();
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("corpus")
+    void parsesCorpusStatement(String statement, String expected) {
+        assertEquals(expected, describe(statement));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void measuresThroughput() throws IOException {
+        List<String> statements = new ArrayList<>();
+        for (String[] entry : loadCorpus()) {
+            statements.add(entry[0]);
+        }
+        assertFalse(statements.isEmpty());
+        // 先遍历一次语料预热，再计时
+        parseAll(statements);
+        long start = System.nanoTime();
+        long parsed = 0;
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            parsed += parseAll(statements);
+        }
+        long elapsedNanos = Math.max(1L, System.nanoTime() - start);
+        logger.info("GRANT解析: {}条语句耗时 {} ms，{} 条/秒，{} ns/条",
+                parsed, elapsedNanos / 1_000_000L, parsed * 1_000_000_000L / elapsedNanos, elapsedNanos / parsed);
+    }
+
+    static Stream<Arguments> corpus() throws IOException {
+        return loadCorpus().stream().map(entry -> Arguments.of(entry[0], entry[1]));
+    }
+
+    /**
+     * 解析一条语句并返回与语料期望结果可比较的文本
+     */
+    private String describe(String statement) {
+        try {
+            ParsedGrant grant = parser.parse(statement);
+            return grant == null ? EXPECT_NULL : grant.describe();
+        } catch (IllegalArgumentException e) {
+            return EXPECT_ERROR;
+        }
+    }
+
+    private int parseAll(List<String> statements) {
+        for (String statement : statements) {
+            try {
+                parser.parse(statement);
+            } catch (IllegalArgumentException e) {
+                // 格式错误的语句同样计入吞吐量
+            }
+        }
+        return statements.size();
+    }
+
+    /**
+     * 加载语料，忽略空行和以 # 开头的注释行
+     */
+    private static List<String[]> loadCorpus() throws IOException {
+        List<String[]> entries = new ArrayList<>();
+        InputStream in = GrantStatementParserCorpusTest.class.getResourceAsStream(CORPUS_LOCATION);
+        assertNotNull(in, "找不到语料: " + CORPUS_LOCATION);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int separator = line.lastIndexOf(SEPARATOR);
+                if (separator < 0) {
+                    throw new IllegalStateException("格式不正确的语料行: " + line);
+                }
+                entries.add(new String[] {line.substring(0, separator),
+                        line.substring(separator + SEPARATOR.length()).trim()});
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,108 @@
+package org.authority.StarGuard2.planner;
+
+import org.authority.StarGuard2.model.Permission;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.User;
+import org.authority.StarGuard2.model.UserIdentity;
+import org.authority.StarGuard2.parser.GrantStatementParser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GRANT/REVOKE语句规划器：按对象合并权限，并与从 SHOW GRANTS 输出解析出的当前权限做差异
+ *
+ * @author System
+ * @version 1.0
+ */
+class GrantStatementPlannerTest {
+    private static final UserIdentity ALICE = new UserIdentity("alice", "%");
+
+    private final GrantStatementParser parser = new GrantStatementParser();
+
+    @Test
+    void mergesPrivilegesOnSameObject() {
+        GrantStatementPlanner planner = new GrantStatementPlanner()
+                .grant(ALICE, PermissionType.SELECT, "TABLE `db1`.`t1`", false)
+                .grant(ALICE, PermissionType.INSERT, "TABLE `db1`.`t1`", false)
+                .grant(ALICE, PermissionType.SELECT, "TABLE `db1`.`t2`", false)
+                .grant(ALICE, PermissionType.SELECT, "TABLE `db1`.`t1`", true)
+                .revoke(ALICE, PermissionType.DROP, "TABLE `db1`.`t1`");
+
+        List<PlannedStatement> statements = planner.plan();
+
+        assertEquals(4, statements.size());
+        assertEquals("GRANT SELECT, INSERT ON TABLE `db1`.`t1` TO 'alice'@'%'", statements.get(0).getSql());
+        assertEquals(2, statements.get(0).getRequestedCount());
+        assertEquals("GRANT SELECT ON TABLE `db1`.`t2` TO 'alice'@'%'", statements.get(1).getSql());
+        assertEquals("GRANT SELECT ON TABLE `db1`.`t1` TO 'alice'@'%' WITH GRANT OPTION", statements.get(2).getSql());
+        assertEquals("REVOKE DROP ON TABLE `db1`.`t1` FROM 'alice'@'%'", statements.get(3).getSql());
+        assertEquals(5, planner.getRequestedCount());
+    }
+
+    @Test
+    void keepsOnlyAllPrivilegesAndMergesRoles() {
+        List<PlannedStatement> statements = new GrantStatementPlanner()
+                .grant(ALICE, PermissionType.SELECT, "DATABASE `db1`", false)
+                .grant(ALICE, PermissionType.ALL_PRIVILEGES, "DATABASE `db1`", false)
+                .grant(ALICE, PermissionType.ROLE_GRANT, "analyst", false)
+                .grant(ALICE, PermissionType.ROLE_GRANT, "etl", false)
+                .plan();
+
+        assertEquals(2, statements.size());
+        assertEquals("GRANT ALL PRIVILEGES ON DATABASE `db1` TO 'alice'@'%'", statements.get(0).getSql());
+        assertEquals("GRANT 'analyst', 'etl' TO 'alice'@'%'", statements.get(1).getSql());
+    }
+
+    @Test
+    void revokesAllTablesInDatabaseHeldByUser() {
+        GrantStatementPlanner planner = plannerFor("GRANT SELECT ON ALL TABLES IN DATABASE db1 TO USER 'alice'@'%'");
+        planner.revoke(ALICE, PermissionType.SELECT, GrantStatementPlanner.objectClause("TABLE", null, "db1", null, false));
+
+        assertEquals(1, planner.plan().size());
+        assertEquals(0, planner.getSkipped().size());
+    }
+
+    @Test
+    void databaseGrantDoesNotCoverObjectsInIt() {
+        GrantStatementPlanner planner = plannerFor("GRANT ALL PRIVILEGES ON DATABASE db2 TO USER 'alice'@'%'");
+        planner.grant(ALICE, PermissionType.DROP, "ALL TABLES IN DATABASE `db2`", false)
+                .grant(ALICE, PermissionType.SELECT, "VIEW `db2`.`v1`", false)
+                .grant(ALICE, PermissionType.DROP, "DATABASE `db2`", false);
+
+        assertEquals(2, planner.plan().size());
+        assertEquals(1, planner.getSkipped().size());
+        assertEquals("DATABASE `db2`", planner.getSkipped().get(0).getObject());
+    }
+
+    @Test
+    void skipsGrantCoveredBySameTypeScope() {
+        GrantStatementPlanner planner = plannerFor("GRANT SELECT ON ALL TABLES IN ALL DATABASES TO USER 'alice'@'%'");
+        planner.grant(ALICE, PermissionType.SELECT, "ALL TABLES IN DATABASE `db1`", false)
+                .grant(ALICE, PermissionType.SELECT, "TABLE `db1`.`t1`", false)
+                .grant(ALICE, PermissionType.INSERT, "TABLE `db1`.`t1`", false);
+
+        assertEquals(1, planner.plan().size());
+        assertEquals(2, planner.getSkipped().size());
+        assertTrue(planner.getSkipped().get(1).getReason().contains("ALL TABLES IN ALL DATABASES"));
+    }
+
+    /**
+     * 创建以 SHOW GRANTS 输出作为alice当前权限的规划器
+     */
+    private GrantStatementPlanner plannerFor(String... showGrants) {
+        List<Permission> permissions = new ArrayList<>();
+        for (String statement : Arrays.asList(showGrants)) {
+            permissions.addAll(parser.parse(statement).toPermissions());
+        }
+        User user = new User(ALICE.getUsername(), ALICE.getHost());
+        user.setPermissions(permissions);
+        GrantState state = GrantState.of(user);
+        return new GrantStatementPlanner(identity -> identity.equals(ALICE) ? state : null);
+    }
+}
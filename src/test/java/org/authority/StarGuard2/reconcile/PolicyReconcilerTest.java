@@ -0,0 +1,201 @@
+package org.authority.StarGuard2.reconcile;
+
+import org.authority.StarGuard2.cache.PrivilegeSnapshot;
+import org.authority.StarGuard2.cache.PrivilegeSnapshotCache;
+import org.authority.StarGuard2.cache.UserIdentityRegistry;
+import org.authority.StarGuard2.exception.PermissionException;
+import org.authority.StarGuard2.model.Permission;
+import org.authority.StarGuard2.model.User;
+import org.authority.StarGuard2.model.UserIdentity;
+import org.authority.StarGuard2.parser.GrantStatementParser;
+import org.authority.StarGuard2.planner.PlannedStatement;
+import org.authority.StarGuard2.repository.PermissionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 权限策略同步：JSON/YAML策略文件的解析，以及期望状态与快照之间的差异计算
+ *
+ * @author System
+ * @version 1.0
+ */
+class PolicyReconcilerTest {
+    private static final UserIdentity ALICE = new UserIdentity("alice", "%");
+    private static final UserIdentity BOB = new UserIdentity("bob", "%");
+
+    private static final String YAML_POLICY = "users:\n"
+            + "  - username: alice\n"
+            + "    roles: [analyst, etl]\n"
+            + "    grants:\n"
+            + "      - privileges: [select, INSERT]\n"
+            + "        object: DATABASE sales\n"
+            + "      - privileges: [SELECT]\n"
+            + "        object: ALL TABLES IN DATABASE ods\n";
+
+    private static final String JSON_POLICY = "{\"users\": [{\"username\": \"alice\", \"roles\": [\"analyst\", \"etl\"],"
+            + " \"grants\": [{\"privileges\": [\"select\", \"INSERT\"], \"object\": \"DATABASE sales\"},"
+            + " {\"privileges\": [\"SELECT\"], \"object\": \"ALL TABLES IN DATABASE ods\"}]}]}";
+
+    // 与应用相同的ObjectMapper配置，默认忽略未知字段
+    private final PolicyReconciler reconciler = new PolicyReconciler(new Jackson2ObjectMapperBuilder().build());
+    private PrivilegeSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        GrantStatementParser parser = new GrantStatementParser();
+        User alice = user(parser, ALICE,
+                "GRANT SELECT ON DATABASE sales TO USER 'alice'@'%'",
+                "GRANT DROP ON TABLE sales.t1 TO USER 'alice'@'%'",
+                "GRANT SELECT ON ALL TABLES IN DATABASE ods TO USER 'alice'@'%' WITH GRANT OPTION",
+                "GRANT 'analyst' TO USER 'alice'@'%'");
+        User bob = user(parser, BOB, "GRANT SELECT ON DATABASE sales TO USER 'bob'@'%'");
+
+        PermissionRepository repository = mock(PermissionRepository.class);
+        when(repository.getAllUsers()).thenReturn(Arrays.asList(alice, bob));
+        PrivilegeSnapshotCache cache = new PrivilegeSnapshotCache(repository, new UserIdentityRegistry(repository),
+                mock(ExecutorService.class), mock(ApplicationEventPublisher.class));
+        snapshot = cache.refresh();
+    }
+
+    @Test
+    void parsesJsonAndYamlAlike() {
+        DesiredState fromYaml = reconciler.parse(YAML_POLICY);
+        DesiredState fromJson = reconciler.parse(JSON_POLICY);
+
+        for (DesiredState state : Arrays.asList(fromYaml, fromJson)) {
+            assertEquals(1, state.getUsers().size());
+            DesiredUser alice = state.getUsers().get(0);
+            assertEquals("alice", alice.getUsername());
+            assertNull(alice.getHost());
+            assertEquals(Arrays.asList("analyst", "etl"), alice.getRoles());
+            assertEquals(2, alice.getGrants().size());
+            assertEquals("DATABASE sales", alice.getGrants().get(0).getObject());
+            assertEquals(Arrays.asList("select", "INSERT"), alice.getGrants().get(0).getPrivileges());
+            assertFalse(alice.getGrants().get(1).isWithGrantOption());
+        }
+    }
+
+    @Test
+    void rejectsEmptyOrMalformedPolicy() {
+        assertEquals(400, assertThrows(PermissionException.class, () -> reconciler.parse(" ")).getCode());
+        assertEquals(400, assertThrows(PermissionException.class, () -> reconciler.parse("{\"users\": [")).getCode());
+        assertEquals(400, assertThrows(PermissionException.class, () -> reconciler.parse("users: [a: b")).getCode());
+    }
+
+    @Test
+    void rejectsMisspelledKeys() {
+        String yaml = "users:\n"
+                + "  - username: alice\n"
+                + "    role: [analyst]\n";
+        String json = "{\"users\": [{\"username\": \"alice\", \"grants\": [{\"privilege\": [\"SELECT\"],"
+                + " \"object\": \"DATABASE sales\"}]}]}";
+
+        assertEquals(400, assertThrows(PermissionException.class, () -> reconciler.parse(yaml)).getCode());
+        assertEquals(400, assertThrows(PermissionException.class, () -> reconciler.parse(json)).getCode());
+    }
+
+    @Test
+    void rejectsObjectWithoutDatabase() {
+        String policy = "users:\n"
+                + "  - username: bob\n"
+                + "    grants:\n"
+                + "      - privileges: [SELECT]\n"
+                + "        object: DATABASE sales\n"
+                + "      - privileges: [SELECT]\n"
+                + "        object: TABLE orders\n"
+                + "      - privileges: [SELECT]\n"
+                + "        object: VIEW v1\n";
+
+        PermissionException e = assertThrows(PermissionException.class,
+                () -> reconciler.plan(reconciler.parse(policy), snapshot));
+
+        assertEquals(400, e.getCode());
+        assertTrue(e.getMessage().contains("共2个错误"), e.getMessage());
+        assertTrue(e.getMessage().contains("TABLE orders"), e.getMessage());
+    }
+
+    @Test
+    void plansMinimalChangesForListedUsers() {
+        ReconcilePlan plan = reconciler.plan(reconciler.parse(YAML_POLICY), snapshot);
+
+        assertEquals(1, plan.getChanges().size());
+        assertFalse(plan.getChanges().containsKey(BOB));
+        // 缺少INSERT和etl角色；多出DROP；ods上的SELECT需要去掉GRANT OPTION，先撤销再重新授予
+        assertEquals(3, plan.getGrantCount());
+        assertEquals(2, plan.getRevokeCount());
+        Set<String> sql = new HashSet<>();
+        for (PlannedStatement statement : plan.getChanges().get(ALICE).plan()) {
+            sql.add(statement.getSql());
+        }
+        assertEquals(new HashSet<>(Arrays.asList(
+                "REVOKE DROP ON TABLE `sales`.`t1` FROM 'alice'@'%'",
+                "REVOKE SELECT ON ALL TABLES IN DATABASE `ods` FROM 'alice'@'%'",
+                "GRANT 'etl' TO 'alice'@'%'",
+                "GRANT INSERT ON DATABASE `sales` TO 'alice'@'%'",
+                "GRANT SELECT ON ALL TABLES IN DATABASE `ods` TO 'alice'@'%'")), sql);
+    }
+
+    @Test
+    void plansNothingWhenUserAlreadyMatches() {
+        String policy = "users:\n"
+                + "  - username: bob\n"
+                + "    host: \"%\"\n"
+                + "    grants:\n"
+                + "      - privileges: [SELECT]\n"
+                + "        object: DATABASE sales\n";
+
+        ReconcilePlan plan = reconciler.plan(reconciler.parse(policy), snapshot);
+
+        assertTrue(plan.getChanges().isEmpty());
+        assertEquals(0, plan.getGrantCount());
+        assertEquals(0, plan.getRevokeCount());
+    }
+
+    @Test
+    void reportsAllInvalidEntries() {
+        String policy = "users:\n"
+                + "  - username: carol\n"
+                + "  - username: alice\n"
+                + "    grants:\n"
+                + "      - privileges: [FLY]\n"
+                + "        object: TABLE sales.t1\n"
+                + "      - privileges: [SELECT]\n"
+                + "        object: something odd\n";
+
+        PermissionException e = assertThrows(PermissionException.class,
+                () -> reconciler.plan(reconciler.parse(policy), snapshot));
+
+        assertEquals(400, e.getCode());
+        assertTrue(e.getMessage().contains("共3个错误"), e.getMessage());
+    }
+
+    /**
+     * 用 SHOW GRANTS 输出构造用户
+     */
+    private static User user(GrantStatementParser parser, UserIdentity identity, String... showGrants) {
+        List<Permission> permissions = new ArrayList<>();
+        for (String statement : showGrants) {
+            permissions.addAll(parser.parse(statement).toPermissions());
+        }
+        User user = new User(identity.getUsername(), identity.getHost());
+        user.setPermissions(permissions);
+        return user;
+    }
+}
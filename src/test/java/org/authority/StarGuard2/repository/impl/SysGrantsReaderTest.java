@@ -0,0 +1,197 @@
+package org.authority.StarGuard2.repository.impl;
+
+import org.authority.StarGuard2.model.Permission;
+import org.authority.StarGuard2.model.PermissionType;
+import org.authority.StarGuard2.model.UserIdentity;
+import org.authority.StarGuard2.parser.GrantStatementParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 系统视图记录到权限模型的转换：结果必须与解析相同授权的 SHOW GRANTS 语句得到的权限一致
+ *
+ * @author System
+ * @version 1.0
+ */
+class SysGrantsReaderTest {
+    private static final UserIdentity ALICE = new UserIdentity("alice", "%");
+    private static final UserIdentity ETL = new UserIdentity("etl", "10.0.0.%");
+    private static final String[] GRANT_COLUMNS = {
+            "GRANTEE", "OBJECT_CATALOG", "OBJECT_DATABASE", "OBJECT_NAME", "OBJECT_TYPE", "PRIVILEGE_TYPE", "IS_GRANTABLE"
+    };
+    private static final String[] EDGE_COLUMNS = {"FROM_ROLE", "TO_ROLE", "TO_USER"};
+
+    // 模拟的系统视图内容：视图名 -> 记录
+    private final Map<String, List<Map<String, String>>> views = new HashMap<>();
+    private final GrantStatementParser parser = new GrantStatementParser();
+    private SysGrantsReader reader;
+
+    @BeforeEach
+    void setUp() {
+        views.put("sys.grants_to_users", new ArrayList<>());
+        views.put("sys.role_edges", new ArrayList<>());
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            RowCallbackHandler handler = invocation.getArgument(1);
+            String view = sql.substring(sql.indexOf("FROM ") + 5).trim();
+            for (Map<String, String> row : views.get(view)) {
+                handler.processRow(resultSet(row));
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        reader = new SysGrantsReader(jdbcTemplate);
+    }
+
+    @Test
+    void objectRowsMatchParsedShowGrants() {
+        grant("'alice'@'%'", "default_catalog", "db1", "orders", "TABLE", "SELECT,INSERT", "YES");
+        grant("'alice'@'%'", "default_catalog", "sales", null, "TABLE", "ALTER, DROP", "NO");
+        grant("'alice'@'%'", "default_catalog", null, null, "TABLE", "SELECT", "NO");
+        grant("'alice'@'%'", "default_catalog", "sales", null, "DATABASE", "CREATE TABLE,ALTER", "NO");
+        grant("'alice'@'%'", "default_catalog", null, null, "DATABASE", "DROP", "YES");
+        grant("'alice'@'%'", "default_catalog", "sales", "v_orders", "VIEW", "SELECT", "NO");
+        grant("'alice'@'%'", "default_catalog", "sales", null, "VIEW", "SELECT", "NO");
+        grant("'alice'@'%'", "default_catalog", "sales", "mv_daily", "MATERIALIZED VIEW", "SELECT,REFRESH", "NO");
+        grant("'alice'@'%'", "default_catalog", null, null, "MATERIALIZED VIEW", "SELECT", "NO");
+        grant("'alice'@'%'", "hive_catalog", null, null, "CATALOG", "USAGE", "NO");
+        grant("'alice'@'%'", null, null, null, "SYSTEM", "NODE,OPERATE", "NO");
+        grant("'etl'@'10.0.0.%'", "default_catalog", "ods", "events", "TABLE", "EXPORT", "NO");
+
+        Map<UserIdentity, List<Permission>> loaded = reader.loadUserPermissions();
+
+        assertEquals(parse(
+                "GRANT SELECT, INSERT ON TABLE db1.orders TO USER 'alice'@'%' WITH GRANT OPTION",
+                "GRANT ALTER, DROP ON ALL TABLES IN DATABASE sales TO USER 'alice'@'%'",
+                "GRANT SELECT ON ALL TABLES IN ALL DATABASES TO USER 'alice'@'%'",
+                "GRANT CREATE TABLE, ALTER ON DATABASE sales TO USER 'alice'@'%'",
+                "GRANT DROP ON ALL DATABASES TO USER 'alice'@'%' WITH GRANT OPTION",
+                "GRANT SELECT ON VIEW sales.v_orders TO USER 'alice'@'%'",
+                "GRANT SELECT ON ALL VIEWS IN DATABASE sales TO USER 'alice'@'%'",
+                "GRANT SELECT, REFRESH ON MATERIALIZED VIEW sales.mv_daily TO USER 'alice'@'%'",
+                "GRANT SELECT ON ALL MATERIALIZED VIEWS IN ALL DATABASES TO USER 'alice'@'%'",
+                "GRANT USAGE ON CATALOG hive_catalog TO USER 'alice'@'%'",
+                "GRANT NODE, OPERATE ON SYSTEM TO USER 'alice'@'%'"), describe(loaded.get(ALICE)));
+        assertEquals(parse("GRANT EXPORT ON TABLE ods.events TO USER 'etl'@'10.0.0.%'"), describe(loaded.get(ETL)));
+    }
+
+    @Test
+    void roleEdgesMatchParsedShowGrants() {
+        edge("'db_admin'", null, "'alice'@'%'");
+        edge("user_admin", null, "'alice'@'%'");
+        edge("'parent_role'", "'child_role'", null);
+
+        Map<UserIdentity, List<Permission>> loaded = reader.loadUserPermissions();
+
+        assertEquals(Collections.singleton(ALICE), loaded.keySet());
+        assertEquals(parse("GRANT 'db_admin', 'user_admin' TO USER 'alice'@'%'"), describe(loaded.get(ALICE)));
+    }
+
+    @Test
+    void objectTypesMatchRegardlessOfDefaultLocale() {
+        grant("'alice'@'%'", "default_catalog", "sales", "mv_daily", "materialized view", "select", "NO");
+        grant("'alice'@'%'", "default_catalog", "sales", null, "view", "select", "NO");
+
+        Locale original = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertEquals(parse(
+                    "GRANT SELECT ON MATERIALIZED VIEW sales.mv_daily TO USER 'alice'@'%'",
+                    "GRANT SELECT ON ALL VIEWS IN DATABASE sales TO USER 'alice'@'%'"),
+                    describe(reader.loadUserPermissions().get(ALICE)));
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    @Test
+    void fingerprintIgnoresRowOrderButTracksContent() {
+        grant("'alice'@'%'", "default_catalog", "db1", "orders", "TABLE", "SELECT", "NO");
+        grant("'alice'@'%'", "default_catalog", "db1", "items", "TABLE", "SELECT", "NO");
+        edge("'db_admin'", null, "'alice'@'%'");
+        long first = fingerprint();
+
+        Collections.reverse(views.get("sys.grants_to_users"));
+        assertEquals(first, fingerprint());
+
+        views.get("sys.grants_to_users").remove(0);
+        assertNotEquals(first, fingerprint());
+    }
+
+    private long fingerprint() {
+        Map<UserIdentity, Long> fingerprints = new HashMap<>();
+        reader.loadUserPermissions(fingerprints);
+        return fingerprints.get(ALICE);
+    }
+
+    private void grant(String... values) {
+        views.get("sys.grants_to_users").add(row(GRANT_COLUMNS, values));
+    }
+
+    private void edge(String... values) {
+        views.get("sys.role_edges").add(row(EDGE_COLUMNS, values));
+    }
+
+    private static Map<String, String> row(String[] columns, String[] values) {
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            row.put(columns[i], values[i]);
+        }
+        return row;
+    }
+
+    private static ResultSet resultSet(Map<String, String> row) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(anyString())).thenAnswer(invocation -> row.get(invocation.<String>getArgument(0)));
+        return rs;
+    }
+
+    /**
+     * 解析 SHOW GRANTS 语句并返回可比较的权限描述
+     */
+    private List<String> parse(String... statements) {
+        List<Permission> permissions = new ArrayList<>();
+        for (String statement : statements) {
+            permissions.addAll(parser.parse(statement).toPermissions());
+        }
+        return describe(permissions);
+    }
+
+    /**
+     * 将权限列表转换为排序后的描述，角色授权按角色逐个展开，与一条语句授予几个角色无关
+     */
+    private static List<String> describe(List<Permission> permissions) {
+        List<String> result = new ArrayList<>();
+        for (Permission permission : permissions) {
+            if (permission.getPermissionType() == PermissionType.ROLE_GRANT) {
+                for (String role : permission.getGrantedRoles()) {
+                    result.add("ROLE " + role);
+                }
+            } else {
+                result.add(permission.getPrivilegeName() + " ON " + permission.getDatabaseName()
+                        + (permission.isWithGrantOption() ? " WITH GRANT OPTION" : ""));
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+}